@@ -15,6 +15,7 @@ import GroupsList from './components/GroupsList';
 import CreateGroup from './components/CreateGroup';
 import GroupDetails from './components/GroupDetails';
 import GroupTransfer from './components/GroupTransfer';
+import Metrics from './components/Metrics';
 
 const theme = createTheme({
   direction: 'rtl',
@@ -148,6 +149,7 @@ function App() {
           <Route path="groups/create" element={<CreateGroup />} />
           <Route path="groups/:groupId" element={<GroupDetails />} />
           <Route path="groups/:groupId/transfer" element={<GroupTransfer />} />
+          <Route path="metrics" element={<Metrics />} />
         </Route>
       </Routes>
     </ThemeProvider>
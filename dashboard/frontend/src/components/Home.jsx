@@ -27,6 +27,7 @@ import PersonIcon from '@mui/icons-material/Person';
 import LogoutIcon from '@mui/icons-material/Logout';
 import DashboardIcon from '@mui/icons-material/Dashboard';
 import GroupsIcon from '@mui/icons-material/Groups';
+import InsightsIcon from '@mui/icons-material/Insights';
 import { authApi } from '../services/api';
 
 const drawerWidth = 280;
@@ -105,6 +106,12 @@ const Home = () => {
       path: `groups/${user?.id}`,
       roles: ['ROLE_ADMIN', 'ROLE_MANAGER', 'ROLE_TELLER', 'ROLE_CUSTOMER'],
     },
+    {
+      text: 'المقاييس',
+      icon: <InsightsIcon />,
+      path: 'metrics',
+      roles: ['ROLE_ADMIN', 'ROLE_MANAGER'],
+    },
   ];
 
   if (!user) {
@@ -0,0 +1,193 @@
+import React, { useState, useEffect, useRef } from 'react';
+import {
+  Container,
+  Card,
+  CardContent,
+  Typography,
+  Box,
+  Table,
+  TableBody,
+  TableCell,
+  TableContainer,
+  TableHead,
+  TableRow,
+  Chip,
+  Alert,
+  CircularProgress,
+} from '@mui/material';
+import api from '../services/api';
+
+const POLL_INTERVAL_MS = 5000;
+
+const meterKey = (meter) => `${meter.name}|${JSON.stringify(meter.tags || {})}`;
+
+const formatMs = (value) => (value === null || value === undefined ? '-' : value.toFixed(2));
+
+const formatTags = (tags) =>
+  Object.entries(tags || {})
+    .filter(([key]) => key !== 'application')
+    .map(([key, value]) => (
+      <Chip key={key} label={`${key}=${value}`} size="small" sx={{ mr: 0.5, mb: 0.5 }} />
+    ));
+
+const Metrics = () => {
+  const [snapshot, setSnapshot] = useState(null);
+  const [rates, setRates] = useState({});
+  const [loading, setLoading] = useState(true);
+  const [error, setError] = useState('');
+  const previous = useRef({ at: null, counts: {} });
+
+  useEffect(() => {
+    fetchMetrics();
+    const timer = setInterval(fetchMetrics, POLL_INTERVAL_MS);
+    return () => clearInterval(timer);
+  }, []);
+
+  const fetchMetrics = async () => {
+    try {
+      const response = await api.get('/metrics/hot-paths');
+      const now = Date.now();
+      const counts = {};
+      const nextRates = {};
+      [...response.data.timers, ...response.data.counters].forEach((meter) => {
+        const key = meterKey(meter);
+        counts[key] = meter.count;
+        const before = previous.current.counts[key];
+        if (previous.current.at && before !== undefined) {
+          const seconds = (now - previous.current.at) / 1000;
+          nextRates[key] = seconds > 0 ? (meter.count - before) / seconds : 0;
+        }
+      });
+      previous.current = { at: now, counts };
+      setRates(nextRates);
+      setSnapshot(response.data);
+      setError('');
+    } catch (err) {
+      setError(err.response?.data?.message || 'فشل في تحميل المقاييس');
+    } finally {
+      setLoading(false);
+    }
+  };
+
+  const formatRate = (meter) => {
+    const rate = rates[meterKey(meter)];
+    return rate === undefined ? '-' : rate.toFixed(2);
+  };
+
+  if (loading) {
+    return (
+      <Box sx={{ display: 'flex', justifyContent: 'center', mt: 4 }}>
+        <CircularProgress />
+      </Box>
+    );
+  }
+
+  return (
+    <Container maxWidth="lg" sx={{ mt: 4, mb: 4 }}>
+      <Typography variant="h4" gutterBottom sx={{ fontWeight: 700 }}>
+        مقاييس المسارات الساخنة
+      </Typography>
+      <Typography variant="body2" color="text.secondary" sx={{ mb: 3 }}>
+        يتم التحديث كل {POLL_INTERVAL_MS / 1000} ثوانٍ، والمعدل محسوب من الفرق بين قراءتين متتاليتين
+      </Typography>
+
+      {error && <Alert severity="error" sx={{ mb: 2 }}>{error}</Alert>}
+
+      {snapshot && (
+        <>
+          <Card sx={{ mb: 3 }}>
+            <CardContent>
+              <Typography variant="h6" gutterBottom>المؤقتات</Typography>
+              <TableContainer>
+                <Table size="small">
+                  <TableHead>
+                    <TableRow>
+                      <TableCell>المقياس</TableCell>
+                      <TableCell>الوسوم</TableCell>
+                      <TableCell align="right">العدد</TableCell>
+                      <TableCell align="right">المعدل/ث</TableCell>
+                      <TableCell align="right">المتوسط (ms)</TableCell>
+                      <TableCell align="right">p50 (ms)</TableCell>
+                      <TableCell align="right">p99 (ms)</TableCell>
+                      <TableCell align="right">الأقصى (ms)</TableCell>
+                    </TableRow>
+                  </TableHead>
+                  <TableBody>
+                    {snapshot.timers.map((timer) => (
+                      <TableRow key={meterKey(timer)}>
+                        <TableCell>{timer.name}</TableCell>
+                        <TableCell>{formatTags(timer.tags)}</TableCell>
+                        <TableCell align="right">{timer.count}</TableCell>
+                        <TableCell align="right">{formatRate(timer)}</TableCell>
+                        <TableCell align="right">{formatMs(timer.meanMs)}</TableCell>
+                        <TableCell align="right">{formatMs(timer.p50Ms)}</TableCell>
+                        <TableCell align="right">{formatMs(timer.p99Ms)}</TableCell>
+                        <TableCell align="right">{formatMs(timer.maxMs)}</TableCell>
+                      </TableRow>
+                    ))}
+                  </TableBody>
+                </Table>
+              </TableContainer>
+            </CardContent>
+          </Card>
+
+          <Card sx={{ mb: 3 }}>
+            <CardContent>
+              <Typography variant="h6" gutterBottom>العدادات</Typography>
+              <TableContainer>
+                <Table size="small">
+                  <TableHead>
+                    <TableRow>
+                      <TableCell>المقياس</TableCell>
+                      <TableCell>الوسوم</TableCell>
+                      <TableCell align="right">العدد</TableCell>
+                      <TableCell align="right">المعدل/ث</TableCell>
+                    </TableRow>
+                  </TableHead>
+                  <TableBody>
+                    {snapshot.counters.map((counter) => (
+                      <TableRow key={meterKey(counter)}>
+                        <TableCell>{counter.name}</TableCell>
+                        <TableCell>{formatTags(counter.tags)}</TableCell>
+                        <TableCell align="right">{counter.count}</TableCell>
+                        <TableCell align="right">{formatRate(counter)}</TableCell>
+                      </TableRow>
+                    ))}
+                  </TableBody>
+                </Table>
+              </TableContainer>
+            </CardContent>
+          </Card>
+
+          <Card>
+            <CardContent>
+              <Typography variant="h6" gutterBottom>القيم اللحظية</Typography>
+              <TableContainer>
+                <Table size="small">
+                  <TableHead>
+                    <TableRow>
+                      <TableCell>المقياس</TableCell>
+                      <TableCell>الوسوم</TableCell>
+                      <TableCell align="right">القيمة</TableCell>
+                    </TableRow>
+                  </TableHead>
+                  <TableBody>
+                    {snapshot.gauges.map((gauge) => (
+                      <TableRow key={meterKey(gauge)}>
+                        <TableCell>{gauge.name}</TableCell>
+                        <TableCell>{formatTags(gauge.tags)}</TableCell>
+                        <TableCell align="right">{formatMs(gauge.value)}</TableCell>
+                      </TableRow>
+                    ))}
+                  </TableBody>
+                </Table>
+              </TableContainer>
+            </CardContent>
+          </Card>
+        </>
+      )}
+    </Container>
+  );
+};
+
+export default Metrics;
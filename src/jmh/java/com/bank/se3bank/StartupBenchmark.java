@@ -0,0 +1,41 @@
+package com.bank.se3bank;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * زمن الإقلاع البارد حتى اكتمال تحديث السياق (قاعدة H2 في الذاكرة من ملف test)
+ * كل قياس في JVM جديدة (fork) لأن الإقلاع الثاني في نفس العملية يستفيد من الأصناف المحمّلة
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(5)
+public class StartupBenchmark {
+
+    @Param({"test", "test,startup"})
+    private String profiles;
+
+    private ConfigurableApplicationContext context;
+
+    @Benchmark
+    public ConfigurableApplicationContext start() {
+        SpringApplication application = new SpringApplication(Se3bankApplication.class);
+        application.setAdditionalProfiles(profiles.split(","));
+        context = application.run("--server.port=0");
+        return context;
+    }
+
+    @TearDown(Level.Invocation)
+    public void stop() {
+        if (context != null) {
+            context.close();
+            context = null;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.bank.se3bank.accounts.engine;
+
+import com.bank.se3bank.shared.metrics.BankMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * تحويلات/ثانية عبر محرك الأرصدة في الذاكرة مع fsync جماعي حقيقي على دفتر في مجلد مؤقت
+ * الإسقاط لا يفعل شيئاً (قاعدة البيانات خارج القياس)؛ المستدعون المتزامنون يملؤون دفعات الالتزام
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@Threads(256)
+public class BalanceEngineBenchmark {
+
+    @Param({"100000"})
+    private int accounts;
+
+    @Param({"8"})
+    private int shards;
+
+    private Path directory;
+    private InMemoryBalanceEngine engine;
+    private AccountState[] states;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("balance-engine-bench");
+        BalanceProjection noop = new BalanceProjection() {
+            @Override
+            public long lastProjectedSequence() {
+                return 0;
+            }
+
+            @Override
+            public void project(List<JournalRecord> records) {
+            }
+        };
+        engine = new InMemoryBalanceEngine(directory.toString(), shards, 65536, 1024, 64 * 1024 * 1024,
+                30000, 5000, noop, new BankMetrics(new SimpleMeterRegistry()));
+        engine.start();
+        states = new AccountState[accounts];
+        for (int i = 0; i < accounts; i++) {
+            states[i] = new AccountState((long) i + 1, 1_000_000_000.0, true, null);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        engine.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public EngineResult transfer() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int from = random.nextInt(accounts);
+        int to = random.nextInt(accounts - 1);
+        if (to >= from) {
+            to++;
+        }
+        return engine.transfer(states[from], states[to], 1.0);
+    }
+}
@@ -0,0 +1,66 @@
+package com.bank.se3bank.accounts.model;
+
+import com.bank.se3bank.shared.enums.AccountStatus;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * قياس تجميعات Composite في AccountGroup (في الذاكرة) عند 10 / 1k / 100k حساب فرعي
+ * المرجع لمقارنة مسار الذاكرة مع الاستعلام التجميعي في GroupService
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AccountGroupBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    private int children;
+
+    private AccountGroup group;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(11);
+        List<Account> accounts = new ArrayList<>(children);
+        for (int i = 0; i < children; i++) {
+            accounts.add(SavingsAccount.builder()
+                    .accountNumber("BENCH" + i)
+                    .balance(random.nextInt(1, 1_000_000) / 100.0)
+                    .status(i % 10 == 0 ? AccountStatus.FROZEN : AccountStatus.ACTIVE)
+                    .build());
+        }
+        // البناء المباشر بدل add() الذي يفحص contains() لكل إضافة (تربيعي عند 100k)
+        group = AccountGroup.builder()
+                .groupName("benchmark")
+                .childAccounts(accounts)
+                .build();
+        accounts.forEach(account -> account.setParentGroup(group));
+    }
+
+    @Benchmark
+    public Double totalBalance() {
+        return group.getTotalBalance();
+    }
+
+    @Benchmark
+    public Double averageBalance() {
+        return group.getAverageBalance();
+    }
+
+    @Benchmark
+    public Account largestAccount() {
+        return group.getLargestAccount();
+    }
+
+    @Benchmark
+    public boolean allAccountsActive() {
+        return group.areAllAccountsActive();
+    }
+}
@@ -0,0 +1,71 @@
+package com.bank.se3bank.interest;
+
+import com.bank.se3bank.accounts.model.SavingsAccount;
+import com.bank.se3bank.interest.strategy.CompoundInterestStrategy;
+import com.bank.se3bank.interest.strategy.FixedDepositInterestStrategy;
+import com.bank.se3bank.interest.strategy.InterestStrategy;
+import com.bank.se3bank.interest.strategy.IslamicBankingInterestStrategy;
+import com.bank.se3bank.interest.strategy.SimpleInterestStrategy;
+import com.bank.se3bank.interest.strategy.TieredInterestStrategy;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * قياس جدول الفائدة التراكمي شهراً بشهر لحساب واحد
+ * perMonthLoop = استدعاء calculateInterest لكل شهر (السلوك السابق)، project = تمريرة واحدة على مصفوفة double
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InterestProjectionBenchmark {
+
+    @Param({"SIMPLE", "COMPOUND", "TIERED", "FIXED_DEPOSIT", "ISLAMIC"})
+    private String strategyName;
+
+    @Param({"60", "600"})
+    private int months;
+
+    private InterestStrategy strategy;
+    private SavingsAccount account;
+    private double balance;
+    private double[] cumulative;
+
+    @Setup
+    public void setUp() {
+        strategy = switch (strategyName) {
+            case "SIMPLE" -> new SimpleInterestStrategy();
+            case "COMPOUND" -> new CompoundInterestStrategy();
+            case "TIERED" -> new TieredInterestStrategy();
+            case "FIXED_DEPOSIT" -> new FixedDepositInterestStrategy();
+            case "ISLAMIC" -> new IslamicBankingInterestStrategy();
+            default -> throw new IllegalArgumentException("استراتيجية غير معروفة: " + strategyName);
+        };
+        balance = 64_250.75; // يعبر عدة شرائح ويتجاوز حد الوديعة 50,000
+        account = SavingsAccount.builder()
+                .accountNumber("BENCH-PROJ")
+                .balance(balance)
+                .createdAt(LocalDateTime.now().minusMonths(18))
+                .build();
+        cumulative = new double[months];
+    }
+
+    @Benchmark
+    public void perMonthLoop(Blackhole blackhole) {
+        for (int m = 1; m <= months; m++) {
+            cumulative[m - 1] = strategy.calculateInterest(balance, m, account);
+        }
+        blackhole.consume(cumulative);
+    }
+
+    @Benchmark
+    public void project(Blackhole blackhole) {
+        strategy.project(balance, account, cumulative);
+        blackhole.consume(cumulative);
+    }
+}
@@ -0,0 +1,75 @@
+package com.bank.se3bank.interest;
+
+import com.bank.se3bank.accounts.model.SavingsAccount;
+import com.bank.se3bank.interest.strategy.CompoundInterestStrategy;
+import com.bank.se3bank.interest.strategy.FixedDepositInterestStrategy;
+import com.bank.se3bank.interest.strategy.InterestStrategy;
+import com.bank.se3bank.interest.strategy.IslamicBankingInterestStrategy;
+import com.bank.se3bank.interest.strategy.SimpleInterestStrategy;
+import com.bank.se3bank.interest.strategy.TieredInterestStrategy;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.LocalDateTime;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * قياس استراتيجيات الفائدة الخمس على توزيع أرصدة واقعي (log-normal)
+ * كل استدعاء يحسب الفائدة لـ BATCH حساباً حتى لا يطغى زمن الاستدعاء على الحساب نفسه
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InterestStrategyBenchmark {
+
+    private static final int BATCH = 1024;
+
+    @Param({"SIMPLE", "COMPOUND", "TIERED", "FIXED_DEPOSIT", "ISLAMIC"})
+    private String strategyName;
+
+    @Param({"12"})
+    private int months;
+
+    private InterestStrategy strategy;
+    private double[] balances;
+    private SavingsAccount[] accounts;
+
+    @Setup
+    public void setUp() {
+        strategy = switch (strategyName) {
+            case "SIMPLE" -> new SimpleInterestStrategy();
+            case "COMPOUND" -> new CompoundInterestStrategy();
+            case "TIERED" -> new TieredInterestStrategy();
+            case "FIXED_DEPOSIT" -> new FixedDepositInterestStrategy();
+            case "ISLAMIC" -> new IslamicBankingInterestStrategy();
+            default -> throw new IllegalArgumentException("استراتيجية غير معروفة: " + strategyName);
+        };
+
+        // وسيط ~8,000 مع ذيل طويل يغطي كل شرائح TieredInterestStrategy
+        SplittableRandom random = new SplittableRandom(42);
+        balances = new double[BATCH];
+        accounts = new SavingsAccount[BATCH];
+        for (int i = 0; i < BATCH; i++) {
+            double gaussian = Math.sqrt(-2 * Math.log(1 - random.nextDouble()))
+                    * Math.cos(2 * Math.PI * random.nextDouble());
+            balances[i] = Math.round(Math.exp(9.0 + 1.2 * gaussian) * 100) / 100.0;
+            accounts[i] = SavingsAccount.builder()
+                    .accountNumber("BENCH" + i)
+                    .balance(balances[i])
+                    .createdAt(LocalDateTime.now().minusMonths(random.nextInt(36)))
+                    .build();
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void calculateInterest(Blackhole blackhole) {
+        for (int i = 0; i < BATCH; i++) {
+            blackhole.consume(strategy.calculateInterest(balances[i], months, accounts[i]));
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.bank.se3bank.notifications.template;
+
+import com.bank.se3bank.accounts.model.SavingsAccount;
+import com.bank.se3bank.notifications.event.NotificationEvent;
+import com.bank.se3bank.users.model.User;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * قياس عرض حدث واحد على القنوات الثلاث (EMAIL, SMS, IN_APP)
+ * freshEvent: حدث جديد لكل عملية (المسار الفعلي)، sharedEvent: نفس الحدث (كلفة البحث في الذاكرة فقط)
+ * التشغيل مع -prof gc لقراءة gc.alloc.rate.norm لكل حدث
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NotificationTemplateBenchmark {
+
+    private static final String[] CHANNELS = {"EMAIL", "SMS", "IN_APP"};
+
+    @Param({"MONEY_TRANSFER", "ACCOUNT_CREATED", "LOW_BALANCE"})
+    private String eventType;
+
+    private NotificationTemplateEngine engine;
+    private User user;
+    private SavingsAccount account;
+    private NotificationEvent shared;
+
+    @Setup
+    public void setUp() {
+        engine = new NotificationTemplateEngine("ar");
+        user = User.builder()
+                .id(1L)
+                .username("bench")
+                .firstName("سارة")
+                .lastName("أحمد")
+                .email("bench@se3bank.com")
+                .phoneNumber("0999999999")
+                .build();
+        account = SavingsAccount.builder()
+                .accountNumber("SAV-BENCH-0001")
+                .balance(1250.75)
+                .build();
+        shared = newEvent();
+    }
+
+    private NotificationEvent newEvent() {
+        return switch (eventType) {
+            case "MONEY_TRANSFER" -> NotificationEvent.transfer(user, 250.0, "حسابك", "خالد محمود", "TXN-000123");
+            case "ACCOUNT_CREATED" -> NotificationEvent.accountCreated(user, account);
+            case "LOW_BALANCE" -> NotificationEvent.lowBalance(user, account);
+            default -> throw new IllegalArgumentException("نوع غير معروف: " + eventType);
+        };
+    }
+
+    @Benchmark
+    public void freshEvent(Blackhole blackhole) {
+        NotificationEvent event = newEvent();
+        for (String channel : CHANNELS) {
+            blackhole.consume(engine.render(event, channel));
+        }
+    }
+
+    @Benchmark
+    public void sharedEvent(Blackhole blackhole) {
+        for (String channel : CHANNELS) {
+            blackhole.consume(engine.render(shared, channel));
+        }
+    }
+}
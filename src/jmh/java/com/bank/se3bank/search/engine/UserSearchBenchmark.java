@@ -0,0 +1,65 @@
+package com.bank.se3bank.search.engine;
+
+import com.bank.se3bank.users.model.User;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * البحث عن مستخدم عند مليون مستخدم: المسار القديم (تحميل الكل وتصفية getFullName) مقابل TrigramIndex
+ * الأسماء بنفس شكل BulkDataGenerator؛ قياس PostgreSQL عند نفس الحجم عبر مشغّل الحمل (--mix=search:100)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class UserSearchBenchmark {
+
+    private static final int MAX_HITS = 1000;
+
+    @Param({"1000000"})
+    private int users;
+
+    /** تطابق نادر، تطابق شائع (يصل إلى MAX_HITS)، ولا تطابق */
+    @Param({"Customer 424242", "Customer 42", "nobody"})
+    private String query;
+
+    private List<User> all;
+    private TrigramIndex<Long> index;
+
+    @Setup
+    public void setUp() {
+        all = new ArrayList<>(users);
+        index = new TrigramIndex<>();
+        for (int i = 0; i < users; i++) {
+            String username = "lt_user_" + i;
+            User user = User.builder()
+                    .id((long) i)
+                    .username(username)
+                    .email(username + "@loadtest.local")
+                    .firstName("Load")
+                    .lastName("Customer " + i)
+                    .build();
+            all.add(user);
+            index.add(user.getId(), user.getUsername(), user.getFullName(), user.getEmail());
+        }
+    }
+
+    @Benchmark
+    public List<User> linearScan() {
+        String needle = query.toLowerCase(Locale.ROOT);
+        return all.stream()
+                .filter(user -> user.getFullName().toLowerCase().contains(needle))
+                .toList();
+    }
+
+    @Benchmark
+    public TrigramIndex.Hits<Long> trigramIndex() {
+        return index.search(query, MAX_HITS);
+    }
+}
@@ -0,0 +1,53 @@
+package com.bank.se3bank.security;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * قياس توليد JWT والتحقق منه (يُنفذ التحقق مع كل طلب عبر JwtAuthenticationFilter)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtUtilBenchmark {
+
+    private JwtUtil jwtUtil;
+    private UserDetails userDetails;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", "BenchmarkSecretKey12345678901234567890");
+        ReflectionTestUtils.setField(jwtUtil, "jwtExpirationMs", 3_600_000L);
+
+        userDetails = User.withUsername("bench")
+                .password("password")
+                .roles("CUSTOMER", "TELLER")
+                .build();
+        token = jwtUtil.generateToken(userDetails);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtil.generateToken(userDetails);
+    }
+
+    @Benchmark
+    public boolean isTokenValid() {
+        return jwtUtil.isTokenValid(token, userDetails);
+    }
+
+    @Benchmark
+    public List<String> extractRoles() {
+        return jwtUtil.extractRoles(token);
+    }
+}
@@ -0,0 +1,166 @@
+package com.bank.se3bank.shared.audit;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.OutputStreamAppender;
+import com.bank.se3bank.accounts.model.CheckingAccount;
+import com.bank.se3bank.accounts.repository.AccountDecoratorRepository;
+import com.bank.se3bank.accounts.service.DecoratorResolver;
+import com.bank.se3bank.facade.BankFacade;
+import com.bank.se3bank.shared.enums.TransactionType;
+import com.bank.se3bank.shared.metrics.BankMetrics;
+import com.bank.se3bank.transactions.handlers.ApprovalChainFactory;
+import com.bank.se3bank.transactions.handlers.TransactionHandler;
+import com.bank.se3bank.transactions.model.Transaction;
+import com.bank.se3bank.transactions.repository.TransactionRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.OutputStream;
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * كلفة التسجيل لكل تحويل: سلسلة الاعتماد + سطر الواجهة + حدث التدقيق
+ *
+ * legacy: مستوى com.bank.se3bank على DEBUG (يعادل أسطر INFO السابقة في كل معالج) وتدقيق عبر HashMap
+ * current: الإعداد الحالي (INFO، تتبع المعالجات DEBUG معطّل) وتدقيق بأزواج key/value على logger AUDIT
+ * الكتابة متزامنة إلى OutputStream فارغ حتى تُحسب كلفة التنسيق على خيط القياس.
+ * للمقارنة بالبايت لكل عملية: mvn -Pbenchmarks verify -Djmh.args="TransferLogging -prof gc"
+ * (العمود gc.alloc.rate.norm)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TransferLoggingBenchmark {
+
+    private static final Logger FACADE = LoggerFactory.getLogger(BankFacade.class);
+
+    @Param({"legacy", "current"})
+    private String logging;
+
+    private boolean legacy;
+    private TransactionHandler chain;
+    private CheckingAccount fromAccount;
+    private CheckingAccount toAccount;
+
+    @Setup
+    public void setUp() {
+        legacy = "legacy".equals(logging);
+        configureLogback(legacy ? Level.DEBUG : Level.INFO);
+
+        chain = new ApprovalChainFactory(stubRepository(), new BankMetrics(new SimpleMeterRegistry()),
+                stubResolver())
+                .createApprovalChain();
+        fromAccount = CheckingAccount.builder().accountNumber("BENCH-FROM").balance(1_000_000.0).build();
+        fromAccount.setId(1L);
+        toAccount = CheckingAccount.builder().accountNumber("BENCH-TO").balance(0.0).build();
+        toAccount.setId(2L);
+    }
+
+    @Benchmark
+    public boolean transfer() {
+        Transaction transaction = Transaction.builder()
+                .transactionId("BENCH")
+                .fromAccount(fromAccount)
+                .toAccount(toAccount)
+                .amount(250.0)
+                .transactionType(TransactionType.TRANSFER)
+                .description("benchmark transfer")
+                .build();
+
+        if (legacy) {
+            FACADE.info("💸 تحويل أموال من {} إلى {} بمبلغ {}",
+                    fromAccount.getAccountNumber(), toAccount.getAccountNumber(), transaction.getAmount());
+        } else if (FACADE.isDebugEnabled()) {
+            FACADE.debug("💸 تحويل أموال من {} إلى {} بمبلغ {}",
+                    fromAccount.getAccountNumber(), toAccount.getAccountNumber(), transaction.getAmount());
+        }
+
+        boolean approved = chain.handle(transaction);
+
+        if (legacy) {
+            legacyAudit("MONEY_TRANSFER", 10L, 20L, transaction.getAmount(), transaction.getDescription());
+        } else {
+            AuditLog.transaction("MONEY_TRANSFER", 10L, 20L, transaction.getAmount(), transaction.getDescription());
+        }
+        return approved;
+    }
+
+    /**
+     * نسخة من BankFacade.logTransaction قبل فصل مسار التدقيق
+     */
+    private static void legacyAudit(String operation, Long fromUserId, Long toUserId,
+                                    Double amount, String description) {
+        Map<String, Object> auditLog = new HashMap<>();
+        auditLog.put("operation", operation);
+        auditLog.put("fromUserId", fromUserId);
+        auditLog.put("toUserId", toUserId);
+        auditLog.put("amount", amount);
+        auditLog.put("description", description);
+        auditLog.put("timestamp", LocalDateTime.now());
+        auditLog.put("facadeOperation", true);
+
+        FACADE.info("📝 تدقيق عملية: {}", auditLog);
+    }
+
+    private static void configureLogback(Level applicationLevel) {
+        LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern("%d{ISO8601} %-5level [%thread] %logger{36} - %msg %kvp%n");
+        encoder.start();
+
+        OutputStreamAppender<ILoggingEvent> sink = new OutputStreamAppender<>();
+        sink.setContext(context);
+        sink.setEncoder(encoder);
+        sink.setOutputStream(OutputStream.nullOutputStream());
+        sink.start();
+
+        ch.qos.logback.classic.Logger root = context.getLogger(Logger.ROOT_LOGGER_NAME);
+        root.detachAndStopAllAppenders();
+        root.addAppender(sink);
+        root.setLevel(Level.WARN);
+        context.getLogger("com.bank.se3bank").setLevel(applicationLevel);
+        context.getLogger(AuditLog.LOGGER_NAME).setLevel(Level.INFO);
+    }
+
+    private static TransactionRepository stubRepository() {
+        return (TransactionRepository) Proxy.newProxyInstance(
+                TransactionRepository.class.getClassLoader(),
+                new Class<?>[]{TransactionRepository.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("countCompletedTransactionsSince")) {
+                        return 0L;
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    /**
+     * بدون ديكورات: العرض يُبنى مرة ويُقرأ من الذاكرة في كل تكرار
+     */
+    private static DecoratorResolver stubResolver() {
+        return new DecoratorResolver((AccountDecoratorRepository) Proxy.newProxyInstance(
+                AccountDecoratorRepository.class.getClassLoader(),
+                new Class<?>[]{AccountDecoratorRepository.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("findByDecoratedAccountIdAndIsActiveTrue")) {
+                        return List.of();
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                }));
+    }
+}
@@ -0,0 +1,46 @@
+package com.bank.se3bank.transactions.handlers;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * قياس AMLComplianceHandler.isSuspiciousAmount (يمر به كل تحويل في السلسلة الكاملة)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AmlSuspiciousAmountBenchmark {
+
+    private static final int BATCH = 1024;
+
+    private Double[] amounts;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(7);
+        amounts = new Double[BATCH];
+        for (int i = 0; i < BATCH; i++) {
+            // ربع المبالغ أرقام "دقيقة" (.00 / .99) والباقي عشوائي بسنتين
+            double whole = random.nextInt(1, 100_000);
+            amounts[i] = switch (i % 8) {
+                case 0 -> whole;
+                case 1 -> whole + 0.99;
+                default -> whole + random.nextInt(100) / 100.0;
+            };
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void isSuspiciousAmount(Blackhole blackhole) {
+        for (int i = 0; i < BATCH; i++) {
+            blackhole.consume(AMLComplianceHandler.isSuspiciousAmount(amounts[i]));
+        }
+    }
+}
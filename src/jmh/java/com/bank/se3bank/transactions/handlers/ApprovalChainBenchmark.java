@@ -0,0 +1,99 @@
+package com.bank.se3bank.transactions.handlers;
+
+import com.bank.se3bank.accounts.model.CheckingAccount;
+import com.bank.se3bank.accounts.repository.AccountDecoratorRepository;
+import com.bank.se3bank.accounts.service.DecoratorResolver;
+import com.bank.se3bank.shared.metrics.BankMetrics;
+import com.bank.se3bank.shared.enums.TransactionType;
+import com.bank.se3bank.transactions.model.Transaction;
+import com.bank.se3bank.transactions.repository.TransactionRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * قياس تنفيذ سلسلة الاعتماد كاملة (Chain of Responsibility) بدون قاعدة بيانات
+ * المستودع بديل يعيد 0 لعدّ المعاملات الأخيرة فيمرّ الفحص دون I/O
+ * السلسلة الكاملة تشمل كلفة قياس الزمن لكل معالج (SimpleMeterRegistry)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ApprovalChainBenchmark {
+
+    @Param({"250.0", "4999.99", "20000.0"})
+    private double amount;
+
+    private TransactionHandler fullChain;
+    private TransactionHandler smallChain;
+    private CheckingAccount fromAccount;
+    private CheckingAccount toAccount;
+
+    @Setup
+    public void setUp() {
+        ApprovalChainFactory factory = new ApprovalChainFactory(stubRepository(), new BankMetrics(new SimpleMeterRegistry()),
+                stubResolver());
+        fullChain = factory.createApprovalChain();
+        smallChain = factory.createSmallTransactionChain();
+
+        fromAccount = CheckingAccount.builder().accountNumber("BENCH-FROM").balance(1_000_000.0).build();
+        fromAccount.setId(1L);
+        toAccount = CheckingAccount.builder().accountNumber("BENCH-TO").balance(0.0).build();
+        toAccount.setId(2L);
+    }
+
+    @Benchmark
+    public boolean fullChain() {
+        return fullChain.handle(newTransfer());
+    }
+
+    @Benchmark
+    public boolean smallTransactionChain() {
+        return smallChain.handle(newTransfer());
+    }
+
+    private Transaction newTransfer() {
+        // المعاملة تُعدّل أثناء المرور (سجل السلسلة، الحالة) لذا نبني واحدة جديدة لكل استدعاء
+        return Transaction.builder()
+                .transactionId("BENCH")
+                .fromAccount(fromAccount)
+                .toAccount(toAccount)
+                .amount(amount)
+                .transactionType(TransactionType.TRANSFER)
+                .description("benchmark transfer")
+                .build();
+    }
+
+    private static TransactionRepository stubRepository() {
+        return (TransactionRepository) Proxy.newProxyInstance(
+                TransactionRepository.class.getClassLoader(),
+                new Class<?>[]{TransactionRepository.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("countCompletedTransactionsSince")) {
+                        return 0L;
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    /**
+     * بدون ديكورات: العرض يُبنى مرة ويُقرأ من الذاكرة في كل تكرار
+     */
+    private static DecoratorResolver stubResolver() {
+        return new DecoratorResolver((AccountDecoratorRepository) Proxy.newProxyInstance(
+                AccountDecoratorRepository.class.getClassLoader(),
+                new Class<?>[]{AccountDecoratorRepository.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("findByDecoratedAccountIdAndIsActiveTrue")) {
+                        return List.of();
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                }));
+    }
+}
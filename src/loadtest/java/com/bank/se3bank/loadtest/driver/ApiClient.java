@@ -0,0 +1,94 @@
+package com.bank.se3bank.loadtest.driver;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * عميل REST بسيط فوق java.net.http؛ يعيد رمز الحالة فقط (الجسم يُقرأ ويُهمل)
+ */
+public class ApiClient {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final String baseUrl;
+    private String bearer;
+
+    public ApiClient(String baseUrl) {
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    public void login(String username, String password) throws IOException, InterruptedException {
+        String body = objectMapper.writeValueAsString(Map.of("username", username, "password", password));
+        HttpResponse<String> response = httpClient.send(
+                jsonRequest("/auth/login").POST(HttpRequest.BodyPublishers.ofString(body)).build(),
+                HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("فشل تسجيل الدخول (" + response.statusCode() + "): " + response.body());
+        }
+        bearer = "Bearer " + objectMapper.readTree(response.body()).get("token").asText();
+    }
+
+    public int transfer(String fromAccountNumber, String toAccountNumber, double amount, String description)
+            throws IOException, InterruptedException {
+        String body = objectMapper.writeValueAsString(Map.of(
+                "fromAccountNumber", fromAccountNumber,
+                "toAccountNumber", toAccountNumber,
+                "amount", amount,
+                "description", description));
+        return send(jsonRequest("/api/accounts/transfer").POST(HttpRequest.BodyPublishers.ofString(body)));
+    }
+
+    public int deposit(String accountNumber, double amount, String description)
+            throws IOException, InterruptedException {
+        String body = objectMapper.writeValueAsString(Map.of(
+                "accountNumber", accountNumber,
+                "amount", amount,
+                "description", description));
+        return send(jsonRequest("/api/banking/deposit").POST(HttpRequest.BodyPublishers.ofString(body)));
+    }
+
+    public int balance(long accountId) throws IOException, InterruptedException {
+        return send(jsonRequest("/api/accounts/" + accountId + "/balance").GET());
+    }
+
+    public int userSummary(long userId) throws IOException, InterruptedException {
+        return send(jsonRequest("/api/banking/users/" + userId + "/summary").GET());
+    }
+
+    public int searchAccounts(String query) throws IOException, InterruptedException {
+        return send(jsonRequest("/api/search/accounts?q=" + URLEncoder.encode(query, StandardCharsets.UTF_8)).GET());
+    }
+
+    public int searchUsers(String query) throws IOException, InterruptedException {
+        return send(jsonRequest("/api/search/users?q=" + URLEncoder.encode(query, StandardCharsets.UTF_8)).GET());
+    }
+
+    private int send(HttpRequest.Builder request) throws IOException, InterruptedException {
+        return httpClient.send(request.build(), HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private HttpRequest.Builder jsonRequest(String path) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json");
+        if (bearer != null) {
+            builder.header("Authorization", bearer);
+        }
+        return builder;
+    }
+}
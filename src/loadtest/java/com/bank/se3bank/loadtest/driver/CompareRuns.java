@@ -0,0 +1,62 @@
+package com.bank.se3bank.loadtest.driver;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * مقارنة تشغيلين (مثلاً خيوط المنصة مقابل الخيوط الافتراضية) من ملفي summary.json
+ * الاستخدام: compare <مجلد الأساس> <مجلد المرشح>
+ */
+public class CompareRuns {
+
+    private static final String[] LATENCIES = {"p50Ms", "p99Ms", "p999Ms", "maxMs"};
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            throw new IllegalArgumentException("الاستخدام: compare <baseline-dir> <candidate-dir>");
+        }
+        JsonNode baseline = read(Path.of(args[0]));
+        JsonNode candidate = read(Path.of(args[1]));
+
+        System.out.printf("%nالأساس:  %s (concurrency=%s)%nالمرشح:  %s (concurrency=%s)%n",
+                name(baseline, args[0]), baseline.path("concurrency").asText(),
+                name(candidate, args[1]), candidate.path("concurrency").asText());
+        System.out.printf("%n%-10s %-9s %12s %12s %9s%n", "operation", "metric", "baseline", "candidate", "change");
+
+        Iterator<Map.Entry<String, JsonNode>> operations = baseline.path("operations").fields();
+        while (operations.hasNext()) {
+            Map.Entry<String, JsonNode> entry = operations.next();
+            JsonNode before = entry.getValue();
+            JsonNode after = candidate.path("operations").path(entry.getKey());
+            if (after.isMissingNode()) {
+                System.out.printf("%-10s (غير موجودة في المرشح)%n", entry.getKey());
+                continue;
+            }
+            row(entry.getKey(), "ops/s", before.path("throughput").asDouble(), after.path("throughput").asDouble());
+            row("", "errors", before.path("errors").asDouble(), after.path("errors").asDouble());
+            for (String latency : LATENCIES) {
+                row("", latency.replace("Ms", " ms").replace("p999", "p99.9"),
+                        before.path(latency).asDouble(), after.path(latency).asDouble());
+            }
+        }
+    }
+
+    private static JsonNode read(Path dir) throws IOException {
+        return new ObjectMapper().readTree(dir.resolve("summary.json").toFile());
+    }
+
+    private static String name(JsonNode summary, String fallback) {
+        String label = summary.path("label").asText("");
+        return label.isBlank() ? fallback : label;
+    }
+
+    private static void row(String operation, String metric, double before, double after) {
+        String change = before == 0 ? "-" : String.format("%+.1f%%", (after - before) * 100 / before);
+        System.out.printf("%-10s %-9s %12.2f %12.2f %9s%n", operation, metric, before, after, change);
+    }
+}
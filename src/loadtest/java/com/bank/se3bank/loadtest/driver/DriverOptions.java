@@ -0,0 +1,105 @@
+package com.bank.se3bank.loadtest.driver;
+
+import lombok.Data;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * خيارات المشغّل بصيغة --key=value
+ * مثال: --concurrency=64 --duration=2m --rate=2000 --mix=transfer:60,balance:25,summary:15
+ */
+@Data
+public class DriverOptions {
+
+    private String baseUrl = "http://localhost:9090";
+    private String manifest = "./target/loadtest/dataset.properties";
+    private String out = "./target/loadtest/results";
+    /** اسم التشغيل (مثلاً platform / virtual)؛ النتائج تُكتب في out/label للمقارنة لاحقاً */
+    private String label = "";
+    private int concurrency = 32;
+    private Duration warmup = Duration.ofSeconds(10);
+    private Duration duration = Duration.ofSeconds(60);
+    /** معدل كلي مستهدف (طلب/ث)؛ 0 = حلقة مغلقة بأقصى سرعة */
+    private double rate = 0;
+    private Map<Operation, Integer> mix = parseMix("transfer:60,balance:25,summary:15");
+    /** الفاصل بين دفعات الرواتب؛ صفر = بدون دفعات */
+    private Duration payrollInterval = Duration.ofSeconds(30);
+    private int payrollSize = 200;
+    private long seed = 7;
+
+    public static DriverOptions parse(String... args) {
+        DriverOptions options = new DriverOptions();
+        for (String arg : args) {
+            if (arg.isBlank()) {
+                continue;
+            }
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("خيار غير صالح (المتوقع --key=value): " + arg);
+            }
+            String key = arg.substring(2, arg.indexOf('='));
+            String value = arg.substring(arg.indexOf('=') + 1);
+            switch (key) {
+                case "base-url" -> options.baseUrl = value;
+                case "manifest" -> options.manifest = value;
+                case "out" -> options.out = value;
+                case "label" -> options.label = value;
+                case "concurrency" -> options.concurrency = Integer.parseInt(value);
+                case "warmup" -> options.warmup = parseDuration(value);
+                case "duration" -> options.duration = parseDuration(value);
+                case "rate" -> options.rate = Double.parseDouble(value);
+                case "mix" -> options.mix = parseMix(value);
+                case "payroll-interval" -> options.payrollInterval = parseDuration(value);
+                case "payroll-size" -> options.payrollSize = Integer.parseInt(value);
+                case "seed" -> options.seed = Long.parseLong(value);
+                default -> throw new IllegalArgumentException("خيار غير معروف: " + key);
+            }
+        }
+        if (options.concurrency <= 0) {
+            throw new IllegalArgumentException("concurrency يجب أن يكون أكبر من صفر");
+        }
+        return options;
+    }
+
+    public Path resultsDir() {
+        return label.isBlank() ? Path.of(out) : Path.of(out, label);
+    }
+
+    static Map<Operation, Integer> parseMix(String value) {
+        Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+        for (String part : value.split(",")) {
+            String[] pair = part.split(":");
+            if (pair.length != 2) {
+                throw new IllegalArgumentException("عنصر mix غير صالح: " + part);
+            }
+            int weight = Integer.parseInt(pair[1].trim());
+            if (weight > 0) {
+                mix.put(Operation.fromKey(pair[0]), weight);
+            }
+        }
+        if (mix.isEmpty()) {
+            throw new IllegalArgumentException("mix فارغ");
+        }
+        return mix;
+    }
+
+    static Duration parseDuration(String value) {
+        String text = value.trim().toLowerCase();
+        if (text.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(text.substring(0, text.length() - 2)));
+        }
+        char unit = text.charAt(text.length() - 1);
+        if (Character.isDigit(unit)) {
+            return Duration.ofSeconds(Long.parseLong(text));
+        }
+        long amount = Long.parseLong(text.substring(0, text.length() - 1));
+        return switch (unit) {
+            case 's' -> Duration.ofSeconds(amount);
+            case 'm' -> Duration.ofMinutes(amount);
+            case 'h' -> Duration.ofHours(amount);
+            default -> throw new IllegalArgumentException("وحدة مدة غير معروفة: " + value);
+        };
+    }
+}
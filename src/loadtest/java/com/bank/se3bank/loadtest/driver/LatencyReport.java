@@ -0,0 +1,103 @@
+package com.bank.se3bank.loadtest.driver;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * تجميع زمن الاستجابة (HdrHistogram، بالميكروثانية) والأخطاء لكل عملية
+ * المخرجات: جدول على stdout، summary.json، وملف .hgrm لكل عملية
+ */
+public class LatencyReport {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(2);
+
+    private final Map<Operation, Histogram> histograms = new EnumMap<>(Operation.class);
+    private final Map<Operation, AtomicLong> errors = new EnumMap<>(Operation.class);
+
+    public LatencyReport() {
+        for (Operation operation : Operation.values()) {
+            histograms.put(operation, new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3));
+            errors.put(operation, new AtomicLong());
+        }
+    }
+
+    public void record(Operation operation, long latencyNanos, boolean success) {
+        long micros = Math.min(HIGHEST_TRACKABLE_MICROS, Math.max(1, latencyNanos / 1_000));
+        histograms.get(operation).recordValue(micros);
+        if (!success) {
+            errors.get(operation).incrementAndGet();
+        }
+    }
+
+    /**
+     * يمسح ما سُجّل أثناء الإحماء
+     */
+    public void reset() {
+        histograms.values().forEach(Histogram::reset);
+        errors.values().forEach(counter -> counter.set(0));
+    }
+
+    public void write(Path outDir, DriverOptions options, double elapsedSeconds) throws IOException {
+        Files.createDirectories(outDir);
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("label", options.getLabel());
+        summary.put("baseUrl", options.getBaseUrl());
+        summary.put("concurrency", options.getConcurrency());
+        summary.put("targetRate", options.getRate());
+        summary.put("durationSeconds", elapsedSeconds);
+
+        Map<String, Object> operations = new LinkedHashMap<>();
+        System.out.printf("%n%-10s %10s %8s %10s %9s %9s %9s %9s %9s%n",
+                "operation", "count", "errors", "ops/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+
+        for (Operation operation : Operation.values()) {
+            Histogram histogram = histograms.get(operation).copy();
+            long count = histogram.getTotalCount();
+            if (count == 0) {
+                continue;
+            }
+            double throughput = count / elapsedSeconds;
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("count", count);
+            stats.put("errors", errors.get(operation).get());
+            stats.put("throughput", throughput);
+            stats.put("p50Ms", millis(histogram, 50));
+            stats.put("p90Ms", millis(histogram, 90));
+            stats.put("p99Ms", millis(histogram, 99));
+            stats.put("p999Ms", millis(histogram, 99.9));
+            stats.put("maxMs", histogram.getMaxValue() / 1000.0);
+            operations.put(operation.getKey(), stats);
+
+            System.out.printf("%-10s %10d %8d %10.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                    operation.getKey(), count, errors.get(operation).get(), throughput,
+                    millis(histogram, 50), millis(histogram, 90), millis(histogram, 99),
+                    millis(histogram, 99.9), histogram.getMaxValue() / 1000.0);
+
+            try (PrintStream out = new PrintStream(
+                    Files.newOutputStream(outDir.resolve(operation.getKey() + ".hgrm")))) {
+                histogram.outputPercentileDistribution(out, 1000.0);
+            }
+        }
+        summary.put("operations", operations);
+
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT)
+                .writeValue(outDir.resolve("summary.json").toFile(), summary);
+        System.out.println("\nالنتائج في " + outDir.toAbsolutePath());
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / 1000.0;
+    }
+}
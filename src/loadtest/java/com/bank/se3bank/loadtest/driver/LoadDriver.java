@@ -0,0 +1,195 @@
+package com.bank.se3bank.loadtest.driver;
+
+import com.bank.se3bank.loadtest.LoadTestDataset;
+import com.bank.se3bank.loadtest.SkewedPicker;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * مشغّل الحمل: يضرب REST API بتزامن قابل للضبط ويقيس الإنتاجية وتوزيع زمن الاستجابة
+ * مع --rate يعمل كحلقة مفتوحة ويقيس من موعد البدء المخطط (تصحيح coordinated omission)
+ */
+public class LoadDriver {
+
+    private final DriverOptions options;
+    private final LoadTestDataset dataset;
+    private final ApiClient client;
+    private final LatencyReport report = new LatencyReport();
+    private final SkewedPicker accounts;
+    private final SkewedPicker customers;
+    private final Operation[] operations;
+    private final int[] cumulativeWeights;
+
+    private volatile boolean running = true;
+
+    LoadDriver(DriverOptions options, LoadTestDataset dataset, ApiClient client) {
+        this.options = options;
+        this.dataset = dataset;
+        this.client = client;
+        this.accounts = dataset.accountPicker();
+        this.customers = dataset.customerPicker();
+
+        Map<Operation, Integer> mix = options.getMix();
+        this.operations = mix.keySet().toArray(new Operation[0]);
+        this.cumulativeWeights = new int[operations.length];
+        int total = 0;
+        for (int i = 0; i < operations.length; i++) {
+            total += mix.get(operations[i]);
+            cumulativeWeights[i] = total;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length > 0 && "compare".equals(args[0])) {
+            CompareRuns.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        DriverOptions options = DriverOptions.parse(args);
+        LoadTestDataset dataset = LoadTestDataset.read(Path.of(options.getManifest()));
+
+        ApiClient client = new ApiClient(options.getBaseUrl());
+        client.login(LoadTestDataset.ADMIN_USERNAME, dataset.getPassword());
+
+        System.out.printf("🚀 %s%s | concurrency=%d rate=%s warmup=%s duration=%s mix=%s%n",
+                options.getBaseUrl(), options.getLabel().isBlank() ? "" : " [" + options.getLabel() + "]",
+                options.getConcurrency(),
+                options.getRate() > 0 ? options.getRate() + "/s" : "closed-loop",
+                options.getWarmup(), options.getDuration(), options.getMix());
+
+        new LoadDriver(options, dataset, client).run();
+    }
+
+    void run() throws Exception {
+        ExecutorService workers = Executors.newFixedThreadPool(options.getConcurrency());
+        ScheduledExecutorService payrollScheduler = Executors.newSingleThreadScheduledExecutor();
+        ExecutorService payrollPool = Executors.newFixedThreadPool(Math.max(1, Math.min(options.getPayrollSize(), 64)));
+
+        long phaseStart = System.nanoTime();
+        for (int w = 0; w < options.getConcurrency(); w++) {
+            int worker = w;
+            workers.submit(() -> workerLoop(worker, phaseStart));
+        }
+        long payrollMillis = options.getPayrollInterval().toMillis();
+        if (payrollMillis > 0 && options.getPayrollSize() > 0) {
+            payrollScheduler.scheduleAtFixedRate(() -> payrollBurst(payrollPool),
+                    payrollMillis, payrollMillis, TimeUnit.MILLISECONDS);
+        }
+
+        Thread.sleep(options.getWarmup().toMillis());
+        report.reset();
+        long measureStart = System.nanoTime();
+        Thread.sleep(options.getDuration().toMillis());
+        running = false;
+        double elapsedSeconds = (System.nanoTime() - measureStart) / 1e9;
+
+        payrollScheduler.shutdownNow();
+        workers.shutdown();
+        payrollPool.shutdown();
+        workers.awaitTermination(1, TimeUnit.MINUTES);
+        payrollPool.awaitTermination(1, TimeUnit.MINUTES);
+
+        report.write(options.resultsDir(), options, elapsedSeconds);
+    }
+
+    private void workerLoop(int worker, long phaseStart) {
+        SplittableRandom random = new SplittableRandom(options.getSeed() * 1_000_003L + worker);
+        long interval = options.getRate() > 0
+                ? (long) (options.getConcurrency() * 1e9 / options.getRate())
+                : 0;
+        long intended = phaseStart + (interval > 0 ? interval * worker / options.getConcurrency() : 0);
+
+        while (running) {
+            long start;
+            if (interval > 0) {
+                long wait = intended - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                start = intended;
+                intended += interval;
+            } else {
+                start = System.nanoTime();
+            }
+            Operation operation = nextOperation(random);
+            boolean success = execute(operation, random);
+            report.record(operation, System.nanoTime() - start, success);
+        }
+    }
+
+    private void payrollBurst(ExecutorService payrollPool) {
+        long burstId = System.currentTimeMillis();
+        for (int i = 0; i < options.getPayrollSize(); i++) {
+            int seq = i;
+            payrollPool.submit(() -> {
+                if (!running) {
+                    return;
+                }
+                SplittableRandom random = new SplittableRandom(burstId * 31 + seq);
+                long start = System.nanoTime();
+                boolean success = execute(Operation.PAYROLL, random);
+                report.record(Operation.PAYROLL, System.nanoTime() - start, success);
+            });
+        }
+    }
+
+    private Operation nextOperation(SplittableRandom random) {
+        int roll = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (roll < cumulativeWeights[i]) {
+                return operations[i];
+            }
+        }
+        return operations[operations.length - 1];
+    }
+
+    private boolean execute(Operation operation, SplittableRandom random) {
+        try {
+            int status = switch (operation) {
+                case TRANSFER -> {
+                    int from = accounts.pick(random);
+                    int to = accounts.pickOther(random, from);
+                    yield client.transfer(dataset.accountNumber(from), dataset.accountNumber(to),
+                            amount(random, 1, 50), "load-test transfer");
+                }
+                case BALANCE -> client.balance(dataset.accountId(accounts.pick(random)));
+                case SUMMARY -> client.userSummary(dataset.customerId(customers.pick(random)));
+                case PAYROLL -> client.transfer(dataset.accountNumber(0),
+                        dataset.accountNumber(1 + random.nextInt(dataset.getAccountCount() - 1)),
+                        amount(random, 1_000, 4_000), "load-test payroll");
+                case MERCHANT_DEPOSIT -> client.deposit(dataset.accountNumber(0),
+                        amount(random, 1, 200), "load-test merchant deposit");
+                case SEARCH -> search(random);
+            };
+            return status >= 200 && status < 300;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    /**
+     * ثلث بادئات أرقام حسابات (مسار الفهرس المرتب)، وثلث أجزاء أسماء مستخدمين، وثلث أجزاء أسماء عملاء (trigram)
+     */
+    private int search(SplittableRandom random) throws Exception {
+        int customer = customers.pick(random);
+        return switch (random.nextInt(3)) {
+            case 0 -> client.searchAccounts(dataset.accountNumber(accounts.pick(random)).substring(0, 9));
+            case 1 -> client.searchUsers(LoadTestDataset.USERNAME_PREFIX.substring(3) + customer);
+            default -> client.searchAccounts("Customer " + customer);
+        };
+    }
+
+    private static double amount(SplittableRandom random, double min, double max) {
+        return Math.round(random.nextDouble(min, max) * 100) / 100.0;
+    }
+}
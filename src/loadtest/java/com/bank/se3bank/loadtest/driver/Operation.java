@@ -0,0 +1,38 @@
+package com.bank.se3bank.loadtest.driver;
+
+/**
+ * أنواع الطلبات التي يولدها المشغّل
+ */
+public enum Operation {
+    /** تحويل بين حسابين منحرفين (الساخنة تتصادم على الأقفال) */
+    TRANSFER("transfer"),
+    /** قراءة رصيد حساب */
+    BALANCE("balance"),
+    /** ملخص المستخدم (حسابات، مجموعات، آخر معاملات) */
+    SUMMARY("summary"),
+    /** دفعة رواتب: تحويلات متزامنة من حساب صاحب العمل */
+    PAYROLL("payroll"),
+    /** إيداعات متزامنة في حساب التاجر (الحساب 0) لقياس أجزاء رصيد الحساب الساخن */
+    MERCHANT_DEPOSIT("merchant-deposit"),
+    /** بحث: بادئة رقم حساب، أو جزء من اسم مستخدم/اسم عميل */
+    SEARCH("search");
+
+    private final String key;
+
+    Operation(String key) {
+        this.key = key;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public static Operation fromKey(String key) {
+        for (Operation operation : values()) {
+            if (operation.key.equalsIgnoreCase(key.trim())) {
+                return operation;
+            }
+        }
+        throw new IllegalArgumentException("عملية غير معروفة: " + key);
+    }
+}
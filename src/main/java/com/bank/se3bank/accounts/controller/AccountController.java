@@ -2,6 +2,7 @@ package com.bank.se3bank.accounts.controller;
 
 import com.bank.se3bank.accounts.model.Account;
 import com.bank.se3bank.accounts.service.AccountService;
+import com.bank.se3bank.accounts.service.HotAccountService;
 import com.bank.se3bank.shared.dto.AccountResponse;
 import com.bank.se3bank.shared.dto.BalanceResponse;
 import com.bank.se3bank.shared.dto.CreateAccountRequest;
@@ -23,7 +24,6 @@ import org.springframework.web.bind.annotation.*;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/accounts")
@@ -33,6 +33,7 @@ public class AccountController {
 
     private final AccountService accountService;
     private final TransactionService transactionService;
+    private final HotAccountService hotAccountService;
 
     @PostMapping
     @PreAuthorize("hasAnyRole('ADMIN','MANAGER','TELLER')")
@@ -54,22 +55,14 @@ public class AccountController {
     @PreAuthorize("hasAnyRole('ADMIN','MANAGER','TELLER')")
     @Operation(summary = "جميع الحسابات", description = "الحصول على قائمة بجميع الحسابات")
     public ResponseEntity<List<AccountResponse>> getAllAccounts() {
-        List<AccountResponse> accounts = accountService.getAllAccounts()
-                .stream()
-                .map(AccountResponse::from)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(accounts);
+        return ResponseEntity.ok(accountService.getAllAccountResponses());
     }
 
     @GetMapping("/user/{userId}")
     @PreAuthorize("hasAnyRole('ADMIN','MANAGER','TELLER','CUSTOMER')")
     @Operation(summary = "حسابات المستخدم", description = "الحصول على جميع حسابات المستخدم")
     public ResponseEntity<List<AccountResponse>> getUserAccounts(@PathVariable Long userId) {
-        List<AccountResponse> accounts = accountService.getUserAccounts(userId)
-                .stream()
-                .map(AccountResponse::from)
-                .toList();
-        return ResponseEntity.ok(accounts);
+        return ResponseEntity.ok(accountService.getUserAccountResponses(userId));
     }
 
     @PutMapping("/{accountId}")
@@ -83,9 +76,11 @@ public class AccountController {
         existing.setInterestRate(request.getInterestRate() != null ? request.getInterestRate() : existing.getInterestRate());
         existing.setOverdraftLimit(request.getOverdraftLimit() != null ? request.getOverdraftLimit() : existing.getOverdraftLimit());
         existing.setMinimumBalance(request.getMinimumBalance() != null ? request.getMinimumBalance() : existing.getMinimumBalance());
-        existing.setBalance(request.getBalance() != null ? request.getBalance() : existing.getBalance());
 
         Account updated = accountService.updateAccount(existing);
+        if (request.getBalance() != null) {
+            updated = accountService.updateBalance(accountId, request.getBalance());
+        }
         return ResponseEntity.ok(AccountResponse.from(updated));
     }
 
@@ -115,13 +110,22 @@ public class AccountController {
         BalanceResponse response = BalanceResponse.builder()
                 .accountId(account.getId())
                 .accountNumber(account.getAccountNumber())
-                .balance(account.getBalance())
-                .availableBalance(account.getAvailableBalance())
+                .balance(accountService.getCurrentBalance(account))
+                .availableBalance(accountService.getAvailableBalance(account))
                 .currency("USD")
                 .build();
         return ResponseEntity.ok(response);
     }
 
+    @PutMapping("/{accountId}/balance-slots")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "أجزاء رصيد الحساب الساخن", description = "توزيع إيداعات الحساب على عدة صفوف (0 = إلغاء)")
+    public ResponseEntity<Map<String, Object>> configureBalanceSlots(@PathVariable Long accountId,
+                                                                     @RequestParam int slots) {
+        double folded = hotAccountService.configure(accountId, slots);
+        return ResponseEntity.ok(Map.of("accountId", accountId, "slots", slots, "folded", folded));
+    }
+
     @PostMapping("/transfer")
     @PreAuthorize("hasAnyRole('ADMIN','MANAGER','TELLER','CUSTOMER')")
     @Operation(summary = "تحويل الأموال", description = "تحويل الأموال بين حسابين")
@@ -1,6 +1,8 @@
 package com.bank.se3bank.accounts.controller;
 
 import com.bank.se3bank.accounts.decorators.AccountDecorator;
+import com.bank.se3bank.accounts.decorators.ComposedAccountView;
+import com.bank.se3bank.accounts.model.FeeRun;
 import com.bank.se3bank.accounts.service.DecoratorService;
 import com.bank.se3bank.shared.dto.AddDecoratorRequest;
 import io.swagger.v3.oas.annotations.Operation;
@@ -50,6 +52,13 @@ public class DecoratorController {
         return ResponseEntity.ok(features);
     }
     
+    @GetMapping("/account/{accountId}/view")
+    @Operation(summary = "العرض المركب للحساب", 
+               description = "الميزات وحد المكشوف وإجمالي الرسوم الشهرية للديكورات النشطة (من الذاكرة المؤقتة)")
+    public ResponseEntity<ComposedAccountView> getComposedView(@PathVariable Long accountId) {
+        return ResponseEntity.ok(decoratorService.getComposedView(accountId));
+    }
+    
     @PatchMapping("/{decoratorId}/activate")
     @Operation(summary = "تفعيل ديكور", description = "تفعيل ديكور معطل")
     public ResponseEntity<AccountDecorator> activateDecorator(@PathVariable Long decoratorId) {
@@ -66,10 +75,9 @@ public class DecoratorController {
     
     @PostMapping("/apply-fees")
     @Operation(summary = "تطبيق الرسوم الشهرية", 
-               description = "تطبيق الرسوم الشهرية لجميع الديكورات النشطة")
-    public ResponseEntity<Void> applyMonthlyFees() {
-        decoratorService.applyAllMonthlyFees();
-        return ResponseEntity.ok().build();
+               description = "تطبيق الرسوم الشهرية لجميع الديكورات النشطة على دفعات متوازية (قابل للاستئناف)")
+    public ResponseEntity<FeeRun> applyMonthlyFees() {
+        return ResponseEntity.ok(decoratorService.applyAllMonthlyFees());
     }
     
     @GetMapping("/info")
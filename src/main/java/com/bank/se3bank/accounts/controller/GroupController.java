@@ -4,6 +4,8 @@ import com.bank.se3bank.accounts.model.Account;
 import com.bank.se3bank.accounts.model.AccountGroup;
 import com.bank.se3bank.accounts.service.GroupService;
 import com.bank.se3bank.shared.dto.CreateGroupRequest;
+import com.bank.se3bank.shared.dto.GroupBalanceAggregate;
+import com.bank.se3bank.shared.dto.GroupSummary;
 import com.bank.se3bank.shared.enums.AccountStatus;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -40,9 +42,8 @@ public class GroupController {
 
     @GetMapping("/user/{userId}")
     @Operation(summary = "مجموعات المستخدم", description = "الحصول على جميع مجموعات المستخدم")
-    public ResponseEntity<List<AccountGroup>> getUserGroups(@PathVariable Long userId) {
-        List<AccountGroup> groups = groupService.getUserGroups(userId);
-        return ResponseEntity.ok(groups);
+    public ResponseEntity<List<GroupSummary>> getUserGroups(@PathVariable Long userId) {
+        return ResponseEntity.ok(groupService.getUserGroupSummaries(userId));
     }
 
     @PostMapping("/{groupId}/accounts/{accountId}")
@@ -77,6 +78,13 @@ public class GroupController {
         return ResponseEntity.ok(totalBalance);
     }
 
+    @GetMapping("/{groupId}/aggregates")
+    @Operation(summary = "مجاميع المجموعة", 
+               description = "إجمالي الرصيد والرصيد النشط وعدد الحسابات وأدنى/أعلى رصيد باستعلام واحد")
+    public ResponseEntity<GroupBalanceAggregate> getGroupAggregates(@PathVariable Long groupId) {
+        return ResponseEntity.ok(groupService.getGroupAggregate(groupId));
+    }
+
     @PostMapping("/{groupId}/transfer")
     @Operation(summary = "تحويل داخل المجموعة", description = "تحويل رصيد بين حسابات داخل نفس المجموعة")
     public ResponseEntity<Void> transferWithinGroup(
@@ -45,6 +45,10 @@ public abstract class AccountDecorator extends Account {
     @Column(name = "deactivated_at")
     protected LocalDateTime deactivatedAt;
     
+    // آخر فترة (yyyy-MM) تم تحصيل رسومها - يجعل تشغيل الرسوم قابلاً للاستئناف
+    @Column(name = "last_fee_period", length = 7)
+    protected String lastFeePeriod;
+    
     // العلاقة مع الحساب المزين
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "decorated_account_id", nullable = false)
@@ -0,0 +1,172 @@
+package com.bank.se3bank.accounts.decorators;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * عرض ثابت (immutable) لحساب مع ديكوراته النشطة
+ *
+ * يُبنى مرة واحدة من استعلام واحد ويُخزن مؤقتاً، بحيث يصبح التحقق من الميزات
+ * عملية بت واحدة بدلاً من المرور على سلسلة الديكورات
+ */
+public final class ComposedAccountView {
+
+    public static final String TYPE_OVERDRAFT_PROTECTION = "OVERDRAFT_PROTECTION";
+    public static final String TYPE_INSURANCE = "INSURANCE";
+    public static final String TYPE_PREMIUM_SERVICES = "PREMIUM_SERVICES";
+
+    private static final int TYPE_BIT_OVERDRAFT = 1;
+    private static final int TYPE_BIT_INSURANCE = 1 << 1;
+    private static final int TYPE_BIT_PREMIUM = 1 << 2;
+
+    private final Long accountId;
+    private final long featureBits;
+    private final int decoratorTypeBits;
+    private final double overdraftLimit;
+    private final double totalMonthlyFees;
+    private final List<Long> activeDecoratorIds;
+
+    private ComposedAccountView(Long accountId, long featureBits, int decoratorTypeBits,
+                                double overdraftLimit, double totalMonthlyFees,
+                                List<Long> activeDecoratorIds) {
+        this.accountId = accountId;
+        this.featureBits = featureBits;
+        this.decoratorTypeBits = decoratorTypeBits;
+        this.overdraftLimit = overdraftLimit;
+        this.totalMonthlyFees = totalMonthlyFees;
+        this.activeDecoratorIds = activeDecoratorIds;
+    }
+
+    /**
+     * بناء العرض من قائمة الديكورات النشطة (بدون تعديل الكيانات)
+     */
+    public static ComposedAccountView compose(Long accountId, List<? extends AccountDecorator> activeDecorators) {
+        long features = DecoratorFeature.BASE_FEATURE_BITS;
+        int types = 0;
+        double overdraft = 0.0;
+        double fees = 0.0;
+        List<Long> ids = new ArrayList<>(activeDecorators.size());
+
+        for (AccountDecorator decorator : activeDecorators) {
+            if (!Boolean.TRUE.equals(decorator.getIsActive())) {
+                continue;
+            }
+            ids.add(decorator.getId());
+            types |= typeBit(decorator);
+            for (String name : decorator.getAddedFeatures()) {
+                DecoratorFeature feature = DecoratorFeature.fromName(name);
+                if (feature != null) {
+                    features |= feature.bit();
+                }
+            }
+            if (decorator instanceof OverdraftProtectionDecorator overdraftDecorator
+                    && overdraftDecorator.getOverdraftLimit() != null) {
+                overdraft += overdraftDecorator.getOverdraftLimit();
+            }
+            if (decorator.getMonthlyFee() != null) {
+                fees += decorator.getMonthlyFee();
+            }
+        }
+
+        return new ComposedAccountView(accountId, features, types, overdraft, fees,
+                Collections.unmodifiableList(ids));
+    }
+
+    private static int typeBit(AccountDecorator decorator) {
+        if (decorator instanceof OverdraftProtectionDecorator) return TYPE_BIT_OVERDRAFT;
+        if (decorator instanceof InsuranceDecorator) return TYPE_BIT_INSURANCE;
+        if (decorator instanceof PremiumServicesDecorator) return TYPE_BIT_PREMIUM;
+        return 0;
+    }
+
+    private static int typeBit(String decoratorType) {
+        if (decoratorType == null) return 0;
+        return switch (decoratorType.toUpperCase()) {
+            case TYPE_OVERDRAFT_PROTECTION, "OVERDRAFTPROTECTIONDECORATOR" -> TYPE_BIT_OVERDRAFT;
+            case TYPE_INSURANCE, "INSURANCEDECORATOR" -> TYPE_BIT_INSURANCE;
+            case TYPE_PREMIUM_SERVICES, "PREMIUMSERVICESDECORATOR" -> TYPE_BIT_PREMIUM;
+            default -> 0;
+        };
+    }
+
+    // ========== Constant-time checks ==========
+
+    public boolean hasFeature(DecoratorFeature feature) {
+        return (featureBits & feature.bit()) != 0;
+    }
+
+    public boolean hasFeature(String featureName) {
+        DecoratorFeature feature = DecoratorFeature.fromName(featureName);
+        return feature != null && hasFeature(feature);
+    }
+
+    /**
+     * يقبل نوع الديكور (OVERDRAFT_PROTECTION) أو اسم الفئة (OverdraftProtectionDecorator)
+     */
+    public boolean hasDecoratorType(String decoratorType) {
+        int bit = typeBit(decoratorType);
+        return bit != 0 && (decoratorTypeBits & bit) != 0;
+    }
+
+    public boolean isDecorated() {
+        return !activeDecoratorIds.isEmpty();
+    }
+
+    // ========== Getters ==========
+
+    public Long getAccountId() {
+        return accountId;
+    }
+
+    public long getFeatureBits() {
+        return featureBits;
+    }
+
+    public double getOverdraftLimit() {
+        return overdraftLimit;
+    }
+
+    /**
+     * حد المكشوف الذي تضيفه الديكورات فوق حد الحساب نفسه (صفر بدون ميزة الرصيد السالب)
+     */
+    public double getOverdraftAllowance() {
+        return hasFeature(DecoratorFeature.NEGATIVE_BALANCE_ALLOWED) ? overdraftLimit : 0.0;
+    }
+
+    public double getTotalMonthlyFees() {
+        return totalMonthlyFees;
+    }
+
+    public List<Long> getActiveDecoratorIds() {
+        return activeDecoratorIds;
+    }
+
+    /**
+     * قائمة أسماء الميزات (المضافة أولاً ثم الأساسية) كما كانت تُرجع سابقاً
+     */
+    public List<String> getFeatures() {
+        List<String> added = new ArrayList<>();
+        List<String> base = new ArrayList<>(3);
+        for (DecoratorFeature feature : DecoratorFeature.cachedValues()) {
+            if (!hasFeature(feature)) {
+                continue;
+            }
+            if ((DecoratorFeature.BASE_FEATURE_BITS & feature.bit()) != 0) {
+                base.add(feature.name());
+            } else {
+                added.add(feature.name());
+            }
+        }
+        added.addAll(base);
+        return added;
+    }
+
+    public List<String> getDecoratorTypes() {
+        List<String> types = new ArrayList<>(3);
+        if ((decoratorTypeBits & TYPE_BIT_OVERDRAFT) != 0) types.add(TYPE_OVERDRAFT_PROTECTION);
+        if ((decoratorTypeBits & TYPE_BIT_INSURANCE) != 0) types.add(TYPE_INSURANCE);
+        if ((decoratorTypeBits & TYPE_BIT_PREMIUM) != 0) types.add(TYPE_PREMIUM_SERVICES);
+        return types;
+    }
+}
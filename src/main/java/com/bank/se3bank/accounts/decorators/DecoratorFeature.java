@@ -0,0 +1,54 @@
+package com.bank.se3bank.accounts.decorators;
+
+/**
+ * الميزات المعروفة للحسابات - ترتيب القيم هو رقم البت في ComposedAccountView
+ * لا تغيّر ترتيب القيم الموجودة، أضف الجديدة في النهاية فقط
+ */
+public enum DecoratorFeature {
+    BASIC_BANKING,
+    ONLINE_BANKING,
+    MOBILE_BANKING,
+    OVERDRAFT_PROTECTION,
+    NEGATIVE_BALANCE_ALLOWED,
+    OVERDRAFT_FEE_CALCULATION,
+    ACCOUNT_INSURANCE,
+    FRAUD_PROTECTION,
+    LOSS_COVERAGE,
+    PREMIUM_SERVICES,
+    PRIORITY_BANKING,
+    FREE_ATM_WITHDRAWALS,
+    FREE_WIRE_TRANSFERS,
+    DEDICATED_SUPPORT,
+    INVESTMENT_ADVICE;
+
+    private static final DecoratorFeature[] VALUES = values();
+
+    /**
+     * الميزات الأساسية المتاحة لكل حساب بدون ديكورات
+     */
+    public static final long BASE_FEATURE_BITS =
+            BASIC_BANKING.bit() | ONLINE_BANKING.bit() | MOBILE_BANKING.bit();
+
+    public long bit() {
+        return 1L << ordinal();
+    }
+
+    /**
+     * تحويل اسم ميزة إلى قيمة - يرجع null للأسماء غير المعروفة
+     */
+    public static DecoratorFeature fromName(String name) {
+        if (name == null) {
+            return null;
+        }
+        for (DecoratorFeature feature : VALUES) {
+            if (feature.name().equalsIgnoreCase(name)) {
+                return feature;
+            }
+        }
+        return null;
+    }
+
+    static DecoratorFeature[] cachedValues() {
+        return VALUES;
+    }
+}
@@ -0,0 +1,34 @@
+package com.bank.se3bank.accounts.decorators;
+
+import lombok.Getter;
+
+/**
+ * سطر رسوم لديكور واحد - إسقاط خفيف بدلاً من تحميل كيان الديكور كاملاً
+ */
+@Getter
+public class DecoratorFeeLine {
+
+    private final Long decoratorId;
+    private final Long accountId;
+    private final double fee;
+
+    public DecoratorFeeLine(Long decoratorId, Long accountId, Double monthlyFee) {
+        this.decoratorId = decoratorId;
+        this.accountId = accountId;
+        this.fee = monthlyFee != null ? monthlyFee : 0.0;
+    }
+
+    /**
+     * سطر حماية المكشوف: الرسوم الثابتة + نسبة على المكشوف الحالي (نفس منطق applyMonthlyFee)
+     */
+    public DecoratorFeeLine(Long decoratorId, Long accountId, Double monthlyFee,
+                            Double currentOverdraftAmount, Double overdraftFeePercentage) {
+        this.decoratorId = decoratorId;
+        this.accountId = accountId;
+        double fee = monthlyFee != null ? monthlyFee : 0.0;
+        if (currentOverdraftAmount != null && currentOverdraftAmount > 0 && overdraftFeePercentage != null) {
+            fee += currentOverdraftAmount * (overdraftFeePercentage / 100);
+        }
+        this.fee = fee;
+    }
+}
@@ -8,6 +8,7 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
@@ -97,15 +98,15 @@ public class PremiumServicesDecorator extends AccountDecorator {
     
     @Override
     public List<String> getAddedFeatures() {
-        List<String> features = Arrays.asList(
+        List<String> features = new ArrayList<>(Arrays.asList(
             "PREMIUM_SERVICES",
             "PRIORITY_BANKING",
             "FREE_ATM_WITHDRAWALS",
             "FREE_WIRE_TRANSFERS"
-        );
+        ));
         
-        if (dedicatedSupport) features.add("DEDICATED_SUPPORT");
-        if (investmentAdvice) features.add("INVESTMENT_ADVICE");
+        if (Boolean.TRUE.equals(dedicatedSupport)) features.add("DEDICATED_SUPPORT");
+        if (Boolean.TRUE.equals(investmentAdvice)) features.add("INVESTMENT_ADVICE");
         
         return features;
     }
@@ -0,0 +1,56 @@
+package com.bank.se3bank.accounts.engine;
+
+import com.bank.se3bank.accounts.model.Account;
+import com.bank.se3bank.shared.enums.AccountStatus;
+import lombok.Getter;
+
+/**
+ * حالة حساب في محرك الأرصدة: يكتبها خيط الجزء المالك فقط، وتُقرأ من أي خيط (حقول volatile)
+ * القيمة الابتدائية تأتي من قاعدة البيانات مع أول أمر على الحساب، وبعدها الذاكرة هي المرجع
+ */
+@Getter
+public class AccountState {
+
+    private final Long accountId;
+    private volatile double balance;
+    private volatile boolean active;
+    private volatile Double overdraftLimit;
+
+    public AccountState(Long accountId, double balance, boolean active, Double overdraftLimit) {
+        this.accountId = accountId;
+        this.balance = balance;
+        this.active = active;
+        this.overdraftLimit = overdraftLimit;
+    }
+
+    /**
+     * بذرة من الكيان؛ balance هو الرصيد الكامل (مع أجزاء الحساب الساخن)
+     */
+    public static AccountState of(Account account, double balance) {
+        return new AccountState(account.getId(), balance,
+                account.getStatus() == AccountStatus.ACTIVE, account.getOverdraftLimit());
+    }
+
+    /**
+     * نفس قاعدة Account.canWithdraw
+     */
+    boolean canWithdraw(double amount) {
+        if (!active) {
+            return false;
+        }
+        double available = balance;
+        if (overdraftLimit != null && overdraftLimit > 0) {
+            available += overdraftLimit;
+        }
+        return amount <= available;
+    }
+
+    void apply(double delta) {
+        balance += delta;
+    }
+
+    void updateLimits(AccountState source) {
+        this.active = source.active;
+        this.overdraftLimit = source.overdraftLimit;
+    }
+}
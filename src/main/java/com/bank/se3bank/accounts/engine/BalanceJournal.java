@@ -0,0 +1,250 @@
+package com.bank.se3bank.accounts.engine;
+
+import com.bank.se3bank.shared.enums.TransactionType;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * دفتر كتابة مسبقة على ملفات مقطعية معيّنة في الذاكرة (memory-mapped)
+ *
+ * - سجلات ثابتة الطول (48 بايت) بتسلسل متصل داخل المقطع وCRC32 لكل سجل
+ * - append يكتب في الذاكرة فقط؛ force يثبّت كل ما كُتب (الالتزام الجماعي يستدعيه مرة لكل دفعة)
+ * - عند الفتح تُقرأ السجلات حتى أول سجل فارغ أو تالف أو خارج التسلسل، ويُصفَّر باقي المقطع
+ *   حتى لا يُقرأ سجل قديم بعد سجل جديد في انهيار لاحق
+ * - المقاطع التي أُسقطت كل سجلاتها على قاعدة البيانات تُحذف بـ truncateThrough
+ */
+@Slf4j
+public class BalanceJournal implements Closeable {
+
+    static final int RECORD_BYTES = 48;
+    private static final int CHECKSUM_OFFSET = 44;
+    private static final String PREFIX = "balance-journal-";
+    private static final String SUFFIX = ".wal";
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final CRC32 checksum = new CRC32();
+    private final byte[] scratch = new byte[RECORD_BYTES];
+
+    private FileChannel channel;
+    private volatile MappedByteBuffer buffer;
+    private Path segment;
+    private int position;
+    private long lastSequence;
+
+    public BalanceJournal(Path directory, int segmentBytes) {
+        if (segmentBytes < RECORD_BYTES) {
+            throw new IllegalArgumentException("حجم المقطع أصغر من سجل واحد");
+        }
+        this.directory = directory;
+        this.segmentBytes = segmentBytes - segmentBytes % RECORD_BYTES;
+    }
+
+    /**
+     * قراءة الدفتر: السجلات بعد afterSequence تُمرر إلى replay بالترتيب
+     * التسلسل يستمر من max(آخر سجل سليم، afterSequence)
+     */
+    public synchronized void open(long afterSequence, Consumer<JournalRecord> replay) throws IOException {
+        Files.createDirectories(directory);
+        List<Path> segments = segments();
+        long lastValid = 0;
+        for (int i = 0; i < segments.size(); i++) {
+            Path path = segments.get(i);
+            try (FileChannel readChannel = FileChannel.open(path, StandardOpenOption.READ)) {
+                ByteBuffer data = readChannel.map(FileChannel.MapMode.READ_ONLY, 0, readChannel.size());
+                long expected = firstSequence(path);
+                int offset = 0;
+                while (offset + RECORD_BYTES <= data.limit()) {
+                    JournalRecord record = read(data, offset);
+                    if (record == null || record.getSequence() != expected) {
+                        break;
+                    }
+                    if (record.getSequence() > afterSequence) {
+                        replay.accept(record);
+                    }
+                    lastValid = record.getSequence();
+                    expected++;
+                    offset += RECORD_BYTES;
+                }
+                if (i == segments.size() - 1 && lastValid >= afterSequence && lastValid >= firstSequence(path) - 1) {
+                    lastSequence = lastValid;
+                    map(path, offset);
+                    return;
+                }
+            }
+        }
+        if (lastValid < afterSequence && lastValid > 0) {
+            log.warn("⚠️ دفتر الأرصدة ينتهي عند {} وآخر إسقاط {}؛ يبدأ مقطع جديد", lastValid, afterSequence);
+        }
+        lastSequence = Math.max(lastValid, afterSequence);
+        map(segmentPath(lastSequence + 1), 0);
+    }
+
+    /**
+     * كتابة السجلات في الذاكرة وإسناد تسلسلها (بدون تثبيت)
+     */
+    public synchronized void append(List<JournalRecord> records) throws IOException {
+        for (JournalRecord record : records) {
+            if (position + RECORD_BYTES > segmentBytes) {
+                roll();
+            }
+            record.setSequence(++lastSequence);
+            write(record);
+            position += RECORD_BYTES;
+        }
+    }
+
+    /**
+     * تثبيت كل ما كُتب حتى الآن على القرص (fsync للصفحات المتسخة)
+     */
+    public void force() {
+        MappedByteBuffer current = buffer;
+        if (current != null) {
+            current.force();
+        }
+    }
+
+    /**
+     * حذف المقاطع المغلقة التي كل سجلاتها <= sequence، ويعيد عدد المقاطع المحذوفة
+     */
+    public synchronized int truncateThrough(long sequence) throws IOException {
+        List<Path> segments = segments();
+        int deleted = 0;
+        for (int i = 0; i + 1 < segments.size(); i++) {
+            Path path = segments.get(i);
+            if (path.equals(segment) || firstSequence(segments.get(i + 1)) > sequence + 1) {
+                break;
+            }
+            Files.deleteIfExists(path);
+            deleted++;
+        }
+        return deleted;
+    }
+
+    public synchronized long getLastSequence() {
+        return lastSequence;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        force();
+        buffer = null;
+        if (channel != null) {
+            channel.close();
+            channel = null;
+        }
+    }
+
+    // ========== Segments ==========
+
+    private void roll() throws IOException {
+        force();
+        map(segmentPath(lastSequence + 1), 0);
+    }
+
+    private void map(Path path, int offset) throws IOException {
+        if (channel != null) {
+            channel.close();
+        }
+        boolean dirtyTail = Files.exists(path) && Files.size(path) > offset;
+        segment = path;
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+        if (dirtyTail) {
+            byte[] zeros = new byte[RECORD_BYTES * 1024];
+            for (int index = offset; index < segmentBytes; index += zeros.length) {
+                mapped.put(index, zeros, 0, Math.min(zeros.length, segmentBytes - index));
+            }
+            mapped.force();
+        }
+        position = offset;
+        buffer = mapped;
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> {
+                        String name = path.getFileName().toString();
+                        return name.startsWith(PREFIX) && name.endsWith(SUFFIX);
+                    })
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private Path segmentPath(long firstSequence) {
+        return directory.resolve(String.format("%s%020d%s", PREFIX, firstSequence, SUFFIX));
+    }
+
+    private static long firstSequence(Path path) {
+        String name = path.getFileName().toString();
+        return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+    }
+
+    // ========== Records ==========
+
+    private void write(JournalRecord record) {
+        ByteBuffer data = ByteBuffer.wrap(scratch);
+        data.putLong(0, record.getSequence());
+        data.putInt(8, typeCode(record.getType()));
+        data.putLong(12, record.getAccountId());
+        data.putLong(20, record.getCounterpartyId());
+        data.putDouble(28, record.getAmount());
+        data.putLong(36, record.getCreatedAt());
+        checksum.reset();
+        checksum.update(scratch, 0, CHECKSUM_OFFSET);
+        data.putInt(CHECKSUM_OFFSET, (int) checksum.getValue());
+        buffer.put(position, scratch);
+    }
+
+    private JournalRecord read(ByteBuffer data, int offset) {
+        long sequence = data.getLong(offset);
+        if (sequence == 0) {
+            return null;
+        }
+        data.get(offset, scratch);
+        checksum.reset();
+        checksum.update(scratch, 0, CHECKSUM_OFFSET);
+        if ((int) checksum.getValue() != data.getInt(offset + CHECKSUM_OFFSET)) {
+            log.warn("⚠️ سجل تالف في دفتر الأرصدة عند التسلسل {}؛ تتوقف القراءة قبله", sequence);
+            return null;
+        }
+        TransactionType type = typeOf(data.getInt(offset + 8));
+        if (type == null) {
+            return null;
+        }
+        return new JournalRecord(sequence, type, data.getLong(offset + 12), data.getLong(offset + 20),
+                data.getDouble(offset + 28), data.getLong(offset + 36));
+    }
+
+    // رموز ثابتة في الملف بدلاً من ordinal حتى لا يغيّر إعادة ترتيب TransactionType معنى سجلات قديمة
+    private static int typeCode(TransactionType type) {
+        return switch (type) {
+            case DEPOSIT -> 1;
+            case WITHDRAWAL -> 2;
+            case TRANSFER -> 3;
+            default -> throw new IllegalArgumentException("نوع غير مدعوم في دفتر الأرصدة: " + type);
+        };
+    }
+
+    private static TransactionType typeOf(int code) {
+        return switch (code) {
+            case 1 -> TransactionType.DEPOSIT;
+            case 2 -> TransactionType.WITHDRAWAL;
+            case 3 -> TransactionType.TRANSFER;
+            default -> null;
+        };
+    }
+}
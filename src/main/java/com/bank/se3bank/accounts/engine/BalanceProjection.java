@@ -0,0 +1,20 @@
+package com.bank.se3bank.accounts.engine;
+
+import java.util.List;
+
+/**
+ * الإسقاط غير المتزامن لسجلات المحرك على قاعدة البيانات (accounts / transactions / دفتر الأستاذ)
+ */
+public interface BalanceProjection {
+
+    /**
+     * آخر تسلسل أُسقط (0 إن لم يُسقط شيء)
+     */
+    long lastProjectedSequence();
+
+    /**
+     * تطبيق السجلات الأحدث من آخر إسقاط في معاملة واحدة مع تقديم نقطة الإسقاط
+     * السجلات مرتبة بالتسلسل، والسجلات المُسقطة سابقاً تُتجاهل فيصبح التكرار آمناً
+     */
+    void project(List<JournalRecord> records);
+}
@@ -0,0 +1,197 @@
+package com.bank.se3bank.accounts.engine;
+
+import com.bank.se3bank.shared.enums.TransactionType;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * جزء من المحرك: خيط كتابة واحد يملك أرصدة حساباته ويقرأ أوامره من حلقة محدودة (ArrayBlockingQueue)
+ *
+ * - كل دورة: سحب دفعة من الحلقة، التحقق والتطبيق في الذاكرة، ثم كتابة سجلات الدفعة في الدفتر مرة واحدة
+ * - التحويل إلى حساب في جزء آخر: الخصم هنا، والسجل الكامل (الطرفان) هنا، ثم يُرسل طرف الإيداع للجزء الآخر
+ *   بعد الكتابة، فأي سجل يعتمد على ذلك الإيداع يأتي بعده في الدفتر
+ * - الإرسال لجزء آخر لا ينتظر أبداً: إن كانت حلقته ممتلئة يُؤجَّل للدورة التالية (لا deadlock بين جزأين)،
+ *   وإسقاط التحويل ينتظر تطبيق الطرف كي لا يُبذر الحساب المستقبل من رصيد يحوي المبلغ مسبقاً
+ */
+@Slf4j
+final class BalanceShard implements Runnable {
+
+    static final String INSUFFICIENT_BALANCE = "رصيد غير كافي أو الحساب غير نشط";
+
+    private final int index;
+    private final InMemoryBalanceEngine engine;
+    private final ArrayBlockingQueue<EngineCommand> ring;
+    private final int maxBatch;
+    private final Map<Long, AccountState> accounts = new ConcurrentHashMap<>();
+    private final List<EngineCommand> deferred = new ArrayList<>();
+
+    BalanceShard(int index, InMemoryBalanceEngine engine, int ringSize, int maxBatch) {
+        this.index = index;
+        this.engine = engine;
+        this.ring = new ArrayBlockingQueue<>(ringSize);
+        this.maxBatch = maxBatch;
+    }
+
+    boolean submit(EngineCommand command, long timeoutMs) throws InterruptedException {
+        return ring.offer(command, timeoutMs, TimeUnit.MILLISECONDS);
+    }
+
+    AccountState get(Long accountId) {
+        return accounts.get(accountId);
+    }
+
+    int size() {
+        return accounts.size();
+    }
+
+    boolean isIdle() {
+        return ring.isEmpty() && deferred.isEmpty();
+    }
+
+    @Override
+    public void run() {
+        List<EngineCommand> batch = new ArrayList<>(maxBatch);
+        List<EngineCommand> journaled = new ArrayList<>(maxBatch);
+        List<EngineCommand> legs = new ArrayList<>();
+        while (engine.isRunning() || !ring.isEmpty()) {
+            EngineCommand first;
+            try {
+                first = ring.poll(deferred.isEmpty() ? 50 : 1, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            if (first != null) {
+                batch.add(first);
+                ring.drainTo(batch, maxBatch - 1);
+                for (EngineCommand command : batch) {
+                    apply(command, journaled, legs);
+                }
+                if (!journaled.isEmpty()) {
+                    commit(journaled, legs);
+                }
+                batch.clear();
+                journaled.clear();
+            }
+            deferred.addAll(legs);
+            legs.clear();
+            forwardDeferred();
+        }
+        if (!deferred.isEmpty()) {
+            log.warn("⚠️ الجزء {} توقف مع {} طرف إيداع لم يُطبق في الذاكرة (السجلات مثبتة وستُسقط)",
+                    index, deferred.size());
+        }
+    }
+
+    // ========== Commands ==========
+
+    private void apply(EngineCommand command, List<EngineCommand> journaled, List<EngineCommand> legs) {
+        switch (command.getKind()) {
+            case LIMITS -> {
+                AccountState state = accounts.get(command.getAccount().getAccountId());
+                if (state != null) {
+                    state.updateLimits(command.getAccount());
+                }
+                command.getResult().complete(null);
+            }
+            case CREDIT_LEG -> {
+                AccountState state = state(command.getAccount());
+                state.apply(command.getAmount());
+                command.getLeg().complete(state.getBalance());
+            }
+            case DEPOSIT -> {
+                AccountState state = state(command.getAccount());
+                state.apply(command.getAmount());
+                command.setBalance(state.getBalance());
+                journal(command, TransactionType.DEPOSIT, 0, journaled);
+            }
+            case WITHDRAWAL -> {
+                AccountState state = state(command.getAccount());
+                if (!state.canWithdraw(command.getAmount())) {
+                    command.getResult().completeExceptionally(new IllegalStateException(INSUFFICIENT_BALANCE));
+                    return;
+                }
+                state.apply(-command.getAmount());
+                command.setBalance(state.getBalance());
+                journal(command, TransactionType.WITHDRAWAL, 0, journaled);
+            }
+            case TRANSFER -> {
+                AccountState from = state(command.getAccount());
+                if (!from.canWithdraw(command.getAmount())) {
+                    command.getResult().completeExceptionally(new IllegalStateException(INSUFFICIENT_BALANCE));
+                    return;
+                }
+                from.apply(-command.getAmount());
+                command.setBalance(from.getBalance());
+                AccountState to = command.getCounterparty();
+                if (engine.shardOf(to.getAccountId()) == this) {
+                    AccountState target = state(to);
+                    target.apply(command.getAmount());
+                    command.setCounterpartyBalance(target.getBalance());
+                } else {
+                    command.setLeg(new CompletableFuture<>());
+                    legs.add(EngineCommand.creditLeg(to, command.getAmount(), command.getLeg()));
+                }
+                journal(command, TransactionType.TRANSFER, to.getAccountId(), journaled);
+            }
+        }
+    }
+
+    /**
+     * البذرة تُستخدم فقط إن لم يكن الحساب في الذاكرة بعد
+     */
+    private AccountState state(AccountState seed) {
+        AccountState state = accounts.get(seed.getAccountId());
+        if (state == null) {
+            state = seed;
+            accounts.put(seed.getAccountId(), seed);
+        }
+        return state;
+    }
+
+    private static void journal(EngineCommand command, TransactionType type, long counterpartyId,
+                                List<EngineCommand> journaled) {
+        command.setRecord(new JournalRecord(0, type, command.getAccount().getAccountId(), counterpartyId,
+                command.getAmount(), System.currentTimeMillis()));
+        journaled.add(command);
+    }
+
+    // ========== Commit ==========
+
+    /**
+     * كتابة سجلات الدفعة؛ عند فشل الكتابة تُعكس آثارها في الذاكرة وتُلغى أطراف الإيداع المعلقة
+     */
+    private void commit(List<EngineCommand> journaled, List<EngineCommand> legs) {
+        try {
+            engine.append(journaled);
+        } catch (IOException | RuntimeException e) {
+            log.error("❌ فشل الكتابة في دفتر الأرصدة (الجزء {}): {}", index, e.getMessage());
+            for (EngineCommand command : journaled) {
+                accounts.get(command.getAccount().getAccountId()).apply(-command.getRecord().accountDelta());
+                if (command.getKind() == EngineCommand.Kind.TRANSFER && command.getLeg() == null) {
+                    accounts.get(command.getCounterparty().getAccountId()).apply(-command.getAmount());
+                }
+                command.getResult().completeExceptionally(new IllegalStateException("تعذر تثبيت الأمر في دفتر الأرصدة"));
+            }
+            legs.clear();
+        }
+    }
+
+    private void forwardDeferred() {
+        for (Iterator<EngineCommand> it = deferred.iterator(); it.hasNext(); ) {
+            EngineCommand leg = it.next();
+            if (engine.shardOf(leg.getAccount().getAccountId()).ring.offer(leg)) {
+                it.remove();
+            }
+        }
+    }
+}
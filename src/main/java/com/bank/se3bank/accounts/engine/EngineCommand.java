@@ -0,0 +1,57 @@
+package com.bank.se3bank.accounts.engine;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * أمر في حلقة جزء من المحرك؛ الحقول المتغيرة يكتبها خيط الجزء ثم خيط الالتزام بعده
+ */
+@Getter
+@Setter
+final class EngineCommand {
+
+    enum Kind { DEPOSIT, WITHDRAWAL, TRANSFER, CREDIT_LEG, LIMITS }
+
+    private final Kind kind;
+    private final AccountState account;
+    private final AccountState counterparty;
+    private final double amount;
+    private final CompletableFuture<EngineResult> result = new CompletableFuture<>();
+
+    private JournalRecord record;
+    private double balance;
+    private Double counterpartyBalance;
+    // طرف الإيداع في تحويل بين جزأين: يكتمل عندما يطبقه جزء الحساب المستقبل
+    private CompletableFuture<Double> leg;
+
+    private EngineCommand(Kind kind, AccountState account, AccountState counterparty, double amount) {
+        this.kind = kind;
+        this.account = account;
+        this.counterparty = counterparty;
+        this.amount = amount;
+    }
+
+    static EngineCommand deposit(AccountState account, double amount) {
+        return new EngineCommand(Kind.DEPOSIT, account, null, amount);
+    }
+
+    static EngineCommand withdrawal(AccountState account, double amount) {
+        return new EngineCommand(Kind.WITHDRAWAL, account, null, amount);
+    }
+
+    static EngineCommand transfer(AccountState from, AccountState to, double amount) {
+        return new EngineCommand(Kind.TRANSFER, from, to, amount);
+    }
+
+    static EngineCommand creditLeg(AccountState to, double amount, CompletableFuture<Double> leg) {
+        EngineCommand command = new EngineCommand(Kind.CREDIT_LEG, to, null, amount);
+        command.setLeg(leg);
+        return command;
+    }
+
+    static EngineCommand limits(AccountState account) {
+        return new EngineCommand(Kind.LIMITS, account, null, 0);
+    }
+}
@@ -0,0 +1,16 @@
+package com.bank.se3bank.accounts.engine;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * نتيجة أمر بعد تثبيته في الدفتر: التسلسل والرصيد بعد التنفيذ
+ */
+@Getter
+@AllArgsConstructor
+public class EngineResult {
+
+    private final long sequence;
+    private final double balance;
+    private final Double counterpartyBalance; // للتحويل فقط
+}
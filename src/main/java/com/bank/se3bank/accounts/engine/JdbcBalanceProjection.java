@@ -0,0 +1,139 @@
+package com.bank.se3bank.accounts.engine;
+
+import com.bank.se3bank.ledger.model.LedgerJournal;
+import com.bank.se3bank.ledger.service.LedgerService;
+import com.bank.se3bank.shared.enums.LedgerCode;
+import com.bank.se3bank.shared.enums.TransactionType;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * إسقاط سجلات المحرك على قاعدة البيانات بـ JDBC batch في معاملة واحدة لكل دفعة
+ *
+ * - قفل صف نقطة الإسقاط أولاً، وتجاهل السجلات التي تسلسلها <= نقطة الإسقاط (إعادة التشغيل آمنة)
+ * - فروق الأرصدة تُجمع لكل حساب وتُطبق بترتيب رقم الحساب (ترتيب أقفال ثابت)
+ * - معاملة COMPLETED وقيد دفتر أستاذ لكل سجل بمعرف ENG-{التسلسل}
+ */
+@Component
+@ConditionalOnProperty(name = "app.accounts.engine", havingValue = "memory")
+@Slf4j
+public class JdbcBalanceProjection implements BalanceProjection {
+
+    public static final String ID_PREFIX = "ENG-";
+
+    private static final String CHECKPOINT_SQL =
+            "SELECT last_sequence FROM balance_engine_checkpoints WHERE engine_id = ?";
+
+    private static final String LOCK_CHECKPOINT_SQL = CHECKPOINT_SQL + " FOR UPDATE";
+
+    private static final String INSERT_CHECKPOINT_SQL =
+            "INSERT INTO balance_engine_checkpoints (engine_id, last_sequence, updated_at) VALUES (?, 0, ?)";
+
+    private static final String UPDATE_CHECKPOINT_SQL =
+            "UPDATE balance_engine_checkpoints SET last_sequence = ?, updated_at = ? WHERE engine_id = ?";
+
+    private static final String BALANCE_SQL =
+            "UPDATE accounts SET balance = balance + ?, updated_at = ? WHERE id = ?";
+
+    private static final String TRANSACTION_SQL =
+            "INSERT INTO transactions (transaction_id, from_account_id, to_account_id, amount, transaction_type, " +
+            "status, description, created_at, processed_at) VALUES (?, ?, ?, ?, ?, 'COMPLETED', ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final LedgerService ledgerService;
+    private final String engineId;
+
+    public JdbcBalanceProjection(JdbcTemplate jdbcTemplate,
+                                 PlatformTransactionManager transactionManager,
+                                 LedgerService ledgerService,
+                                 @Value("${app.accounts.engine.id:default}") String engineId) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.ledgerService = ledgerService;
+        this.engineId = engineId;
+    }
+
+    @Override
+    public long lastProjectedSequence() {
+        List<Long> sequence = jdbcTemplate.queryForList(CHECKPOINT_SQL, Long.class, engineId);
+        return sequence.isEmpty() ? 0 : sequence.get(0);
+    }
+
+    @Override
+    public void project(List<JournalRecord> records) {
+        transactionTemplate.executeWithoutResult(status -> projectLocked(records));
+    }
+
+    private void projectLocked(List<JournalRecord> records) {
+        long checkpoint = lockCheckpoint();
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        Map<Long, Double> deltas = new TreeMap<>();
+        List<Object[]> transactions = new ArrayList<>(records.size());
+        List<LedgerJournal> journals = new ArrayList<>(records.size());
+        long last = checkpoint;
+
+        for (JournalRecord record : records) {
+            if (record.getSequence() <= checkpoint) {
+                continue;
+            }
+            String id = ID_PREFIX + record.getSequence();
+            Long accountId = record.getAccountId();
+            Long counterpartyId = record.getCounterpartyId() != 0 ? record.getCounterpartyId() : null;
+            Timestamp createdAt = new Timestamp(record.getCreatedAt());
+            deltas.merge(accountId, record.accountDelta(), Double::sum);
+
+            switch (record.getType()) {
+                case DEPOSIT -> {
+                    transactions.add(new Object[]{id, null, accountId, record.getAmount(),
+                            TransactionType.DEPOSIT.name(), "إيداع (محرك الأرصدة)", createdAt, createdAt});
+                    journals.add(LedgerJournal.credit(id, null, accountId, record.getAmount(), LedgerCode.CASH));
+                }
+                case WITHDRAWAL -> {
+                    transactions.add(new Object[]{id, accountId, null, record.getAmount(),
+                            TransactionType.WITHDRAWAL.name(), "سحب (محرك الأرصدة)", createdAt, createdAt});
+                    journals.add(LedgerJournal.debit(id, null, accountId, record.getAmount(), LedgerCode.CASH));
+                }
+                default -> {
+                    deltas.merge(counterpartyId, record.getAmount(), Double::sum);
+                    transactions.add(new Object[]{id, accountId, counterpartyId, record.getAmount(),
+                            TransactionType.TRANSFER.name(), "تحويل (محرك الأرصدة)", createdAt, createdAt});
+                    journals.add(LedgerJournal.transfer(id, null, accountId, counterpartyId, record.getAmount()));
+                }
+            }
+            last = record.getSequence();
+        }
+        if (last == checkpoint) {
+            return;
+        }
+
+        List<Object[]> balances = new ArrayList<>(deltas.size());
+        deltas.forEach((accountId, delta) -> balances.add(new Object[]{delta, now, accountId}));
+        jdbcTemplate.batchUpdate(BALANCE_SQL, balances);
+        jdbcTemplate.batchUpdate(TRANSACTION_SQL, transactions);
+        ledgerService.postAll(journals);
+        jdbcTemplate.update(UPDATE_CHECKPOINT_SQL, last, now, engineId);
+        log.debug("⚡ إسقاط {} سجل على {} حساب حتى التسلسل {}", transactions.size(), deltas.size(), last);
+    }
+
+    private long lockCheckpoint() {
+        List<Long> sequence = jdbcTemplate.queryForList(LOCK_CHECKPOINT_SQL, Long.class, engineId);
+        if (!sequence.isEmpty()) {
+            return sequence.get(0);
+        }
+        jdbcTemplate.update(INSERT_CHECKPOINT_SQL, engineId, Timestamp.valueOf(LocalDateTime.now()));
+        return 0;
+    }
+}
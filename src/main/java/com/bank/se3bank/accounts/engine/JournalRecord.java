@@ -0,0 +1,41 @@
+package com.bank.se3bank.accounts.engine;
+
+import com.bank.se3bank.shared.enums.TransactionType;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * سجل أمر مقبول في دفتر الكتابة المسبقة: أثره على الأرصدة بعد التحقق، وليس الطلب نفسه
+ * لذلك إعادة التشغيل لا تعيد فحص الرصيد، وترتيب السجلات بين الحسابات المختلفة لا يغيّر النتيجة
+ */
+@Getter
+@ToString
+public class JournalRecord {
+
+    @Setter(AccessLevel.PACKAGE)
+    private long sequence; // يُسند عند الكتابة في الدفتر
+    private final TransactionType type;
+    private final long accountId;
+    private final long counterpartyId; // 0 عند عدم وجود طرف مقابل
+    private final double amount;
+    private final long createdAt; // epoch millis
+
+    public JournalRecord(long sequence, TransactionType type, long accountId, long counterpartyId,
+                         double amount, long createdAt) {
+        this.sequence = sequence;
+        this.type = type;
+        this.accountId = accountId;
+        this.counterpartyId = counterpartyId;
+        this.amount = amount;
+        this.createdAt = createdAt;
+    }
+
+    /**
+     * التغير على رصيد الحساب الأساسي (المودَع فيه أو المسحوب/المحوَّل منه)
+     */
+    public double accountDelta() {
+        return type == TransactionType.DEPOSIT ? amount : -amount;
+    }
+}
@@ -9,14 +9,19 @@ import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import lombok.*;
 import lombok.experimental.SuperBuilder;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "accounts")
+@Table(name = "accounts", indexes = {
+        @Index(name = "idx_accounts_parent_group", columnList = "parent_group_id"),
+        @Index(name = "idx_accounts_user", columnList = "user_id")
+})
 @Inheritance(strategy = InheritanceType.JOINED)
+@DynamicUpdate // UPDATE بالأعمدة المتغيرة فقط؛ من يغيّر الرصيد عبر الكيان يقفل الصف أولاً (AccountService.lockForUpdate)
 @DiscriminatorColumn(name = "account_type", discriminatorType = DiscriminatorType.STRING)
 @Getter
 @Setter
@@ -87,6 +92,10 @@ public abstract class Account {
     @Column(name = "minimum_balance")
     private Double minimumBalance;
 
+    // عدد أجزاء الرصيد للحسابات الساخنة (null = حساب عادي)، انظر HotAccountService
+    @Column(name = "balance_slots")
+    private Integer balanceSlots;
+
     // Composite Pattern - العلاقة مع AccountGroup
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "parent_group_id")
@@ -103,7 +112,7 @@ public abstract class Account {
     @JsonIgnore
     private List<Transaction> incomingTransactions = new ArrayList<>();
 
-    @Enumerated(EnumType.STRING)
+    @Convert(converter = AccountTypeColumnConverter.class)
     @Column(name = "account_type", insertable = false, updatable = false)
     private AccountType accountType;
 
@@ -144,6 +153,24 @@ public abstract class Account {
         this.updatedAt = LocalDateTime.now();
     }
 
+    /**
+     * مع حد مكشوف إضافي من الديكورات النشطة (ComposedAccountView.getOverdraftAllowance)
+     */
+    public boolean canWithdraw(Double amount, double decoratorOverdraft) {
+        if (decoratorOverdraft <= 0) {
+            return canWithdraw(amount);
+        }
+        return status == AccountStatus.ACTIVE && amount <= getAvailableBalance() + decoratorOverdraft;
+    }
+
+    public void withdraw(Double amount, double decoratorOverdraft) {
+        if (!canWithdraw(amount, decoratorOverdraft)) {
+            throw new IllegalStateException("رصيد غير كافي أو الحساب غير نشط");
+        }
+        this.balance -= amount;
+        this.updatedAt = LocalDateTime.now();
+    }
+
     public void transferTo(Account target, Double amount) {
         if (this.equals(target)) {
             throw new IllegalArgumentException("لا يمكن التحويل لنفس الحساب");
@@ -170,6 +197,10 @@ public abstract class Account {
     public abstract int getChildCount();
 
 
+    public boolean isHot() {
+        return balanceSlots != null && balanceSlots > 0;
+    }
+
     public Double getAvailableBalance() {
         Double available = balance;
         if (overdraftLimit != null && overdraftLimit > 0) {
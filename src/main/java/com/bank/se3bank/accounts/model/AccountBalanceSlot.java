@@ -0,0 +1,38 @@
+package com.bank.se3bank.accounts.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * جزء من رصيد حساب ساخن: الإيداعات تضاف لجزء عشوائي بدل صف الحساب نفسه
+ * الرصيد الكامل = accounts.balance + مجموع الأجزاء، والطي الدوري ينقل الأجزاء إلى accounts.balance
+ */
+@Entity
+@Table(name = "account_balance_slots",
+        uniqueConstraints = @UniqueConstraint(name = "uk_balance_slots_account_slot", columnNames = {"account_id", "slot"}))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AccountBalanceSlot {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "account_id", nullable = false)
+    private Long accountId;
+
+    @Column(name = "slot", nullable = false)
+    private Integer slot;
+
+    @Column(name = "balance", nullable = false)
+    @Builder.Default
+    private Double balance = 0.0;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
@@ -237,7 +237,7 @@ public class AccountGroup extends Account {
     
     @Override
     public String toString() {
-        return String.format("AccountGroup{name='%s', type='%s', accounts=%d, totalBalance=%.2f}",
-                groupName, groupType, childAccounts.size(), getTotalBalance());
+        // لا نلمس childAccounts هنا حتى لا يؤدي التسجيل إلى تحميل كسول للحسابات الفرعية
+        return String.format("AccountGroup{id=%d, name='%s', type='%s'}", id, groupName, groupType);
     }
 }
\ No newline at end of file
@@ -0,0 +1,24 @@
+package com.bank.se3bank.accounts.model;
+
+import com.bank.se3bank.shared.enums.AccountType;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * عمود account_type هو عمود التمييز للوراثة، فيحمل أيضاً قيماً ليست من AccountType
+ * (AccountGroup، INSURANCE، ...). هذه الصفوف تحسب نوعها بنفسها (المجموعة من groupType والديكور من الحساب الملفوف)
+ * لذلك تُقرأ القيمة كـ null بدلاً من فشل تحميل الكيان
+ */
+@Converter
+class AccountTypeColumnConverter implements AttributeConverter<AccountType, String> {
+
+    @Override
+    public String convertToDatabaseColumn(AccountType type) {
+        return type != null ? type.name() : null;
+    }
+
+    @Override
+    public AccountType convertToEntityAttribute(String column) {
+        return AccountType.fromName(column);
+    }
+}
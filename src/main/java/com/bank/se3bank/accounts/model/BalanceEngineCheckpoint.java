@@ -0,0 +1,31 @@
+package com.bank.se3bank.accounts.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * نقطة إسقاط محرك الأرصدة: آخر تسلسل من الدفتر طُبق على accounts / transactions
+ * تُحدَّث في نفس معاملة الإسقاط، فالسجلات حتى last_sequence مطبقة مرة واحدة بالضبط
+ */
+@Entity
+@Table(name = "balance_engine_checkpoints")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BalanceEngineCheckpoint {
+
+    @Id
+    @Column(name = "engine_id", length = 50)
+    private String engineId;
+
+    @Column(name = "last_sequence", nullable = false)
+    @Builder.Default
+    private Long lastSequence = 0L;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
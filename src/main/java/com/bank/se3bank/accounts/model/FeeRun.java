@@ -0,0 +1,69 @@
+package com.bank.se3bank.accounts.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * سجل تشغيل الرسوم الشهرية لفترة معينة (yyyy-MM)
+ * التشغيل غير المكتمل يُستأنف من الديكورات التي لم تُحصّل رسومها بعد
+ */
+@Entity
+@Table(name = "fee_runs")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FeeRun {
+
+    public static final String STATUS_RUNNING = "RUNNING";
+    public static final String STATUS_COMPLETED = "COMPLETED";
+    public static final String STATUS_FAILED = "FAILED";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "period", nullable = false, unique = true, length = 7)
+    private String period;
+
+    @Column(name = "status", nullable = false)
+    private String status;
+
+    @Column(name = "attempts", nullable = false)
+    @Builder.Default
+    private Integer attempts = 0;
+
+    @Column(name = "accounts_charged", nullable = false)
+    @Builder.Default
+    private Long accountsCharged = 0L;
+
+    @Column(name = "accounts_skipped", nullable = false)
+    @Builder.Default
+    private Long accountsSkipped = 0L;
+
+    @Column(name = "decorators_charged", nullable = false)
+    @Builder.Default
+    private Long decoratorsCharged = 0L;
+
+    @Column(name = "total_fees", nullable = false)
+    @Builder.Default
+    private Double totalFees = 0.0;
+
+    @Column(name = "last_duration_ms")
+    private Long lastDurationMs;
+
+    @Column(name = "fees_per_second")
+    private Double feesPerSecond;
+
+    @Column(name = "failure_reason")
+    private String failureReason;
+
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+}
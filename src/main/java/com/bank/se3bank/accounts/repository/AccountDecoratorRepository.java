@@ -1,11 +1,16 @@
 package com.bank.se3bank.accounts.repository;
 
 import com.bank.se3bank.accounts.decorators.AccountDecorator;
+import com.bank.se3bank.accounts.decorators.DecoratorFeeLine;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -32,4 +37,61 @@ public interface AccountDecoratorRepository extends JpaRepository<AccountDecorat
             @Param("decoratorClass") Class<?> decoratorClass);
     
     boolean existsByDecoratedAccountIdAndDecoratorName(Long accountId, String decoratorName);
-}
\ No newline at end of file
+    
+    // ========== محرك الرسوم الشهرية ==========
+    
+    /**
+     * Keyset: الحسابات التي لديها ديكورات نشطة لم تُحصّل رسومها لهذه الفترة
+     */
+    @Query("SELECT DISTINCT d.decoratedAccount.id FROM AccountDecorator d WHERE d.isActive = true " +
+           "AND (d.lastFeePeriod IS NULL OR d.lastFeePeriod <> :period) " +
+           "AND d.decoratedAccount.id > :afterAccountId " +
+           "ORDER BY d.decoratedAccount.id")
+    List<Long> findPendingFeeAccountIds(@Param("period") String period,
+                                        @Param("afterAccountId") Long afterAccountId,
+                                        Pageable pageable);
+    
+    @Query("SELECT new com.bank.se3bank.accounts.decorators.DecoratorFeeLine(" +
+           "d.id, d.decoratedAccount.id, d.monthlyFee, d.currentOverdraftAmount, d.overdraftFeePercentage) " +
+           "FROM OverdraftProtectionDecorator d WHERE d.isActive = true " +
+           "AND (d.lastFeePeriod IS NULL OR d.lastFeePeriod <> :period) " +
+           "AND d.decoratedAccount.id IN :accountIds")
+    List<DecoratorFeeLine> findOverdraftFeeLines(@Param("period") String period,
+                                                 @Param("accountIds") Collection<Long> accountIds);
+    
+    @Query("SELECT new com.bank.se3bank.accounts.decorators.DecoratorFeeLine(" +
+           "d.id, d.decoratedAccount.id, d.monthlyFee) " +
+           "FROM InsuranceDecorator d WHERE d.isActive = true " +
+           "AND (d.lastFeePeriod IS NULL OR d.lastFeePeriod <> :period) " +
+           "AND d.decoratedAccount.id IN :accountIds")
+    List<DecoratorFeeLine> findInsuranceFeeLines(@Param("period") String period,
+                                                 @Param("accountIds") Collection<Long> accountIds);
+    
+    @Query("SELECT new com.bank.se3bank.accounts.decorators.DecoratorFeeLine(" +
+           "d.id, d.decoratedAccount.id, d.monthlyFee) " +
+           "FROM PremiumServicesDecorator d WHERE d.isActive = true " +
+           "AND (d.lastFeePeriod IS NULL OR d.lastFeePeriod <> :period) " +
+           "AND d.decoratedAccount.id IN :accountIds")
+    List<DecoratorFeeLine> findPremiumFeeLines(@Param("period") String period,
+                                               @Param("accountIds") Collection<Long> accountIds);
+    
+    /**
+     * شرطي على last_fee_period: تشغيل آخر علّم نفس الديكورات يجعل العدد أقل من المطلوب
+     * (SQL أصلي على جدول واحد حتى يُعاد فحص الشرط بعد انتظار قفل الصف، بدلاً من CTE الوراثة)
+     */
+    @Modifying
+    @Query(value = "UPDATE account_decorators SET last_fee_period = :period WHERE id IN (:ids) " +
+                   "AND (last_fee_period IS NULL OR last_fee_period <> :period)", nativeQuery = true)
+    int markFeesCharged(@Param("period") String period, @Param("ids") Collection<Long> ids);
+    
+    @Modifying
+    @Query("UPDATE OverdraftProtectionDecorator d " +
+           "SET d.totalOverdraftFees = d.totalOverdraftFees + d.currentOverdraftAmount * d.overdraftFeePercentage / 100 " +
+           "WHERE d.id IN :ids AND d.currentOverdraftAmount > 0")
+    int accrueOverdraftFees(@Param("ids") Collection<Long> ids);
+    
+    @Modifying
+    @Query("UPDATE PremiumServicesDecorator d SET d.atmWithdrawalsUsed = 0, d.wireTransfersUsed = 0, " +
+           "d.lastBenefitsReset = :now WHERE d.id IN :ids")
+    int resetPremiumBenefits(@Param("now") LocalDateTime now, @Param("ids") Collection<Long> ids);
+}
@@ -1,6 +1,7 @@
 package com.bank.se3bank.accounts.repository;
 
 import com.bank.se3bank.accounts.model.AccountGroup;
+import com.bank.se3bank.shared.dto.GroupSummary;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -26,4 +27,16 @@ public interface AccountGroupRepository extends JpaRepository<AccountGroup, Long
                                                  @Param("minAccounts") int minAccounts);
     
     boolean existsByGroupNameAndUserId(String groupName, Long userId);
-}
\ No newline at end of file
+    
+    /**
+     * ملخصات مجموعات المستخدم مع عدد الأبناء في استعلام واحد؛ الرصيد النشط يُملأ لاحقاً من
+     * AccountRepository.sumActiveBalancesByGroup لأن المجموعات الفرعية تُفتح حتى الحسابات الفعلية
+     */
+    @Query("SELECT new com.bank.se3bank.shared.dto.GroupSummary(" +
+           "g.id, g.accountNumber, g.groupName, g.description, g.groupType, g.maxAccounts, COUNT(c)) " +
+           "FROM AccountGroup g LEFT JOIN g.childAccounts c " +
+           "WHERE g.user.id = :userId " +
+           "GROUP BY g.id, g.accountNumber, g.groupName, g.description, g.groupType, g.maxAccounts " +
+           "ORDER BY g.id")
+    List<GroupSummary> findSummariesByUserId(@Param("userId") Long userId);
+}
@@ -1,21 +1,33 @@
 package com.bank.se3bank.accounts.repository;
 
 import com.bank.se3bank.accounts.model.Account;
+import com.bank.se3bank.shared.dto.GroupBalanceAggregate;
 import com.bank.se3bank.shared.enums.AccountStatus;
 import com.bank.se3bank.shared.enums.AccountType;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface AccountRepository extends JpaRepository<Account, Long> {
     
+    /**
+     * أجزاء الحساب الساخن (account_balance_slots) التي لم تُطوَ بعد إلى accounts.balance؛
+     * الرصيد الكامل = العمود + هذه الأجزاء، فالمجاميع تضيفها كي لا يختفي المال حتى الطي التالي
+     */
+    String SLOT_BALANCE =
+            "COALESCE((SELECT SUM(s.balance) FROM AccountBalanceSlot s WHERE s.accountId = a.id), 0.0)";
+    
+    /** نفس الأجزاء للاستعلامات الأصلية؛ الديكور يقرأ أجزاء الحساب الملفوف كما يقرأ رصيده */
+    String NATIVE_SLOT_BALANCE =
+            "COALESCE((SELECT SUM(s.balance) FROM account_balance_slots s WHERE s.account_id = COALESCE(w.id, a.id)), 0)";
+    
     Optional<Account> findByAccountNumber(String accountNumber);
     
     List<Account> findByUserId(Long userId);
@@ -27,29 +39,161 @@ public interface AccountRepository extends JpaRepository<Account, Long> {
     @Query("SELECT a FROM Account a WHERE a.parentGroup.id = :groupId")
     List<Account> findByGroupId(@Param("groupId") Long groupId);
     
+    /**
+     * إسقاط رقم الحساب والرصيد فقط
+     */
+    interface AccountBalanceView {
+        String getAccountNumber();
+        Double getBalance();
+    }
+    
+    /**
+     * مجاميع أرصدة المجموعة باستعلام واحد بدلاً من تحميل childAccounts
+     */
+    @Query("SELECT new com.bank.se3bank.shared.dto.GroupBalanceAggregate(" +
+           "COUNT(a), " +
+           "SUM(CASE WHEN a.status = :active THEN 1L ELSE 0L END), " +
+           "SUM(CASE WHEN a.status = :frozen THEN 1L ELSE 0L END), " +
+           "SUM(a.balance + " + SLOT_BALANCE + "), " +
+           "SUM(CASE WHEN a.status = :active THEN a.balance + " + SLOT_BALANCE + " ELSE 0.0 END), " +
+           "MIN(a.balance + " + SLOT_BALANCE + "), MAX(a.balance + " + SLOT_BALANCE + ")) " +
+           "FROM Account a WHERE a.parentGroup.id = :groupId")
+    GroupBalanceAggregate aggregateGroupBalances(@Param("groupId") Long groupId,
+                                                 @Param("active") AccountStatus active,
+                                                 @Param("frozen") AccountStatus frozen);
+    
+    /**
+     * عمود balance لمجموعة فرعية لا يمثل رصيدها (مجموع أبنائها)، فالتجميع المباشر لا يصلح لها
+     */
+    @Query("SELECT CASE WHEN COUNT(a) > 0 THEN true ELSE false END FROM Account a " +
+           "WHERE a.parentGroup.id = :groupId AND TYPE(a) = AccountGroup")
+    boolean hasNestedGroups(@Param("groupId") Long groupId);
+    
+    Optional<AccountBalanceView> findFirstByParentGroupIdOrderByBalanceDesc(Long groupId);
+    
+    Optional<AccountBalanceView> findFirstByParentGroupIdOrderByBalanceAsc(Long groupId);
+    
+    // ========== إسقاطات قوائم الحسابات (بدون تحميل الكيانات) ==========
+    
+    /**
+     * أعمدة AccountResponse فقط، محلولة في الاستعلام:
+     * النوع من group_type للمجموعات ومن الحساب الأساسي للديكورات (عمود account_type يحمل قيمة التمييز لهما)،
+     * والرصيد للديكور هو رصيد الحساب الملفوف (addDecorator يلف الحساب الأساسي دائماً) لا عموده المنسوخ
+     */
+    interface AccountListView {
+        Long getId();
+        String getAccountNumber();
+        String getAccountType();
+        Boolean getGroupAccount();
+        AccountStatus getStatus();
+        Double getBalance();
+        Double getInterestRate();
+        Double getOverdraftLimit();
+        Double getMinimumBalance();
+        Long getUserId();
+        LocalDateTime getCreatedAt();
+        LocalDateTime getUpdatedAt();
+    }
+    
+    interface GroupBalanceView {
+        Long getGroupId();
+        Double getActiveBalance();
+    }
+    
+    String LIST_VIEW_SELECT =
+            "SELECT a.id AS id, a.account_number AS accountNumber, " +
+            "CASE WHEN g.id IS NOT NULL THEN g.group_type ELSE COALESCE(w.account_type, a.account_type) END AS accountType, " +
+            "CASE WHEN g.id IS NOT NULL THEN TRUE ELSE FALSE END AS groupAccount, " +
+            "a.status AS status, COALESCE(w.balance, a.balance) + " + NATIVE_SLOT_BALANCE + " AS balance, " +
+            "a.interest_rate AS interestRate, " +
+            "a.overdraft_limit AS overdraftLimit, a.minimum_balance AS minimumBalance, " +
+            "a.user_id AS userId, a.created_at AS createdAt, a.updated_at AS updatedAt " +
+            "FROM accounts a " +
+            "LEFT JOIN account_groups g ON g.id = a.id " +
+            "LEFT JOIN account_decorators d ON d.id = a.id " +
+            "LEFT JOIN accounts w ON w.id = d.decorated_account_id ";
+    
+    @Query(value = LIST_VIEW_SELECT + "ORDER BY a.id", nativeQuery = true)
+    List<AccountListView> findAllListViews();
+    
+    @Query(value = LIST_VIEW_SELECT + "WHERE a.user_id = :userId ORDER BY a.id", nativeQuery = true)
+    List<AccountListView> findListViewsByUserId(@Param("userId") Long userId);
+    
+    /**
+     * رصيد المجموعات كما في AccountGroup.getTotalBalance: الأبناء النشطون حسب العضوية لا المالك،
+     * والمجموعات الفرعية النشطة تُفتح حتى الحسابات الفعلية بدلاً من قراءة عمود balance القديم لها،
+     * والديكور يُحسب برصيد الحساب الملفوف كما في LIST_VIEW_SELECT لا بالعمود المنسوخ عند إنشائه
+     */
+    @Query(value = "WITH RECURSIVE tree(group_id, id) AS (" +
+           "  SELECT c.parent_group_id, c.id FROM accounts c " +
+           "  WHERE c.parent_group_id IN (:groupIds) AND c.status = :active " +
+           "  UNION " +
+           "  SELECT t.group_id, c.id FROM tree t JOIN accounts c ON c.parent_group_id = t.id " +
+           "  WHERE c.status = :active" +
+           ") " +
+           "SELECT t.group_id AS groupId, SUM(COALESCE(w.balance, a.balance) + " + NATIVE_SLOT_BALANCE + ") AS activeBalance " +
+           "FROM tree t JOIN accounts a ON a.id = t.id " +
+           "LEFT JOIN account_decorators d ON d.id = a.id " +
+           "LEFT JOIN accounts w ON w.id = d.decorated_account_id " +
+           "WHERE NOT EXISTS (SELECT 1 FROM account_groups g WHERE g.id = t.id) " +
+           "GROUP BY t.group_id",
+           nativeQuery = true)
+    List<GroupBalanceView> sumActiveBalancesByGroup(@Param("groupIds") Collection<Long> groupIds,
+                                                    @Param("active") String active);
+    
+    interface InterestCandidateView {
+        Long getId();
+        String getAccountNumber();
+        Double getBalance();
+    }
+    
+    /**
+     * الحسابات الفعلية المؤهلة للفائدة الشهرية (بدون المجموعات والديكورات) دون تحميل الكيانات؛
+     * الحساب الساخن يُرشح وإن كان عموده صفراً لأن رصيده في أجزائه
+     */
+    @Query("SELECT a.id AS id, a.accountNumber AS accountNumber, a.balance AS balance FROM Account a " +
+           "WHERE TYPE(a) IN (SavingsAccount, CheckingAccount, LoanAccount, InvestmentAccount) " +
+           "AND a.status = :active " +
+           "AND (a.balance > 0 OR a.balanceSlots > 0) " +
+           "AND (a.lastInterestCalculation IS NULL OR a.lastInterestCalculation < :calculatedBefore) " +
+           "ORDER BY a.id")
+    List<InterestCandidateView> findInterestCandidates(@Param("active") AccountStatus active,
+                                                       @Param("calculatedBefore") LocalDateTime calculatedBefore);
+    
+    /**
+     * قفل صفوف الحسابات (FOR UPDATE) بترتيب المعرف، فمساران يقفلان نفس الحسابين لا يتبادلان الانتظار
+     */
+    @Query(value = "SELECT id FROM accounts WHERE id IN (:ids) ORDER BY id FOR UPDATE", nativeQuery = true)
+    List<Long> lockByIds(@Param("ids") Collection<Long> ids);
+    
     boolean existsByAccountNumber(String accountNumber);
     
     @Query("SELECT COUNT(a) FROM Account a WHERE a.user.id = :userId")
     Long countByUserId(@Param("userId") Long userId);
     
-    @Query("SELECT SUM(a.balance) FROM Account a WHERE a.user.id = :userId AND a.status = 'ACTIVE'")
+    @Query("SELECT SUM(a.balance + " + SLOT_BALANCE + ") FROM Account a " +
+           "WHERE a.user.id = :userId AND a.status = 'ACTIVE'")
     Double getTotalBalanceByUserId(@Param("userId") Long userId);
 
     List<Account> findByStatus(AccountStatus status);
 
-    @Query("SELECT a FROM Account a WHERE " +
-        "LOWER(a.accountNumber) LIKE LOWER(CONCAT('%', :searchText, '%')) " +
-        "OR LOWER(a.user.username) LIKE LOWER(CONCAT('%', :searchText, '%')) " +
-        "OR LOWER(a.user.firstName) LIKE LOWER(CONCAT('%', :searchText, '%')) " +
-        "OR LOWER(a.user.lastName) LIKE LOWER(CONCAT('%', :searchText, '%'))")
-    List<Account> searchAccounts(@Param("searchText") String searchText);
+    /**
+     * أعمدة فهرس البحث في الذاكرة (InMemorySearchIndex)، البحث الفعلي في SearchService
+     */
+    interface AccountSearchView {
+        Long getId();
+        String getAccountNumber();
+        AccountStatus getStatus();
+        Long getUserId();
+        String getUsername();
+        String getFirstName();
+        String getLastName();
+    }
 
-    @Query("SELECT a FROM Account a WHERE " +
-        "LOWER(a.accountNumber) LIKE LOWER(CONCAT('%', :searchText, '%')) " +
-        "OR LOWER(a.user.username) LIKE LOWER(CONCAT('%', :searchText, '%')) " +
-        "OR LOWER(a.user.firstName) LIKE LOWER(CONCAT('%', :searchText, '%')) " +
-        "OR LOWER(a.user.lastName) LIKE LOWER(CONCAT('%', :searchText, '%'))")
-    Page<Account> searchAccounts(@Param("searchText") String searchText, Pageable pageable);
+    @Query("SELECT a.id AS id, a.accountNumber AS accountNumber, a.status AS status, " +
+           "u.id AS userId, u.username AS username, u.firstName AS firstName, u.lastName AS lastName " +
+           "FROM Account a JOIN a.user u ORDER BY a.id")
+    List<AccountSearchView> findAllSearchViews();
 
     // إضافة إذا لم تكن موجودة
     @SuppressWarnings("null")
@@ -0,0 +1,13 @@
+package com.bank.se3bank.accounts.repository;
+
+import com.bank.se3bank.accounts.model.FeeRun;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface FeeRunRepository extends JpaRepository<FeeRun, Long> {
+
+    Optional<FeeRun> findByPeriod(String period);
+}
@@ -1,20 +1,34 @@
 // 📁 src/main/java/com/bank/se3bank/accounts/service/AccountService.java (المكتمل)
 package com.bank.se3bank.accounts.service;
 
+import com.bank.se3bank.accounts.engine.AccountState;
+import com.bank.se3bank.accounts.engine.EngineResult;
+import com.bank.se3bank.accounts.engine.InMemoryBalanceEngine;
 import com.bank.se3bank.accounts.factory.AccountFactory;
 import com.bank.se3bank.accounts.model.Account;
 import com.bank.se3bank.accounts.model.AccountGroup;
 import com.bank.se3bank.accounts.model.SavingsAccount;
 import com.bank.se3bank.accounts.repository.AccountRepository;
+import com.bank.se3bank.ledger.service.LedgerService;
+import com.bank.se3bank.search.model.AccountSearchHit;
+import com.bank.se3bank.search.model.SearchResult;
+import com.bank.se3bank.search.service.SearchService;
+import com.bank.se3bank.shared.dto.AccountResponse;
 import com.bank.se3bank.shared.dto.CreateAccountRequest;
 import com.bank.se3bank.shared.enums.AccountStatus;
 import com.bank.se3bank.shared.enums.AccountType;
+import com.bank.se3bank.shared.enums.LedgerCode;
 import com.bank.se3bank.shared.exceptions.AccountNotFoundException;
+import com.bank.se3bank.shared.metrics.BankMetrics;
 import com.bank.se3bank.users.model.User;
 import com.bank.se3bank.users.service.UserService;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -22,6 +36,8 @@ import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -33,6 +49,14 @@ public class AccountService {
     private final AccountFactory accountFactory;
     private final UserService userService;
     private final GroupService groupService;
+    private final BankMetrics metrics;
+    private final SearchService searchService;
+    private final LedgerService ledgerService;
+    private final HotAccountService hotAccountService;
+    private final ObjectProvider<InMemoryBalanceEngine> balanceEngine;
+    private final EntityManager entityManager;
+
+    private static final int SEARCH_LIMIT = 50;
 
     // ========== CRUD Operations ==========
     
@@ -44,6 +68,9 @@ public class AccountService {
         Account account = accountFactory.createAccount(request, user);
         
         Account savedAccount = accountRepository.save(account);
+        if (savedAccount.getBalance() != null) {
+            ledgerService.open(savedAccount.getId(), savedAccount.getBalance());
+        }
         
         log.info("✅ تم إنشاء حساب {} برقم {} للمستخدم {}", 
                 savedAccount.getAccountType().getArabicName(),
@@ -63,12 +90,35 @@ public class AccountService {
                 .orElseThrow(() -> new AccountNotFoundException(accountNumber));
     }
     
+    /**
+     * حسابات للتعديل: قفل صفوفها (FOR UPDATE بترتيب المعرف) ثم إعادة تحميلها من الصفوف المقفولة
+     * الكيان المحمّل قبل القفل قد يحمل رصيداً قديماً، ولقطته القديمة قد تُخفي التغيير عن @DynamicUpdate،
+     * لذلك يُفصل ويُقرأ من جديد. تُستدعى داخل معاملة وقبل أي تعديل على الكيانات، وتُستخدم الكيانات المُرجعة
+     */
+    public List<Account> lockForUpdate(List<Account> accounts) {
+        List<Long> ids = accounts.stream().map(Account::getId).distinct().toList();
+        List<Long> locked = accountRepository.lockByIds(ids);
+        for (Long id : ids) {
+            if (!locked.contains(id)) {
+                throw new AccountNotFoundException(id);
+            }
+        }
+        accounts.forEach(entityManager::detach);
+        return accounts.stream().map(account -> getAccountById(account.getId())).toList();
+    }
+    
+    public Account lockForUpdate(Account account) {
+        return lockForUpdate(List.of(account)).get(0);
+    }
+    
+    /**
+     * تحديث بيانات الحساب؛ الرصيد لا يُكتب من هنا (تغييره الإداري عبر updateBalance بقيد ADJUSTMENT صريح)
+     */
     @Transactional
     public Account updateAccount(Account account) {
         Account existing = getAccountById(account.getId());
         
         // تحديث الحقول المسموح بها
-        existing.setBalance(account.getBalance());
         existing.setStatus(account.getStatus());
         existing.setInterestRate(account.getInterestRate());
         existing.setOverdraftLimit(account.getOverdraftLimit());
@@ -77,7 +127,9 @@ public class AccountService {
         existing.setLastInterestCalculation(account.getLastInterestCalculation());
         existing.setTotalInterestEarned(account.getTotalInterestEarned());
         
-        return accountRepository.save(existing);
+        Account saved = accountRepository.save(existing);
+        updateEngineLimits(saved);
+        return saved;
     }
     
     @Transactional
@@ -102,6 +154,66 @@ public class AccountService {
         return accountRepository.findByUserId(userId);
     }
     
+    /**
+     * قائمة الحسابات كاستجابات جاهزة: استعلام للإسقاط + استعلام لأرصدة المجموعات
+     */
+    @Transactional(readOnly = true)
+    public List<AccountResponse> getAllAccountResponses() {
+        return toResponses(accountRepository.findAllListViews());
+    }
+    
+    @Transactional(readOnly = true)
+    public List<AccountResponse> getUserAccountResponses(Long userId) {
+        return toResponses(accountRepository.findListViewsByUserId(userId));
+    }
+    
+    private List<AccountResponse> toResponses(List<AccountRepository.AccountListView> views) {
+        List<Long> groupIds = views.stream()
+                .filter(view -> Boolean.TRUE.equals(view.getGroupAccount()))
+                .map(AccountRepository.AccountListView::getId)
+                .toList();
+        Map<Long, Double> groupBalances = groupIds.isEmpty() ? Map.of() : accountRepository
+                .sumActiveBalancesByGroup(groupIds, AccountStatus.ACTIVE.name())
+                .stream()
+                .collect(Collectors.toMap(AccountRepository.GroupBalanceView::getGroupId,
+                        view -> view.getActiveBalance() != null ? view.getActiveBalance() : 0.0));
+        
+        return views.stream()
+                .map(view -> toResponse(view, Boolean.TRUE.equals(view.getGroupAccount())
+                        ? groupBalances.getOrDefault(view.getId(), 0.0)
+                        : view.getBalance()))
+                .toList();
+    }
+    
+    private static AccountResponse toResponse(AccountRepository.AccountListView view, Double balance) {
+        Double available = balance;
+        if (available != null && view.getOverdraftLimit() != null && view.getOverdraftLimit() > 0) {
+            available += view.getOverdraftLimit();
+        }
+        return AccountResponse.builder()
+                .id(view.getId())
+                .accountNumber(view.getAccountNumber())
+                .accountType(AccountType.fromName(view.getAccountType()))
+                .status(view.getStatus())
+                .balance(balance)
+                .availableBalance(available)
+                .interestRate(view.getInterestRate())
+                .overdraftLimit(view.getOverdraftLimit())
+                .minimumBalance(view.getMinimumBalance())
+                .userId(view.getUserId())
+                .createdAt(view.getCreatedAt())
+                .updatedAt(view.getUpdatedAt())
+                .build();
+    }
+    
+    /**
+     * مرشحو الفائدة الشهرية كإسقاط (id، رقم، رصيد) - لا يلمس childAccounts الكسولة للمجموعات
+     */
+    @Transactional(readOnly = true)
+    public List<AccountRepository.InterestCandidateView> getInterestCandidates(LocalDateTime calculatedBefore) {
+        return accountRepository.findInterestCandidates(AccountStatus.ACTIVE, calculatedBefore);
+    }
+    
     public List<Account> getActiveAccounts() {
         return accountRepository.findByStatus(AccountStatus.ACTIVE);
     }
@@ -114,12 +226,23 @@ public class AccountService {
         return accountRepository.findByAccountType(accountType);
     }
     
+    /**
+     * أفضل النتائج من فهرس البحث ثم تحميل الكيانات بنفس ترتيب الصلة
+     */
+    @Transactional(readOnly = true)
     public List<Account> searchAccounts(String searchText) {
-        return accountRepository.searchAccounts(searchText);
+        return searchAccounts(searchText, PageRequest.of(0, SEARCH_LIMIT)).getContent();
     }
     
+    @Transactional(readOnly = true)
     public Page<Account> searchAccounts(String searchText, Pageable pageable) {
-        return accountRepository.searchAccounts(searchText, pageable);
+        SearchResult<AccountSearchHit> result = searchService.searchAccounts(
+                searchText, pageable.getPageNumber(), pageable.getPageSize());
+        List<Long> ids = result.getItems().stream().map(AccountSearchHit::getAccountId).toList();
+        Map<Long, Account> byId = accountRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Account::getId, Function.identity()));
+        List<Account> accounts = ids.stream().map(byId::get).filter(Objects::nonNull).toList();
+        return new PageImpl<>(accounts, pageable, result.getTotalHits());
     }
     
     // ========== Status Management ==========
@@ -147,7 +270,9 @@ public class AccountService {
                 account.getStatus().getArabicName(),
                 status.getArabicName());
         
-        return accountRepository.save(account);
+        Account saved = accountRepository.save(account);
+        updateEngineLimits(saved);
+        return saved;
     }
     
     @Transactional
@@ -182,9 +307,19 @@ public class AccountService {
     
     // ========== Balance Operations ==========
     
+    /**
+     * تعيين إداري للرصيد الكامل تحت قفل الصف؛ الفرق عن الرصيد المقفول يُقيد كقيد ADJUSTMENT صريح
+     * الحساب الساخن تُطوى أجزاؤه أولاً تحت نفس القفل، فالفرق يُحسب من الرصيد الكامل لا من العمود وحده،
+     * وإيداعات الأجزاء بعد الطي تبقى في أجزائها مع قيودها
+     * حركات العملاء لا تمر من هنا بل تعدّل الكيان المقفول وتسجل قيدها الخاص
+     * مرفوض مع محرك الأرصدة: الكتابة على العمود لا تصل إلى رصيد الذاكرة
+     */
     @Transactional
     public Account updateBalance(Long accountId, Double newBalance) {
-        Account account = getAccountById(accountId);
+        InMemoryBalanceEngine.rejectDirectWrites(balanceEngine, "تعديل الرصيد الإداري");
+        long started = System.nanoTime();
+        Account account = lockForUpdate(getAccountById(accountId));
+        hotAccountService.collect(account);
         
         if (newBalance < 0 && account.getOverdraftLimit() == null) {
             throw new IllegalStateException("لا يمكن أن يكون الرصيد سالباً بدون حماية السحب على المكشوف");
@@ -194,29 +329,66 @@ public class AccountService {
             log.warn("⚠️ رصيد الحساب {} أقل من الحد الأدنى المطلوب", account.getAccountNumber());
         }
         
+        double difference = Math.round((newBalance - account.getBalance()) * 100.0) / 100.0;
         account.setBalance(newBalance);
         
-        log.info("💰 تحديث رصيد الحساب {} إلى {}", 
+        log.debug("💰 تحديث رصيد الحساب {} إلى {}", 
                 account.getAccountNumber(), newBalance);
         
-        return accountRepository.save(account);
+        Account saved = accountRepository.save(account);
+        if (difference > 0) {
+            ledgerService.credit(accountId, difference, LedgerCode.ADJUSTMENT, null);
+        } else if (difference < 0) {
+            ledgerService.debit(accountId, -difference, LedgerCode.ADJUSTMENT, null);
+        }
+        metrics.recordBalanceUpdate("update", System.nanoTime() - started);
+        return saved;
     }
     
     @Transactional
     public Account deposit(Long accountId, Double amount) {
+        long started = System.nanoTime();
         Account account = getAccountById(accountId);
+        
+        InMemoryBalanceEngine engine = balanceEngine.getIfAvailable();
+        if (engine != null) {
+            EngineResult result = engine.deposit(engineState(account), amount);
+            metrics.recordBalanceUpdate("deposit", System.nanoTime() - started);
+            return detached(account, result.getBalance());
+        }
+        
+        // الحساب الساخن: الإيداع في جزء عشوائي بدون لمس صف الحساب
+        if (account.isHot()) {
+            hotAccountService.credit(account, amount);
+            ledgerService.credit(accountId, amount, LedgerCode.CASH, null);
+            metrics.recordBalanceUpdate("deposit", System.nanoTime() - started);
+            return account;
+        }
+        
+        account = lockForUpdate(account);
         Double oldBalance = account.getBalance();
         account.deposit(amount);
         
-        log.info("📥 إيداع {} في الحساب {} (من {} إلى {})", 
-                amount, account.getAccountNumber(), oldBalance, account.getBalance());
+        if (log.isDebugEnabled()) {
+            log.debug("📥 إيداع {} في الحساب {} (من {} إلى {})", 
+                    amount, account.getAccountNumber(), oldBalance, account.getBalance());
+        }
         
-        return accountRepository.save(account);
+        Account saved = accountRepository.save(account);
+        ledgerService.credit(accountId, amount, LedgerCode.CASH, null);
+        metrics.recordBalanceUpdate("deposit", System.nanoTime() - started);
+        return saved;
     }
     
     @Transactional
     public Account withdraw(Long accountId, Double amount) {
+        long started = System.nanoTime();
         Account account = getAccountById(accountId);
+        InMemoryBalanceEngine engine = balanceEngine.getIfAvailable();
+        if (engine == null) {
+            account = lockForUpdate(account);
+            hotAccountService.prepareDebit(account, amount);
+        }
         Double oldBalance = account.getBalance();
         
         // التحقق من حدود السحب لحسابات التوفير
@@ -227,26 +399,69 @@ public class AccountService {
             savingsAccount.setWithdrawalsThisMonth(savingsAccount.getWithdrawalsThisMonth() + 1);
         }
         
+        // المحرك: العداد الشهري وحده يُكتب في الصف (@DynamicUpdate)، والرصيد في الذاكرة والدفتر
+        if (engine != null) {
+            if (account instanceof SavingsAccount) {
+                accountRepository.save(account);
+                entityManager.flush();
+            }
+            EngineResult result = engine.withdraw(engineState(account), amount);
+            metrics.recordBalanceUpdate("withdraw", System.nanoTime() - started);
+            return detached(account, result.getBalance());
+        }
+        
         account.withdraw(amount);
         
-        log.info("💰 سحب {} من الحساب {} (من {} إلى {})", 
-                amount, account.getAccountNumber(), oldBalance, account.getBalance());
+        if (log.isDebugEnabled()) {
+            log.debug("💰 سحب {} من الحساب {} (من {} إلى {})", 
+                    amount, account.getAccountNumber(), oldBalance, account.getBalance());
+        }
         
-        return accountRepository.save(account);
+        Account saved = accountRepository.save(account);
+        ledgerService.debit(accountId, amount, LedgerCode.CASH, null);
+        metrics.recordBalanceUpdate("withdraw", System.nanoTime() - started);
+        return saved;
     }
     
     @Transactional
     public Account transfer(Long fromAccountId, Long toAccountId, Double amount) {
+        long started = System.nanoTime();
         Account fromAccount = getAccountById(fromAccountId);
         Account toAccount = getAccountById(toAccountId);
         
-        fromAccount.transferTo(toAccount, amount);
+        InMemoryBalanceEngine engine = balanceEngine.getIfAvailable();
+        if (engine != null) {
+            EngineResult result = engine.transfer(engineState(fromAccount), engineState(toAccount), amount);
+            metrics.recordBalanceUpdate("transfer", System.nanoTime() - started);
+            return detached(fromAccount, result.getBalance());
+        }
+        
+        // المستقبل الساخن لا يُقفل: الإيداع يذهب لجزء
+        if (toAccount.isHot()) {
+            fromAccount = lockForUpdate(fromAccount);
+        } else {
+            List<Account> locked = lockForUpdate(List.of(fromAccount, toAccount));
+            fromAccount = locked.get(0);
+            toAccount = locked.get(1);
+        }
+        hotAccountService.prepareDebit(fromAccount, amount);
         
-        log.info("💸 تحويل {} من {} إلى {}", 
-                amount, fromAccount.getAccountNumber(), toAccount.getAccountNumber());
+        if (toAccount.isHot() && !fromAccount.equals(toAccount)) {
+            fromAccount.withdraw(amount);
+            hotAccountService.credit(toAccount, amount);
+        } else {
+            fromAccount.transferTo(toAccount, amount);
+        }
+        
+        if (log.isDebugEnabled()) {
+            log.debug("💸 تحويل {} من {} إلى {}", 
+                    amount, fromAccount.getAccountNumber(), toAccount.getAccountNumber());
+        }
         
         accountRepository.save(fromAccount);
         accountRepository.save(toAccount);
+        ledgerService.transfer(fromAccountId, toAccountId, amount, null);
+        metrics.recordBalanceUpdate("transfer", System.nanoTime() - started);
         
         return fromAccount;
     }
@@ -257,25 +472,57 @@ public class AccountService {
     }
     
     public Double getAvailableBalance(Long accountId) {
-        Account account = getAccountById(accountId);
-        return account.getAvailableBalance();
+        return getAvailableBalance(getAccountById(accountId));
     }
     
-    // ========== Interest Operations ==========
+    /**
+     * الرصيد الحالي: من محرك الأرصدة إن كان الحساب فيه، وإلا من الصف مع أجزاء الحساب الساخن
+     */
+    public double getCurrentBalance(Account account) {
+        Double engineBalance = engineBalance(account);
+        return engineBalance != null ? engineBalance : hotAccountService.getBalance(account);
+    }
     
-    @Transactional
-    public Account applyInterest(Long accountId, Double interestAmount) {
-        Account account = getAccountById(accountId);
-        
-        account.addInterest(interestAmount);
-        account.setLastInterestCalculation(LocalDateTime.now());
-        
-        log.info("📈 تطبيق فائدة {} على الحساب {} (إجمالي الفوائد: {})", 
-                interestAmount, account.getAccountNumber(), account.getTotalInterestEarned());
-        
-        return accountRepository.save(account);
+    public double getAvailableBalance(Account account) {
+        Double engineBalance = engineBalance(account);
+        if (engineBalance != null) {
+            return engineBalance + account.getAvailableBalance() - account.getBalance();
+        }
+        return hotAccountService.getAvailableBalance(account);
+    }
+    
+    // ========== In-Memory Engine ==========
+    
+    private Double engineBalance(Account account) {
+        InMemoryBalanceEngine engine = balanceEngine.getIfAvailable();
+        return engine != null ? engine.getBalance(account.getId()) : null;
+    }
+    
+    /**
+     * البذرة تُستخدم فقط في أول أمر على الحساب؛ بعدها رصيد الذاكرة هو المرجع
+     */
+    private AccountState engineState(Account account) {
+        return AccountState.of(account, hotAccountService.getBalance(account));
+    }
+    
+    /**
+     * فصل الكيان قبل وضع رصيد المحرك فيه حتى لا يكتبه Hibernate فوق الإسقاط
+     */
+    private Account detached(Account account, double balance) {
+        entityManager.detach(account);
+        account.setBalance(balance);
+        return account;
+    }
+    
+    private void updateEngineLimits(Account account) {
+        InMemoryBalanceEngine engine = balanceEngine.getIfAvailable();
+        if (engine != null) {
+            engine.updateLimits(AccountState.of(account, account.getBalance()));
+        }
     }
     
+    // ========== Interest Operations ==========
+    
     @Transactional
     public Account updateInterestStrategy(Long accountId, String strategyName) {
         Account account = getAccountById(accountId);
@@ -334,6 +581,7 @@ public class AccountService {
     
     // ========== Statistics & Reports ==========
     
+    @Transactional(readOnly = true)
     public AccountStatistics getAccountStatistics() {
         List<Account> allAccounts = getAllAccounts();
         
@@ -377,6 +625,7 @@ public class AccountService {
                 .build();
     }
     
+    @Transactional(readOnly = true)
     public AccountSummary getAccountSummary(Long accountId) {
         Account account = getAccountById(accountId);
         
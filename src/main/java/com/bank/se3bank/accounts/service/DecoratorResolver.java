@@ -0,0 +1,105 @@
+package com.bank.se3bank.accounts.service;
+
+import com.bank.se3bank.accounts.decorators.AccountDecorator;
+import com.bank.se3bank.accounts.decorators.ComposedAccountView;
+import com.bank.se3bank.accounts.repository.AccountDecoratorRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * طبقة حل الديكورات: تحميل الديكورات النشطة لحساب باستعلام واحد
+ * وبناء ComposedAccountView وتخزينه مؤقتاً حسب رقم الحساب
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class DecoratorResolver {
+
+    private final AccountDecoratorRepository decoratorRepository;
+
+    private final Map<Long, ComposedAccountView> views = new ConcurrentHashMap<>();
+
+    /**
+     * نسخة لكل حساب تزداد مع كل إبطال، وتمنع تخزين عرض قُرئ من قاعدة البيانات قبل إبطال نفس الحساب
+     * (إبطال حساب لا يمس العروض المخزنة للحسابات الأخرى)
+     */
+    private final Map<Long, Long> versions = new ConcurrentHashMap<>();
+
+    /**
+     * يزداد عند تفريغ النسخ (invalidateAll أو امتلاء الذاكرة) حتى لا تُعتبر نسخة محذوفة مطابقة لنسخة جديدة
+     */
+    private final AtomicLong epoch = new AtomicLong();
+
+    @Value("${app.decorators.view-cache.max-entries:100000}")
+    private int maxEntries = 100_000;
+
+    /**
+     * الحصول على العرض المركب للحساب (من الذاكرة إن وجد)
+     */
+    public ComposedAccountView resolve(Long accountId) {
+        ComposedAccountView cached = views.get(accountId);
+        if (cached != null) {
+            return cached;
+        }
+
+        long observedEpoch = epoch.get();
+        long observedVersion = versions.getOrDefault(accountId, 0L);
+        List<AccountDecorator> active = decoratorRepository.findByDecoratedAccountIdAndIsActiveTrue(accountId);
+        ComposedAccountView view = ComposedAccountView.compose(accountId, active);
+
+        if (views.size() >= maxEntries) {
+            log.debug("🧹 تفريغ ذاكرة عروض الديكورات بعد الوصول إلى {} عنصر", maxEntries);
+            invalidateAll();
+            return view;
+        }
+        // الفحص داخل compute: إبطال يزيد النسخة قبل الحذف، فإما أن نرى النسخة الجديدة أو يحذف الإبطال ما وضعناه
+        views.compute(accountId, (id, existing) -> {
+            if (existing != null) {
+                return existing;
+            }
+            boolean unchanged = epoch.get() == observedEpoch
+                    && versions.getOrDefault(id, 0L) == observedVersion;
+            return unchanged ? view : null;
+        });
+        return view;
+    }
+
+    /**
+     * إبطال العرض فوراً وبعد إتمام المعاملة الحالية (إن وجدت)
+     */
+    public void invalidate(Long accountId) {
+        evict(accountId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evict(accountId);
+                }
+            });
+        }
+    }
+
+    public void invalidateAll() {
+        epoch.incrementAndGet();
+        versions.clear();
+        views.clear();
+    }
+
+    public int getCachedViewCount() {
+        return views.size();
+    }
+
+    private void evict(Long accountId) {
+        versions.merge(accountId, 1L, Long::sum);
+        views.remove(accountId);
+    }
+}
@@ -2,6 +2,7 @@ package com.bank.se3bank.accounts.service;
 
 import com.bank.se3bank.accounts.decorators.*;
 import com.bank.se3bank.accounts.model.Account;
+import com.bank.se3bank.accounts.model.FeeRun;
 import com.bank.se3bank.accounts.repository.AccountDecoratorRepository;
 import com.bank.se3bank.shared.dto.AddDecoratorRequest;
 import lombok.RequiredArgsConstructor;
@@ -19,6 +20,8 @@ public class DecoratorService {
     private final AccountDecoratorRepository decoratorRepository;
     private final AccountService accountService;
     private final DecoratorFactory decoratorFactory;
+    private final DecoratorResolver decoratorResolver;
+    private final MonthlyFeeEngine monthlyFeeEngine;
     
     /**
      * إضافة ديكور لحساب
@@ -43,6 +46,7 @@ public class DecoratorService {
         
         // حفظ الديكور في قاعدة البيانات
         AccountDecorator savedDecorator = decoratorRepository.save(decorator);
+        decoratorResolver.invalidate(account.getId());
         
         log.info("✅ تم إضافة ديكور {} للحساب {} بنجاح",
                 savedDecorator.getDecoratorName(), account.getAccountNumber());
@@ -61,6 +65,7 @@ public class DecoratorService {
         
         decorator.deactivate();
         decoratorRepository.save(decorator);
+        invalidateView(decorator);
         
         log.info("🗑️ تم تعطيل الديكور: {}", decorator.getDecoratorName());
     }
@@ -76,6 +81,7 @@ public class DecoratorService {
         
         decorator.activate();
         AccountDecorator savedDecorator = decoratorRepository.save(decorator);
+        invalidateView(savedDecorator);
         
         log.info("✅ تم تفعيل الديكور: {}", savedDecorator.getDecoratorName());
         
@@ -97,23 +103,10 @@ public class DecoratorService {
     }
     
     /**
-     * تطبيق جميع الرسوم الشهرية للديكورات
+     * تطبيق جميع الرسوم الشهرية للديكورات (للفترة الحالية)
      */
-    @Transactional
-    public void applyAllMonthlyFees() {
-        List<AccountDecorator> activeDecorators = decoratorRepository.findByIsActiveTrue();
-        
-        log.info("💰 تطبيق الرسوم الشهرية لـ {} ديكور", activeDecorators.size());
-        
-        activeDecorators.forEach(decorator -> {
-            try {
-                decorator.applyMonthlyFee();
-                decoratorRepository.save(decorator);
-            } catch (Exception e) {
-                log.error("❌ خطأ في تطبيق الرسوم للديكور {}: {}", 
-                        decorator.getId(), e.getMessage());
-            }
-        });
+    public FeeRun applyAllMonthlyFees() {
+        return monthlyFeeEngine.applyMonthlyFees();
     }
     
     /**
@@ -124,48 +117,36 @@ public class DecoratorService {
             return ((AccountDecorator) account).hasDecorator(decoratorType);
         }
         
-        // التحقق في قاعدة البيانات
-        return !decoratorRepository
-                .findByDecoratedAccountIdAndDecoratorNameContainingIgnoreCase(
-                        account.getId(), decoratorType)
-                .isEmpty();
+        return decoratorResolver.resolve(account.getId()).hasDecoratorType(decoratorType);
     }
     
     /**
-     * الحصول على الحساب مع جميع ديكوراته
+     * العرض المركب للحساب (ميزات، حد المكشوف، إجمالي الرسوم) من الذاكرة المؤقتة
      */
-    public Account getAccountWithDecorators(Long accountId) {
-        Account account = accountService.getAccountById(accountId);
-        List<AccountDecorator> decorators = getActiveDecorators(accountId);
-        
-        // تطبيق الديكورات على الحساب
-        Account decoratedAccount = account;
-        for (AccountDecorator decorator : decorators) {
-            // Note: في تطبيق حقيقي، قد نحتاج إلى طريقة أفضل لربط الديكورات
-            decorator.setDecoratedAccount(decoratedAccount);
-            decoratedAccount = decorator;
-        }
-        
-        return decoratedAccount;
+    public ComposedAccountView getComposedView(Long accountId) {
+        return decoratorResolver.resolve(accountId);
+    }
+    
+    /**
+     * التحقق من ميزة بزمن ثابت - مناسب لمسار المعاملات
+     */
+    public boolean hasFeature(Long accountId, DecoratorFeature feature) {
+        return decoratorResolver.resolve(accountId).hasFeature(feature);
+    }
+    
+    /**
+     * حد المكشوف الإضافي من الديكورات لمسار السحب والتحويل (من العرض المخزن، بدون تحميل السلسلة)
+     */
+    public double getOverdraftAllowance(Long accountId) {
+        return decoratorResolver.resolve(accountId).getOverdraftAllowance();
     }
     
     /**
      * الحصول على ميزات الحساب (الأصلية + المضافة)
      */
     public List<String> getAccountFeatures(Long accountId) {
-        Account account = getAccountWithDecorators(accountId);
-        List<String> features = new java.util.ArrayList<>();
-        
-        if (account instanceof AccountDecorator) {
-            features.addAll(((AccountDecorator) account).getAddedFeatures());
-        }
-        
-        // إضافة الميزات الأساسية
-        features.add("BASIC_BANKING");
-        features.add("ONLINE_BANKING");
-        features.add("MOBILE_BANKING");
-        
-        return features;
+        accountService.getAccountById(accountId);
+        return decoratorResolver.resolve(accountId).getFeatures();
     }
     
     /**
@@ -196,6 +177,14 @@ public class DecoratorService {
             decorator.setDescription(request.getDescription());
         }
         
-        return decoratorRepository.save(decorator);
+        AccountDecorator savedDecorator = decoratorRepository.save(decorator);
+        invalidateView(savedDecorator);
+        return savedDecorator;
+    }
+    
+    private void invalidateView(AccountDecorator decorator) {
+        if (decorator.getDecoratedAccount() != null) {
+            decoratorResolver.invalidate(decorator.getDecoratedAccount().getId());
+        }
     }
 }
\ No newline at end of file
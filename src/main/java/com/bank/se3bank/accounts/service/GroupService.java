@@ -1,19 +1,25 @@
 package com.bank.se3bank.accounts.service;
 
+import com.bank.se3bank.accounts.engine.InMemoryBalanceEngine;
 import com.bank.se3bank.accounts.model.Account;
 import com.bank.se3bank.accounts.model.AccountGroup;
 import com.bank.se3bank.accounts.repository.AccountGroupRepository;
 import com.bank.se3bank.accounts.repository.AccountRepository;
 import com.bank.se3bank.shared.dto.CreateGroupRequest;
+import com.bank.se3bank.shared.dto.GroupBalanceAggregate;
+import com.bank.se3bank.shared.dto.GroupSummary;
 import com.bank.se3bank.shared.enums.AccountStatus;
 import com.bank.se3bank.users.model.User;
 import com.bank.se3bank.users.service.UserService;
 import lombok.*;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -23,6 +29,7 @@ public class GroupService {
     private final AccountGroupRepository accountGroupRepository;
     private final AccountRepository accountRepository;
     private final UserService userService;
+    private final ObjectProvider<InMemoryBalanceEngine> balanceEngine;
     
     /**
      * إنشاء مجموعة حسابات جديدة (Composite)
@@ -125,6 +132,27 @@ public class GroupService {
         return accountGroupRepository.findByUserId(userId);
     }
     
+    /**
+     * ملخصات مجموعات المستخدم للقوائم (بدون تحميل الحسابات الفرعية)
+     */
+    @Transactional(readOnly = true)
+    public List<GroupSummary> getUserGroupSummaries(Long userId) {
+        List<GroupSummary> summaries = accountGroupRepository.findSummariesByUserId(userId);
+        if (summaries.isEmpty()) {
+            return summaries;
+        }
+        
+        // نفس الرصيد الذي تعرضه /api/accounts و getGroupAggregate: الأبناء النشطون حتى الحسابات الفعلية
+        List<Long> groupIds = summaries.stream().map(GroupSummary::getId).toList();
+        Map<Long, Double> balances = accountRepository
+                .sumActiveBalancesByGroup(groupIds, AccountStatus.ACTIVE.name())
+                .stream()
+                .collect(Collectors.toMap(AccountRepository.GroupBalanceView::getGroupId,
+                        view -> view.getActiveBalance() != null ? view.getActiveBalance() : 0.0));
+        summaries.forEach(summary -> summary.setTotalBalance(balances.getOrDefault(summary.getId(), 0.0)));
+        return summaries;
+    }
+    
     /**
      * الحصول على حسابات مجموعة معينة
      */
@@ -136,17 +164,62 @@ public class GroupService {
     /**
      * حساب إجمالي رصيد المجموعة
      */
+    @Transactional(readOnly = true)
     public Double getGroupTotalBalance(Long groupId) {
-        AccountGroup group = getGroupById(groupId);
-        return group.getTotalBalance();
+        return getGroupAggregate(groupId).getActiveBalance();
+    }
+    
+    /**
+     * مجاميع المجموعة (إجمالي، نشط، عدد، أدنى/أعلى) باستعلام تجميعي واحد
+     * المجموعة التي تحتوي مجموعات فرعية تُحسب بالمرور على الشجرة كما في AccountGroup.getBalance
+     */
+    @Transactional(readOnly = true)
+    public GroupBalanceAggregate getGroupAggregate(Long groupId) {
+        if (!accountGroupRepository.existsById(groupId)) {
+            throw new IllegalArgumentException("المجموعة غير موجودة: " + groupId);
+        }
+        if (accountRepository.hasNestedGroups(groupId)) {
+            return aggregateRecursively(getGroupById(groupId));
+        }
+        GroupBalanceAggregate aggregate = accountRepository.aggregateGroupBalances(
+                groupId, AccountStatus.ACTIVE, AccountStatus.FROZEN);
+        aggregate.setGroupId(groupId);
+        return aggregate;
+    }
+    
+    private GroupBalanceAggregate aggregateRecursively(AccountGroup group) {
+        List<Account> children = group.getChildAccounts();
+        long active = 0;
+        long frozen = 0;
+        double total = 0.0;
+        double activeBalance = 0.0;
+        Double min = null;
+        Double max = null;
+        for (Account child : children) {
+            double balance = child.getBalance();
+            total += balance;
+            if (child.getStatus() == AccountStatus.ACTIVE) {
+                active++;
+                activeBalance += balance;
+            } else if (child.getStatus() == AccountStatus.FROZEN) {
+                frozen++;
+            }
+            min = min == null ? balance : Math.min(min, balance);
+            max = max == null ? balance : Math.max(max, balance);
+        }
+        GroupBalanceAggregate aggregate = new GroupBalanceAggregate(
+                (long) children.size(), active, frozen, total, activeBalance, min, max);
+        aggregate.setGroupId(group.getId());
+        return aggregate;
     }
     
     /**
-     * تحويل رصيد داخل المجموعة
+     * تحويل رصيد داخل المجموعة (مرفوض مع محرك الأرصدة: يعدّل الكيانات مباشرة)
      */
     @Transactional
     public void transferWithinGroup(Long groupId, String fromAccountNumber, 
                                    String toAccountNumber, Double amount) {
+        InMemoryBalanceEngine.rejectDirectWrites(balanceEngine, "التحويل داخل المجموعة");
         AccountGroup group = getGroupById(groupId);
         group.transferWithinGroup(fromAccountNumber, toAccountNumber, amount);
         
@@ -173,29 +246,29 @@ public class GroupService {
     /**
      * الحصول على إحصائيات المجموعة
      */
+    @Transactional(readOnly = true)
     public GroupStatistics getGroupStatistics(Long groupId) {
         AccountGroup group = getGroupById(groupId);
+        GroupBalanceAggregate aggregate = getGroupAggregate(groupId);
         
-        long activeAccounts = group.getChildAccounts().stream()
-                .filter(account -> account.getStatus() == AccountStatus.ACTIVE)
-                .count();
-        
-        long frozenAccounts = group.getChildAccounts().stream()
-                .filter(account -> account.getStatus() == AccountStatus.FROZEN)
-                .count();
-        
-        double averageBalance = group.getAverageBalance();
-        Account largestAccount = group.getLargestAccount();
-        Account smallestAccount = group.getSmallestAccount();
+        AccountRepository.AccountBalanceView largestAccount;
+        AccountRepository.AccountBalanceView smallestAccount;
+        if (accountRepository.hasNestedGroups(groupId)) {
+            largestAccount = balanceView(group.getLargestAccount());
+            smallestAccount = balanceView(group.getSmallestAccount());
+        } else {
+            largestAccount = accountRepository.findFirstByParentGroupIdOrderByBalanceDesc(groupId).orElse(null);
+            smallestAccount = accountRepository.findFirstByParentGroupIdOrderByBalanceAsc(groupId).orElse(null);
+        }
         
         return GroupStatistics.builder()
                 .groupId(groupId)
                 .groupName(group.getGroupName())
-                .totalAccounts(group.getChildCount())
-                .activeAccounts(activeAccounts)
-                .frozenAccounts(frozenAccounts)
-                .totalBalance(group.getTotalBalance())
-                .averageBalance(averageBalance)
+                .totalAccounts(aggregate.getAccountCount().intValue())
+                .activeAccounts(aggregate.getActiveAccounts())
+                .frozenAccounts(aggregate.getFrozenAccounts())
+                .totalBalance(aggregate.getActiveBalance())
+                .averageBalance(aggregate.getAverageBalance())
                 .largestAccountNumber(largestAccount != null ? largestAccount.getAccountNumber() : "N/A")
                 .largestAccountBalance(largestAccount != null ? largestAccount.getBalance() : 0.0)
                 .smallestAccountNumber(smallestAccount != null ? smallestAccount.getAccountNumber() : "N/A")
@@ -203,6 +276,25 @@ public class GroupService {
                 .build();
     }
     
+    private static AccountRepository.AccountBalanceView balanceView(Account account) {
+        if (account == null) {
+            return null;
+        }
+        String accountNumber = account.getAccountNumber();
+        Double balance = account.getBalance();
+        return new AccountRepository.AccountBalanceView() {
+            @Override
+            public String getAccountNumber() {
+                return accountNumber;
+            }
+            
+            @Override
+            public Double getBalance() {
+                return balance;
+            }
+        };
+    }
+    
     /**
      * توليد رقم حساب للمجموعة
      */
@@ -0,0 +1,251 @@
+package com.bank.se3bank.accounts.service;
+
+import com.bank.se3bank.accounts.engine.InMemoryBalanceEngine;
+import com.bank.se3bank.accounts.model.Account;
+import com.bank.se3bank.shared.exceptions.AccountNotFoundException;
+import com.bank.se3bank.shared.metrics.BankMetrics;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * أجزاء الرصيد للحسابات الساخنة (حسابات التجار والرواتب التي تستقبل آلاف الإيداعات)
+ *
+ * - الحساب الساخن له balance_slots صفاً في account_balance_slots والرصيد الكامل = accounts.balance + مجموع الأجزاء
+ * - الإيداع يضيف لجزء عشوائي بـ UPDATE ذري واحد، فلا يتسلسل على صف الحساب وتتوزع الأقفال على N صف
+ * - السحب يقفل صف الحساب ثم ينقل الأجزاء الموجبة بترتيب رقمها إلى accounts.balance حتى يكفي الرصيد،
+ *   فيبقى canWithdraw والسحب على المكشوف على نفس قواعد الحساب العادي
+ * - الطي الدوري ينقل الأجزاء إلى accounts.balance حتى يبقى الرصيد في العمود قريباً من الكامل
+ * - ترتيب الأقفال دائماً: صف الحساب ثم الأجزاء تصاعدياً؛ الإيداع يقفل جزءاً واحداً فقط
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class HotAccountService {
+
+    private static final String CREDIT_SLOT_SQL =
+            "UPDATE account_balance_slots SET balance = balance + ?, updated_at = ? WHERE account_id = ? AND slot = ?";
+
+    private static final String CREDIT_ACCOUNT_SQL =
+            "UPDATE accounts SET balance = balance + ?, updated_at = ? WHERE id = ?";
+
+    private static final String SLOT_SUM_SQL =
+            "SELECT COALESCE(SUM(balance), 0) FROM account_balance_slots WHERE account_id = ?";
+
+    private static final String LOCK_ACCOUNT_SQL = "SELECT balance FROM accounts WHERE id = ? FOR UPDATE";
+
+    private static final String LOCK_SLOTS_SQL =
+            "SELECT slot, balance FROM account_balance_slots WHERE account_id = ? AND balance > 0 ORDER BY slot FOR UPDATE";
+
+    private static final String ZERO_SLOT_SQL =
+            "UPDATE account_balance_slots SET balance = 0, updated_at = ? WHERE account_id = ? AND slot = ?";
+
+    private static final String FOLD_CANDIDATES_SQL =
+            "SELECT account_id FROM account_balance_slots WHERE balance > 0 GROUP BY account_id ORDER BY account_id";
+
+    private static final String DELETE_SLOTS_SQL = "DELETE FROM account_balance_slots WHERE account_id = ?";
+
+    private static final String INSERT_SLOT_SQL =
+            "INSERT INTO account_balance_slots (account_id, slot, balance, updated_at) VALUES (?, ?, 0, ?)";
+
+    private static final String SET_SLOTS_SQL = "UPDATE accounts SET balance_slots = ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final BankMetrics metrics;
+    private final ObjectProvider<InMemoryBalanceEngine> balanceEngine;
+
+    @Value("${app.accounts.hot.fold-enabled:true}")
+    private boolean foldEnabled = true;
+
+    @Value("${app.accounts.hot.max-slots:64}")
+    private int maxSlots = 64;
+
+    // ========== Credits ==========
+
+    /**
+     * إيداع في جزء عشوائي داخل معاملة المستدعي؛ الكيان لا يُعدَّل
+     * إن حُذف الجزء بعد تقليص عدد الأجزاء يُضاف المبلغ مباشرة إلى accounts.balance
+     * مع محرك الأرصدة تمر الإيداعات بالمحرك، وإيداع في جزء لن يراه رصيد الذاكرة فيُرفض
+     */
+    public void credit(Account account, double amount) {
+        if (amount <= 0) {
+            throw new IllegalArgumentException("المبلغ يجب أن يكون أكبر من صفر");
+        }
+        InMemoryBalanceEngine.rejectDirectWrites(balanceEngine, "الإيداع في أجزاء الحساب الساخن");
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        int slot = ThreadLocalRandom.current().nextInt(account.getBalanceSlots());
+        if (jdbcTemplate.update(CREDIT_SLOT_SQL, amount, now, account.getId(), slot) == 0) {
+            jdbcTemplate.update(CREDIT_ACCOUNT_SQL, amount, now, account.getId());
+        }
+    }
+
+    // ========== Debits ==========
+
+    /**
+     * تجهيز حساب ساخن للخصم: قفل صفه وقراءة عموده ثم نقل الأجزاء بالترتيب حتى يكفي الرصيد
+     * يجب استدعاؤها قبل أي تعديل على الكيان، وبعدها يُخصم من الكيان كأي حساب عادي
+     */
+    public void prepareDebit(Account account, double amount) {
+        if (account.isHot()) {
+            sweep(account, amount);
+        }
+    }
+
+    /**
+     * قفل حساب ساخن ونقل كل أجزائه إلى الكيان (قبل حساب الفائدة أو أي كتابة مطلقة للرصيد)
+     */
+    public void collect(Account account) {
+        if (account.isHot()) {
+            sweep(account, Double.POSITIVE_INFINITY);
+        }
+    }
+
+    private void sweep(Account account, double amount) {
+        Double column = jdbcTemplate.queryForObject(LOCK_ACCOUNT_SQL, Double.class, account.getId());
+        if (column == null) {
+            throw new AccountNotFoundException(account.getId());
+        }
+        account.setBalance(column);
+        if (account.canWithdraw(amount)) {
+            return;
+        }
+
+        List<double[]> slots = jdbcTemplate.query(LOCK_SLOTS_SQL,
+                (rs, rowNum) -> new double[]{rs.getInt("slot"), rs.getDouble("balance")}, account.getId());
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> swept = new ArrayList<>();
+        for (double[] slot : slots) {
+            if (account.canWithdraw(amount)) {
+                break;
+            }
+            account.setBalance(account.getBalance() + slot[1]);
+            swept.add(new Object[]{now, account.getId(), (int) slot[0]});
+        }
+        if (!swept.isEmpty()) {
+            jdbcTemplate.batchUpdate(ZERO_SLOT_SQL, swept);
+            metrics.recordHotAccountSweep(swept.size());
+        }
+    }
+
+    // ========== Balances ==========
+
+    /**
+     * مجموع الأجزاء (صفر بدون استعلام للحساب العادي)
+     */
+    public double getSlotBalance(Account account) {
+        if (!account.isHot()) {
+            return 0.0;
+        }
+        Double sum = jdbcTemplate.queryForObject(SLOT_SUM_SQL, Double.class, account.getId());
+        return sum != null ? sum : 0.0;
+    }
+
+    public double getBalance(Account account) {
+        return account.getBalance() + getSlotBalance(account);
+    }
+
+    public double getAvailableBalance(Account account) {
+        return account.getAvailableBalance() + getSlotBalance(account);
+    }
+
+    // ========== Configuration ==========
+
+    /**
+     * تعيين عدد الأجزاء (0 = إلغاء): تُطوى الأجزاء الحالية أولاً ثم يُعاد إنشاؤها فارغة
+     */
+    @Transactional
+    public double configure(Long accountId, int slots) {
+        if (slots < 0 || slots > maxSlots) {
+            throw new IllegalArgumentException("عدد الأجزاء يجب أن يكون بين 0 و " + maxSlots);
+        }
+        double folded = foldLocked(accountId);
+        jdbcTemplate.update(DELETE_SLOTS_SQL, accountId);
+        if (slots > 0) {
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            List<Object[]> rows = new ArrayList<>(slots);
+            for (int slot = 0; slot < slots; slot++) {
+                rows.add(new Object[]{accountId, slot, now});
+            }
+            jdbcTemplate.batchUpdate(INSERT_SLOT_SQL, rows);
+        }
+        jdbcTemplate.update(SET_SLOTS_SQL, slots > 0 ? slots : null, accountId);
+        log.info("🔥 أجزاء رصيد الحساب {}: {} (طُوي {})", accountId, slots, folded);
+        return folded;
+    }
+
+    // ========== Folding ==========
+
+    @Scheduled(fixedDelayString = "${app.accounts.hot.fold-interval-ms:5000}",
+               initialDelayString = "${app.accounts.hot.fold-initial-delay-ms:30000}")
+    public void scheduledFold() {
+        if (!foldEnabled) {
+            return;
+        }
+        try {
+            foldAll();
+        } catch (RuntimeException e) {
+            log.error("❌ فشل طي أجزاء الحسابات الساخنة: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * طي كل حساب له أجزاء موجبة في معاملته الخاصة، ويعيد عدد الحسابات المطوية
+     */
+    public int foldAll() {
+        long started = System.nanoTime();
+        List<Long> accountIds = jdbcTemplate.queryForList(FOLD_CANDIDATES_SQL, Long.class);
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        int folded = 0;
+        for (Long accountId : accountIds) {
+            try {
+                template.executeWithoutResult(status -> foldLocked(accountId));
+                folded++;
+            } catch (RuntimeException e) {
+                log.warn("⚠️ تعذر طي أجزاء الحساب {}: {}", accountId, e.getMessage());
+            }
+        }
+        if (!accountIds.isEmpty()) {
+            metrics.recordHotAccountFold(folded, System.nanoTime() - started);
+            log.debug("🔥 طي أجزاء {} حساب ساخن", folded);
+        }
+        return folded;
+    }
+
+    /**
+     * نقل كل الأجزاء إلى accounts.balance داخل المعاملة الحالية (قفل الحساب ثم الأجزاء)
+     */
+    private double foldLocked(Long accountId) {
+        if (jdbcTemplate.queryForList(LOCK_ACCOUNT_SQL, Double.class, accountId).isEmpty()) {
+            throw new AccountNotFoundException(accountId);
+        }
+        List<double[]> slots = jdbcTemplate.query(LOCK_SLOTS_SQL,
+                (rs, rowNum) -> new double[]{rs.getInt("slot"), rs.getDouble("balance")}, accountId);
+        if (slots.isEmpty()) {
+            return 0.0;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        double total = 0.0;
+        List<Object[]> zeroed = new ArrayList<>(slots.size());
+        for (double[] slot : slots) {
+            total += slot[1];
+            zeroed.add(new Object[]{now, accountId, (int) slot[0]});
+        }
+        jdbcTemplate.batchUpdate(ZERO_SLOT_SQL, zeroed);
+        jdbcTemplate.update(CREDIT_ACCOUNT_SQL, total, now, accountId);
+        return total;
+    }
+}
@@ -0,0 +1,338 @@
+package com.bank.se3bank.accounts.service;
+
+import com.bank.se3bank.accounts.decorators.DecoratorFeeLine;
+import com.bank.se3bank.accounts.engine.InMemoryBalanceEngine;
+import com.bank.se3bank.accounts.model.FeeRun;
+import com.bank.se3bank.accounts.repository.AccountDecoratorRepository;
+import com.bank.se3bank.accounts.repository.FeeRunRepository;
+import com.bank.se3bank.ledger.model.LedgerJournal;
+import com.bank.se3bank.ledger.service.LedgerService;
+import com.bank.se3bank.shared.enums.LedgerCode;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * محرك الرسوم الشهرية للديكورات (معالجة على مستوى المجموعات بدلاً من كيان بكيان)
+ *
+ * - قراءة الحسابات المعنية بدفعات keyset حسب رقم الحساب
+ * - لكل دفعة: استعلام واحد لكل نوع ديكور، جمع الرسوم لكل حساب
+ * - الخصم وقيده عبر LedgerService.debitIfCovered، ثم معاملات FEE بـ JDBC batch داخل معاملة واحدة للدفعة
+ * - الدفعات تُعالج بالتوازي، وكل ديكور يُعلَّم بالفترة فيصبح التشغيل قابلاً للاستئناف
+ * - رقم معاملة FEE يحمل أصغر ديكور خُصم فيها: ديكور أُضيف لاحقاً في نفس الفترة يُخصم بمعاملة جديدة
+ *   لا تتعارض مع الأولى، وتعليم الديكور شرطي فلا يُخصم مرتين من تشغيلين متزامنين
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class MonthlyFeeEngine {
+
+    private static final String FEE_TRANSACTION_SQL =
+            "INSERT INTO transactions (transaction_id, from_account_id, amount, transaction_type, status, " +
+            "description, reference_number, created_at, processed_at) " +
+            "VALUES (?, ?, ?, 'FEE', 'COMPLETED', ?, ?, ?, ?)";
+
+    private final AccountDecoratorRepository decoratorRepository;
+    private final FeeRunRepository feeRunRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final LedgerService ledgerService;
+    private final ObjectProvider<InMemoryBalanceEngine> balanceEngine;
+
+    @Value("${app.fees.chunk-size:500}")
+    private int chunkSize = 500;
+
+    @Value("${app.fees.parallelism:4}")
+    private int parallelism = 4;
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private volatile ExecutorService executor;
+
+    /**
+     * تطبيق رسوم الفترة الحالية
+     */
+    public FeeRun applyMonthlyFees() {
+        return applyMonthlyFees(YearMonth.now());
+    }
+
+    /**
+     * تطبيق رسوم فترة معينة - إعادة الاستدعاء بعد فشل تكمل من حيث توقف التشغيل السابق
+     * مرفوض مع محرك الأرصدة: الخصم يُكتب على accounts.balance مباشرة
+     */
+    public FeeRun applyMonthlyFees(YearMonth yearMonth) {
+        InMemoryBalanceEngine.rejectDirectWrites(balanceEngine, "تطبيق الرسوم الشهرية");
+        String period = yearMonth.toString();
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("يوجد تشغيل رسوم قيد التنفيذ حالياً");
+        }
+
+        try {
+            FeeRun run = feeRunRepository.findByPeriod(period)
+                    .orElseGet(() -> FeeRun.builder().period(period).status(FeeRun.STATUS_RUNNING).build());
+            if (FeeRun.STATUS_COMPLETED.equals(run.getStatus())) {
+                log.info("ℹ️ رسوم الفترة {} مطبقة مسبقاً", period);
+                return run;
+            }
+
+            run.setStatus(FeeRun.STATUS_RUNNING);
+            run.setAttempts(run.getAttempts() + 1);
+            run.setStartedAt(LocalDateTime.now());
+            run.setFailureReason(null);
+            run = feeRunRepository.save(run);
+
+            log.info("💰 بدء تطبيق الرسوم الشهرية للفترة {} (محاولة {})", period, run.getAttempts());
+            long startTime = System.nanoTime();
+            RunTotals totals = new RunTotals();
+
+            try {
+                processAllChunks(period, totals);
+            } catch (RuntimeException e) {
+                finish(run, totals, startTime, FeeRun.STATUS_FAILED, e.getMessage());
+                log.error("❌ توقف تطبيق الرسوم للفترة {}: {}", period, e.getMessage());
+                throw e;
+            }
+
+            finish(run, totals, startTime, FeeRun.STATUS_COMPLETED, null);
+            log.info("✅ انتهت رسوم الفترة {}: {} حساب، {} ديكور، إجمالي {}، {} رسم/ثانية، {} حساب تم تخطيه",
+                    period, totals.accountsCharged.sum(), totals.decoratorsCharged.sum(),
+                    String.format("%.2f", totals.totalFees.sum()),
+                    String.format("%.1f", run.getFeesPerSecond()), totals.accountsSkipped.sum());
+            return run;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private void processAllChunks(String period, RunTotals totals) {
+        ExecutorService pool = executor();
+        Semaphore inFlight = new Semaphore(parallelism * 2);
+        List<Future<?>> futures = new ArrayList<>();
+        Set<Long> skippedAccounts = new HashSet<>();
+        long afterAccountId = 0L;
+
+        try {
+            while (true) {
+                List<Long> accountIds = decoratorRepository.findPendingFeeAccountIds(
+                        period, afterAccountId, PageRequest.of(0, chunkSize));
+                if (accountIds.isEmpty()) {
+                    break;
+                }
+                afterAccountId = accountIds.get(accountIds.size() - 1);
+
+                inFlight.acquire();
+                futures.add(pool.submit(() -> {
+                    try {
+                        ChunkResult result = new TransactionTemplate(transactionManager)
+                                .execute(status -> processChunk(period, accountIds));
+                        totals.add(result);
+                        if (result != null && !result.skippedAccountIds.isEmpty()) {
+                            synchronized (skippedAccounts) {
+                                skippedAccounts.addAll(result.skippedAccountIds);
+                            }
+                        }
+                    } finally {
+                        inFlight.release();
+                    }
+                }));
+            }
+
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("تمت مقاطعة تطبيق الرسوم", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("فشل تطبيق الرسوم لإحدى الدفعات: " + e.getCause().getMessage(), e.getCause());
+        }
+
+        if (!skippedAccounts.isEmpty()) {
+            log.warn("⚠️ {} حساب لم يُخصم منه لعدم كفاية الرصيد أو عدم نشاط الحساب", skippedAccounts.size());
+        }
+    }
+
+    /**
+     * معالجة دفعة حسابات داخل معاملة واحدة
+     */
+    ChunkResult processChunk(String period, List<Long> accountIds) {
+        List<DecoratorFeeLine> lines = new ArrayList<>();
+        List<DecoratorFeeLine> overdraftLines = decoratorRepository.findOverdraftFeeLines(period, accountIds);
+        List<DecoratorFeeLine> premiumLines = decoratorRepository.findPremiumFeeLines(period, accountIds);
+        lines.addAll(overdraftLines);
+        lines.addAll(decoratorRepository.findInsuranceFeeLines(period, accountIds));
+        lines.addAll(premiumLines);
+
+        Map<Long, Double> feeByAccount = new LinkedHashMap<>();
+        Map<Long, List<Long>> decoratorsByAccount = new LinkedHashMap<>();
+        for (DecoratorFeeLine line : lines) {
+            feeByAccount.merge(line.getAccountId(), line.getFee(), Double::sum);
+            decoratorsByAccount.computeIfAbsent(line.getAccountId(), id -> new ArrayList<>(3))
+                    .add(line.getDecoratorId());
+        }
+
+        ChunkResult result = new ChunkResult();
+        if (feeByAccount.isEmpty()) {
+            return result;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        Timestamp timestamp = Timestamp.valueOf(now);
+        List<LedgerJournal> debits = new ArrayList<>(feeByAccount.size());
+        Map<String, Long> accountByJournal = new LinkedHashMap<>();
+        for (Map.Entry<Long, Double> entry : feeByAccount.entrySet()) {
+            Long accountId = entry.getKey();
+            String feeId = "FEE-" + period + "-" + accountId + "-"
+                    + Collections.min(decoratorsByAccount.get(accountId));
+            debits.add(LedgerJournal.debit(feeId, null, accountId, round(entry.getValue()), LedgerCode.FEE_INCOME));
+            accountByJournal.put(feeId, accountId);
+        }
+        List<LedgerJournal> charged = ledgerService.debitIfCovered(debits);
+
+        List<Object[]> feeTransactions = new ArrayList<>(charged.size());
+        Set<Long> chargedAccounts = new HashSet<>();
+        Set<Long> chargedDecorators = new HashSet<>();
+        for (LedgerJournal journal : charged) {
+            Long accountId = accountByJournal.get(journal.getJournalId());
+            double fee = round(feeByAccount.get(accountId));
+            List<Long> decoratorIds = decoratorsByAccount.get(accountId);
+            feeTransactions.add(new Object[]{
+                    journal.getJournalId(), accountId, fee,
+                    "رسوم شهرية للديكورات (" + decoratorIds.size() + ")",
+                    "FEE-" + period, timestamp, timestamp});
+            chargedAccounts.add(accountId);
+            chargedDecorators.addAll(decoratorIds);
+            result.accountsCharged++;
+            result.totalFees += fee;
+        }
+        for (Long accountId : feeByAccount.keySet()) {
+            if (!chargedAccounts.contains(accountId)) {
+                result.skippedAccountIds.add(accountId);
+            }
+        }
+
+        if (!feeTransactions.isEmpty()) {
+            // تشغيل متزامن علّم بعض الديكورات: تُلغى الدفعة كاملة (الخصم والقيد معها)
+            int marked = decoratorRepository.markFeesCharged(period, chargedDecorators);
+            if (marked != chargedDecorators.size()) {
+                throw new IllegalStateException("رسوم بعض الديكورات حُصّلت لنفس الفترة " + period + " من تشغيل آخر");
+            }
+            jdbcTemplate.batchUpdate(FEE_TRANSACTION_SQL, feeTransactions);
+
+            List<Long> overdraftIds = idsIn(overdraftLines, chargedDecorators);
+            if (!overdraftIds.isEmpty()) {
+                decoratorRepository.accrueOverdraftFees(overdraftIds);
+            }
+            List<Long> premiumIds = idsIn(premiumLines, chargedDecorators);
+            if (!premiumIds.isEmpty()) {
+                decoratorRepository.resetPremiumBenefits(now, premiumIds);
+            }
+            result.decoratorsCharged = chargedDecorators.size();
+        }
+
+        return result;
+    }
+
+    private static List<Long> idsIn(List<DecoratorFeeLine> lines, Set<Long> charged) {
+        List<Long> ids = new ArrayList<>();
+        for (DecoratorFeeLine line : lines) {
+            if (charged.contains(line.getDecoratorId())) {
+                ids.add(line.getDecoratorId());
+            }
+        }
+        return ids;
+    }
+
+    private static double round(double amount) {
+        return Math.round(amount * 100.0) / 100.0;
+    }
+
+    private void finish(FeeRun run, RunTotals totals, long startTime, String status, String failureReason) {
+        long elapsedMs = Math.max(1, (System.nanoTime() - startTime) / 1_000_000);
+        run.setStatus(status);
+        run.setFailureReason(failureReason);
+        run.setAccountsCharged(run.getAccountsCharged() + totals.accountsCharged.sum());
+        run.setAccountsSkipped(totals.accountsSkipped.sum());
+        run.setDecoratorsCharged(run.getDecoratorsCharged() + totals.decoratorsCharged.sum());
+        run.setTotalFees(round(run.getTotalFees() + totals.totalFees.sum()));
+        run.setLastDurationMs(elapsedMs);
+        run.setFeesPerSecond(totals.accountsCharged.sum() * 1000.0 / elapsedMs);
+        run.setFinishedAt(LocalDateTime.now());
+        feeRunRepository.save(run);
+    }
+
+    private ExecutorService executor() {
+        if (executor == null) {
+            synchronized (this) {
+                if (executor == null) {
+                    AtomicInteger counter = new AtomicInteger();
+                    executor = Executors.newFixedThreadPool(parallelism, r -> {
+                        Thread thread = new Thread(r, "fee-engine-" + counter.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+                }
+            }
+        }
+        return executor;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    // ========== Results ==========
+
+    static class ChunkResult {
+        long accountsCharged;
+        long decoratorsCharged;
+        double totalFees;
+        final List<Long> skippedAccountIds = new ArrayList<>();
+    }
+
+    private static class RunTotals {
+        final LongAdder accountsCharged = new LongAdder();
+        final LongAdder accountsSkipped = new LongAdder();
+        final LongAdder decoratorsCharged = new LongAdder();
+        final DoubleAdder totalFees = new DoubleAdder();
+
+        void add(ChunkResult result) {
+            if (result == null) {
+                return;
+            }
+            accountsCharged.add(result.accountsCharged);
+            accountsSkipped.add(result.skippedAccountIds.size());
+            decoratorsCharged.add(result.decoratorsCharged);
+            totalFees.add(result.totalFees);
+        }
+    }
+}
@@ -18,14 +18,14 @@ import org.springframework.web.bind.annotation.RestController;
 @Tag(name = "المدفوعات (Adapter)", description = "معالجة المدفوعات باستخدام مزودي دفع خارجيين بشكل مقلد")
 public class PaymentController {
 
-    private final PaymentGatewayAdapter paymentGatewayAdapter;
+    private final PaymentService paymentService;
 
     @PostMapping("/process")
     @PreAuthorize("hasAnyRole('ADMIN','MANAGER','TELLER','CUSTOMER')")
     @Operation(summary = "معالجة دفع", description = "معالجة دفع باستخدام Stripe أو PayPal (محاكاة ناجحة دائماً)")
     public ResponseEntity<PaymentResponse> process(@Valid @RequestBody PaymentRequest request) {
         // provider is optional, defaults to Stripe
-        PaymentResponse response = paymentGatewayAdapter.processWithGateway("stripe", request);
+        PaymentResponse response = paymentService.process("stripe", request);
         return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
     }
 }
@@ -0,0 +1,135 @@
+package com.bank.se3bank.adapters;
+
+import com.bank.se3bank.accounts.engine.InMemoryBalanceEngine;
+import com.bank.se3bank.accounts.model.Account;
+import com.bank.se3bank.accounts.service.AccountService;
+import com.bank.se3bank.accounts.service.DecoratorService;
+import com.bank.se3bank.accounts.service.HotAccountService;
+import com.bank.se3bank.ledger.model.LedgerJournal;
+import com.bank.se3bank.ledger.service.LedgerService;
+import com.bank.se3bank.shared.enums.LedgerCode;
+import com.bank.se3bank.shared.enums.TransactionStatus;
+import com.bank.se3bank.shared.enums.TransactionType;
+import com.bank.se3bank.shared.exceptions.InsufficientBalanceException;
+import com.bank.se3bank.transactions.model.Transaction;
+import com.bank.se3bank.transactions.repository.TransactionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+
+/**
+ * تنفيذ الدفع عبر المزود وتسجيله كمعاملة PAYMENT
+ * مرجع المزود (PaymentResponse.transactionId) يُحفظ في Transaction.referenceNumber وهو مفتاح التسوية
+ *
+ * - الحجز في معاملة قصيرة: قفل صف الحساب، الخصم وقيده مقابل PAYMENT_CLEARING، ومعاملة بحالة AWAITING_SETTLEMENT
+ * - استدعاء المزود خارج أي معاملة، فلا يُمسك اتصال قاعدة بيانات أثناء الإدخال/الإخراج الخارجي
+ * - النتيجة في معاملة ثانية: SUCCESS تُكمل المعاملة، FAILED تعيد المبلغ بقيد عكسي،
+ *   وما سواها يبقى AWAITING_SETTLEMENT (لا يستلمه عامل المعاملات المعلقة) حتى تحسمه التسوية
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PaymentService {
+
+    private final PaymentGatewayAdapter paymentGatewayAdapter;
+    private final TransactionRepository transactionRepository;
+    private final AccountService accountService;
+    private final HotAccountService hotAccountService;
+    private final DecoratorService decoratorService;
+    private final LedgerService ledgerService;
+    private final PlatformTransactionManager transactionManager;
+    private final ObjectProvider<InMemoryBalanceEngine> balanceEngine;
+
+    public PaymentResponse process(String provider, PaymentRequest request) {
+        InMemoryBalanceEngine.rejectDirectWrites(balanceEngine, "الدفع عبر المزود");
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+
+        Long transactionId = template.execute(status -> reserve(request).getId());
+
+        PaymentResponse response;
+        try {
+            response = paymentGatewayAdapter.processWithGateway(provider, request);
+        } catch (RuntimeException e) {
+            // قد يكون المزود نفذ الدفع قبل الخطأ: المبلغ يبقى محجوزاً والتسوية تحسم النتيجة
+            log.error("❌ فشل استدعاء المزود {} للدفع {}، يبقى بانتظار التسوية: {}",
+                    provider, transactionId, e.getMessage());
+            throw e;
+        }
+
+        TransactionStatus settled = template.execute(status -> settle(transactionId, response));
+        log.info("💳 تم تسجيل الدفع {} بحالة {}", response.getTransactionId(), settled);
+        return response;
+    }
+
+    /**
+     * نفس مسار السحب في BankFacade: قفل الصف، نقل أجزاء الحساب الساخن، والتحقق بمكشوف الديكورات
+     */
+    private Transaction reserve(PaymentRequest request) {
+        Account account = accountService.lockForUpdate(accountService.getAccountByNumber(request.getAccountNumber()));
+        double decoratorOverdraft = decoratorService.getOverdraftAllowance(account.getId());
+        hotAccountService.prepareDebit(account, request.getAmount());
+        if (!account.canWithdraw(request.getAmount(), decoratorOverdraft)) {
+            throw new InsufficientBalanceException(account.getBalance(), request.getAmount());
+        }
+        account.withdraw(request.getAmount(), decoratorOverdraft);
+
+        Transaction transaction = transactionRepository.save(Transaction.builder()
+                .fromAccount(account)
+                .amount(request.getAmount())
+                .transactionType(TransactionType.PAYMENT)
+                .status(TransactionStatus.AWAITING_SETTLEMENT)
+                .description(request.getDescription() != null ? request.getDescription() : request.getRecipient())
+                .initiatedBy(account.getUser() != null ? account.getUser().getId() : null)
+                .build());
+        ledgerService.debit(account.getId(), request.getAmount(), LedgerCode.PAYMENT_CLEARING, transaction);
+        return transaction;
+    }
+
+    private TransactionStatus settle(Long transactionId, PaymentResponse response) {
+        Transaction transaction = transactionRepository.findById(transactionId)
+                .orElseThrow(() -> new IllegalStateException("معاملة الدفع غير موجودة: " + transactionId));
+        transaction.setReferenceNumber(response.getTransactionId());
+        TransactionStatus status = toTransactionStatus(response.getStatus());
+        if (status == TransactionStatus.COMPLETED) {
+            transaction.markAsCompleted();
+        } else if (status == TransactionStatus.FAILED) {
+            refund(transaction);
+            transaction.markAsFailed(response.getMessage());
+        }
+        transactionRepository.save(transaction);
+        return transaction.getStatus();
+    }
+
+    /**
+     * إعادة المبلغ المحجوز بنفس مسار الإيداع: الحساب الساخن في جزء، والعادي تحت قفل صفه
+     */
+    private void refund(Transaction transaction) {
+        Account account = transaction.getFromAccount();
+        double amount = transaction.getAmount();
+        if (account.isHot()) {
+            hotAccountService.credit(account, amount);
+        } else {
+            accountService.lockForUpdate(account).deposit(amount);
+        }
+        ledgerService.post(LedgerJournal.credit(transaction.getTransactionId() + "-REV", transaction.getId(),
+                account.getId(), amount, LedgerCode.PAYMENT_CLEARING));
+    }
+
+    /**
+     * عكس ReconciliationService.toSettlementStatus
+     */
+    static TransactionStatus toTransactionStatus(String providerStatus) {
+        if ("SUCCESS".equalsIgnoreCase(providerStatus)) {
+            return TransactionStatus.COMPLETED;
+        }
+        if ("FAILED".equalsIgnoreCase(providerStatus)) {
+            return TransactionStatus.FAILED;
+        }
+        return TransactionStatus.AWAITING_SETTLEMENT;
+    }
+}
@@ -1,7 +1,13 @@
 package com.bank.se3bank.config;
 
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
+/**
+ * تفعيل المهام المجدولة (@Scheduled)
+ * مع spring.threads.virtual.enabled=true يستخدم Spring Boot مجدولاً يشغّل كل مهمة على خيط افتراضي
+ */
 @Configuration
+@EnableScheduling
 public class AppConfig {
-}
\ No newline at end of file
+}
@@ -2,10 +2,15 @@ package com.bank.se3bank.config;
 
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
 import org.springframework.orm.jpa.JpaTransactionManager;
 import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
 import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
@@ -46,27 +51,85 @@ public class DatabaseConfig {
     @Value("${spring.jpa.properties.hibernate.dialect}")
     private String hibernateDialect;
 
+    @Value("${app.db.pool-size:20}")
+    private int poolSize;
+
+    @Value("${app.db.hibernate.statistics:true}")
+    private boolean hibernateStatistics;
+
+    @Value("${app.db.connect-on-startup:true}")
+    private boolean connectOnStartup;
+
+    @Value("${app.cache.second-level.enabled:true}")
+    private boolean secondLevelCacheEnabled;
+
+    @Value("${app.db.read.enabled:false}")
+    private boolean readPoolEnabled;
+
+    @Value("${app.db.read.url:${spring.datasource.url}}")
+    private String readDbUrl;
+
+    @Value("${app.db.read.username:${spring.datasource.username}}")
+    private String readDbUsername;
+
+    @Value("${app.db.read.password:${spring.datasource.password}}")
+    private String readDbPassword;
+
+    @Value("${app.db.read.pool-size:10}")
+    private int readPoolSize;
+
+    @Autowired
+    private ObjectProvider<MeterRegistry> meterRegistry;
+
     /**
      * Singleton Bean - DataSource واحد للتطبيق بأكمله
      * يتم إدارة اتصالات Connection Pool باستخدام HikariCP
+     * عند تفعيل app.db.read.enabled تذهب المعاملات readOnly إلى مجمع القراءة والباقي إلى المجمع الأساسي
      */
     @Bean
     public DataSource dataSource() {
         log.info("📊 تهيئة Singleton DataSource...");
         
+        HikariDataSource primary = createPool("BankDBPool", dbUrl, dbUsername, dbPassword, poolSize, false);
+        if (!readPoolEnabled) {
+            log.info("✅ تم تهيئة Singleton DataSource بنجاح");
+            return primary;
+        }
+        
+        // مقاييس المجمع الأساسي يربطها Spring Boot تلقائياً، أما مجمع القراءة فليس Bean فنربطه يدوياً
+        HikariDataSource readPool = createPool("BankReadPool", readDbUrl, readDbUsername, readDbPassword,
+                readPoolSize, true);
+        meterRegistry.ifAvailable(registry ->
+                readPool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry)));
+        
+        // الاتصال الفعلي يُحجز عند أول استعلام، بعد أن يحدد JpaTransactionManager هل المعاملة readOnly
+        LazyConnectionDataSourceProxy routing = new LazyConnectionDataSourceProxy(primary);
+        routing.setReadOnlyDataSource(readPool);
+        log.info("✅ تم تهيئة DataSource مع مجمع قراءة منفصل ({} اتصال، {})", readPoolSize, readDbUrl);
+        
+        return routing;
+    }
+
+    private HikariDataSource createPool(String poolName, String url, String username, String password,
+                                        int maximumPoolSize, boolean readOnly) {
         HikariConfig config = new HikariConfig();
-        config.setJdbcUrl(dbUrl);
-        config.setUsername(dbUsername);
-        config.setPassword(dbPassword);
+        config.setJdbcUrl(url);
+        config.setUsername(username);
+        config.setPassword(password);
         config.setDriverClassName(dbDriver);
         
         // إعدادات Connection Pool الأمثل
-        config.setMaximumPoolSize(20);
-        config.setMinimumIdle(5);
+        config.setMaximumPoolSize(maximumPoolSize);
+        config.setMinimumIdle(Math.min(5, maximumPoolSize));
         config.setConnectionTimeout(30000);
         config.setIdleTimeout(600000);
         config.setMaxLifetime(1800000);
-        config.setPoolName("BankDBPool");
+        config.setPoolName(poolName);
+        config.setReadOnly(readOnly);
+        if (!connectOnStartup) {
+            // لا اتصال عند الإقلاع (تشغيل تدريب أرشيف CDS داخل docker build بلا قاعدة بيانات)
+            config.setInitializationFailTimeout(-1);
+        }
         
         // إعدادات إضافية لأداء أفضل
         config.addDataSourceProperty("cachePrepStmts", "true");
@@ -74,10 +137,7 @@ public class DatabaseConfig {
         config.addDataSourceProperty("prepStmtCacheSqlLimit", "2048");
         config.addDataSourceProperty("useServerPrepStmts", "true");
         
-        HikariDataSource dataSource = new HikariDataSource(config);
-        log.info("✅ تم تهيئة Singleton DataSource بنجاح");
-        
-        return dataSource;
+        return new HikariDataSource(config);
     }
 
     /**
@@ -98,11 +158,27 @@ public class DatabaseConfig {
         properties.put("hibernate.hbm2ddl.auto", hibernateDdlAuto);
         properties.put("hibernate.show_sql", showSql);
         properties.put("hibernate.dialect", hibernateDialect);
-        properties.put("hibernate.format_sql", true);
+        properties.put("hibernate.format_sql", showSql);
         properties.put("hibernate.jdbc.batch_size", 20);
         properties.put("hibernate.order_inserts", true);
         properties.put("hibernate.order_updates", true);
-        properties.put("hibernate.generate_statistics", true);
+        // الإحصائيات تغذي مقاييس hibernate.* ولها كلفة على كل جلسة، ويمكن إيقافها في ملف startup
+        properties.put("hibernate.generate_statistics", hibernateStatistics);
+        if (!connectOnStartup) {
+            properties.put("hibernate.boot.allow_jdbc_metadata_access", false);
+        }
+        
+        // Second-level + query cache (JCache/Caffeine)، المناطق معرّفة في application.conf
+        // الكيانات تدخل الكاش فقط إذا حملت @Cacheable (ENABLE_SELECTIVE)
+        properties.put("hibernate.cache.use_second_level_cache", secondLevelCacheEnabled);
+        properties.put("hibernate.cache.use_query_cache", secondLevelCacheEnabled);
+        if (secondLevelCacheEnabled) {
+            properties.put("hibernate.cache.region.factory_class", "jcache");
+            properties.put("hibernate.javax.cache.provider",
+                    "com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider");
+            properties.put("hibernate.javax.cache.missing_cache_strategy", "create-warn");
+            properties.put("jakarta.persistence.sharedCache.mode", "ENABLE_SELECTIVE");
+        }
         
         em.setJpaPropertyMap(properties);
         
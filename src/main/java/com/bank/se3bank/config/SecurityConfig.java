@@ -2,14 +2,21 @@ package com.bank.se3bank.config;
 
 import com.bank.se3bank.security.CustomUserDetailsService;
 import com.bank.se3bank.security.JwtAuthenticationFilter;
+import jakarta.servlet.DispatcherType;
+import java.util.Arrays;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.authorization.AuthorityAuthorizationManager;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.authorization.AuthorizationManagers;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -18,8 +25,10 @@ import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
 import org.springframework.security.web.authentication.HttpStatusEntryPoint;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.util.matcher.IpAddressMatcher;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
@@ -33,6 +42,9 @@ public class SecurityConfig {
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
     private final CustomUserDetailsService customUserDetailsService;
 
+    @Value("${app.metrics.scrape-networks:127.0.0.1/32,::1/128}")
+    private String scrapeNetworks = "127.0.0.1/32,::1/128";
+
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         http
@@ -40,12 +52,16 @@ public class SecurityConfig {
                 .cors(cors -> cors.configurationSource(corsConfigurationSource()))
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth -> auth
+                        // إكمال طلبات async (بث SSE) بعد أن صُرّح للطلب الأصلي؛ فلتر JWT لا يعمل على ASYNC dispatch
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .requestMatchers(
                                 "/auth/**",
                                 "/swagger-ui/**",
                                 "/swagger-ui.html",
                                 "/v3/api-docs/**",
-                                "/api-docs/**").permitAll()
+                                "/api-docs/**",
+                                "/actuator/health").permitAll()
+                        .requestMatchers("/actuator/prometheus").access(scrapeAccess())
                         .anyRequest().authenticated()
                 )
                 .exceptionHandling(ex -> ex.authenticationEntryPoint(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED)))
@@ -55,6 +71,21 @@ public class SecurityConfig {
         return http.build();
     }
 
+    /**
+     * /actuator/prometheus: من شبكة الجمع (app.metrics.scrape-networks) أو مستخدم ADMIN/MANAGER
+     * العنوان هو getRemoteAddr، فخلف وكيل عكسي يجب ضبط server.forward-headers-strategy
+     */
+    private AuthorizationManager<RequestAuthorizationContext> scrapeAccess() {
+        List<IpAddressMatcher> networks = Arrays.stream(scrapeNetworks.split(","))
+                .map(String::trim)
+                .filter(network -> !network.isEmpty())
+                .map(IpAddressMatcher::new)
+                .toList();
+        AuthorizationManager<RequestAuthorizationContext> fromScrapeNetwork = (authentication, context) ->
+                new AuthorizationDecision(networks.stream().anyMatch(network -> network.matches(context.getRequest())));
+        return AuthorizationManagers.anyOf(fromScrapeNetwork, AuthorityAuthorizationManager.hasAnyRole("ADMIN", "MANAGER"));
+    }
+
     @Bean
     public AuthenticationProvider authenticationProvider() {
         DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
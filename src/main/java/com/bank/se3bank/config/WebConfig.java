@@ -1,12 +1,29 @@
 package com.bank.se3bank.config;
 
+import com.bank.se3bank.shared.concurrency.DatabaseConcurrencyInterceptor;
+import com.bank.se3bank.shared.concurrency.DatabaseConcurrencyLimiter;
+import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 @Configuration
+@RequiredArgsConstructor
 public class WebConfig implements WebMvcConfigurer {
 
+    private final DatabaseConcurrencyLimiter databaseConcurrencyLimiter;
+    private final DatabaseConcurrencyInterceptor databaseConcurrencyInterceptor;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        if (databaseConcurrencyLimiter.isEnabled()) {
+            registry.addInterceptor(databaseConcurrencyInterceptor)
+                    .addPathPatterns("/api/**", "/auth/**")
+                    .excludePathPatterns("/api/metrics/**");
+        }
+    }
+
     @Override
     public void addCorsMappings(CorsRegistry registry) {
         registry.addMapping("/api/**")
@@ -1,27 +1,36 @@
 package com.bank.se3bank.facade;
 
+import com.bank.se3bank.accounts.engine.AccountState;
+import com.bank.se3bank.accounts.engine.EngineResult;
+import com.bank.se3bank.accounts.engine.InMemoryBalanceEngine;
+import com.bank.se3bank.accounts.engine.JdbcBalanceProjection;
 import com.bank.se3bank.accounts.model.Account;
 import com.bank.se3bank.accounts.service.AccountService;
 import com.bank.se3bank.accounts.service.DecoratorService;
 import com.bank.se3bank.accounts.service.GroupService;
+import com.bank.se3bank.accounts.service.HotAccountService;
+import com.bank.se3bank.ledger.service.LedgerService;
 import com.bank.se3bank.notifications.service.NotificationService;
+import com.bank.se3bank.shared.audit.AuditLog;
 import com.bank.se3bank.shared.dto.*;
+import com.bank.se3bank.shared.enums.LedgerCode;
 import com.bank.se3bank.shared.enums.TransactionStatus;
 import com.bank.se3bank.shared.exceptions.InsufficientBalanceException;
 import com.bank.se3bank.shared.exceptions.InvalidTransactionException;
+import com.bank.se3bank.shared.exceptions.OutcomeUnknownException;
 import com.bank.se3bank.transactions.model.Transaction;
 import com.bank.se3bank.transactions.service.TransactionService;
 import com.bank.se3bank.users.model.User;
 import com.bank.se3bank.users.service.UserService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.dao.ConcurrencyFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 /**
  * تطبيق Facade Pattern
@@ -38,6 +47,9 @@ public class BankFacade {
     private final NotificationService notificationService;
     private final GroupService groupService;
     private final DecoratorService decoratorService;
+    private final LedgerService ledgerService;
+    private final HotAccountService hotAccountService;
+    private final ObjectProvider<InMemoryBalanceEngine> balanceEngine;
     
     // ========== Customer Operations ==========
     
@@ -102,35 +114,55 @@ public class BankFacade {
      */
     @Transactional
     public TransferResponse transferMoney(TransferRequest request) {
-        log.info("💸 تحويل أموال من {} إلى {} بمبلغ {}", 
-                request.getFromAccountNumber(), 
-                request.getToAccountNumber(), 
-                request.getAmount());
+        if (log.isDebugEnabled()) {
+            log.debug("💸 تحويل أموال من {} إلى {} بمبلغ {}", 
+                    request.getFromAccountNumber(), 
+                    request.getToAccountNumber(), 
+                    request.getAmount());
+        }
         
         long startTime = System.currentTimeMillis();
         
         try {
-            // 1. التحقق من الحسابات
+            // 1. التحقق من الحسابات وقفل صفوفها بترتيب المعرف (المستقبل الساخن لا يُقفل، إيداعه في جزء)
             Account fromAccount = accountService.getAccountByNumber(request.getFromAccountNumber());
             Account toAccount = accountService.getAccountByNumber(request.getToAccountNumber());
+            InMemoryBalanceEngine engine = balanceEngine.getIfAvailable();
+            if (engine != null) {
+                return transferThroughEngine(engine, fromAccount, toAccount, request, startTime);
+            }
+            if (toAccount.isHot()) {
+                fromAccount = accountService.lockForUpdate(fromAccount);
+            } else {
+                List<Account> locked = accountService.lockForUpdate(List.of(fromAccount, toAccount));
+                fromAccount = locked.get(0);
+                toAccount = locked.get(1);
+            }
             
-            // 2. التحقق من الرصيد
-            if (!fromAccount.canWithdraw(request.getAmount())) {
+            // 2. التحقق من الرصيد (الحساب الساخن يُقفل وتُنقل أجزاؤه حتى يكفي)
+            //    مكشوف الديكورات من العرض المخزن بزمن ثابت
+            double decoratorOverdraft = decoratorService.getOverdraftAllowance(fromAccount.getId());
+            hotAccountService.prepareDebit(fromAccount, request.getAmount());
+            if (!fromAccount.canWithdraw(request.getAmount(), decoratorOverdraft)) {
                 throw new InsufficientBalanceException(
                         fromAccount.getBalance(), request.getAmount());
             }
             
-            // 3. تنفيذ التحويل
-            fromAccount.withdraw(request.getAmount());
-            toAccount.deposit(request.getAmount());
-            
-            // 4. حفظ الحسابات المحدثة
-            accountService.updateBalance(fromAccount.getId(), fromAccount.getBalance());
-            accountService.updateBalance(toAccount.getId(), toAccount.getBalance());
+            // 3. تنفيذ التحويل (الحساب الساخن المستقبل يُضاف له في جزء بعد تسجيل المعاملة)
+            fromAccount.withdraw(request.getAmount(), decoratorOverdraft);
+            if (!toAccount.isHot()) {
+                toAccount.deposit(request.getAmount());
+            }
             
-            // 5. تسجيل المعاملة
+            // 4. تسجيل المعاملة وقيدها في دفتر الأستاذ
             Transaction transaction = transactionService.createTransaction(
                     fromAccount, toAccount, request.getAmount(), request.getDescription());
+            ledgerService.transfer(fromAccount.getId(), toAccount.getId(), request.getAmount(), transaction);
+            
+            // 5. الكيانات المقفولة تُكتب عند الإثبات؛ المستقبل الساخن يُضاف له في جزء
+            if (toAccount.isHot()) {
+                hotAccountService.credit(toAccount, request.getAmount());
+            }
             
             // 6. إرسال إشعارات
             notificationService.sendTransferNotification(
@@ -151,13 +183,19 @@ public class BankFacade {
                     .toAccount(toAccount.getAccountNumber())
                     .amount(request.getAmount())
                     .newFromBalance(fromAccount.getBalance())
-                    .newToBalance(toAccount.getBalance())
+                    .newToBalance(hotAccountService.getBalance(toAccount))
                     .status(TransactionStatus.COMPLETED)
                     .message("تم التحويل بنجاح")
                     .processingTimeMs(duration)
                     .timestamp(LocalDateTime.now())
                     .build();
                     
+        } catch (ConcurrencyFailureException e) {
+            // تعارض قفل: يُعاد تنفيذ العملية كاملة في معاملة جديدة (BalanceRetry)
+            throw e;
+        } catch (OutcomeUnknownException e) {
+            // الأمر في محرك الأرصدة وقد يُطبق بعد المهلة: ليس فشلاً، ونتيجته تُستعلم بمعرفه
+            throw e;
         } catch (Exception e) {
             log.error("❌ فشل التحويل: {}", e.getMessage());
             throw new InvalidTransactionException("فشل التحويل: " + e.getMessage());
@@ -169,35 +207,44 @@ public class BankFacade {
      */
     @Transactional
     public WithdrawalResponse withdrawMoney(WithdrawalRequest request) {
-        log.info("💰 سحب أموال من {} بمبلغ {}", 
+        log.debug("💰 سحب أموال من {} بمبلغ {}", 
                 request.getAccountNumber(), request.getAmount());
         
         long startTime = System.currentTimeMillis();
         
         try {
-            // 1. التحقق من الحساب
-            Account account = accountService.getAccountByNumber(request.getAccountNumber());
+            InMemoryBalanceEngine engine = balanceEngine.getIfAvailable();
+            if (engine != null) {
+                return withdrawThroughEngine(engine, request, startTime);
+            }
             
-            // 2. التحقق من الرصيد
-            if (!account.canWithdraw(request.getAmount())) {
+            // 1. التحقق من الحساب وقفل صفه
+            Account account = accountService.lockForUpdate(
+                    accountService.getAccountByNumber(request.getAccountNumber()));
+            
+            // 2. التحقق من الرصيد (الحساب الساخن تُنقل أجزاؤه حتى يكفي)
+            //    مكشوف الديكورات من العرض المخزن بزمن ثابت
+            double decoratorOverdraft = decoratorService.getOverdraftAllowance(account.getId());
+            hotAccountService.prepareDebit(account, request.getAmount());
+            if (!account.canWithdraw(request.getAmount(), decoratorOverdraft)) {
                 throw new InsufficientBalanceException(
                         account.getBalance(), request.getAmount());
             }
             
             // 3. تنفيذ السحب
             Double oldBalance = account.getBalance();
-            account.withdraw(request.getAmount());
-            
-            // 4. حفظ الحساب المحدث
-            accountService.updateBalance(account.getId(), account.getBalance());
+            account.withdraw(request.getAmount(), decoratorOverdraft);
             
-            // 5. تسجيل المعاملة
+            // 4. تسجيل المعاملة وقيدها في دفتر الأستاذ
             Transaction transaction = transactionService.createWithdrawalTransaction(
                     account, request.getAmount(), request.getDescription());
+            ledgerService.debit(account.getId(), request.getAmount(), LedgerCode.CASH, transaction);
+            
+            // 5. الكيان المقفول يُكتب عند الإثبات
             
             // 6. إرسال إشعار
             notificationService.sendWithdrawalNotification(
-                    account.getUser(), request.getAmount(), 
+                    account.getUser(), account, request.getAmount(), 
                     oldBalance, account.getBalance());
             
             // 7. تسجيل التدقيق
@@ -219,6 +266,11 @@ public class BankFacade {
                     .timestamp(LocalDateTime.now())
                     .build();
                     
+        } catch (ConcurrencyFailureException e) {
+            // تعارض قفل: يُعاد تنفيذ العملية كاملة في معاملة جديدة (BalanceRetry)
+            throw e;
+        } catch (OutcomeUnknownException e) {
+            throw e;
         } catch (Exception e) {
             log.error("❌ فشل السحب: {}", e.getMessage());
             throw new InvalidTransactionException("فشل السحب: " + e.getMessage());
@@ -230,30 +282,43 @@ public class BankFacade {
      */
     @Transactional
     public DepositResponse depositMoney(DepositRequest request) {
-        log.info("📥 إيداع أموال في {} بمبلغ {}", 
+        log.debug("📥 إيداع أموال في {} بمبلغ {}", 
                 request.getAccountNumber(), request.getAmount());
         
         long startTime = System.currentTimeMillis();
         
         try {
-            // 1. التحقق من الحساب
+            // 1. التحقق من الحساب (العادي يُقفل صفه، الساخن لا يُقفل لأن إيداعه في جزء)
             Account account = accountService.getAccountByNumber(request.getAccountNumber());
+            InMemoryBalanceEngine engine = balanceEngine.getIfAvailable();
+            if (engine != null) {
+                return depositThroughEngine(engine, account, request, startTime);
+            }
+            if (!account.isHot()) {
+                account = accountService.lockForUpdate(account);
+            }
             
-            // 2. تنفيذ الإيداع
-            Double oldBalance = account.getBalance();
-            account.deposit(request.getAmount());
-            
-            // 3. حفظ الحساب المحدث
-            accountService.updateBalance(account.getId(), account.getBalance());
+            // 2. تنفيذ الإيداع (الحساب الساخن يُضاف له في جزء بعد تسجيل المعاملة)
+            Double oldBalance = hotAccountService.getBalance(account);
+            if (!account.isHot()) {
+                account.deposit(request.getAmount());
+            }
+            Double newBalance = oldBalance + request.getAmount();
             
-            // 4. تسجيل المعاملة
+            // 3. تسجيل المعاملة وقيدها في دفتر الأستاذ
             Transaction transaction = transactionService.createDepositTransaction(
                     account, request.getAmount(), request.getDescription());
+            ledgerService.credit(account.getId(), request.getAmount(), LedgerCode.CASH, transaction);
+            
+            // 4. الحساب الساخن يُضاف له في جزء، والعادي المقفول يُكتب عند الإثبات
+            if (account.isHot()) {
+                hotAccountService.credit(account, request.getAmount());
+            }
             
             // 5. إرسال إشعار
             notificationService.sendDepositNotification(
-                    account.getUser(), request.getAmount(), 
-                    oldBalance, account.getBalance());
+                    account.getUser(), account, request.getAmount(), 
+                    oldBalance, newBalance);
             
             // 6. تسجيل التدقيق
             logTransaction("DEPOSIT", account.getUser().getId(), null, 
@@ -267,13 +332,18 @@ public class BankFacade {
                     .accountNumber(account.getAccountNumber())
                     .amount(request.getAmount())
                     .oldBalance(oldBalance)
-                    .newBalance(account.getBalance())
+                    .newBalance(newBalance)
                     .status(TransactionStatus.COMPLETED)
                     .message("تم الإيداع بنجاح")
                     .processingTimeMs(duration)
                     .timestamp(LocalDateTime.now())
                     .build();
                     
+        } catch (ConcurrencyFailureException e) {
+            // تعارض قفل: يُعاد تنفيذ العملية كاملة في معاملة جديدة (BalanceRetry)
+            throw e;
+        } catch (OutcomeUnknownException e) {
+            throw e;
         } catch (Exception e) {
             log.error("❌ فشل الإيداع: {}", e.getMessage());
             throw new InvalidTransactionException("فشل الإيداع: " + e.getMessage());
@@ -283,6 +353,7 @@ public class BankFacade {
     /**
      * الحصول على ملخص حساب (جميع المعلومات في مكان واحد)
      */
+    @Transactional(readOnly = true)
     public AccountSummary getAccountSummary(String accountNumber) {
         log.info("📊 إنشاء ملخص للحساب: {}", accountNumber);
         
@@ -308,8 +379,8 @@ public class BankFacade {
             return AccountSummary.builder()
                     .accountNumber(account.getAccountNumber())
                     .accountType(account.getAccountType())
-                    .balance(account.getBalance())
-                    .availableBalance(account.getAvailableBalance())
+                    .balance(hotAccountService.getBalance(account))
+                    .availableBalance(hotAccountService.getAvailableBalance(account))
                     .status(account.getStatus())
                     .createdAt(account.getCreatedAt())
                     .userName(user.getFullName())
@@ -333,6 +404,7 @@ public class BankFacade {
     /**
      * الحصول على ملخص المستخدم (جميع حساباتهم)
      */
+    @Transactional(readOnly = true)
     public UserSummary getUserSummary(Long userId) {
         log.info("👤 إنشاء ملخص للمستخدم: {}", userId);
         
@@ -340,20 +412,19 @@ public class BankFacade {
             // 1. الحصول على المستخدم
             User user = userService.getUserById(userId);
             
-            // 2. الحصول على جميع حسابات المستخدم
-            List<Account> accounts = accountService.getUserAccounts(userId);
+            // 2. الحصول على جميع حسابات المستخدم (إسقاط بدون تحميل الكيانات)
+            List<AccountResponse> accounts = accountService.getUserAccountResponses(userId);
             
             // 3. حساب الإحصائيات
             Double totalBalance = accountService.getTotalBalanceByUser(userId);
             Integer totalAccounts = accounts.size();
             
             // 4. الحصول على مجموعات الحسابات
-            List<com.bank.se3bank.accounts.model.AccountGroup> groups = 
-                    groupService.getUserGroups(userId);
+            List<GroupSummary> groups = groupService.getUserGroupSummaries(userId);
             
             // 5. حساب المعاملات الأخيرة عبر جميع الحسابات
-            List<Transaction> recentTransactions = 
-                    transactionService.getRecentTransactionsByUser(userId, 10);
+            List<TransactionResponse> recentTransactions = 
+                    transactionService.getRecentTransactionResponsesByUser(userId, 10);
             
             return UserSummary.builder()
                     .userId(userId)
@@ -423,20 +494,129 @@ public class BankFacade {
         }
     }
     
+    // ========== In-Memory Engine ==========
+    
+    // مع app.accounts.engine=memory رصيد الذاكرة هو المرجع: العمليات تمر بالمحرك بدون أقفال صفوف،
+    // والمعاملة وقيد دفتر الأستاذ يكتبهما الإسقاط بمعرف ENG-{التسلسل}
+    // قرار الرصيد في المحرك بحد السحب على المكشوف للحساب نفسه (مكشوف الديكورات لا يدخل فيه)
+    
+    private TransferResponse transferThroughEngine(InMemoryBalanceEngine engine, Account fromAccount,
+                                                   Account toAccount, TransferRequest request, long startTime) {
+        EngineResult result = engine.transfer(engineState(fromAccount), engineState(toAccount), request.getAmount());
+        String transactionId = engineTransactionId(result);
+        
+        notificationService.sendTransferNotification(
+                fromAccount.getUser(), toAccount.getUser(), request.getAmount(), transactionId);
+        logTransaction("MONEY_TRANSFER", fromAccount.getUser().getId(), 
+                      toAccount.getUser().getId(), request.getAmount(), request.getDescription());
+        
+        return TransferResponse.builder()
+                .success(true)
+                .transactionId(transactionId)
+                .fromAccount(fromAccount.getAccountNumber())
+                .toAccount(toAccount.getAccountNumber())
+                .amount(request.getAmount())
+                .newFromBalance(result.getBalance())
+                .newToBalance(result.getCounterpartyBalance())
+                .status(TransactionStatus.COMPLETED)
+                .message("تم التحويل بنجاح")
+                .processingTimeMs(System.currentTimeMillis() - startTime)
+                .timestamp(LocalDateTime.now())
+                .build();
+    }
+    
+    private WithdrawalResponse withdrawThroughEngine(InMemoryBalanceEngine engine, WithdrawalRequest request,
+                                                     long startTime) {
+        Account account = accountService.getAccountByNumber(request.getAccountNumber());
+        EngineResult result = engine.withdraw(engineState(account), request.getAmount());
+        Double oldBalance = result.getBalance() + request.getAmount();
+        
+        notificationService.sendWithdrawalNotification(
+                account.getUser(), account, request.getAmount(), oldBalance, result.getBalance());
+        logTransaction("WITHDRAWAL", account.getUser().getId(), null, 
+                      request.getAmount(), request.getDescription());
+        
+        return WithdrawalResponse.builder()
+                .success(true)
+                .transactionId(engineTransactionId(result))
+                .accountNumber(account.getAccountNumber())
+                .amount(request.getAmount())
+                .oldBalance(oldBalance)
+                .newBalance(result.getBalance())
+                .status(TransactionStatus.COMPLETED)
+                .message("تم السحب بنجاح")
+                .processingTimeMs(System.currentTimeMillis() - startTime)
+                .timestamp(LocalDateTime.now())
+                .build();
+    }
+    
+    private DepositResponse depositThroughEngine(InMemoryBalanceEngine engine, Account account,
+                                                 DepositRequest request, long startTime) {
+        EngineResult result = engine.deposit(engineState(account), request.getAmount());
+        Double oldBalance = result.getBalance() - request.getAmount();
+        
+        notificationService.sendDepositNotification(
+                account.getUser(), account, request.getAmount(), oldBalance, result.getBalance());
+        logTransaction("DEPOSIT", account.getUser().getId(), null, 
+                      request.getAmount(), request.getDescription());
+        
+        return DepositResponse.builder()
+                .success(true)
+                .transactionId(engineTransactionId(result))
+                .accountNumber(account.getAccountNumber())
+                .amount(request.getAmount())
+                .oldBalance(oldBalance)
+                .newBalance(result.getBalance())
+                .status(TransactionStatus.COMPLETED)
+                .message("تم الإيداع بنجاح")
+                .processingTimeMs(System.currentTimeMillis() - startTime)
+                .timestamp(LocalDateTime.now())
+                .build();
+    }
+    
+    /**
+     * البذرة تُستخدم فقط في أول أمر على الحساب؛ بعدها رصيد الذاكرة هو المرجع
+     */
+    private AccountState engineState(Account account) {
+        return AccountState.of(account, hotAccountService.getBalance(account));
+    }
+    
+    private static String engineTransactionId(EngineResult result) {
+        return JdbcBalanceProjection.ID_PREFIX + result.getSequence();
+    }
+    
+    /**
+     * نتيجة عملية أعادت 202 لانتهاء مهلة تأكيد محرك الأرصدة؛ PENDING ما دامت لم تُحسم
+     */
+    public CommandOutcomeResponse getCommandOutcome(String commandId) {
+        InMemoryBalanceEngine engine = balanceEngine.getIfAvailable();
+        if (engine == null) {
+            throw new IllegalArgumentException("محرك الأرصدة في الذاكرة غير مفعل");
+        }
+        CommandOutcomeResponse.CommandOutcomeResponseBuilder response = CommandOutcomeResponse.builder()
+                .commandId(commandId)
+                .timestamp(LocalDateTime.now());
+        try {
+            EngineResult result = engine.getOutcome(commandId);
+            return response
+                    .status(TransactionStatus.COMPLETED)
+                    .transactionId(engineTransactionId(result))
+                    .balance(result.getBalance())
+                    .counterpartyBalance(result.getCounterpartyBalance())
+                    .message("تمت العملية")
+                    .build();
+        } catch (OutcomeUnknownException e) {
+            return response.status(TransactionStatus.PENDING).message(e.getMessage()).build();
+        } catch (IllegalStateException e) {
+            return response.status(TransactionStatus.FAILED).message(e.getMessage()).build();
+        }
+    }
+    
     // ========== Helper Methods ==========
     
     private void logTransaction(String operation, Long fromUserId, Long toUserId, 
                                Double amount, String description) {
-        Map<String, Object> auditLog = new HashMap<>();
-        auditLog.put("operation", operation);
-        auditLog.put("fromUserId", fromUserId);
-        auditLog.put("toUserId", toUserId);
-        auditLog.put("amount", amount);
-        auditLog.put("description", description);
-        auditLog.put("timestamp", LocalDateTime.now());
-        auditLog.put("facadeOperation", true);
-        
-        log.info("📝 تدقيق عملية: {}", auditLog);
+        AuditLog.transaction(operation, fromUserId, toUserId, amount, description);
     }
     
     // ========== Simple Getters (Part of Facade) ==========
@@ -452,6 +632,6 @@ public class BankFacade {
     
     public Double getAccountBalance(String accountNumber) {
         Account account = accountService.getAccountByNumber(accountNumber);
-        return account.getBalance();
+        return hotAccountService.getBalance(account);
     }
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package com.bank.se3bank.facade;
 
+import com.bank.se3bank.shared.concurrency.BalanceRetry;
 import com.bank.se3bank.shared.dto.*;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -16,6 +17,7 @@ import org.springframework.web.bind.annotation.*;
 public class BankFacadeController {
     
     private final BankFacade bankFacade;
+    private final BalanceRetry balanceRetry;
     
     @PostMapping("/accounts/open")
     @Operation(summary = "فتح حساب جديد", 
@@ -29,7 +31,7 @@ public class BankFacadeController {
     @Operation(summary = "تحويل أموال", 
                description = "تحويل أموال كامل مع التحقق والإشعارات والتسجيل")
     public ResponseEntity<TransferResponse> transferMoney(@Valid @RequestBody TransferRequest request) {
-        TransferResponse response = bankFacade.transferMoney(request);
+        TransferResponse response = balanceRetry.execute("transfer", () -> bankFacade.transferMoney(request));
         return ResponseEntity.ok(response);
     }
     
@@ -37,7 +39,7 @@ public class BankFacadeController {
     @Operation(summary = "سحب أموال", 
                description = "سحب أموال كامل مع التحقق والإشعارات والتسجيل")
     public ResponseEntity<WithdrawalResponse> withdrawMoney(@Valid @RequestBody WithdrawalRequest request) {
-        WithdrawalResponse response = bankFacade.withdrawMoney(request);
+        WithdrawalResponse response = balanceRetry.execute("withdraw", () -> bankFacade.withdrawMoney(request));
         return ResponseEntity.ok(response);
     }
     
@@ -45,10 +47,17 @@ public class BankFacadeController {
     @Operation(summary = "إيداع أموال", 
                description = "إيداع أموال كامل مع الإشعارات والتسجيل")
     public ResponseEntity<DepositResponse> depositMoney(@Valid @RequestBody DepositRequest request) {
-        DepositResponse response = bankFacade.depositMoney(request);
+        DepositResponse response = balanceRetry.execute("deposit", () -> bankFacade.depositMoney(request));
         return ResponseEntity.ok(response);
     }
     
+    @GetMapping("/commands/{commandId}")
+    @Operation(summary = "نتيجة عملية معلقة", 
+               description = "نتيجة تحويل/سحب/إيداع أعاد 202 لانتهاء مهلة تأكيد محرك الأرصدة؛ لا تُعد إرسال العملية")
+    public ResponseEntity<CommandOutcomeResponse> getCommandOutcome(@PathVariable String commandId) {
+        return ResponseEntity.ok(bankFacade.getCommandOutcome(commandId));
+    }
+    
     @GetMapping("/accounts/{accountNumber}/summary")
     @Operation(summary = "ملخص الحساب", 
                description = "الحصول على جميع معلومات الحساب في استجابة واحدة")
@@ -27,8 +27,11 @@ import org.springframework.stereotype.Component;
 import java.util.List;
 import java.util.Set;
 
+/**
+ * بيانات تجريبية للتطوير فقط (ملف dev)، ولا تعمل في الإنتاج أو الاختبارات
+ */
 @Component
-@org.springframework.context.annotation.Profile("!test")
+@org.springframework.context.annotation.Profile("dev")
 @RequiredArgsConstructor
 @Slf4j
 public class DataInitializer implements CommandLineRunner {
@@ -1,6 +1,7 @@
 // 📁 src/main/java/com/bank/se3bank/interest/controller/InterestController.java
 package com.bank.se3bank.interest.controller;
 
+import com.bank.se3bank.interest.service.InterestProjectionEngine;
 import com.bank.se3bank.interest.service.InterestService;
 import com.bank.se3bank.shared.dto.ChangeInterestStrategyRequest;
 import com.bank.se3bank.shared.enums.AccountType;
@@ -11,6 +12,7 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -67,6 +69,27 @@ public class InterestController {
         return ResponseEntity.ok(futureInterest);
     }
     
+    @GetMapping("/accounts/{accountId}/projection")
+    @Operation(summary = "جدول الفائدة الشهري", 
+               description = "الفائدة التراكمية شهراً بشهر للاستراتيجية الحالية أو لاستراتيجيات محددة (what-if) في تمريرة واحدة")
+    public ResponseEntity<InterestProjectionEngine.Projection> getProjection(
+            @PathVariable Long accountId,
+            @RequestParam(defaultValue = "12") int months,
+            @RequestParam(required = false) List<String> strategies) {
+        
+        return ResponseEntity.ok(interestService.getProjection(accountId, months, strategies));
+    }
+    
+    @GetMapping("/users/{userId}/projection")
+    @Operation(summary = "إسقاط محفظة المستخدم", 
+               description = "مجموع الفائدة التراكمية شهراً بشهر لكل حسابات المستخدم مع تفصيل كل حساب")
+    public ResponseEntity<InterestProjectionEngine.PortfolioProjection> getPortfolioProjection(
+            @PathVariable Long userId,
+            @RequestParam(defaultValue = "12") int months) {
+        
+        return ResponseEntity.ok(interestService.getPortfolioProjection(userId, months));
+    }
+    
     @GetMapping("/strategies")
     @Operation(summary = "الاستراتيجيات المتاحة", 
                description = "الحصول على جميع استراتيجيات الفائدة المتاحة")
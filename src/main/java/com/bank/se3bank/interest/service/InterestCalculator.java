@@ -82,6 +82,17 @@ public class InterestCalculator {
         return strategy.calculateInterest(account.getBalance(), accountAgeInMonths, account);
     }
     
+    /**
+     * استراتيجية مسجلة بالاسم
+     */
+    public InterestStrategy getStrategy(String strategyName) {
+        InterestStrategy strategy = strategies.get(strategyName);
+        if (strategy == null) {
+            throw new IllegalArgumentException("الاستراتيجية غير موجودة: " + strategyName);
+        }
+        return strategy;
+    }
+    
     /**
      * تغيير استراتيجية حساب معين
      */
@@ -107,7 +118,7 @@ public class InterestCalculator {
     /**
      * الحصول على الاستراتيجية المناسبة للحساب
      */
-    private InterestStrategy getStrategyForAccount(Account account) {
+    public InterestStrategy getStrategyForAccount(Account account) {
         // إذا كان للحساب استراتيجية محددة
         if (account.getInterestStrategyName() != null) {
             InterestStrategy strategy = strategies.get(account.getInterestStrategyName());
@@ -141,7 +152,7 @@ public class InterestCalculator {
     /**
      * حساب عمر الحساب بالأشهر
      */
-    private Integer calculateAccountAgeInMonths(Account account) {
+    public Integer calculateAccountAgeInMonths(Account account) {
         LocalDateTime now = LocalDateTime.now();
         long months = ChronoUnit.MONTHS.between(account.getCreatedAt(), now);
         return (int) Math.max(1, months); // الحد الأدنى شهر واحد
@@ -0,0 +1,155 @@
+package com.bank.se3bank.interest.service;
+
+import com.bank.se3bank.accounts.decorators.AccountDecorator;
+import com.bank.se3bank.accounts.model.Account;
+import com.bank.se3bank.interest.strategy.GrowthFactors;
+import com.bank.se3bank.interest.strategy.InterestStrategy;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * محرك إسقاط الفائدة
+ *
+ * - جدول تراكمي شهراً بشهر (1..N) لاستراتيجية أو أكثر في تمريرة واحدة على مصفوفات double (InterestStrategy.project)
+ * - التقرير والمقارنة والفائدة المستقبلية تُقرأ من إسقاط واحد للحساب بدل استدعاءات calculateInterest متكررة
+ * - وضع المحفظة يجمع جداول كل حسابات المستخدم في مصفوفة واحدة
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class InterestProjectionEngine {
+
+    private final InterestCalculator interestCalculator;
+
+    /**
+     * إسقاط الاستراتيجية الحالية للحساب
+     */
+    public Projection projectCurrent(Account account, int months) {
+        return project(account, List.of(interestCalculator.getStrategyForAccount(account)), months);
+    }
+
+    /**
+     * إسقاط عدة استراتيجيات على نفس الحساب (مقارنة / what-if)
+     */
+    public Projection project(Account account, List<InterestStrategy> strategies, int months) {
+        validateMonths(months);
+        double principal = principal(account);
+        List<Schedule> schedules = new ArrayList<>(strategies.size());
+        for (InterestStrategy strategy : strategies) {
+            double[] cumulative = new double[months];
+            if (principal > 0) {
+                strategy.project(principal, account, cumulative);
+            }
+            schedules.add(new Schedule(strategy.getStrategyName(), cumulative));
+        }
+        return Projection.builder()
+                .accountNumber(account.getAccountNumber())
+                .balance(principal)
+                .accountAgeMonths(interestCalculator.calculateAccountAgeInMonths(account))
+                .months(months)
+                .schedules(schedules)
+                .build();
+    }
+
+    /**
+     * إسقاط محفظة كاملة بالاستراتيجية الحالية لكل حساب؛ مخزن واحد يعاد استخدامه لكل الحسابات
+     * الحسابات المركبة (المجموعات) تُتخطى لأن أرصدتها مجموع أبنائها،
+     * والمزخرفات تُتخطى لأنها تنسخ مستخدم ورصيد الحساب الذي تغلّفه
+     */
+    public PortfolioProjection projectPortfolio(List<Account> accounts, int months) {
+        validateMonths(months);
+        double[] total = new double[months];
+        double[] buffer = new double[months];
+        double totalBalance = 0;
+        List<AccountLine> lines = new ArrayList<>(accounts.size());
+
+        for (Account account : accounts) {
+            if (account.isComposite() || account instanceof AccountDecorator) {
+                continue;
+            }
+            InterestStrategy strategy = interestCalculator.getStrategyForAccount(account);
+            double principal = principal(account);
+            double horizon = 0;
+            if (principal > 0) {
+                strategy.project(principal, account, buffer);
+                for (int m = 0; m < months; m++) {
+                    total[m] += buffer[m];
+                }
+                horizon = buffer[months - 1];
+            }
+            totalBalance += principal;
+            lines.add(new AccountLine(account.getAccountNumber(), strategy.getStrategyName(), principal, horizon));
+        }
+
+        log.debug("📈 إسقاط محفظة: {} حساب × {} شهر", lines.size(), months);
+        return PortfolioProjection.builder()
+                .months(months)
+                .totalBalance(totalBalance)
+                .cumulative(total)
+                .accounts(lines)
+                .build();
+    }
+
+    private static double principal(Account account) {
+        Double balance = account.getBalance();
+        return balance != null ? balance : 0.0;
+    }
+
+    private static void validateMonths(int months) {
+        if (months < 1 || months > GrowthFactors.MAX_MONTHS) {
+            throw new IllegalArgumentException("عدد الأشهر يجب أن يكون بين 1 و " + GrowthFactors.MAX_MONTHS);
+        }
+    }
+
+    /**
+     * الفائدة التراكمية لاستراتيجية واحدة: cumulative[m - 1] = الفائدة بعد m شهر
+     */
+    @Getter
+    @RequiredArgsConstructor
+    public static final class Schedule {
+        private final String strategyName;
+        private final double[] cumulative;
+
+        public double interestAt(int months) {
+            return months <= 0 ? 0.0 : cumulative[months - 1];
+        }
+    }
+
+    @Getter
+    @Builder
+    public static final class Projection {
+        private final String accountNumber;
+        private final double balance;
+        private final int accountAgeMonths;
+        private final int months;
+        private final List<Schedule> schedules;
+
+        public Schedule schedule(int index) {
+            return schedules.get(index);
+        }
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public static final class AccountLine {
+        private final String accountNumber;
+        private final String strategyName;
+        private final double balance;
+        private final double interestAtHorizon;
+    }
+
+    @Getter
+    @Builder
+    public static final class PortfolioProjection {
+        private final int months;
+        private final double totalBalance;
+        private final double[] cumulative;
+        private final List<AccountLine> accounts;
+    }
+}
@@ -1,21 +1,40 @@
 package com.bank.se3bank.interest.service;
 
+import com.bank.se3bank.accounts.engine.InMemoryBalanceEngine;
 import com.bank.se3bank.accounts.model.Account;
+import com.bank.se3bank.accounts.repository.AccountRepository;
 import com.bank.se3bank.accounts.service.AccountService;
+import com.bank.se3bank.accounts.service.HotAccountService;
+import com.bank.se3bank.ledger.service.LedgerService;
 import com.bank.se3bank.notifications.service.NotificationService;
 import com.bank.se3bank.interest.strategy.*;
 import com.bank.se3bank.shared.enums.AccountStatus;
 import com.bank.se3bank.shared.enums.AccountType;
+import com.bank.se3bank.shared.enums.LedgerCode;
+import com.bank.se3bank.shared.concurrency.BalanceRetry;
+import com.bank.se3bank.shared.concurrency.BlockingExecutors;
+import com.bank.se3bank.shared.concurrency.DatabaseConcurrencyLimiter;
+import com.bank.se3bank.shared.metrics.BankMetrics;
+import com.bank.se3bank.transactions.model.Transaction;
 import com.bank.se3bank.transactions.service.TransactionService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
 
 /**
  * خدمة إدارة الفائدة
@@ -34,6 +53,26 @@ public class InterestService {
     private final IslamicBankingInterestStrategy islamicBankingInterestStrategy;
     private final FixedDepositInterestStrategy fixedDepositInterestStrategy;
     private final TieredInterestStrategy tieredInterestStrategy;
+    private final BankMetrics metrics;
+    private final DatabaseConcurrencyLimiter limiter;
+    private final PlatformTransactionManager transactionManager;
+    private final LedgerService ledgerService;
+    private final HotAccountService hotAccountService;
+    private final InterestProjectionEngine projectionEngine;
+    private final BalanceRetry balanceRetry;
+    private final ObjectProvider<InMemoryBalanceEngine> balanceEngine;
+    
+    // أفق "الفائدة المتوقعة خلال 5 سنوات" في التقرير
+    private static final int REPORT_HORIZON_MONTHS = 60;
+    
+    // أقل مدة بين فائدتين شهريتين لنفس الحساب
+    private static final int INTEREST_INTERVAL_DAYS = 28;
+    
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+    
+    @Value("${app.interest.parallelism:8}")
+    private int parallelism = 8;
     
     /**
      * تهيئة الاستراتيجيات عند بدء التشغيل
@@ -60,11 +99,21 @@ public class InterestService {
     }
     
     /**
-     * تطبيق الفائدة على حساب معين
+     * تطبيق الفائدة على حساب معين (مرفوض مع محرك الأرصدة: الفائدة تُكتب على العمود مباشرة)
+     * الأهلية تُفحص على الصف المقفول بعد إعادة تحميله: تشغيلان متزامنان (عقدتان، أو مجدول ويدوي)
+     * يرى الثاني منهما تاريخ الفائدة الذي أثبته الأول فلا يضيفها مرة أخرى
      */
     @Transactional
     public Double applyInterestToAccount(Long accountId) {
-        Account account = accountService.getAccountById(accountId);
+        InMemoryBalanceEngine.rejectDirectWrites(balanceEngine, "تطبيق الفائدة");
+        Account account = accountService.lockForUpdate(accountService.getAccountById(accountId));
+        if (!isInterestDue(account)) {
+            log.debug("ℹ️ الحساب {} غير مستحق للفائدة حالياً", account.getAccountNumber());
+            return 0.0;
+        }
+        
+        // الحساب الساخن: طي أجزائه حتى تُحسب الفائدة على الرصيد الكامل
+        hotAccountService.collect(account);
         
         // حساب الفائدة
         Double interestAmount = interestCalculator.calculateInterest(account);
@@ -73,14 +122,14 @@ public class InterestService {
             // إضافة الفائدة إلى الحساب
             Double oldBalance = account.getBalance();
             account.deposit(interestAmount);
-            accountService.updateBalance(accountId, account.getBalance());
             
-            // تسجيل معاملة الفائدة
-            transactionService.createDepositTransaction(
+            // تسجيل معاملة الفائدة وقيدها (مصروف فوائد مقابل حساب العميل)؛ الكيان المقفول يُكتب عند الإثبات
+            Transaction transaction = transactionService.createDepositTransaction(
                     account,
                     interestAmount,
                     "فائدة شهرية - " + getStrategyName(account)
             );
+            ledgerService.credit(accountId, interestAmount, LedgerCode.INTEREST_EXPENSE, transaction);
             
             // إرسال إشعار
             notificationService.sendInterestAddedNotification(
@@ -106,32 +155,67 @@ public class InterestService {
     
     /**
      * تطبيق الفائدة على جميع الحسابات المؤهلة
+     * المرشحون يُقرؤون كإسقاط في معاملة قراءة، ثم كل حساب في معاملة مستقلة تعيد فحص الأهلية،
+     * بالتوازي حتى app.interest.parallelism، وكل مهمة تمر عبر محدد قاعدة البيانات
      */
-    @Transactional
     @Scheduled(cron = "0 0 1 1 * ?") // أول كل شهر في 1:00 صباحاً
     public void applyInterestToAllAccounts() {
+        InMemoryBalanceEngine.rejectDirectWrites(balanceEngine, "تطبيق الفائدة");
         log.info("🏦 بدء تطبيق الفائدة الشهرية على جميع الحسابات...");
         
-        List<Account> allAccounts = accountService.getAllAccounts();
+        long started = System.nanoTime();
+        List<AccountRepository.InterestCandidateView> eligible = accountService.getInterestCandidates(
+                LocalDateTime.now().minusDays(INTEREST_INTERVAL_DAYS));
+        
         int successCount = 0;
+        int failedCount = 0;
         Double totalInterest = 0.0;
         
-        for (Account account : allAccounts) {
-            try {
-                // التحقق من أهلية الحساب للفائدة
-                if (isAccountEligibleForInterest(account)) {
-                    Double interest = applyInterestToAccount(account.getId());
-                    if (interest > 0) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        AsyncTaskExecutor executor = BlockingExecutors.create("interest-", virtualThreads, parallelism);
+        Semaphore inFlight = new Semaphore(parallelism);
+        Map<String, Future<Double>> futures = new LinkedHashMap<>();
+        try {
+            for (AccountRepository.InterestCandidateView candidate : eligible) {
+                Long accountId = candidate.getId();
+                inFlight.acquire();
+                try {
+                    futures.put(candidate.getAccountNumber(), executor.submit(() -> {
+                        try {
+                            return limiter.call(() -> balanceRetry.execute("interest", () ->
+                                    transactionTemplate.execute(status -> applyInterestToAccount(accountId))));
+                        } finally {
+                            inFlight.release();
+                        }
+                    }));
+                } catch (RuntimeException e) {
+                    inFlight.release();
+                    throw e;
+                }
+            }
+            
+            for (Map.Entry<String, Future<Double>> entry : futures.entrySet()) {
+                try {
+                    Double interest = entry.getValue().get();
+                    if (interest != null && interest > 0) {
                         successCount++;
                         totalInterest += interest;
                     }
+                } catch (ExecutionException e) {
+                    failedCount++;
+                    log.error("❌ فشل تطبيق الفائدة على الحساب {}: {}",
+                            entry.getKey(), e.getCause().getMessage());
                 }
-            } catch (Exception e) {
-                log.error("❌ فشل تطبيق الفائدة على الحساب {}: {}",
-                        account.getAccountNumber(), e.getMessage());
             }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("تمت مقاطعة تطبيق الفائدة الشهرية", e);
+        } finally {
+            BlockingExecutors.shutdown(executor);
         }
         
+        metrics.recordInterestRun(System.nanoTime() - started, successCount,
+                eligible.size() - successCount - failedCount, failedCount);
         log.info("✅ تم تطبيق فائدة إجمالية {} على {} حساب",
                 totalInterest, successCount);
     }
@@ -159,34 +243,81 @@ public class InterestService {
     }
     
     /**
-     * حساب الفائدة المستقبلية لحساب
+     * حساب الفائدة المستقبلية لحساب (1..GrowthFactors.MAX_MONTHS شهر)
      */
     public Double calculateFutureInterest(Long accountId, Integer months) {
         Account account = accountService.getAccountById(accountId);
-        return interestCalculator.calculateFutureInterest(account, months);
+        return projectionEngine.projectCurrent(account, months).schedule(0).interestAt(months);
     }
     
     /**
-     * مقارنة استراتيجيات الفائدة لحساب
+     * مقارنة استراتيجيات الفائدة لحساب: إسقاط واحد للاستراتيجيتين حتى عمر الحساب
      */
     public InterestCalculator.InterestComparison compareStrategiesForAccount(
             Long accountId, String strategy1Name, String strategy2Name) {
         Account account = accountService.getAccountById(accountId);
-        return interestCalculator.compareStrategies(account, strategy1Name, strategy2Name);
+        int months = interestCalculator.calculateAccountAgeInMonths(account);
+        if (months > GrowthFactors.MAX_MONTHS) {
+            return interestCalculator.compareStrategies(account, strategy1Name, strategy2Name);
+        }
+        
+        InterestStrategy strategy1 = interestCalculator.getStrategy(strategy1Name);
+        InterestStrategy strategy2 = interestCalculator.getStrategy(strategy2Name);
+        InterestProjectionEngine.Projection projection =
+                projectionEngine.project(account, List.of(strategy1, strategy2), months);
+        Double interest1 = projection.schedule(0).interestAt(months);
+        Double interest2 = projection.schedule(1).interestAt(months);
+        
+        return InterestCalculator.InterestComparison.builder()
+                .strategy1Name(strategy1.getStrategyName())
+                .strategy2Name(strategy2.getStrategyName())
+                .interest1(interest1)
+                .interest2(interest2)
+                .difference(interest2 - interest1)
+                .betterStrategy(interest1 > interest2 ? strategy1Name : strategy2Name)
+                .build();
+    }
+    
+    /**
+     * جدول الفائدة شهراً بشهر لحساب؛ بدون أسماء = الاستراتيجية الحالية (what-if بأسماء استراتيجيات)
+     */
+    public InterestProjectionEngine.Projection getProjection(Long accountId, int months, List<String> strategyNames) {
+        Account account = accountService.getAccountById(accountId);
+        if (strategyNames == null || strategyNames.isEmpty()) {
+            return projectionEngine.projectCurrent(account, months);
+        }
+        List<InterestStrategy> strategies = strategyNames.stream()
+                .map(interestCalculator::getStrategy)
+                .toList();
+        return projectionEngine.project(account, strategies, months);
+    }
+    
+    /**
+     * إسقاط كل حسابات المستخدم بالاستراتيجية الحالية لكل حساب
+     */
+    @Transactional(readOnly = true)
+    public InterestProjectionEngine.PortfolioProjection getPortfolioProjection(Long userId, int months) {
+        return projectionEngine.projectPortfolio(accountService.getUserAccounts(userId), months);
     }
     
     /**
-     * الحصول على تقرير الفائدة لحساب
+     * الحصول على تقرير الفائدة لحساب: الفائدة الحالية، السنوية، المتوقعة خلال 5 سنوات والمعدل الفعلي من إسقاط واحد
      */
     public InterestReport getInterestReport(Long accountId) {
         Account account = accountService.getAccountById(accountId);
         
-        Double monthlyInterest = interestCalculator.calculateInterest(account);
+        int age = interestCalculator.calculateAccountAgeInMonths(account);
+        int horizon = Math.min(Math.max(age, REPORT_HORIZON_MONTHS), GrowthFactors.MAX_MONTHS);
+        InterestProjectionEngine.Schedule schedule = projectionEngine.projectCurrent(account, horizon).schedule(0);
+        
+        Double monthlyInterest = age <= horizon
+                ? schedule.interestAt(age)
+                : interestCalculator.calculateInterest(account);
         Double yearlyInterest = monthlyInterest * 12;
-        Double projectedInterest5Years = calculateFutureInterest(accountId, 60);
+        Double projectedInterest5Years = schedule.interestAt(REPORT_HORIZON_MONTHS);
         
         String currentStrategy = getStrategyName(account);
-        Double effectiveRate = calculateEffectiveInterestRate(account);
+        Double effectiveRate = effectiveRate(monthlyInterest, account.getBalance());
         
         return InterestReport.builder()
                 .accountNumber(account.getAccountNumber())
@@ -206,13 +337,16 @@ public class InterestService {
      * حساب معدل الفائدة الفعلي للحساب
      */
     public Double calculateEffectiveInterestRate(Account account) {
-        Double monthlyInterest = interestCalculator.calculateInterest(account);
-        if (monthlyInterest <= 0 || account.getBalance() <= 0) {
+        return effectiveRate(interestCalculator.calculateInterest(account), account.getBalance());
+    }
+    
+    private static Double effectiveRate(Double monthlyInterest, Double balance) {
+        if (monthlyInterest <= 0 || balance <= 0) {
             return 0.0;
         }
         
         // معدل شهري
-        Double monthlyRate = monthlyInterest / account.getBalance();
+        Double monthlyRate = monthlyInterest / balance;
         // تحويل إلى معدل سنوي
         return monthlyRate * 12;
     }
@@ -222,12 +356,13 @@ public class InterestService {
     // 📁 src/main/java/com/bank/se3bank/interest/service/InterestService.java (الجزء المصحح)
     // ========== Helper Methods ==========
     
-    private boolean isAccountEligibleForInterest(Account account) {
-        // التحقق من أهلية الحساب للفائدة
-        return account.getBalance() > 0 &&
-               account.getStatus() == AccountStatus.ACTIVE && 
+    /**
+     * القائمة قُرئت قبل معاملة الحساب، وقد يكون الحساب جُمّد أو أخذ فائدته منذها
+     */
+    private boolean isInterestDue(Account account) {
+        return account.getStatus() == AccountStatus.ACTIVE &&
                (account.getLastInterestCalculation() == null ||
-                account.getLastInterestCalculation().isBefore(LocalDateTime.now().minusDays(28)));
+                account.getLastInterestCalculation().isBefore(LocalDateTime.now().minusDays(INTEREST_INTERVAL_DAYS)));
     }
     
     private String getStrategyName(Account account) {
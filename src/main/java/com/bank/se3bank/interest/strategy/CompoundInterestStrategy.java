@@ -4,6 +4,8 @@ import com.bank.se3bank.accounts.model.Account;
 import com.bank.se3bank.shared.enums.AccountType;
 import org.springframework.stereotype.Component;
 
+import java.util.Arrays;
+
 /**
  * استراتيجية الفائدة المركبة
  */
@@ -13,21 +15,31 @@ public class CompoundInterestStrategy implements InterestStrategy {
     private static final Double DEFAULT_RATE = 3.0; // 3% سنوياً
     private static final Integer COMPOUNDING_PERIODS = 12; // مركب شهرياً
     
+    // (1 + r/n)^m محسوبة مرة واحدة لكل شهر حتى GrowthFactors.MAX_MONTHS
+    private final GrowthFactors growth = new GrowthFactors(getAnnualInterestRate() / COMPOUNDING_PERIODS, 1);
+    
     @Override
     public Double calculateInterest(Double principal, Integer months, Account account) {
         if (principal <= 0 || months <= 0) {
             return 0.0;
         }
         
-        // الفائدة المركبة: A = P (1 + r/n)^(nt)
-        Double annualRate = getAnnualInterestRate();
-        Double ratePerPeriod = annualRate / COMPOUNDING_PERIODS;
-        Integer totalPeriods = months; // مركب شهرياً
-        
-        Double amount = principal * Math.pow(1 + ratePerPeriod, totalPeriods);
+        // الفائدة المركبة: A = P (1 + r/n)^(nt) من جدول معاملات النمو
+        Double amount = principal * growth.at(months);
         return amount - principal; // الفائدة فقط
     }
     
+    @Override
+    public void project(double principal, Account account, double[] cumulative) {
+        if (principal <= 0) {
+            Arrays.fill(cumulative, 0.0);
+            return;
+        }
+        for (int m = 1; m <= cumulative.length; m++) {
+            cumulative[m - 1] = principal * growth.at(m) - principal;
+        }
+    }
+    
     @Override
     public String getStrategyName() {
         return "الفائدة المركبة";
@@ -57,11 +69,7 @@ public class CompoundInterestStrategy implements InterestStrategy {
     }
     
     public Double calculateFutureValue(Double principal, Integer months) {
-        Double annualRate = getAnnualInterestRate();
-        Double ratePerPeriod = annualRate / COMPOUNDING_PERIODS;
-        Integer totalPeriods = months;
-        
-        return principal * Math.pow(1 + ratePerPeriod, totalPeriods);
+        return principal * growth.at(months);
     }
     
     public Integer calculateMonthsToDouble(Double principal) {
@@ -4,8 +4,9 @@ import com.bank.se3bank.accounts.model.Account;
 import com.bank.se3bank.shared.enums.AccountType;
 import org.springframework.stereotype.Component;
 
-import java.time.LocalDateTime;
-import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * استراتيجية الوديعة الثابتة (شهادات الإيداع)
@@ -13,6 +14,15 @@ import java.time.temporal.ChronoUnit;
 @Component
 public class FixedDepositInterestStrategy implements InterestStrategy {
     
+    // جدول نمو لكل معدل من معدلات getRateForTerm: (1 + rate)^(m / 12)
+    private final Map<Double, GrowthFactors> growthByRate = new HashMap<>();
+    
+    public FixedDepositInterestStrategy() {
+        for (double rate : new double[] {2.5 / 100, 3.0 / 100, 3.5 / 100, 4.0 / 100, 4.5 / 100, 5.0 / 100, 5.5 / 100}) {
+            growthByRate.put(rate, new GrowthFactors(rate, 12.0));
+        }
+    }
+    
     @Override
     public Double calculateInterest(Double principal, Integer months, Account account) {
         if (principal <= 0 || months <= 0) {
@@ -21,13 +31,31 @@ public class FixedDepositInterestStrategy implements InterestStrategy {
         
         // تحديد المعدل بناءً على المدة والمبلغ
         Double rate = getRateForTerm(months, principal);
-        Double years = months / 12.0;
         
         // فائدة مركبة للودائع الثابتة
-        Double amount = principal * Math.pow(1 + rate, years);
+        Double amount = principal * growth(rate).at(months);
         return amount - principal;
     }
     
+    @Override
+    public void project(double principal, Account account, double[] cumulative) {
+        if (principal <= 0) {
+            Arrays.fill(cumulative, 0.0);
+            return;
+        }
+        // المعدل يتغير فقط عند حدود المدة (12/24/36/60)، فالجدول يُبحث عنه مرة لكل شريحة مدة
+        double rate = -1;
+        GrowthFactors factors = null;
+        for (int m = 1; m <= cumulative.length; m++) {
+            double termRate = getRateForTerm(m, principal);
+            if (termRate != rate) {
+                rate = termRate;
+                factors = growth(rate);
+            }
+            cumulative[m - 1] = principal * factors.at(m) - principal;
+        }
+    }
+    
     @Override
     public String getStrategyName() {
         return "الوديعة الثابتة";
@@ -60,7 +88,7 @@ public class FixedDepositInterestStrategy implements InterestStrategy {
         return 1000000.0; // الحد الأقصى 1,000,000
     }
     
-    private Double getRateForTerm(Integer months, Double amount) {
+    private double getRateForTerm(int months, double amount) {
         // معدلات مختلفة حسب المدة والمبلغ
         if (months >= 60) { // 5 سنوات أو أكثر
             return amount > 50000 ? 5.5 / 100 : 5.0 / 100;
@@ -77,8 +105,12 @@ public class FixedDepositInterestStrategy implements InterestStrategy {
     
     public Double calculateMaturityAmount(Double principal, Integer months) {
         Double rate = getRateForTerm(months, principal);
-        Double years = months / 12.0;
-        return principal * Math.pow(1 + rate, years);
+        return principal * growth(rate).at(months);
+    }
+    
+    private GrowthFactors growth(double rate) {
+        GrowthFactors growth = growthByRate.get(rate);
+        return growth != null ? growth : new GrowthFactors(rate, 12.0);
     }
     
     public Double calculatePenaltyForEarlyWithdrawal(Double principal, Integer remainingMonths) {
@@ -0,0 +1,38 @@
+package com.bank.se3bank.interest.strategy;
+
+/**
+ * جداول معاملات النمو المحسوبة مسبقاً: table[m] = (1 + rate)^(m / periodsPerExponent)
+ *
+ * - تُبنى مرة واحدة لكل معدل عند إنشاء الاستراتيجية (Math.pow لكل خانة مرة واحدة فقط)
+ * - القيم مطابقة بت ببت لاستدعاء Math.pow بنفس الأس، فالنتائج لا تتغير
+ * - أكثر من MAX_MONTHS يرجع إلى Math.pow مباشرة
+ */
+public final class GrowthFactors {
+
+    public static final int MAX_MONTHS = 600; // 50 سنة
+
+    private final double base;
+    private final double periodsPerExponent;
+    private final double[] table;
+
+    /**
+     * @param rate المعدل لكل فترة (شهري للمركبة، سنوي للوديعة)
+     * @param periodsPerExponent عدد الأشهر في وحدة الأس (1 = شهري، 12.0 = سنوي)
+     */
+    public GrowthFactors(double rate, double periodsPerExponent) {
+        this.base = 1 + rate;
+        this.periodsPerExponent = periodsPerExponent;
+        this.table = new double[MAX_MONTHS + 1];
+        for (int m = 0; m <= MAX_MONTHS; m++) {
+            table[m] = Math.pow(base, exponent(m));
+        }
+    }
+
+    public double at(int months) {
+        return months >= 0 && months <= MAX_MONTHS ? table[months] : Math.pow(base, exponent(months));
+    }
+
+    private double exponent(int months) {
+        return periodsPerExponent == 1 ? months : months / periodsPerExponent;
+    }
+}
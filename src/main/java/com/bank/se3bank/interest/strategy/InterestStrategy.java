@@ -18,6 +18,17 @@ public interface InterestStrategy {
      */
     Double calculateInterest(Double principal, Integer months, Account account);
     
+    /**
+     * جدول الفائدة التراكمية لكل شهر في تمريرة واحدة:
+     * cumulative[m - 1] = calculateInterest(principal, m, account) لكل m من 1 إلى cumulative.length
+     * التطبيق الافتراضي يستدعي calculateInterest لكل شهر؛ الاستراتيجيات المدمجة تحسبه على مصفوفة primitive مباشرة
+     */
+    default void project(double principal, Account account, double[] cumulative) {
+        for (int m = 1; m <= cumulative.length; m++) {
+            cumulative[m - 1] = calculateInterest(principal, m, account);
+        }
+    }
+    
     /**
      * اسم الاستراتيجية
      */
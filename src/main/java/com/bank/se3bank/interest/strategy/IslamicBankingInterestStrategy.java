@@ -4,6 +4,8 @@ import com.bank.se3bank.accounts.model.Account;
 import com.bank.se3bank.shared.enums.AccountType;
 import org.springframework.stereotype.Component;
 
+import java.util.Arrays;
+
 /**
  * استراتيجية المصرفية الإسلامية (بدون فائدة ربوية)
  */
@@ -31,6 +33,20 @@ public class IslamicBankingInterestStrategy implements InterestStrategy {
         return baseProfit * adjustmentFactor;
     }
     
+    @Override
+    public void project(double principal, Account account, double[] cumulative) {
+        if (principal <= 0) {
+            Arrays.fill(cumulative, 0.0);
+            return;
+        }
+        // معامل التعديل يعتمد على الحساب فقط، فيُحسب مرة واحدة للجدول كله
+        double profitRate = PROFIT_RATE / 100;
+        double adjustmentFactor = calculateAdjustmentFactor(account);
+        for (int m = 1; m <= cumulative.length; m++) {
+            cumulative[m - 1] = principal * profitRate * (m / 12.0) * adjustmentFactor;
+        }
+    }
+    
     @Override
     public String getStrategyName() {
         return "المصرفية الإسلامية";
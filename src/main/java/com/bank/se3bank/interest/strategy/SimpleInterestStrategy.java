@@ -5,6 +5,7 @@ import com.bank.se3bank.shared.enums.AccountType;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDateTime;
+import java.util.Arrays;
 
 /**
  * استراتيجية الفائدة البسيطة
@@ -27,6 +28,18 @@ public class SimpleInterestStrategy implements InterestStrategy {
         return principal * annualRate * years;
     }
     
+    @Override
+    public void project(double principal, Account account, double[] cumulative) {
+        if (principal <= 0) {
+            Arrays.fill(cumulative, 0.0);
+            return;
+        }
+        double annualRate = getAnnualInterestRate();
+        for (int m = 1; m <= cumulative.length; m++) {
+            cumulative[m - 1] = principal * annualRate * (m / 12.0);
+        }
+    }
+    
     @Override
     public String getStrategyName() {
         return "الفائدة البسيطة";
@@ -4,6 +4,8 @@ import com.bank.se3bank.accounts.model.Account;
 import com.bank.se3bank.shared.enums.AccountType;
 import org.springframework.stereotype.Component;
 
+import java.util.Arrays;
+
 /**
  * استراتيجية الفائدة المتدرجة (حسب شرائح الرصيد)
  */
@@ -43,6 +45,38 @@ public class TieredInterestStrategy implements InterestStrategy {
         return totalInterest;
     }
     
+    @Override
+    public void project(double principal, Account account, double[] cumulative) {
+        if (principal <= 0) {
+            Arrays.fill(cumulative, 0.0);
+            return;
+        }
+        // توزيع الرصيد على الشرائح مرة واحدة، ثم كل شهر مجموع خطي على مصفوفتين
+        double[] amounts = new double[TIERS.length];
+        double[] rates = new double[TIERS.length];
+        int tiers = 0;
+        double remainingPrincipal = principal;
+        for (Tier tier : TIERS) {
+            if (remainingPrincipal <= 0) break;
+            
+            double amountInTier = Math.min(remainingPrincipal, tier.max - tier.min);
+            if (amountInTier > 0) {
+                amounts[tiers] = amountInTier;
+                rates[tiers] = tier.rate / 100;
+                tiers++;
+                remainingPrincipal -= amountInTier;
+            }
+        }
+        for (int m = 1; m <= cumulative.length; m++) {
+            double years = m / 12.0;
+            double totalInterest = 0.0;
+            for (int t = 0; t < tiers; t++) {
+                totalInterest += amounts[t] * rates[t] * years;
+            }
+            cumulative[m - 1] = totalInterest;
+        }
+    }
+    
     @Override
     public String getStrategyName() {
         return "الفائدة المتدرجة";
@@ -0,0 +1,78 @@
+package com.bank.se3bank.ledger.controller;
+
+import com.bank.se3bank.ledger.model.LedgerEntry;
+import com.bank.se3bank.ledger.model.LedgerVerification;
+import com.bank.se3bank.ledger.service.LedgerService;
+import com.bank.se3bank.ledger.service.LedgerSnapshotJob;
+import com.bank.se3bank.ledger.service.LedgerVerifier;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/ledger")
+@RequiredArgsConstructor
+@Tag(name = "دفتر الأستاذ", description = "قيود مزدوجة للإضافة فقط، أرصدة من لقطة + فرق، والتحقق من الاتساق")
+public class LedgerController {
+
+    private final LedgerService ledgerService;
+    private final LedgerSnapshotJob snapshotJob;
+    private final LedgerVerifier verifier;
+
+    @GetMapping("/accounts/{accountId}/balance")
+    @PreAuthorize("hasAnyRole('ADMIN','MANAGER','TELLER','CUSTOMER')")
+    @Operation(summary = "رصيد الدفتر", description = "آخر لقطة للحساب + القيود بعدها")
+    public ResponseEntity<Map<String, Object>> getBalance(@PathVariable Long accountId) {
+        return ResponseEntity.ok(Map.of("accountId", accountId, "balance", ledgerService.getBalance(accountId)));
+    }
+
+    @GetMapping("/accounts/{accountId}/entries")
+    @PreAuthorize("hasAnyRole('ADMIN','MANAGER','TELLER')")
+    @Operation(summary = "قيود الحساب", description = "أحدث قيود الحساب أولاً")
+    public ResponseEntity<List<LedgerEntry>> getAccountEntries(@PathVariable Long accountId,
+                                                               @RequestParam(defaultValue = "50") int limit) {
+        if (limit <= 0 || limit > 1000) {
+            throw new IllegalArgumentException("limit يجب أن يكون بين 1 و 1000");
+        }
+        return ResponseEntity.ok(ledgerService.getAccountEntries(accountId, limit));
+    }
+
+    @GetMapping("/transactions/{transactionId}/entries")
+    @PreAuthorize("hasAnyRole('ADMIN','MANAGER','TELLER')")
+    @Operation(summary = "قيود المعاملة", description = "أطراف القيد المرتبطة بمعاملة")
+    public ResponseEntity<List<LedgerEntry>> getTransactionEntries(@PathVariable Long transactionId) {
+        return ResponseEntity.ok(ledgerService.getTransactionEntries(transactionId));
+    }
+
+    @PostMapping("/verify")
+    @PreAuthorize("hasAnyRole('ADMIN','MANAGER')")
+    @Operation(summary = "التحقق من الدفتر", description = "توازن القيود، صحة اللقطات، ومطابقة عمود الرصيد")
+    public ResponseEntity<LedgerVerification> verify() {
+        return ResponseEntity.ok(verifier.verify());
+    }
+
+    @PostMapping("/snapshots")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "أخذ لقطات الأرصدة الآن", description = "طي القيود المستقرة في لقطات الحسابات")
+    public ResponseEntity<Map<String, Object>> takeSnapshots() {
+        return ResponseEntity.ok(Map.of("accounts", snapshotJob.takeSnapshots()));
+    }
+
+    @PostMapping("/backfill")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "قيود افتتاحية", description = "للحسابات الموجودة قبل الدفتر أو المولدة مباشرة في قاعدة البيانات")
+    public ResponseEntity<Map<String, Object>> backfill() {
+        return ResponseEntity.ok(Map.of("accounts", ledgerService.backfillOpeningBalances()));
+    }
+}
@@ -0,0 +1,55 @@
+package com.bank.se3bank.ledger.model;
+
+import com.bank.se3bank.shared.enums.LedgerCode;
+import com.bank.se3bank.shared.enums.PostingDirection;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+
+/**
+ * قيد واحد (طرف واحد) في دفتر الأستاذ - إضافة فقط، لا تعديل ولا حذف
+ * أطراف القيد الواحد تشترك في journal_id ومجموع المدين فيها يساوي مجموع الدائن
+ * الكتابة تتم بـ JDBC batch عبر LedgerService؛ الكيان للقراءة وإنشاء الجدول فقط
+ */
+@Entity
+@Immutable
+@Table(name = "ledger_entries", indexes = {
+        @Index(name = "idx_ledger_entries_account_id", columnList = "account_id, id"),
+        @Index(name = "idx_ledger_entries_journal", columnList = "journal_id"),
+        @Index(name = "idx_ledger_entries_transaction", columnList = "transaction_id")
+})
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LedgerEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "journal_id", nullable = false, length = 64)
+    private String journalId;
+
+    @Column(name = "transaction_id")
+    private Long transactionId; // المعاملة المرتبطة (إن وجدت)
+
+    @Column(name = "account_id")
+    private Long accountId; // null للحسابات الداخلية (CASH، FEE_INCOME، ...)
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "ledger_code", nullable = false, length = 32)
+    private LedgerCode ledgerCode;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "direction", nullable = false, length = 6)
+    private PostingDirection direction;
+
+    @Column(name = "amount", nullable = false)
+    private Double amount;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
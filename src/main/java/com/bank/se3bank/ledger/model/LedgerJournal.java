@@ -0,0 +1,96 @@
+package com.bank.se3bank.ledger.model;
+
+import com.bank.se3bank.shared.enums.LedgerCode;
+import com.bank.se3bank.shared.enums.PostingDirection;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * قيد يومية متوازن قبل الكتابة: طرفان أو أكثر يتساوى فيهما المدين والدائن
+ */
+@Getter
+@RequiredArgsConstructor
+public class LedgerJournal {
+
+    private static final double TOLERANCE = 0.005;
+
+    private final String journalId;
+    private final Long transactionId;
+    private final List<Leg> legs;
+
+    /**
+     * تحويل: مدين حساب المصدر، دائن حساب الوجهة
+     */
+    public static LedgerJournal transfer(String journalId, Long transactionId,
+                                         Long fromAccountId, Long toAccountId, double amount) {
+        return new LedgerJournal(journalId(journalId), transactionId, List.of(
+                Leg.customer(fromAccountId, PostingDirection.DEBIT, amount),
+                Leg.customer(toAccountId, PostingDirection.CREDIT, amount)));
+    }
+
+    /**
+     * زيادة رصيد العميل مقابل حساب داخلي (إيداع نقدي، فائدة، رصيد افتتاحي)
+     */
+    public static LedgerJournal credit(String journalId, Long transactionId,
+                                       Long accountId, double amount, LedgerCode counterpart) {
+        return new LedgerJournal(journalId(journalId), transactionId, List.of(
+                Leg.internal(counterpart, PostingDirection.DEBIT, amount),
+                Leg.customer(accountId, PostingDirection.CREDIT, amount)));
+    }
+
+    /**
+     * إنقاص رصيد العميل مقابل حساب داخلي (سحب نقدي، رسوم)
+     */
+    public static LedgerJournal debit(String journalId, Long transactionId,
+                                      Long accountId, double amount, LedgerCode counterpart) {
+        return new LedgerJournal(journalId(journalId), transactionId, List.of(
+                Leg.customer(accountId, PostingDirection.DEBIT, amount),
+                Leg.internal(counterpart, PostingDirection.CREDIT, amount)));
+    }
+
+    /**
+     * رمي IllegalArgumentException إذا لم يكن القيد متوازناً أو كان فيه مبلغ غير موجب
+     */
+    public void validate() {
+        if (legs == null || legs.size() < 2) {
+            throw new IllegalArgumentException("القيد يحتاج طرفين على الأقل: " + journalId);
+        }
+        double balance = 0;
+        for (Leg leg : legs) {
+            if (leg.getAmount() <= 0 || Double.isNaN(leg.getAmount()) || Double.isInfinite(leg.getAmount())) {
+                throw new IllegalArgumentException("مبلغ القيد يجب أن يكون أكبر من صفر: " + journalId);
+            }
+            if (leg.getCode() == LedgerCode.CUSTOMER && leg.getAccountId() == null) {
+                throw new IllegalArgumentException("طرف حساب العميل بدون رقم حساب: " + journalId);
+            }
+            balance += leg.getDirection() == PostingDirection.DEBIT ? leg.getAmount() : -leg.getAmount();
+        }
+        if (Math.abs(balance) > TOLERANCE) {
+            throw new IllegalArgumentException("القيد غير متوازن (" + balance + "): " + journalId);
+        }
+    }
+
+    private static String journalId(String journalId) {
+        return journalId != null ? journalId : "JRN-" + UUID.randomUUID();
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public static class Leg {
+        private final Long accountId;
+        private final LedgerCode code;
+        private final PostingDirection direction;
+        private final double amount;
+
+        public static Leg customer(Long accountId, PostingDirection direction, double amount) {
+            return new Leg(accountId, LedgerCode.CUSTOMER, direction, amount);
+        }
+
+        public static Leg internal(LedgerCode code, PostingDirection direction, double amount) {
+            return new Leg(null, code, direction, amount);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.bank.se3bank.ledger.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * لقطة رصيد حساب: مجموع قيوده حتى last_entry_id
+ * الرصيد الحالي = balance + مجموع القيود بعد last_entry_id
+ */
+@Entity
+@Table(name = "ledger_snapshots")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LedgerSnapshot {
+
+    @Id
+    @Column(name = "account_id")
+    private Long accountId;
+
+    @Column(name = "balance", nullable = false)
+    private Double balance;
+
+    @Column(name = "last_entry_id", nullable = false)
+    private Long lastEntryId;
+
+    @Column(name = "taken_at", nullable = false)
+    private LocalDateTime takenAt;
+}
@@ -0,0 +1,28 @@
+package com.bank.se3bank.ledger.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * نتيجة التحقق من دفتر الأستاذ (العينات محدودة بـ app.ledger.verify.sample-size)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LedgerVerification {
+    private LocalDateTime checkedAt;
+    private Long durationMs;
+    private Boolean consistent;
+    private Long unbalancedJournals; // قيود لا يتساوى فيها المدين والدائن
+    private List<String> unbalancedJournalSample;
+    private Long snapshotMismatches; // لقطات لا تساوي مجموع القيود حتى last_entry_id
+    private List<Long> snapshotMismatchSample;
+    private Long balanceDrift; // حسابات يختلف عمود balance فيها عن رصيد الدفتر (لقطة + فرق)
+    private List<Long> balanceDriftSample;
+}
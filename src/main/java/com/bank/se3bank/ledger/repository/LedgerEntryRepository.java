@@ -0,0 +1,16 @@
+package com.bank.se3bank.ledger.repository;
+
+import com.bank.se3bank.ledger.model.LedgerEntry;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface LedgerEntryRepository extends JpaRepository<LedgerEntry, Long> {
+
+    List<LedgerEntry> findByAccountIdOrderByIdDesc(Long accountId, Pageable pageable);
+
+    List<LedgerEntry> findByTransactionIdOrderById(Long transactionId);
+}
@@ -0,0 +1,9 @@
+package com.bank.se3bank.ledger.repository;
+
+import com.bank.se3bank.ledger.model.LedgerSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface LedgerSnapshotRepository extends JpaRepository<LedgerSnapshot, Long> {
+}
@@ -0,0 +1,250 @@
+package com.bank.se3bank.ledger.service;
+
+import com.bank.se3bank.ledger.model.LedgerEntry;
+import com.bank.se3bank.ledger.model.LedgerJournal;
+import com.bank.se3bank.ledger.repository.LedgerEntryRepository;
+import com.bank.se3bank.shared.enums.LedgerCode;
+import com.bank.se3bank.shared.enums.PostingDirection;
+import com.bank.se3bank.shared.metrics.BankMetrics;
+import com.bank.se3bank.transactions.model.Transaction;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * دفتر الأستاذ بالقيد المزدوج (إضافة فقط)
+ *
+ * - كل حركة رصيد تُسجل كقيد متوازن صريح من مسارها (تحويل، سحب، إيداع، فائدة، رسوم، تعديل إداري)
+ * - القيود تُكتب بـ INSERT فقط (JDBC batch) في معاملة المستدعي لحظة الإثبات (beforeCommit)، فمعرفاتها
+ *   وcreated_at تُحجز قبيل الإثبات مباشرة ولا تسبقها قيود أحدث في الظهور إلا بزمن الإثبات نفسه (انظر LedgerSnapshotJob)
+ * - رصيد الدفتر = آخر لقطة للحساب + مجموع القيود بعدها (استعلام واحد على فهرس account_id, id)
+ * - عمود accounts.balance يبقى إسقاطاً يُحدَّث في نفس المعاملة لأن فحوص السحب والحد الأدنى تعتمد عليه؛
+ *   لا يُسوّى أي فرق تلقائياً، فالفرق بين العمود والدفتر يظهر في LedgerVerifier
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LedgerService {
+
+    private static final String SIGNED_AMOUNT = "CASE WHEN e.direction = 'CREDIT' THEN e.amount ELSE -e.amount END";
+
+    private static final String INSERT_SQL =
+            "INSERT INTO ledger_entries (journal_id, transaction_id, account_id, ledger_code, direction, amount, created_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String COVERED_DEBIT_SQL =
+            "UPDATE accounts SET balance = balance - ?, updated_at = ? " +
+            "WHERE id = ? AND status = 'ACTIVE' AND balance + COALESCE(overdraft_limit, 0) >= ?";
+
+    private static final String BALANCE_SQL =
+            "SELECT COALESCE((SELECT s.balance FROM ledger_snapshots s WHERE s.account_id = ?), 0) + " +
+            "COALESCE((SELECT SUM(" + SIGNED_AMOUNT + ") FROM ledger_entries e WHERE e.account_id = ? " +
+            "AND e.id > COALESCE((SELECT s.last_entry_id FROM ledger_snapshots s WHERE s.account_id = ?), 0)), 0)";
+
+    private static final String BACKFILL_CUSTOMER_SQL =
+            "INSERT INTO ledger_entries (journal_id, transaction_id, account_id, ledger_code, direction, amount, created_at) " +
+            "SELECT CONCAT('OPEN-', a.id), NULL, a.id, 'CUSTOMER', " +
+            "CASE WHEN a.balance >= 0 THEN 'CREDIT' ELSE 'DEBIT' END, ABS(a.balance), ? FROM accounts a " +
+            "WHERE a.balance <> 0 AND NOT EXISTS (SELECT 1 FROM ledger_entries e WHERE e.account_id = a.id) " +
+            "AND NOT EXISTS (SELECT 1 FROM ledger_snapshots s WHERE s.account_id = a.id)";
+
+    private static final String BACKFILL_OPENING_SQL =
+            "INSERT INTO ledger_entries (journal_id, transaction_id, account_id, ledger_code, direction, amount, created_at) " +
+            "SELECT e.journal_id, NULL, NULL, 'OPENING', " +
+            "CASE WHEN e.direction = 'CREDIT' THEN 'DEBIT' ELSE 'CREDIT' END, e.amount, e.created_at " +
+            "FROM ledger_entries e WHERE e.journal_id LIKE 'OPEN-%' AND e.account_id IS NOT NULL " +
+            "AND NOT EXISTS (SELECT 1 FROM ledger_entries o WHERE o.journal_id = e.journal_id AND o.account_id IS NULL)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final LedgerEntryRepository entryRepository;
+    private final BankMetrics metrics;
+
+    @Value("${app.ledger.enabled:true}")
+    private boolean enabled = true;
+
+    // ========== Posting ==========
+
+    public void transfer(Long fromAccountId, Long toAccountId, double amount, Transaction transaction) {
+        post(LedgerJournal.transfer(journalId(transaction), transactionId(transaction),
+                fromAccountId, toAccountId, amount));
+    }
+
+    public void credit(Long accountId, double amount, LedgerCode counterpart, Transaction transaction) {
+        post(LedgerJournal.credit(journalId(transaction), transactionId(transaction),
+                accountId, amount, counterpart));
+    }
+
+    public void debit(Long accountId, double amount, LedgerCode counterpart, Transaction transaction) {
+        post(LedgerJournal.debit(journalId(transaction), transactionId(transaction),
+                accountId, amount, counterpart));
+    }
+
+    /**
+     * رصيد افتتاحي لحساب جديد (بأي إشارة)
+     */
+    public void open(Long accountId, double balance) {
+        if (balance > 0) {
+            post(LedgerJournal.credit("OPEN-" + accountId, null, accountId, balance, LedgerCode.OPENING));
+        } else if (balance < 0) {
+            post(LedgerJournal.debit("OPEN-" + accountId, null, accountId, -balance, LedgerCode.OPENING));
+        }
+    }
+
+    /**
+     * خصم بالجملة (رسوم): كل قيد debit يخصم من عمود الرصيد شرطياً (الحساب نشط والرصيد مع حد المكشوف يكفي)
+     * ويُكتب في نفس الدفعة فقط إن نجح خصمه، فلا يتغير العمود بدون قيد ولا يُقيد ما لم يُخصم
+     * يرجع القيود المكتوبة بنفس ترتيب المدخلات
+     */
+    public List<LedgerJournal> debitIfCovered(List<LedgerJournal> debits) {
+        if (debits.isEmpty()) {
+            return List.of();
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>(debits.size());
+        for (LedgerJournal journal : debits) {
+            LedgerJournal.Leg leg = customerDebit(journal);
+            double amount = round(leg.getAmount());
+            rows.add(new Object[]{amount, now, leg.getAccountId(), amount});
+        }
+        int[] updated = jdbcTemplate.batchUpdate(COVERED_DEBIT_SQL, rows);
+
+        List<LedgerJournal> posted = new ArrayList<>(debits.size());
+        for (int i = 0; i < debits.size(); i++) {
+            if (updated[i] > 0) {
+                posted.add(debits.get(i));
+            }
+        }
+        postAll(posted);
+        return posted;
+    }
+
+    public void post(LedgerJournal journal) {
+        postAll(List.of(journal));
+    }
+
+    /**
+     * كتابة عدة قيود في batch واحد داخل معاملة المستدعي عند إثباتها (وفوراً بدون معاملة)
+     * القيود تُتحقق الآن، فالقيد غير المتوازن يفشل في مساره لا عند الإثبات
+     */
+    public void postAll(Collection<LedgerJournal> journals) {
+        if (!enabled || journals.isEmpty()) {
+            return;
+        }
+        journals.forEach(LedgerJournal::validate);
+        if (TransactionSynchronizationManager.isActualTransactionActive()
+                && TransactionSynchronizationManager.isSynchronizationActive()) {
+            pendingPostings().journals.addAll(journals);
+        } else {
+            insert(journals);
+        }
+    }
+
+    private void insert(Collection<LedgerJournal> journals) {
+        if (journals.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>(journals.size() * 2);
+        for (LedgerJournal journal : journals) {
+            for (LedgerJournal.Leg leg : journal.getLegs()) {
+                rows.add(new Object[]{journal.getJournalId(), journal.getTransactionId(), leg.getAccountId(),
+                        leg.getCode().name(), leg.getDirection().name(), round(leg.getAmount()), now});
+            }
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+        metrics.recordLedgerPostings(journals.size(), rows.size());
+    }
+
+    /**
+     * قيود المعاملة الحالية المنتظرة للإثبات؛ التزامن يُعلَّق مع المعاملة الخارجية عند REQUIRES_NEW
+     * فكل معاملة تكتب قيودها هي فقط
+     */
+    private PendingPostings pendingPostings() {
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof PendingPostings pending && pending.owner() == this) {
+                return pending;
+            }
+        }
+        PendingPostings pending = new PendingPostings(this, new ArrayList<>());
+        TransactionSynchronizationManager.registerSynchronization(pending);
+        return pending;
+    }
+
+    private record PendingPostings(LedgerService owner, List<LedgerJournal> journals)
+            implements TransactionSynchronization {
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            owner.insert(journals);
+        }
+    }
+
+    // ========== Balances ==========
+
+    /**
+     * رصيد الدفتر: لقطة + قيود بعدها في استعلام واحد
+     */
+    @Transactional(readOnly = true)
+    public double getBalance(Long accountId) {
+        Double balance = jdbcTemplate.queryForObject(BALANCE_SQL, Double.class, accountId, accountId, accountId);
+        return balance != null ? round(balance) : 0.0;
+    }
+
+    @Transactional(readOnly = true)
+    public List<LedgerEntry> getAccountEntries(Long accountId, int limit) {
+        return entryRepository.findByAccountIdOrderByIdDesc(accountId, PageRequest.of(0, limit));
+    }
+
+    @Transactional(readOnly = true)
+    public List<LedgerEntry> getTransactionEntries(Long transactionId) {
+        return entryRepository.findByTransactionIdOrderById(transactionId);
+    }
+
+    /**
+     * قيود افتتاحية للحسابات التي لا أثر لها في الدفتر (بيانات أقدم من الدفتر أو مولدة مباشرة)
+     */
+    @Transactional
+    public int backfillOpeningBalances() {
+        int accounts = jdbcTemplate.update(BACKFILL_CUSTOMER_SQL, Timestamp.valueOf(LocalDateTime.now()));
+        jdbcTemplate.update(BACKFILL_OPENING_SQL);
+        log.info("🧾 قيود افتتاحية لـ {} حساب", accounts);
+        return accounts;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    private static LedgerJournal.Leg customerDebit(LedgerJournal journal) {
+        for (LedgerJournal.Leg leg : journal.getLegs()) {
+            if (leg.getCode() == LedgerCode.CUSTOMER && leg.getDirection() == PostingDirection.DEBIT) {
+                return leg;
+            }
+        }
+        throw new IllegalArgumentException("القيد لا يخصم من حساب عميل: " + journal.getJournalId());
+    }
+
+    private static String journalId(Transaction transaction) {
+        return transaction != null ? transaction.getTransactionId() : null;
+    }
+
+    private static Long transactionId(Transaction transaction) {
+        return transaction != null ? transaction.getId() : null;
+    }
+
+    static double round(double amount) {
+        return Math.round(amount * 100.0) / 100.0;
+    }
+}
@@ -0,0 +1,114 @@
+package com.bank.se3bank.ledger.service;
+
+import com.bank.se3bank.shared.metrics.BankMetrics;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * طي القيود في لقطات الأرصدة بشكل دوري حتى يبقى فرق القراءة صغيراً
+ *
+ * - الحد الأدنى = أكبر last_entry_id في اللقطات (كل لقطة تُحدَّث في تشغيل تأخذ حد ذلك التشغيل)
+ * - الحد الأعلى = آخر قيد أقدم من settle-ms، فلا تُطوى قيود معاملات لم تُثبَّت بعد بمعرفات أصغر
+ *   (LedgerService يكتب القيود عند الإثبات، فـ settle-ms يغطي زمن الإثبات وفرق الساعات بين العقد لا طول المعاملة؛
+ *   التحقق الليلي يكشف أي لقطة خاطئة)
+ * - التحديث مشروط بـ last_entry_id <= الحد الأدنى، فتشغيلان متزامنان على عقدتين لا يطويان نفس القيود مرتين
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LedgerSnapshotJob {
+
+    private static final String LOWER_SQL = "SELECT COALESCE(MAX(last_entry_id), 0) FROM ledger_snapshots";
+
+    private static final String CUTOFF_SQL =
+            "SELECT COALESCE(MAX(id), 0) FROM ledger_entries WHERE id > ? AND id <= ? AND created_at < ?";
+
+    private static final String DELTA_SQL =
+            "SELECT account_id, SUM(CASE WHEN direction = 'CREDIT' THEN amount ELSE -amount END) AS delta " +
+            "FROM ledger_entries WHERE account_id IS NOT NULL AND id > ? AND id <= ? GROUP BY account_id";
+
+    private static final String UPDATE_SQL =
+            "UPDATE ledger_snapshots SET balance = balance + ?, last_entry_id = ?, taken_at = ? " +
+            "WHERE account_id = ? AND last_entry_id <= ?";
+
+    private static final String INSERT_SQL =
+            "INSERT INTO ledger_snapshots (account_id, balance, last_entry_id, taken_at) VALUES (?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final BankMetrics metrics;
+
+    @Value("${app.ledger.snapshot.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${app.ledger.snapshot.settle-ms:60000}")
+    private long settleMs = 60000;
+
+    @Value("${app.ledger.snapshot.max-entries:500000}")
+    private long maxEntries = 500000;
+
+    @Scheduled(fixedDelayString = "${app.ledger.snapshot.interval-ms:300000}",
+               initialDelayString = "${app.ledger.snapshot.initial-delay-ms:60000}")
+    public void scheduledSnapshot() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            takeSnapshots();
+        } catch (RuntimeException e) {
+            log.error("❌ فشل أخذ لقطات الأرصدة: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * تشغيل واحد: يطوي حتى max-entries قيداً ويعيد عدد الحسابات التي حُدّثت لقطاتها
+     */
+    public int takeSnapshots() {
+        long started = System.nanoTime();
+        Integer accounts = new TransactionTemplate(transactionManager).execute(status -> {
+            Long lower = jdbcTemplate.queryForObject(LOWER_SQL, Long.class);
+            Timestamp settledBefore = Timestamp.valueOf(LocalDateTime.now().minus(Duration.ofMillis(settleMs)));
+            Long cutoff = jdbcTemplate.queryForObject(CUTOFF_SQL, Long.class, lower, lower + maxEntries, settledBefore);
+            if (cutoff == null || cutoff <= lower) {
+                return 0;
+            }
+
+            List<Object[]> deltas = jdbcTemplate.query(DELTA_SQL,
+                    (rs, rowNum) -> new Object[]{rs.getLong("account_id"), rs.getDouble("delta")}, lower, cutoff);
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            List<Object[]> updates = new ArrayList<>(deltas.size());
+            for (Object[] delta : deltas) {
+                updates.add(new Object[]{delta[1], cutoff, now, delta[0], lower});
+            }
+            int[] updated = jdbcTemplate.batchUpdate(UPDATE_SQL, updates);
+
+            // الحسابات التي ليس لها لقطة بعد؛ تعارض المفتاح يعني أن عقدة أخرى سبقتنا فتُلغى المعاملة كلها
+            List<Object[]> inserts = new ArrayList<>();
+            for (int i = 0; i < deltas.size(); i++) {
+                if (updated[i] == 0) {
+                    inserts.add(new Object[]{deltas.get(i)[0], deltas.get(i)[1], cutoff, now});
+                }
+            }
+            if (!inserts.isEmpty()) {
+                jdbcTemplate.batchUpdate(INSERT_SQL, inserts);
+            }
+            log.info("📸 لقطات الأرصدة: {} حساب، القيود {} → {}", deltas.size(), lower, cutoff);
+            return deltas.size();
+        });
+        int result = accounts != null ? accounts : 0;
+        metrics.recordLedgerSnapshot(result, System.nanoTime() - started);
+        return result;
+    }
+}
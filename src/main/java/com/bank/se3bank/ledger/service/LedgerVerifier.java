@@ -0,0 +1,110 @@
+package com.bank.se3bank.ledger.service;
+
+import com.bank.se3bank.ledger.model.LedgerVerification;
+import com.bank.se3bank.shared.metrics.BankMetrics;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * التحقق من دفتر الأستاذ (ليلاً أو عند الطلب) في معاملة قراءة فقط
+ * 1. كل قيد متوازن  2. كل لقطة = مجموع قيود حسابها حتى last_entry_id
+ * 3. عمود accounts.balance + أجزاء الحساب الساخن = رصيد الدفتر
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LedgerVerifier {
+
+    private static final String SIGNED_AMOUNT = "CASE WHEN e.direction = 'CREDIT' THEN e.amount ELSE -e.amount END";
+    private static final String TOLERANCE = "0.005";
+
+    private static final String UNBALANCED_SQL =
+            "SELECT e.journal_id FROM ledger_entries e GROUP BY e.journal_id " +
+            "HAVING ABS(SUM(" + SIGNED_AMOUNT + ")) > " + TOLERANCE;
+
+    private static final String SNAPSHOT_MISMATCH_SQL =
+            "SELECT s.account_id FROM ledger_snapshots s " +
+            "LEFT JOIN ledger_entries e ON e.account_id = s.account_id AND e.id <= s.last_entry_id " +
+            "GROUP BY s.account_id, s.balance " +
+            "HAVING ABS(s.balance - COALESCE(SUM(" + SIGNED_AMOUNT + "), 0)) > " + TOLERANCE;
+
+    private static final String BALANCE_DRIFT_SQL =
+            "SELECT a.id FROM accounts a " +
+            "LEFT JOIN ledger_snapshots s ON s.account_id = a.id " +
+            "LEFT JOIN ledger_entries e ON e.account_id = a.id AND e.id > COALESCE(s.last_entry_id, 0) " +
+            "GROUP BY a.id, a.balance, s.balance " +
+            "HAVING ABS(a.balance + COALESCE((SELECT SUM(b.balance) FROM account_balance_slots b WHERE b.account_id = a.id), 0) " +
+            "- COALESCE(s.balance, 0) - COALESCE(SUM(" + SIGNED_AMOUNT + "), 0)) > " + TOLERANCE;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final BankMetrics metrics;
+
+    @Value("${app.ledger.verify.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${app.ledger.verify.sample-size:20}")
+    private int sampleSize = 20;
+
+    @Scheduled(cron = "${app.ledger.verify.cron:0 30 2 * * *}")
+    public void scheduledVerification() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            verify();
+        } catch (RuntimeException e) {
+            log.error("❌ فشل التحقق من دفتر الأستاذ: {}", e.getMessage());
+        }
+    }
+
+    public LedgerVerification verify() {
+        long started = System.nanoTime();
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(true);
+        LedgerVerification result = template.execute(status -> {
+            long unbalanced = count(UNBALANCED_SQL);
+            long snapshotMismatches = count(SNAPSHOT_MISMATCH_SQL);
+            long drift = count(BALANCE_DRIFT_SQL);
+            return LedgerVerification.builder()
+                    .checkedAt(LocalDateTime.now())
+                    .consistent(unbalanced == 0 && snapshotMismatches == 0 && drift == 0)
+                    .unbalancedJournals(unbalanced)
+                    .unbalancedJournalSample(unbalanced == 0 ? List.of() : sample(UNBALANCED_SQL, String.class))
+                    .snapshotMismatches(snapshotMismatches)
+                    .snapshotMismatchSample(snapshotMismatches == 0 ? List.of() : sample(SNAPSHOT_MISMATCH_SQL, Long.class))
+                    .balanceDrift(drift)
+                    .balanceDriftSample(drift == 0 ? List.of() : sample(BALANCE_DRIFT_SQL, Long.class))
+                    .build();
+        });
+        result.setDurationMs((System.nanoTime() - started) / 1_000_000);
+        metrics.recordLedgerVerification(result.getUnbalancedJournals(), result.getSnapshotMismatches(),
+                result.getBalanceDrift());
+
+        if (Boolean.TRUE.equals(result.getConsistent())) {
+            log.info("✅ دفتر الأستاذ متسق (تحقق خلال {} ms)", result.getDurationMs());
+        } else {
+            log.warn("⚠️ دفتر الأستاذ غير متسق: {} قيد غير متوازن، {} لقطة خاطئة، {} حساب مختلف عن الدفتر",
+                    result.getUnbalancedJournals(), result.getSnapshotMismatches(), result.getBalanceDrift());
+        }
+        return result;
+    }
+
+    private long count(String sql) {
+        Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM (" + sql + ") v", Long.class);
+        return count != null ? count : 0;
+    }
+
+    private <T> List<T> sample(String sql, Class<T> type) {
+        return jdbcTemplate.queryForList(sql + " ORDER BY 1 LIMIT ?", type, sampleSize);
+    }
+}
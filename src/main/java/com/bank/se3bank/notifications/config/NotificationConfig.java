@@ -7,14 +7,17 @@ import com.bank.se3bank.notifications.publisher.NotificationPublisher;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
 
 import jakarta.annotation.PostConstruct;
 
 /**
  * تكوين Observer Pattern
  * ربط المراقبين بالناشر عند بدء التطبيق
+ * لا يعتمد عليه أي Bean، لذا يبقى مُنشأً مبكراً حتى مع spring.main.lazy-initialization
  */
 @Configuration
+@Lazy(false)
 @RequiredArgsConstructor
 @Slf4j
 public class NotificationConfig {
@@ -1,13 +1,21 @@
 package com.bank.se3bank.notifications.controller;
 
 import com.bank.se3bank.notifications.model.Notification;
+import com.bank.se3bank.notifications.push.NotificationPushHub;
+import com.bank.se3bank.notifications.service.NotificationRetentionJob;
 import com.bank.se3bank.notifications.service.NotificationService;
 import com.bank.se3bank.shared.dto.NotificationPreference;
+import com.bank.se3bank.shared.dto.NotificationResponse;
+import com.bank.se3bank.users.model.User;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 import java.util.Map;
@@ -19,12 +27,23 @@ import java.util.Map;
 public class NotificationController {
     
     private final NotificationService notificationService;
+    private final NotificationPushHub pushHub;
+    private final NotificationRetentionJob retentionJob;
+    
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "بث الإشعارات", description = "اتصال SSE للمستخدم الحالي: أحداث notification (المعرف = معرف الإشعار) و unread (العدد)؛ الاستئناف عبر Last-Event-ID")
+    public SseEmitter stream(@AuthenticationPrincipal User user,
+                             @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        if (user == null) {
+            throw new SecurityException("لا يوجد مستخدم مصادق عليه");
+        }
+        return pushHub.connect(user.getId(), lastEventId);
+    }
     
     @GetMapping("/user/{userId}")
     @Operation(summary = "إشعارات المستخدم", description = "الحصول على جميع إشعارات المستخدم")
-    public ResponseEntity<List<Notification>> getUserNotifications(@PathVariable Long userId) {
-        List<Notification> notifications = notificationService.getUserNotifications(userId);
-        return ResponseEntity.ok(notifications);
+    public ResponseEntity<List<NotificationResponse>> getUserNotifications(@PathVariable Long userId) {
+        return ResponseEntity.ok(notificationService.getUserNotificationResponses(userId));
     }
     
     @GetMapping("/user/{userId}/unread")
@@ -34,6 +53,12 @@ public class NotificationController {
         return ResponseEntity.ok(notifications);
     }
     
+    @GetMapping("/user/{userId}/unread-count")
+    @Operation(summary = "عدد غير المقروء", description = "عدد الإشعارات غير المقروءة من العداد في الذاكرة")
+    public ResponseEntity<Map<String, Long>> getUnreadCount(@PathVariable Long userId) {
+        return ResponseEntity.ok(Map.of("userId", userId, "unread", notificationService.getUnreadCount(userId)));
+    }
+    
     @PatchMapping("/{notificationId}/read")
     @Operation(summary = "تعيين كمقروء", description = "تعيين إشعار معين كمقروء")
     public ResponseEntity<Void> markAsRead(@PathVariable Long notificationId) {
@@ -71,11 +96,10 @@ public class NotificationController {
     
     @PatchMapping("/user/{userId}/preferences")
     @Operation(summary = "تحديث التفضيلات", description = "تحديث إعدادات تفضيلات الإشعارات")
-    public ResponseEntity<Void> updatePreferences(
+    public ResponseEntity<NotificationPreference> updatePreferences(
             @PathVariable Long userId,
             @RequestBody Map<String, Boolean> preferences) {
-        notificationService.updateNotificationPreferences(userId, preferences);
-        return ResponseEntity.ok().build();
+        return ResponseEntity.ok(notificationService.updateNotificationPreferences(userId, preferences));
     }
     
     @GetMapping("/user/{userId}/stats")
@@ -84,4 +108,11 @@ public class NotificationController {
         NotificationService.NotificationStats stats = notificationService.getNotificationStats(userId);
         return ResponseEntity.ok(stats);
     }
-}
\ No newline at end of file
+    
+    @PostMapping("/retention/purge")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "تنظيف الإشعارات القديمة", description = "تشغيل تنظيف واحد الآن (يعمل تلقائياً أيضاً بشكل مجدول) مع عدد الصفوف لكل قناة وصف/ثانية")
+    public ResponseEntity<NotificationRetentionJob.PurgeResult> purgeExpired() {
+        return ResponseEntity.ok(retentionJob.purge());
+    }
+}
@@ -0,0 +1,149 @@
+package com.bank.se3bank.notifications.event;
+
+import com.bank.se3bank.accounts.model.Account;
+import com.bank.se3bank.notifications.model.NotificationType;
+import com.bank.se3bank.notifications.template.CompiledTemplate;
+import com.bank.se3bank.notifications.template.TemplateVariable;
+import com.bank.se3bank.users.model.User;
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * حدث إشعار مكتوب: النوع + المستخدم + الحساب (اختياري) + بيانات النوع
+ *
+ * نفس الكائن يمر على كل القنوات، ويحمل ذاكرة العرض: القنوات التي تشترك في نفس القالب
+ * (نفس النص بعد التحليل) تأخذ النص المعروض مرة واحدة
+ */
+@Getter
+public final class NotificationEvent {
+
+    private final NotificationType type;
+    private final String code;
+    private final User user;
+    private final Account account;
+    private final NotificationPayload payload;
+    private final String locale;
+
+    // المفتاح هو القالب المترجم نفسه (مساواة بالهوية)؛ القنوات قد تعمل بالتوازي على المنفّذ غير المتزامن
+    @Getter(AccessLevel.NONE)
+    private final Map<CompiledTemplate, String> rendered = new ConcurrentHashMap<>(4);
+
+    private NotificationEvent(NotificationType type, String code, User user, Account account,
+                              NotificationPayload payload, String locale) {
+        this.type = type;
+        this.code = code;
+        this.user = user;
+        this.account = account;
+        this.payload = payload;
+        this.locale = locale;
+    }
+
+    public static NotificationEvent of(NotificationType type, User user, Account account, NotificationPayload payload) {
+        return new NotificationEvent(type, type.name(), user, account, payload, null);
+    }
+
+    /**
+     * إشعار مخصص: الرمز يُخزن كما هو في notification_type، والقالب قالب CUSTOM
+     */
+    public static NotificationEvent custom(String code, User user, String message) {
+        String eventCode = code != null ? code : NotificationType.CUSTOM.name();
+        return new NotificationEvent(NotificationType.fromCode(eventCode), eventCode, user, null,
+                new NotificationPayload.Message(message), null);
+    }
+
+    public static NotificationEvent accountCreated(User user, Account account) {
+        return of(NotificationType.ACCOUNT_CREATED, user, account, null);
+    }
+
+    public static NotificationEvent transfer(User user, Double amount, String from, String to,
+                                             String transactionId, boolean incoming) {
+        return of(NotificationType.MONEY_TRANSFER, user, null,
+                new NotificationPayload.Transfer(amount, from, to, transactionId, incoming));
+    }
+
+    public static NotificationEvent withdrawal(User user, Account account, Double amount,
+                                               Double oldBalance, Double newBalance) {
+        return of(NotificationType.WITHDRAWAL, user, account,
+                new NotificationPayload.BalanceChange(amount, oldBalance, newBalance));
+    }
+
+    public static NotificationEvent deposit(User user, Account account, Double amount,
+                                            Double oldBalance, Double newBalance) {
+        return of(NotificationType.DEPOSIT, user, account,
+                new NotificationPayload.BalanceChange(amount, oldBalance, newBalance));
+    }
+
+    public static NotificationEvent lowBalance(User user, Account account) {
+        return of(NotificationType.LOW_BALANCE, user, account, null);
+    }
+
+    public static NotificationEvent loginAlert(User user, String ipAddress, String device) {
+        return of(NotificationType.LOGIN_ALERT, user, null,
+                new NotificationPayload.Login(ipAddress, device, LocalDateTime.now()));
+    }
+
+    public static NotificationEvent suspiciousActivity(User user, Account account, String activity) {
+        return of(NotificationType.SUSPICIOUS_ACTIVITY, user, account,
+                new NotificationPayload.Activity(activity, LocalDateTime.now()));
+    }
+
+    public static NotificationEvent passwordChanged(User user) {
+        return of(NotificationType.PASSWORD_CHANGED, user, null, null);
+    }
+
+    public static NotificationEvent interestAdded(User user, Account account, Double interestAmount) {
+        return of(NotificationType.INTEREST_ADDED, user, account,
+                new NotificationPayload.Interest(interestAmount, account.getBalance()));
+    }
+
+    public static NotificationEvent billPaid(User user, String billName, Double amount, String reference) {
+        return of(NotificationType.BILL_PAID, user, null,
+                new NotificationPayload.BillPayment(billName, amount, reference));
+    }
+
+    public static NotificationEvent groupCreated(User user) {
+        return of(NotificationType.GROUP_CREATED, user, null, null);
+    }
+
+    public static NotificationEvent serviceRenewal(User user, String serviceName, Double fee) {
+        return of(NotificationType.SERVICE_RENEWAL, user, null,
+                new NotificationPayload.ServiceRenewal(serviceName, fee));
+    }
+
+    /**
+     * ملخص أحداث متكررة من نفس النوع للمستخدم (digestType من NotificationType.digestType)
+     * account: الحساب المشترك بين أحداث الملخص (null للتحويلات)
+     */
+    public static NotificationEvent digest(NotificationType digestType, User user, Account account, int count,
+                                           Double totalAmount, Double newBalance, String from, String to) {
+        return of(digestType, user, account,
+                new NotificationPayload.Digest(count, totalAmount, newBalance, from, to));
+    }
+
+    /**
+     * كتابة قيمة متغير: المستخدم والحساب هنا، والباقي من بيانات النوع
+     */
+    public boolean append(TemplateVariable variable, StringBuilder out) {
+        return switch (variable) {
+            case FIRST_NAME -> NotificationPayload.put(out, user.getFirstName());
+            case FULL_NAME -> NotificationPayload.put(out, user.getFullName());
+            case ACCOUNT_NUMBER -> account != null && NotificationPayload.put(out, account.getAccountNumber());
+            case ACCOUNT_TYPE -> account != null && account.getAccountType() != null
+                    && NotificationPayload.put(out, account.getAccountType().getArabicName());
+            case BALANCE -> account != null && NotificationPayload.put(out, account.getBalance());
+            default -> payload != null && payload.append(variable, out);
+        };
+    }
+
+    /**
+     * النص المعروض لقالب معين، محسوب مرة واحدة لهذا الحدث
+     */
+    public String rendered(CompiledTemplate template, Function<CompiledTemplate, String> render) {
+        return rendered.computeIfAbsent(template, render);
+    }
+}
@@ -0,0 +1,233 @@
+package com.bank.se3bank.notifications.event;
+
+import com.bank.se3bank.notifications.template.TemplateVariable;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * بيانات الحدث المكتوبة لكل نوع (بدل String[] و Object)
+ * append يكتب قيمة المتغير مباشرة في مخزن العرض (الأرقام بدون تحويل وسيط لنص) ويعيد false إن لم تتوفر
+ */
+public interface NotificationPayload {
+
+    boolean append(TemplateVariable variable, StringBuilder out);
+
+    /**
+     * مبلغ الحدث إن وُجد (يجمعه NotificationCoalescer في الملخص)
+     */
+    default Double getAmount() {
+        return null;
+    }
+
+    /**
+     * الرصيد بعد الحدث إن وُجد
+     */
+    default Double getNewBalance() {
+        return null;
+    }
+
+    static boolean put(StringBuilder out, Double value) {
+        if (value == null) {
+            return false;
+        }
+        out.append(value.doubleValue());
+        return true;
+    }
+
+    static boolean put(StringBuilder out, Object value) {
+        if (value == null) {
+            return false;
+        }
+        out.append(value);
+        return true;
+    }
+
+    /**
+     * MONEY_TRANSFER: المبلغ، الطرفان كما يراهما المستلم، رقم العملية، واتجاه التحويل بالنسبة للمستلم
+     */
+    @Getter
+    @RequiredArgsConstructor
+    final class Transfer implements NotificationPayload {
+        private final Double amount;
+        private final String from;
+        private final String to;
+        private final String transactionId;
+        private final boolean incoming;
+
+        @Override
+        public boolean append(TemplateVariable variable, StringBuilder out) {
+            return switch (variable) {
+                case AMOUNT -> put(out, amount);
+                case FROM -> put(out, from);
+                case TO -> put(out, to);
+                case TRANSACTION_ID -> put(out, transactionId);
+                default -> false;
+            };
+        }
+    }
+
+    /**
+     * WITHDRAWAL / DEPOSIT: المبلغ والرصيد قبل وبعد
+     */
+    @Getter
+    @RequiredArgsConstructor
+    final class BalanceChange implements NotificationPayload {
+        private final Double amount;
+        private final Double oldBalance;
+        private final Double newBalance;
+
+        @Override
+        public boolean append(TemplateVariable variable, StringBuilder out) {
+            return switch (variable) {
+                case AMOUNT -> put(out, amount);
+                case OLD_BALANCE -> put(out, oldBalance);
+                case NEW_BALANCE -> put(out, newBalance);
+                default -> false;
+            };
+        }
+    }
+
+    /**
+     * INTEREST_ADDED: الفائدة والرصيد بعدها
+     */
+    @Getter
+    @RequiredArgsConstructor
+    final class Interest implements NotificationPayload {
+        private final Double amount;
+        private final Double newBalance;
+
+        @Override
+        public boolean append(TemplateVariable variable, StringBuilder out) {
+            return switch (variable) {
+                case AMOUNT -> put(out, amount);
+                case NEW_BALANCE -> put(out, newBalance);
+                default -> false;
+            };
+        }
+    }
+
+    /**
+     * LOGIN_ALERT
+     */
+    @Getter
+    @RequiredArgsConstructor
+    final class Login implements NotificationPayload {
+        private final String ipAddress;
+        private final String device;
+        private final LocalDateTime at;
+
+        @Override
+        public boolean append(TemplateVariable variable, StringBuilder out) {
+            return switch (variable) {
+                case IP -> put(out, ipAddress);
+                case DEVICE -> put(out, device);
+                case TIME -> put(out, at);
+                default -> false;
+            };
+        }
+    }
+
+    /**
+     * SUSPICIOUS_ACTIVITY
+     */
+    @Getter
+    @RequiredArgsConstructor
+    final class Activity implements NotificationPayload {
+        private final String activity;
+        private final LocalDateTime at;
+
+        @Override
+        public boolean append(TemplateVariable variable, StringBuilder out) {
+            return switch (variable) {
+                case ACTIVITY -> put(out, activity);
+                case TIME -> put(out, at);
+                default -> false;
+            };
+        }
+    }
+
+    /**
+     * BILL_PAID
+     */
+    @Getter
+    @RequiredArgsConstructor
+    final class BillPayment implements NotificationPayload {
+        private final String billName;
+        private final Double amount;
+        private final String reference;
+
+        @Override
+        public boolean append(TemplateVariable variable, StringBuilder out) {
+            return switch (variable) {
+                case BILL -> put(out, billName);
+                case AMOUNT -> put(out, amount);
+                case REFERENCE -> put(out, reference);
+                default -> false;
+            };
+        }
+    }
+
+    /**
+     * SERVICE_RENEWAL: اسم الخدمة والرسوم (amount)
+     */
+    @Getter
+    @RequiredArgsConstructor
+    final class ServiceRenewal implements NotificationPayload {
+        private final String serviceName;
+        private final Double fee;
+
+        @Override
+        public boolean append(TemplateVariable variable, StringBuilder out) {
+            return switch (variable) {
+                case SERVICE -> put(out, serviceName);
+                case AMOUNT -> put(out, fee);
+                default -> false;
+            };
+        }
+    }
+
+    /**
+     * *_DIGEST: عدد الأحداث المجمعة بعد آخر إشعار، مجموع مبالغها، وآخر رصيد معروف
+     * from/to للتحويلات: الطرف المشترك بين أحداث الملخص فقط ("حسابك")، فيُعرف اتجاهها
+     */
+    @Getter
+    @RequiredArgsConstructor
+    final class Digest implements NotificationPayload {
+        private final int count;
+        private final Double amount;
+        private final Double newBalance;
+        private final String from;
+        private final String to;
+
+        @Override
+        public boolean append(TemplateVariable variable, StringBuilder out) {
+            return switch (variable) {
+                case COUNT -> {
+                    out.append(count);
+                    yield true;
+                }
+                case AMOUNT -> put(out, amount);
+                case NEW_BALANCE -> put(out, newBalance);
+                case FROM -> put(out, from);
+                case TO -> put(out, to);
+                default -> false;
+            };
+        }
+    }
+
+    /**
+     * CUSTOM: نص حر من المرسل
+     */
+    @Getter
+    @RequiredArgsConstructor
+    final class Message implements NotificationPayload {
+        private final String message;
+
+        @Override
+        public boolean append(TemplateVariable variable, StringBuilder out) {
+            return variable == TemplateVariable.MESSAGE && put(out, message);
+        }
+    }
+}
@@ -7,7 +7,11 @@ import lombok.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "notifications")
+@Table(name = "notifications", indexes = {
+        @Index(name = "idx_notifications_user_created", columnList = "user_id, created_at"),
+        @Index(name = "idx_notifications_user_id", columnList = "user_id, id"),
+        @Index(name = "idx_notifications_channel_created", columnList = "channel, created_at")
+})
 @Getter
 @Setter
 @NoArgsConstructor
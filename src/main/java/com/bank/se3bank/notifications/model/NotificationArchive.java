@@ -0,0 +1,58 @@
+package com.bank.se3bank.notifications.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * أرشيف الإشعارات المنتهية (app.notifications.retention.mode=archive)
+ * نفس معرف الإشعار الأصلي، و user_id بدون مفتاح أجنبي حتى لا يمنع الأرشيف حذف المستخدم
+ */
+@Entity
+@Table(name = "notifications_archive", indexes = {
+        @Index(name = "idx_notifications_archive_user", columnList = "user_id, created_at")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class NotificationArchive {
+
+    @Id
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "title", nullable = false)
+    private String title;
+
+    @Column(name = "message", nullable = false, length = 1000)
+    private String message;
+
+    @Column(name = "notification_type", nullable = false)
+    private String type;
+
+    @Column(name = "channel", nullable = false)
+    private String channel;
+
+    @Column(name = "is_read", nullable = false)
+    private Boolean isRead;
+
+    @Column(name = "sent_at")
+    private LocalDateTime sentAt;
+
+    @Column(name = "read_at")
+    private LocalDateTime readAt;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "transaction_id")
+    private String transactionId;
+
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+}
@@ -1,5 +1,79 @@
 package com.bank.se3bank.notifications.model;
 
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * تفضيلات الإشعارات لكل مستخدم كقناع بتات واحد (القنوات + فئات الأحداث)
+ * لا يوجد صف للمستخدم الذي لم يغير تفضيلاته: يُستخدم DEFAULT_MASK
+ */
+@Entity
+@Table(name = "notification_preferences")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
 public class NotificationPreference {
-    
+
+    // ========== القنوات ==========
+    public static final int EMAIL = 1;
+    public static final int SMS = 1 << 1;
+    public static final int IN_APP = 1 << 2;
+    public static final int ALL_CHANNELS = EMAIL | SMS | IN_APP;
+
+    // ========== فئات الأحداث (الأحداث الأمنية وباقي الأنواع لا يمكن إيقافها) ==========
+    public static final int LOW_BALANCE_ALERT = 1 << 8;
+    public static final int TRANSFER_ALERT = 1 << 9;
+    public static final int LOGIN_ALERT = 1 << 10;
+    public static final int MARKETING_EMAILS = 1 << 11;
+    public static final int MONTHLY_STATEMENT = 1 << 12;
+
+    public static final int DEFAULT_MASK = ALL_CHANNELS | LOW_BALANCE_ALERT | TRANSFER_ALERT
+            | LOGIN_ALERT | MONTHLY_STATEMENT;
+
+    private static final int[] EVENT_BITS = new int[NotificationType.values().length];
+
+    static {
+        EVENT_BITS[NotificationType.LOW_BALANCE.ordinal()] = LOW_BALANCE_ALERT;
+        EVENT_BITS[NotificationType.MONEY_TRANSFER.ordinal()] = TRANSFER_ALERT;
+        EVENT_BITS[NotificationType.MONEY_TRANSFER_DIGEST.ordinal()] = TRANSFER_ALERT;
+        EVENT_BITS[NotificationType.LOGIN_ALERT.ordinal()] = LOGIN_ALERT;
+    }
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "mask", nullable = false)
+    private Integer mask;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    /**
+     * بت القناة؛ قناة غير معروفة لا تخضع للتفضيلات (0)
+     */
+    public static int channelBit(String channel) {
+        return switch (channel) {
+            case "EMAIL" -> EMAIL;
+            case "SMS" -> SMS;
+            case "IN_APP" -> IN_APP;
+            default -> 0;
+        };
+    }
+
+    public static int eventBit(NotificationType type) {
+        return EVENT_BITS[type.ordinal()];
+    }
+
+    /**
+     * هل يسمح القناع بهذا الحدث على هذه القناة؟ (عملية AND واحدة)
+     */
+    public static boolean allows(int mask, String channel, NotificationType type) {
+        int required = channelBit(channel) | eventBit(type);
+        return (mask & required) == required;
+    }
 }
@@ -1,5 +1,50 @@
 package com.bank.se3bank.notifications.model;
 
-public class NotificationType {
-    
+/**
+ * أنواع أحداث الإشعارات؛ كل نوع له قالب لكل قناة ولغة في notification-templates.properties
+ */
+public enum NotificationType {
+    ACCOUNT_CREATED,
+    MONEY_TRANSFER,
+    WITHDRAWAL,
+    DEPOSIT,
+    LOW_BALANCE,
+    LOGIN_ALERT,
+    SUSPICIOUS_ACTIVITY,
+    PASSWORD_CHANGED,
+    INTEREST_ADDED,
+    BILL_PAID,
+    GROUP_CREATED,
+    SERVICE_RENEWAL,
+    CUSTOM,
+    // ملخصات NotificationCoalescer لدفعات الأحداث المتكررة
+    MONEY_TRANSFER_DIGEST,
+    WITHDRAWAL_DIGEST,
+    DEPOSIT_DIGEST;
+
+    /**
+     * نوع الملخص الذي تُجمع فيه أحداث هذا النوع، أو null إن كان النوع لا يُجمع (الأحداث الأمنية مثلاً)
+     */
+    public NotificationType digestType() {
+        return switch (this) {
+            case MONEY_TRANSFER -> MONEY_TRANSFER_DIGEST;
+            case WITHDRAWAL -> WITHDRAWAL_DIGEST;
+            case DEPOSIT -> DEPOSIT_DIGEST;
+            default -> null;
+        };
+    }
+
+    /**
+     * النوع من الرمز المخزن؛ أي رمز غير معروف (إشعار مخصص) يُعامل كـ CUSTOM
+     */
+    public static NotificationType fromCode(String code) {
+        if (code != null) {
+            for (NotificationType type : values()) {
+                if (type.name().equals(code)) {
+                    return type;
+                }
+            }
+        }
+        return CUSTOM;
+    }
 }
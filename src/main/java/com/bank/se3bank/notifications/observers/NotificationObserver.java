@@ -1,7 +1,6 @@
 package com.bank.se3bank.notifications.observers;
 
-import com.bank.se3bank.accounts.model.Account;
-import com.bank.se3bank.users.model.User;
+import com.bank.se3bank.notifications.event.NotificationEvent;
 
 /**
  * تطبيق Observer Pattern
@@ -11,12 +10,9 @@ public interface NotificationObserver {
     
     /**
      * تحديث المراقب بحدث جديد
-     * @param eventType نوع الحدث
-     * @param user المستخدم المعني
-     * @param account الحساب المعني (قد يكون null)
-     * @param data بيانات إضافية
+     * @param event الحدث المكتوب (النوع، المستخدم، الحساب إن وجد، بيانات النوع)؛ نفس الكائن لكل المراقبين
      */
-    void update(String eventType, User user, Account account, Object data);
+    void update(NotificationEvent event);
     
     /**
      * نوع المراقب (EMAIL, SMS, IN_APP, PUSH)
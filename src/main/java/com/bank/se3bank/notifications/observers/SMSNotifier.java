@@ -1,8 +1,10 @@
 package com.bank.se3bank.notifications.observers;
 
-import com.bank.se3bank.accounts.model.Account;
+import com.bank.se3bank.notifications.event.NotificationEvent;
 import com.bank.se3bank.notifications.model.Notification;
+import com.bank.se3bank.notifications.push.NotificationPushHub;
 import com.bank.se3bank.notifications.repository.NotificationRepository;
+import com.bank.se3bank.notifications.template.NotificationTemplateEngine;
 import com.bank.se3bank.users.model.User;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -18,43 +20,45 @@ import java.time.LocalDateTime;
 @Slf4j
 public class SMSNotifier implements NotificationObserver {
     
+    private static final int SMS_MAX_LENGTH = 160;
+    
     private final NotificationRepository notificationRepository;
+    private final NotificationPushHub pushHub;
+    private final NotificationTemplateEngine templateEngine;
     
     private boolean enabled = true;
     
     @Override
-    public void update(String eventType, User user, Account account, Object data) {
+    public void update(NotificationEvent event) {
+        User user = event.getUser();
         if (!isEnabled() || user.getPhoneNumber() == null) {
             return;
         }
         
-        try {
-            String message = generateSMSMessage(eventType, user, account, data);
-            
-            // حفظ الإشعار في قاعدة البيانات
-            Notification notification = Notification.builder()
-                    .user(user)
-                    .title("إشعار SMS")
-                    .message(message)
-                    .type(eventType)
-                    .channel("SMS")
-                    .isSent(true)
-                    .sentAt(LocalDateTime.now())
-                    .createdAt(LocalDateTime.now())
-                    .build();
-            
-            notificationRepository.save(notification);
-            
-            // محاكاة إرسال SMS
-            log.info("📱 إرسال SMS إلى: {}", user.getPhoneNumber());
-            log.info("📱 الرسالة: {}", message);
-            
-            // في تطبيق حقيقي: استدعاء خدمة إرسال SMS
-            // smsService.send(user.getPhoneNumber(), message);
-            
-        } catch (Exception e) {
-            log.error("❌ فشل إرسال SMS: {}", e.getMessage());
-        }
+        NotificationTemplateEngine.Rendered rendered = templateEngine.render(event, getObserverType());
+        String message = fitToSms(rendered.getBody());
+        
+        // حفظ الإشعار في قاعدة البيانات
+        Notification notification = Notification.builder()
+                .user(user)
+                .title(rendered.getTitle())
+                .message(message)
+                .type(event.getCode())
+                .channel("SMS")
+                .isSent(true)
+                .sentAt(LocalDateTime.now())
+                .createdAt(LocalDateTime.now())
+                .build();
+        
+        notificationRepository.save(notification);
+        pushHub.notificationCreated(notification);
+        
+        // محاكاة إرسال SMS
+        log.debug("📱 إرسال SMS إلى: {}", user.getPhoneNumber());
+        log.trace("📱 الرسالة: {}", message);
+        
+        // في تطبيق حقيقي: استدعاء خدمة إرسال SMS
+        // smsService.send(user.getPhoneNumber(), message);
     }
     
     @Override
@@ -73,51 +77,13 @@ public class SMSNotifier implements NotificationObserver {
         log.info("تم {} إشعارات SMS", enabled ? "تفعيل" : "تعطيل");
     }
     
-    private String generateSMSMessage(String eventType, User user, Account account, Object data) {
-        StringBuilder message = new StringBuilder();
-        
-        switch (eventType) {
-            case "MONEY_TRANSFER":
-                message.append("SE3Bank: تم تحويل ");
-                if (data instanceof String[]) {
-                    String[] transferData = (String[]) data;
-                    message.append(transferData[0]).append("USD");
-                }
-                message.append(". تحقق من حسابك.");
-                break;
-                
-            case "WITHDRAWAL":
-                message.append("SE3Bank: تم سحب ");
-                if (data instanceof String[]) {
-                    String[] withdrawalData = (String[]) data;
-                    message.append(withdrawalData[0]).append("USD");
-                }
-                message.append(". رصيدك الآن ");
-                if (account != null) {
-                    message.append(account.getBalance()).append("USD");
-                }
-                break;
-                
-            case "LOW_BALANCE":
-                message.append("SE3Bank: تحذير! رصيدك منخفض. ");
-                if (account != null) {
-                    message.append("رصيدك: ").append(account.getBalance()).append("USD");
-                }
-                break;
-                
-            case "SUSPICIOUS_ACTIVITY":
-                message.append("SE3Bank: نشاط مشبوه على حسابك. اتصل بالدعم.");
-                break;
-                
-            default:
-                message.append("SE3Bank: لديك إشعار جديد. تحقق من تطبيق البنك.");
+    /**
+     * تقصير الرسالة لتتناسب مع SMS
+     */
+    private static String fitToSms(String message) {
+        if (message.length() > SMS_MAX_LENGTH) {
+            return message.substring(0, SMS_MAX_LENGTH - 3) + "...";
         }
-        
-        // تقصير الرسالة لتتناسب مع SMS
-        if (message.length() > 160) {
-            message = new StringBuilder(message.substring(0, 157) + "...");
-        }
-        
-        return message.toString();
+        return message;
     }
-}
\ No newline at end of file
+}
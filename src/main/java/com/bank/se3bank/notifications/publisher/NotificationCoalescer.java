@@ -0,0 +1,232 @@
+package com.bank.se3bank.notifications.publisher;
+
+import com.bank.se3bank.accounts.model.Account;
+import com.bank.se3bank.notifications.event.NotificationEvent;
+import com.bank.se3bank.notifications.event.NotificationPayload;
+import com.bank.se3bank.notifications.model.NotificationType;
+import com.bank.se3bank.shared.metrics.BankMetrics;
+import com.bank.se3bank.users.model.User;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * تجميع الأحداث المتكررة من نفس النوع لنفس المستخدم (دفعات الرواتب مثلاً)
+ *
+ * - أول حدث في النافذة يُرسل فوراً ويفتح نافذة window-ms
+ * - ما يصل بعده داخل النافذة يُجمع (العدد، مجموع المبالغ، آخر رصيد) ولا يُعرض ولا يُحفظ
+ * - عند انتهاء النافذة يُرسل ملخص واحد لكل قناة، وتبقى نافذة جديدة مفتوحة ما دام التدفق مستمراً
+ * - الأنواع بدون digestType (LOGIN_ALERT, SUSPICIOUS_ACTIVITY, LOW_BALANCE ...) لا تمر من هنا أبداً
+ * - التحويلات الواردة والصادرة في نوافذ منفصلة، والسحب/الإيداع في نافذة لكل حساب،
+ *   وإلا جُمع المرسَل مع المستلَم في إجمالي واحد وكان "آخر رصيد" لأي حساب لُمس أخيراً
+ */
+@Component
+@Slf4j
+public class NotificationCoalescer {
+
+    private final boolean enabled;
+    private final long windowMs;
+    private final int maxBuckets;
+    private final Set<NotificationType> types = EnumSet.noneOf(NotificationType.class);
+    private final BankMetrics metrics;
+
+    private final Map<BucketKey, Bucket> buckets = new ConcurrentHashMap<>();
+
+    public NotificationCoalescer(@Value("${app.notifications.digest.enabled:false}") boolean enabled,
+                                 @Value("${app.notifications.digest.window-ms:30000}") long windowMs,
+                                 @Value("${app.notifications.digest.types:MONEY_TRANSFER,WITHDRAWAL,DEPOSIT}") String types,
+                                 @Value("${app.notifications.digest.max-buckets:100000}") int maxBuckets,
+                                 BankMetrics metrics) {
+        if (windowMs <= 0) {
+            throw new IllegalArgumentException("app.notifications.digest.window-ms يجب أن يكون أكبر من صفر");
+        }
+        for (String name : types.split(",")) {
+            if (name.isBlank()) {
+                continue;
+            }
+            NotificationType type = NotificationType.valueOf(name.trim());
+            if (type.digestType() == null) {
+                throw new IllegalArgumentException("النوع لا يدعم التجميع: " + type);
+            }
+            this.types.add(type);
+        }
+        this.enabled = enabled;
+        this.windowMs = windowMs;
+        this.maxBuckets = maxBuckets;
+        this.metrics = metrics;
+        log.info("🗜️ تجميع الإشعارات: {} (نافذة {} ms، الأنواع {})",
+                enabled ? "مفعّل" : "معطّل", windowMs, this.types);
+    }
+
+    /**
+     * true إن جُمع الحدث في ملخص لاحق (لا يُرسل الآن)، false إن وجب إرساله فوراً
+     */
+    public boolean offer(NotificationEvent event) {
+        return offer(event, System.currentTimeMillis());
+    }
+
+    boolean offer(NotificationEvent event, long now) {
+        Long userId = event.getUser().getId();
+        if (!enabled || userId == null || !types.contains(event.getType())) {
+            return false;
+        }
+        BucketKey key = new BucketKey(userId, event.getType(), qualifier(event));
+        if (buckets.size() >= maxBuckets && !buckets.containsKey(key)) {
+            return false;
+        }
+        boolean[] absorbed = new boolean[1];
+        buckets.compute(key, (k, bucket) -> {
+            if (bucket == null) {
+                return new Bucket(now + windowMs);
+            }
+            bucket.add(event);
+            absorbed[0] = true;
+            return bucket;
+        });
+        if (absorbed[0]) {
+            metrics.recordNotificationCoalesced(event.getCode());
+        }
+        return absorbed[0];
+    }
+
+    /**
+     * إرسال ملخصات النوافذ المنتهية؛ النافذة الفارغة تُغلق، وغير الفارغة تُستبدل بنافذة جديدة
+     */
+    public int flushDue(Consumer<NotificationEvent> sink) {
+        return flush(System.currentTimeMillis(), false, sink);
+    }
+
+    /**
+     * إرسال كل الملخصات المعلقة فوراً (عند الإيقاف)
+     */
+    public int flushAll(Consumer<NotificationEvent> sink) {
+        return flush(System.currentTimeMillis(), true, sink);
+    }
+
+    int flush(long now, boolean all, Consumer<NotificationEvent> sink) {
+        List<NotificationEvent> digests = new ArrayList<>();
+        for (BucketKey key : buckets.keySet()) {
+            buckets.computeIfPresent(key, (k, bucket) -> {
+                if (!all && bucket.deadline > now) {
+                    return bucket;
+                }
+                if (bucket.count == 0) {
+                    return null;
+                }
+                digests.add(bucket.toDigest(k.type));
+                return all ? null : new Bucket(now + windowMs);
+            });
+        }
+        for (NotificationEvent digest : digests) {
+            metrics.recordNotificationDigest(digest.getCode());
+            sink.accept(digest);
+        }
+        if (!digests.isEmpty()) {
+            log.debug("🗜️ تم إرسال {} ملخص إشعارات", digests.size());
+        }
+        return digests.size();
+    }
+
+    /**
+     * ما يفصل نوافذ نفس النوع: اتجاه التحويل، أو رقم الحساب للسحب والإيداع
+     */
+    private static Object qualifier(NotificationEvent event) {
+        if (event.getPayload() instanceof NotificationPayload.Transfer transfer) {
+            return transfer.isIncoming();
+        }
+        return event.getAccount() != null ? event.getAccount().getAccountNumber() : null;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int getOpenWindows() {
+        return buckets.size();
+    }
+
+    private static final class BucketKey {
+        final Long userId;
+        final NotificationType type;
+        final Object qualifier;
+
+        BucketKey(Long userId, NotificationType type, Object qualifier) {
+            this.userId = userId;
+            this.type = type;
+            this.qualifier = qualifier;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof BucketKey other)) {
+                return false;
+            }
+            return userId.equals(other.userId) && type == other.type && Objects.equals(qualifier, other.qualifier);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(userId, type, qualifier);
+        }
+    }
+
+    /**
+     * نافذة مفتوحة؛ تُعدل فقط داخل compute على مفتاحها
+     */
+    private static final class Bucket {
+        final long deadline;
+        int count;
+        double totalAmount;
+        boolean hasAmount;
+        Double newBalance;
+        User user;
+        Account account;
+        String from;
+        String to;
+
+        Bucket(long deadline) {
+            this.deadline = deadline;
+        }
+
+        void add(NotificationEvent event) {
+            count++;
+            user = event.getUser();
+            account = event.getAccount();
+            if (event.getPayload() instanceof NotificationPayload.Transfer transfer) {
+                // الطرف المشترك فقط: "حسابك" هو المستلم في الواردة والمرسل في الصادرة
+                if (transfer.isIncoming()) {
+                    to = transfer.getTo();
+                } else {
+                    from = transfer.getFrom();
+                }
+            }
+            if (event.getPayload() != null) {
+                Double amount = event.getPayload().getAmount();
+                if (amount != null) {
+                    totalAmount += amount;
+                    hasAmount = true;
+                }
+                if (event.getPayload().getNewBalance() != null) {
+                    newBalance = event.getPayload().getNewBalance();
+                }
+            }
+        }
+
+        NotificationEvent toDigest(NotificationType type) {
+            Double total = hasAmount ? Math.round(totalAmount * 100) / 100.0 : null;
+            return NotificationEvent.digest(type.digestType(), user, account, count, total, newBalance, from, to);
+        }
+    }
+}
@@ -1,23 +1,54 @@
 package com.bank.se3bank.notifications.publisher;
 
-import com.bank.se3bank.accounts.model.Account;
+import com.bank.se3bank.notifications.event.NotificationEvent;
+import com.bank.se3bank.notifications.model.NotificationPreference;
 import com.bank.se3bank.notifications.observers.NotificationObserver;
-import com.bank.se3bank.users.model.User;
+import com.bank.se3bank.notifications.service.NotificationPreferenceService;
+import com.bank.se3bank.shared.concurrency.BlockingExecutors;
+import com.bank.se3bank.shared.concurrency.DatabaseConcurrencyLimiter;
+import com.bank.se3bank.shared.metrics.BankMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * تطبيق Observer Pattern
  * الناشر الذي يدير المراقبين ويرسل الإشعارات لهم
+ * مع app.notifications.async.enabled يتم الإرسال بعد commit على منفّذ منفصل (خيوط افتراضية في وضع Java 21)
+ * تفضيلات المستخدم (قناع بتات من الذاكرة) تُفحص قبل أي عرض للقالب أو كتابة في قاعدة البيانات
+ * الأحداث المتكررة (تحويل/سحب/إيداع) تمر على NotificationCoalescer وتُرسل كملخص واحد لكل نافذة
  */
 @Component
+@RequiredArgsConstructor
 @Slf4j
 public class NotificationPublisher {
     
-    private final List<NotificationObserver> observers = new ArrayList<>();
+    private final List<NotificationObserver> observers = new CopyOnWriteArrayList<>();
+    private final BankMetrics metrics;
+    private final DatabaseConcurrencyLimiter limiter;
+    private final NotificationPreferenceService preferenceService;
+    private final NotificationCoalescer coalescer;
+    
+    @Value("${app.notifications.async.enabled:false}")
+    private boolean async;
+    
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+    
+    @Value("${app.notifications.async.platform-threads:4}")
+    private int platformThreads = 4;
+    
+    private volatile AsyncTaskExecutor executor;
     
     /**
      * إضافة مراقب جديد
@@ -40,17 +71,23 @@ public class NotificationPublisher {
     /**
      * إرسال إشعار لجميع المراقبين
      */
-    public void notifyObservers(String eventType, User user, Account account, Object data) {
-        log.info("🔔 إرسال إشعار {} للمستخدم {}", eventType, user.getUsername());
+    public void notifyObservers(NotificationEvent event) {
+        int mask = preferenceService.mask(event.getUser().getId());
+        int eventBit = NotificationPreference.eventBit(event.getType());
+        if ((mask & NotificationPreference.ALL_CHANNELS) == 0 || (mask & eventBit) != eventBit) {
+            // المستخدم أوقف كل القنوات أو فئة هذا الحدث: لا عرض ولا كتابة ولا مهام
+            metrics.recordNotificationSuppressed("ALL");
+            return;
+        }
+        if (coalescer.offer(event)) {
+            // سيُضم لملخص نهاية النافذة
+            return;
+        }
+        log.debug("🔔 إرسال إشعار {} للمستخدم {}", event.getCode(), event.getUser().getUsername());
         
         for (NotificationObserver observer : observers) {
             if (observer.isEnabled()) {
-                try {
-                    observer.update(eventType, user, account, data);
-                } catch (Exception e) {
-                    log.error("❌ فشل إرسال إشعار عبر {}: {}", 
-                            observer.getObserverType(), e.getMessage());
-                }
+                dispatchIfAllowed(observer, event, mask);
             }
         }
     }
@@ -58,16 +95,94 @@ public class NotificationPublisher {
     /**
      * إرسال إشعار لمراقب معين فقط
      */
-    public void notifyObserver(String observerType, String eventType, 
-                              User user, Account account, Object data) {
+    public void notifyObserver(String observerType, NotificationEvent event) {
         for (NotificationObserver observer : observers) {
             if (observer.getObserverType().equals(observerType) && observer.isEnabled()) {
-                observer.update(eventType, user, account, data);
+                dispatchIfAllowed(observer, event, preferenceService.mask(event.getUser().getId()));
                 break;
             }
         }
     }
     
+    private void dispatchIfAllowed(NotificationObserver observer, NotificationEvent event, int mask) {
+        if (NotificationPreference.allows(mask, observer.getObserverType(), event.getType())) {
+            dispatch(observer, event);
+        } else {
+            metrics.recordNotificationSuppressed(observer.getObserverType());
+        }
+    }
+    
+    /**
+     * إرسال عبر مراقب واحد: فوراً، أو بعد commit المعاملة الحالية على المنفّذ غير المتزامن
+     */
+    private void dispatch(NotificationObserver observer, NotificationEvent event) {
+        if (!async) {
+            deliver(observer, event);
+            return;
+        }
+        
+        Runnable task = () -> limiter.run(() -> deliver(observer, event));
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    executor().execute(task);
+                }
+            });
+        } else {
+            executor().execute(task);
+        }
+    }
+    
+    /**
+     * تنفيذ المراقب مع قياس الزمن والفشل لكل قناة
+     */
+    private void deliver(NotificationObserver observer, NotificationEvent event) {
+        long started = System.nanoTime();
+        boolean success = false;
+        try {
+            observer.update(event);
+            success = true;
+        } catch (Exception e) {
+            log.error("❌ فشل إرسال إشعار عبر {}: {}", 
+                    observer.getObserverType(), e.getMessage());
+        } finally {
+            metrics.recordNotificationDispatch(observer.getObserverType(), System.nanoTime() - started, success);
+        }
+    }
+    
+    /**
+     * إرسال ملخصات النوافذ المنتهية عبر نفس المسار (التفضيلات ثم المراقبين)
+     */
+    @Scheduled(fixedDelayString = "${app.notifications.digest.flush-ms:1000}",
+            initialDelayString = "${app.notifications.digest.flush-ms:1000}")
+    public void flushDigests() {
+        if (coalescer.isEnabled()) {
+            coalescer.flushDue(this::notifyObservers);
+        }
+    }
+    
+    private AsyncTaskExecutor executor() {
+        if (executor == null) {
+            synchronized (this) {
+                if (executor == null) {
+                    executor = BlockingExecutors.create("notify-", virtualThreads, platformThreads);
+                }
+            }
+        }
+        return executor;
+    }
+    
+    @PreDestroy
+    void shutdown() {
+        if (coalescer.isEnabled()) {
+            coalescer.flushAll(this::notifyObservers);
+        }
+        if (executor != null) {
+            BlockingExecutors.shutdown(executor);
+        }
+    }
+    
     /**
      * تفعيل/تعطيل نوع معين من المراقبين
      */
@@ -0,0 +1,464 @@
+package com.bank.se3bank.notifications.push;
+
+import com.bank.se3bank.notifications.model.Notification;
+import com.bank.se3bank.notifications.repository.NotificationRepository;
+import com.bank.se3bank.shared.concurrency.BlockingExecutors;
+import com.bank.se3bank.shared.dto.NotificationResponse;
+import com.bank.se3bank.shared.metrics.BankMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * دفع الإشعارات للمتصفح عبر Server-Sent Events مع عداد غير المقروء في الذاكرة
+ *
+ * - الاتصال الخامل لا يحجز خيطاً: SseEmitter يعمل على servlet async، والإرسال على منفّذ منفصل
+ *   (خيوط افتراضية في وضع Java 21)
+ * - لكل مستخدم طابور وكاتب واحد في كل لحظة، فتصل الأحداث بالترتيب، وأحداث العداد المتتالية تُدمج في حدث واحد
+ * - كل كتابة محدودة بـ send-timeout-ms: عميل متوقف عن القراءة يُسقط اتصاله ويُقاطع خيطه،
+ *   فلا تحجز بضعة اتصالات بطيئة مجمع send-threads عن بقية المستخدمين؛ والنبضة تتجاوز مستخدماً ما زال كاتبه يعمل
+ * - معرف الحدث = معرف الإشعار، فاستئناف Last-Event-ID استعلام واحد على (user_id, id) ويعمل بعد إعادة التشغيل
+ * - العداد في الذاكرة لأصحاب الاتصالات المفتوحة فقط: يُضبط من قاعدة البيانات عند كل اتصال وكل resync-ms،
+ *   ويتحدث بينهما مع الإنشاء والقراءة والحذف (بعد commit)، ويُحذف مع آخر اتصال للمستخدم
+ * - من لا اتصال له يُقرأ عدده بـ COUNT مباشرة، فلا يبقى عداد منحرف لا يصحّحه شيء
+ * - عقدة واحدة: الإشعارات المنشأة على عقدة أخرى لا تصل لاتصالات هذه العقدة إلا عند الاستئناف
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class NotificationPushHub {
+
+    static final String NOTIFICATION_EVENT = "notification";
+    static final String UNREAD_EVENT = "unread";
+    static final String HEARTBEAT = "heartbeat";
+
+    private final NotificationRepository notificationRepository;
+    private final BankMetrics metrics;
+
+    private final Map<Long, UserStream> streams = new ConcurrentHashMap<>();
+    private final Map<Long, AtomicLong> unread = new ConcurrentHashMap<>();
+    private final AtomicInteger connections = new AtomicInteger();
+
+    @Value("${app.notifications.push.emitter-timeout-ms:1800000}")
+    private long emitterTimeoutMs = 1_800_000;
+
+    @Value("${app.notifications.push.max-connections-per-user:5}")
+    private int maxConnectionsPerUser = 5;
+
+    @Value("${app.notifications.push.replay-limit:100}")
+    private int replayLimit = 100;
+
+    @Value("${app.notifications.push.max-counters:100000}")
+    private int maxCounters = 100_000;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    @Value("${app.notifications.push.send-threads:4}")
+    private int sendThreads = 4;
+
+    @Value("${app.notifications.push.send-timeout-ms:10000}")
+    private long sendTimeoutMs = 10_000;
+
+    private volatile AsyncTaskExecutor executor;
+    private volatile ScheduledExecutorService deadlines;
+    private final AtomicBoolean gaugesBound = new AtomicBoolean();
+
+    // ========== Connections ==========
+
+    /**
+     * فتح اتصال للمستخدم: تسجيل، ثم إعادة ما فاته بعد lastEventId، ثم العداد الحالي
+     * (إشعار يُنشأ بين التسجيل والإعادة قد يصل مرتين؛ العميل يتجاهل المعرف المكرر)
+     */
+    public SseEmitter connect(Long userId, Long lastEventId) {
+        return connect(userId, lastEventId, new SseEmitter(emitterTimeoutMs));
+    }
+
+    SseEmitter connect(Long userId, Long lastEventId, SseEmitter emitter) {
+        bindGauges();
+        UserStream stream = streams.compute(userId, (id, existing) -> {
+            UserStream target = existing != null ? existing : new UserStream(id);
+            target.emitters.add(emitter);
+            return target;
+        });
+        connections.incrementAndGet();
+        emitter.onCompletion(() -> disconnect(userId, emitter));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(error -> disconnect(userId, emitter));
+
+        while (stream.emitters.size() > maxConnectionsPerUser) {
+            SseEmitter oldest = stream.emitters.get(0);
+            disconnect(userId, oldest);
+            oldest.complete();
+        }
+
+        resyncUnread(userId);
+        if (lastEventId != null) {
+            List<NotificationResponse> missed = notificationRepository.findResponsesByUserIdAfterId(
+                    userId, lastEventId, PageRequest.of(0, replayLimit));
+            missed.forEach(notification -> stream.pending.add(notificationEvent(notification)));
+            log.debug("📡 استئناف بث الإشعارات للمستخدم {} بعد {}: {} إشعار", userId, lastEventId, missed.size());
+        }
+        stream.unreadChanged.set(true);
+        schedule(stream);
+        return emitter;
+    }
+
+    private void disconnect(Long userId, SseEmitter emitter) {
+        UserStream stream = streams.get(userId);
+        if (stream != null && stream.emitters.remove(emitter)) {
+            connections.decrementAndGet();
+            streams.computeIfPresent(userId, (id, current) -> {
+                if (!current.emitters.isEmpty()) {
+                    return current;
+                }
+                unread.remove(id);
+                return null;
+            });
+        }
+    }
+
+    public int getConnectionCount() {
+        return connections.get();
+    }
+
+    // ========== Events ==========
+
+    /**
+     * إشعار جديد محفوظ: يُدفع ويُحدّث العداد بعد commit المعاملة الحالية
+     */
+    public void notificationCreated(Notification notification) {
+        Long userId = notification.getUser().getId();
+        NotificationResponse response = NotificationResponse.from(notification);
+        afterCommit(() -> {
+            if (!Boolean.TRUE.equals(response.getIsRead())) {
+                increment(userId, 1);
+            }
+            UserStream stream = streams.get(userId);
+            if (stream != null) {
+                stream.pending.add(notificationEvent(response));
+                stream.unreadChanged.set(true);
+                schedule(stream);
+            }
+        });
+    }
+
+    /**
+     * إشعارات غير مقروءة أصبحت مقروءة أو حُذفت
+     */
+    public void unreadRemoved(Long userId, long count) {
+        if (count > 0) {
+            afterCommit(() -> {
+                increment(userId, -count);
+                unreadChanged(userId);
+            });
+        }
+    }
+
+    /**
+     * لم يبقَ للمستخدم أي إشعار غير مقروء
+     */
+    public void unreadCleared(Long userId) {
+        afterCommit(() -> {
+            AtomicLong counter = unread.get(userId);
+            if (counter != null) {
+                counter.set(0);
+            }
+            unreadChanged(userId);
+        });
+    }
+
+    // ========== Unread Counter ==========
+
+    /**
+     * عدد غير المقروء: من الذاكرة لمن له اتصال مفتوح، وإلا COUNT واحد دون تخزين
+     */
+    public long unreadCount(Long userId) {
+        AtomicLong counter = unread.get(userId);
+        if (counter != null) {
+            return counter.get();
+        }
+        return notificationRepository.countByUserIdAndIsReadFalse(userId);
+    }
+
+    /**
+     * إعادة ضبط عدادات المتصلين من قاعدة البيانات وحذف عدادات من لم يعد متصلاً؛
+     * يحد انحراف عداد تغيّر بين COUNT الاتصال وتسجيل العداد بمدة resync-ms
+     */
+    @Scheduled(fixedDelayString = "${app.notifications.push.resync-ms:60000}",
+               initialDelayString = "${app.notifications.push.resync-ms:60000}")
+    public void resyncCounters() {
+        for (Long userId : unread.keySet()) {
+            if (streams.containsKey(userId)) {
+                resyncUnread(userId);
+                unreadChanged(userId);
+            } else {
+                unread.remove(userId);
+            }
+        }
+    }
+
+    private void resyncUnread(Long userId) {
+        long count = notificationRepository.countByUserIdAndIsReadFalse(userId);
+        if (!streams.containsKey(userId)) {
+            return;
+        }
+        if (unread.size() < maxCounters || unread.containsKey(userId)) {
+            unread.compute(userId, (id, counter) -> {
+                if (counter == null) {
+                    return new AtomicLong(count);
+                }
+                counter.set(count);
+                return counter;
+            });
+        }
+    }
+
+    private void increment(Long userId, long delta) {
+        AtomicLong counter = unread.get(userId);
+        if (counter != null) {
+            counter.updateAndGet(value -> Math.max(0, value + delta));
+        }
+    }
+
+    private void unreadChanged(Long userId) {
+        UserStream stream = streams.get(userId);
+        if (stream != null) {
+            stream.unreadChanged.set(true);
+            schedule(stream);
+        }
+    }
+
+    // ========== Delivery ==========
+
+    /**
+     * نبضة دورية تُبقي الوسطاء (proxies) من إغلاق الاتصال الخامل وتكشف الاتصالات المنقطعة
+     * مستخدم ما زال كاتبه يرسل لا يحتاج نبضة، ولا تتراكم النبضات خلف إرسال عالق
+     */
+    @Scheduled(fixedDelayString = "${app.notifications.push.heartbeat-ms:25000}",
+               initialDelayString = "${app.notifications.push.heartbeat-ms:25000}")
+    public void heartbeat() {
+        streams.values().forEach(stream -> {
+            if (!stream.draining.get()) {
+                stream.pending.add(new PendingEvent(HEARTBEAT, () -> SseEmitter.event().comment("ping")));
+                schedule(stream);
+            }
+        });
+    }
+
+    private void schedule(UserStream stream) {
+        if (stream.draining.compareAndSet(false, true)) {
+            executor().execute(() -> drain(stream));
+        }
+    }
+
+    /**
+     * كاتب واحد لكل مستخدم: يفرغ الطابور ثم يرسل قيمة العداد الأخيرة مرة واحدة
+     */
+    private void drain(UserStream stream) {
+        do {
+            PendingEvent event;
+            while ((event = stream.pending.poll()) != null) {
+                send(stream, event);
+            }
+            if (stream.unreadChanged.getAndSet(false)) {
+                AtomicLong counter = unread.get(stream.userId);
+                if (counter != null) {
+                    long count = counter.get();
+                    send(stream, new PendingEvent(UNREAD_EVENT, () -> SseEmitter.event().name(UNREAD_EVENT).data(count)));
+                }
+            }
+            stream.draining.set(false);
+        } while ((!stream.pending.isEmpty() || stream.unreadChanged.get())
+                && stream.draining.compareAndSet(false, true));
+    }
+
+    /**
+     * الـ builder يُبنى لكل اتصال: SseEventBuilder لا يصلح لإعادة الإرسال
+     * SseEmitter.send يحجب الخيط ما دام العميل لا يقرأ، فكل إرسال له مهلة: عند انقضائها يُسقط الاتصال
+     * (يعيد العميل الاتصال بـ Last-Event-ID) ويُقاطع الخيط ليعود للمجمع
+     */
+    private void send(UserStream stream, PendingEvent event) {
+        for (SseEmitter emitter : stream.emitters) {
+            SendDeadline deadline = new SendDeadline(Thread.currentThread());
+            ScheduledFuture<?> expiry = deadlines().schedule(
+                    () -> expire(stream, event, emitter, deadline), sendTimeoutMs, TimeUnit.MILLISECONDS);
+            try {
+                emitter.send(event.builder.get());
+                metrics.recordNotificationPush(event.type, true);
+            } catch (Exception e) {
+                if (!deadline.expired) {
+                    log.debug("📡 انقطع اتصال بث الإشعارات للمستخدم {}: {}", stream.userId, e.getMessage());
+                    metrics.recordNotificationPush(event.type, false);
+                    disconnect(stream.userId, emitter);
+                    emitter.completeWithError(e);
+                }
+            } finally {
+                expiry.cancel(false);
+                if (deadline.finish()) {
+                    // المقاطعة موجهة لهذا الإرسال فقط، لا للمهمة التالية على نفس الخيط
+                    Thread.interrupted();
+                }
+            }
+        }
+    }
+
+    private void expire(UserStream stream, PendingEvent event, SseEmitter emitter, SendDeadline deadline) {
+        deadline.expire(() -> {
+            log.warn("📡 لم يكتمل إرسال {} للمستخدم {} خلال {} ms، إسقاط الاتصال", event.type, stream.userId, sendTimeoutMs);
+            metrics.recordNotificationPush(event.type, false);
+            disconnect(stream.userId, emitter);
+            emitter.completeWithError(new TimeoutException("SSE send timed out after " + sendTimeoutMs + " ms"));
+        });
+    }
+
+    private static PendingEvent notificationEvent(NotificationResponse notification) {
+        return new PendingEvent(NOTIFICATION_EVENT, () -> SseEmitter.event()
+                .id(String.valueOf(notification.getId()))
+                .name(NOTIFICATION_EVENT)
+                .data(notification, MediaType.APPLICATION_JSON));
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private void bindGauges() {
+        if (gaugesBound.compareAndSet(false, true)) {
+            metrics.bindNotificationPush(connections::get, unread::size);
+        }
+    }
+
+    private AsyncTaskExecutor executor() {
+        if (executor == null) {
+            synchronized (this) {
+                if (executor == null) {
+                    executor = BlockingExecutors.create("sse-push-", virtualThreads, sendThreads);
+                }
+            }
+        }
+        return executor;
+    }
+
+    private ScheduledExecutorService deadlines() {
+        if (deadlines == null) {
+            synchronized (this) {
+                if (deadlines == null) {
+                    deadlines = Executors.newSingleThreadScheduledExecutor(task -> {
+                        Thread thread = new Thread(task, "sse-push-deadline");
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+                }
+            }
+        }
+        return deadlines;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        streams.values().forEach(stream -> stream.emitters.forEach(SseEmitter::complete));
+        streams.clear();
+        if (executor != null) {
+            BlockingExecutors.shutdown(executor);
+        }
+        if (deadlines != null) {
+            deadlines.shutdownNow();
+        }
+    }
+
+    /**
+     * اتصالات مستخدم واحد وطابور أحداثه
+     */
+    private static final class UserStream {
+        final Long userId;
+        final List<SseEmitter> emitters = new CopyOnWriteArrayList<>();
+        final Queue<PendingEvent> pending = new ConcurrentLinkedQueue<>();
+        final AtomicBoolean unreadChanged = new AtomicBoolean();
+        final AtomicBoolean draining = new AtomicBoolean();
+
+        UserStream(Long userId) {
+            this.userId = userId;
+        }
+    }
+
+    /**
+     * مهلة إرسال واحد: المقاطعة لا تصل للخيط إلا قبل انتهاء الإرسال، والقفل يمنع وصولها بعده
+     */
+    private static final class SendDeadline {
+        final Thread writer;
+        volatile boolean expired;
+        private boolean finished;
+
+        SendDeadline(Thread writer) {
+            this.writer = writer;
+        }
+
+        /**
+         * إسقاط الاتصال ثم مقاطعة الخيط، ما لم ينتهِ الإرسال قبلها
+         */
+        synchronized void expire(Runnable drop) {
+            if (finished) {
+                return;
+            }
+            expired = true;
+            drop.run();
+            writer.interrupt();
+        }
+
+        /**
+         * @return true إن قوطع الخيط بسبب هذه المهلة
+         */
+        synchronized boolean finish() {
+            finished = true;
+            return expired;
+        }
+    }
+
+    /**
+     * حدث بانتظار الإرسال
+     */
+    private static final class PendingEvent {
+        final String type;
+        final Supplier<SseEmitter.SseEventBuilder> builder;
+
+        PendingEvent(String type, Supplier<SseEmitter.SseEventBuilder> builder) {
+            this.type = type;
+            this.builder = builder;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.bank.se3bank.notifications.repository;
+
+import com.bank.se3bank.notifications.model.NotificationPreference;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface NotificationPreferenceRepository extends JpaRepository<NotificationPreference, Long> {
+
+    /**
+     * القناع فقط بدون تحميل الكيان (مسار الإرسال)
+     */
+    @Query("SELECT p.mask FROM NotificationPreference p WHERE p.userId = :userId")
+    Optional<Integer> findMaskByUserId(@Param("userId") Long userId);
+}
@@ -2,7 +2,10 @@
 package com.bank.se3bank.notifications.repository;
 
 import com.bank.se3bank.notifications.model.Notification;
+import com.bank.se3bank.shared.dto.NotificationResponse;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -15,6 +18,23 @@ public interface NotificationRepository extends JpaRepository<Notification, Long
     
     List<Notification> findByUserIdOrderByCreatedAtDesc(Long userId);
     
+    @Query("SELECT new com.bank.se3bank.shared.dto.NotificationResponse(" +
+           "n.id, n.title, n.message, n.type, n.channel, n.isRead, n.isSent, " +
+           "n.sentAt, n.readAt, n.createdAt, n.transactionId) " +
+           "FROM Notification n WHERE n.user.id = :userId ORDER BY n.createdAt DESC")
+    List<NotificationResponse> findResponsesByUserId(@Param("userId") Long userId);
+    
+    /**
+     * استئناف بث الإشعارات: ما أُنشئ بعد آخر معرف استلمه العميل (Last-Event-ID)
+     */
+    @Query("SELECT new com.bank.se3bank.shared.dto.NotificationResponse(" +
+           "n.id, n.title, n.message, n.type, n.channel, n.isRead, n.isSent, " +
+           "n.sentAt, n.readAt, n.createdAt, n.transactionId) " +
+           "FROM Notification n WHERE n.user.id = :userId AND n.id > :afterId ORDER BY n.id ASC")
+    List<NotificationResponse> findResponsesByUserIdAfterId(@Param("userId") Long userId,
+                                                            @Param("afterId") Long afterId,
+                                                            Pageable pageable);
+    
     List<Notification> findByUserIdAndIsReadFalseOrderByCreatedAtDesc(Long userId);
     
     List<Notification> findByUserIdAndChannelOrderByCreatedAtDesc(Long userId, String channel);
@@ -30,12 +50,41 @@ public interface NotificationRepository extends JpaRepository<Notification, Long
     
     long countByUserIdAndCreatedAtAfter(Long userId, LocalDateTime since);
     
-    void deleteByUserId(Long userId);
+    /**
+     * تعيين كل غير المقروء كمقروء بـ UPDATE واحد (بدون تحميل الصفوف)
+     */
+    @Modifying
+    @Query("UPDATE Notification n SET n.isRead = true, n.readAt = :now WHERE n.user.id = :userId AND n.isRead = false")
+    int markAllAsReadByUserId(@Param("userId") Long userId, @Param("now") LocalDateTime now);
+    
+    /**
+     * تعيين إشعار كمقروء فقط إن كان غير مقروء؛ 1 يعني أن هذا الاستدعاء هو من غيّر حالته
+     */
+    @Modifying
+    @Query("UPDATE Notification n SET n.isRead = true, n.readAt = :now WHERE n.id = :id AND n.isRead = false")
+    int markAsReadIfUnread(@Param("id") Long id, @Param("now") LocalDateTime now);
+    
+    /**
+     * حذف إشعار مع إرجاع حالته: 1 لغير المقروء، 0 إن كان مقروءاً أو حذفه طلب آخر
+     */
+    @Modifying
+    @Query("DELETE FROM Notification n WHERE n.id = :id AND n.isRead = :isRead")
+    int deleteByIdAndIsRead(@Param("id") Long id, @Param("isRead") boolean isRead);
+    
+    /**
+     * حذف كل إشعارات المستخدم بـ DELETE واحد (deleteByUserId المشتق يحمّل كل كيان قبل حذفه)
+     */
+    @Modifying
+    @Query("DELETE FROM Notification n WHERE n.user.id = :userId")
+    int deleteAllByUserId(@Param("userId") Long userId);
     
+    /**
+     * الأقواس حول OR ضرورية: بدونها تُرجع المطابقة في الرسالة إشعارات مستخدمين آخرين
+     */
     @Query("SELECT n FROM Notification n WHERE " +
-           "n.user.id = :userId AND " +
+           "n.user.id = :userId AND (" +
            "LOWER(n.title) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
-           "LOWER(n.message) LIKE LOWER(CONCAT('%', :keyword, '%')) " +
+           "LOWER(n.message) LIKE LOWER(CONCAT('%', :keyword, '%'))) " +
            "ORDER BY n.createdAt DESC")
     List<Notification> searchByKeyword(
             @Param("userId") Long userId, 
@@ -0,0 +1,148 @@
+package com.bank.se3bank.notifications.service;
+
+import com.bank.se3bank.notifications.repository.NotificationPreferenceRepository;
+import com.bank.se3bank.shared.dto.NotificationPreference;
+import com.bank.se3bank.shared.metrics.BankMetrics;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static com.bank.se3bank.notifications.model.NotificationPreference.*;
+
+/**
+ * تفضيلات الإشعارات لكل مستخدم: صف واحد في notification_preferences وقناع int في الذاكرة
+ *
+ * - مسار الإرسال يقرأ القناع من الذاكرة (استعلام عمود واحد عند أول حدث للمستخدم فقط)
+ * - التحديث يكتب القيمة الجديدة في الذاكرة بعد commit (كتابة وليس طرد، فلا يعيد قارئ متأخر القيمة القديمة)
+ * - على عقدة واحدة مثل عدادات غير المقروء في NotificationPushHub
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class NotificationPreferenceService {
+
+    // مفاتيح PATCH: أسماء حقول NotificationPreference والصيغة القديمة channel_email|sms|in_app
+    private static final Map<String, Integer> KEYS = Map.ofEntries(
+            Map.entry("emailEnabled", EMAIL),
+            Map.entry("smsEnabled", SMS),
+            Map.entry("inAppEnabled", IN_APP),
+            Map.entry("channel_email", EMAIL),
+            Map.entry("channel_sms", SMS),
+            Map.entry("channel_in_app", IN_APP),
+            Map.entry("lowBalanceAlert", LOW_BALANCE_ALERT),
+            Map.entry("transferAlert", TRANSFER_ALERT),
+            Map.entry("loginAlert", LOGIN_ALERT),
+            Map.entry("marketingEmails", MARKETING_EMAILS),
+            Map.entry("monthlyStatement", MONTHLY_STATEMENT));
+
+    private final NotificationPreferenceRepository preferenceRepository;
+    private final BankMetrics metrics;
+
+    private final Map<Long, Integer> masks = new ConcurrentHashMap<>();
+    private final AtomicBoolean gaugeBound = new AtomicBoolean();
+
+    @Value("${app.notifications.preferences.max-cached:100000}")
+    private int maxCached = 100_000;
+
+    /**
+     * قناع المستخدم (DEFAULT_MASK إن لم يغير تفضيلاته)
+     */
+    public int mask(Long userId) {
+        if (userId == null) {
+            return DEFAULT_MASK;
+        }
+        Integer cached = masks.get(userId);
+        if (cached != null) {
+            return cached;
+        }
+        int mask = preferenceRepository.findMaskByUserId(userId).orElse(DEFAULT_MASK);
+        if (masks.size() < maxCached) {
+            // putIfAbsent: قيمة كتبها تحديث بعد commit تبقى ولو قرأنا القديمة قبله
+            Integer raced = masks.putIfAbsent(userId, mask);
+            if (raced != null) {
+                mask = raced;
+            }
+        }
+        if (gaugeBound.compareAndSet(false, true)) {
+            metrics.bindNotificationPreferences(masks::size);
+        }
+        return mask;
+    }
+
+    public NotificationPreference getPreferences(Long userId) {
+        return toResponse(userId, mask(userId));
+    }
+
+    /**
+     * تحديث جزئي؛ المفاتيح غير المذكورة تبقى كما هي
+     */
+    @Transactional
+    public NotificationPreference updatePreferences(Long userId, Map<String, Boolean> changes) {
+        com.bank.se3bank.notifications.model.NotificationPreference preference = preferenceRepository.findById(userId)
+                .orElseGet(() -> com.bank.se3bank.notifications.model.NotificationPreference.builder()
+                        .userId(userId)
+                        .mask(DEFAULT_MASK)
+                        .build());
+
+        int mask = preference.getMask();
+        for (Map.Entry<String, Boolean> change : changes.entrySet()) {
+            Integer bit = KEYS.get(change.getKey());
+            if (bit == null) {
+                throw new IllegalArgumentException("تفضيل غير معروف: " + change.getKey());
+            }
+            if (change.getValue() == null) {
+                throw new IllegalArgumentException("قيمة التفضيل مطلوبة: " + change.getKey());
+            }
+            mask = change.getValue() ? mask | bit : mask & ~bit;
+        }
+
+        preference.setMask(mask);
+        preference.setUpdatedAt(LocalDateTime.now());
+        preferenceRepository.save(preference);
+
+        int saved = mask;
+        afterCommit(() -> masks.put(userId, saved));
+        log.info("⚙️ تم تحديث تفضيلات الإشعارات للمستخدم: {}", userId);
+        return toResponse(userId, mask);
+    }
+
+    int getCachedCount() {
+        return masks.size();
+    }
+
+    private static NotificationPreference toResponse(Long userId, int mask) {
+        return NotificationPreference.builder()
+                .userId(userId)
+                .emailEnabled((mask & EMAIL) != 0)
+                .smsEnabled((mask & SMS) != 0)
+                .inAppEnabled((mask & IN_APP) != 0)
+                .lowBalanceAlert((mask & LOW_BALANCE_ALERT) != 0)
+                .transferAlert((mask & TRANSFER_ALERT) != 0)
+                .loginAlert((mask & LOGIN_ALERT) != 0)
+                .marketingEmails((mask & MARKETING_EMAILS) != 0)
+                .monthlyStatement((mask & MONTHLY_STATEMENT) != 0)
+                .build();
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package com.bank.se3bank.notifications.service;
+
+import com.bank.se3bank.notifications.push.NotificationPushHub;
+import com.bank.se3bank.shared.metrics.BankMetrics;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * حذف (أو أرشفة) الإشعارات الأقدم من مدة الاحتفاظ لكل قناة
+ *
+ * - دفعات صغيرة بترتيب created_at على فهرس (channel, created_at)، كل دفعة في معاملة قصيرة خاصة بها،
+ *   فلا تُقفل إلا صفوف الدفعة ولوقت قصير؛ FOR UPDATE SKIP LOCKED يجعل عقدتين تأخذان دفعات مختلفة
+ * - وضع archive ينسخ الدفعة إلى notifications_archive ثم يحذفها في نفس المعاملة
+ * - غير المقروء المحذوف يُطرح من عداد المستخدم في الذاكرة بعد commit
+ * - لكل قناة ميزانية max-batches-per-channel دفعة في التشغيل، تكمل بعدها في التشغيل التالي؛
+ *   فلا يحتكر تراكم EMAIL التشغيل ولا تتأخر بسببه SMS و IN_APP و OTHER
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class NotificationRetentionJob {
+
+    public static final String OTHER_CHANNELS = "OTHER";
+
+    private static final String SELECT_SQL =
+            "SELECT id, user_id, is_read FROM notifications WHERE channel = ? AND created_at < ? " +
+            "ORDER BY created_at LIMIT ? FOR UPDATE SKIP LOCKED";
+
+    private static final String SELECT_OTHER_SQL =
+            "SELECT id, user_id, is_read FROM notifications WHERE channel NOT IN ('EMAIL', 'SMS', 'IN_APP') " +
+            "AND created_at < ? ORDER BY created_at LIMIT ? FOR UPDATE SKIP LOCKED";
+
+    private static final String ARCHIVE_SQL =
+            "INSERT INTO notifications_archive (id, user_id, title, message, notification_type, channel, is_read, " +
+            "sent_at, read_at, created_at, transaction_id, archived_at) " +
+            "SELECT id, user_id, title, message, notification_type, channel, is_read, " +
+            "sent_at, read_at, created_at, transaction_id, ? FROM notifications WHERE id IN (%s)";
+
+    private static final String DELETE_SQL = "DELETE FROM notifications WHERE id IN (%s)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final NotificationPushHub pushHub;
+    private final BankMetrics metrics;
+
+    @Value("${app.notifications.retention.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${app.notifications.retention.archive:false}")
+    private boolean archive;
+
+    @Value("${app.notifications.retention.batch-size:1000}")
+    private int batchSize = 1000;
+
+    @Value("${app.notifications.retention.max-batches-per-channel:50}")
+    private int maxBatchesPerChannel = 50;
+
+    @Value("${app.notifications.retention.pause-ms:20}")
+    private long pauseMs = 20;
+
+    @Value("${app.notifications.retention.ttl-days.email:90}")
+    private int emailTtlDays = 90;
+
+    @Value("${app.notifications.retention.ttl-days.sms:30}")
+    private int smsTtlDays = 30;
+
+    @Value("${app.notifications.retention.ttl-days.in-app:180}")
+    private int inAppTtlDays = 180;
+
+    @Value("${app.notifications.retention.ttl-days.other:180}")
+    private int otherTtlDays = 180;
+
+    @Scheduled(fixedDelayString = "${app.notifications.retention.interval-ms:60000}",
+               initialDelayString = "${app.notifications.retention.initial-delay-ms:120000}")
+    public void scheduledPurge() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            purge();
+        } catch (RuntimeException e) {
+            log.error("❌ فشل تنظيف الإشعارات القديمة: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * تشغيل واحد على كل القنوات، حتى max-batches-per-channel دفعة لكل قناة؛ مدة احتفاظ <= 0 تعني الاحتفاظ دائماً
+     */
+    public PurgeResult purge() {
+        long started = System.nanoTime();
+        Map<String, Integer> ttlDays = new LinkedHashMap<>();
+        ttlDays.put("EMAIL", emailTtlDays);
+        ttlDays.put("SMS", smsTtlDays);
+        ttlDays.put("IN_APP", inAppTtlDays);
+        ttlDays.put(OTHER_CHANNELS, otherTtlDays);
+
+        Map<String, Integer> purged = new LinkedHashMap<>();
+        int batches = 0;
+        for (Map.Entry<String, Integer> channel : ttlDays.entrySet()) {
+            if (channel.getValue() <= 0) {
+                continue;
+            }
+            Timestamp cutoff = Timestamp.valueOf(LocalDateTime.now().minusDays(channel.getValue()));
+            int rows = 0;
+            for (int channelBatches = 0; channelBatches < maxBatchesPerChannel; channelBatches++) {
+                int batch = purgeBatch(channel.getKey(), cutoff);
+                batches++;
+                rows += batch;
+                if (batch < batchSize || !pause()) {
+                    break;
+                }
+            }
+            purged.put(channel.getKey(), rows);
+            metrics.recordNotificationRetention(channel.getKey(), rows);
+        }
+
+        long nanos = System.nanoTime() - started;
+        int total = purged.values().stream().mapToInt(Integer::intValue).sum();
+        long millis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(nanos));
+        long rowsPerSecond = total * 1000L / millis;
+        metrics.recordNotificationRetentionRun(total, nanos);
+        if (total > 0) {
+            log.info("🧹 تنظيف الإشعارات: {} صف في {} دفعة ({} ms، {} صف/ث) {}",
+                    total, batches, millis, rowsPerSecond, purged);
+        }
+        return PurgeResult.builder()
+                .archived(archive)
+                .purged(purged)
+                .total(total)
+                .batches(batches)
+                .elapsedMs(millis)
+                .rowsPerSecond(rowsPerSecond)
+                .build();
+    }
+
+    /**
+     * دفعة واحدة في معاملة قصيرة: قفل الصفوف، أرشفتها إن طُلب، حذفها
+     */
+    private int purgeBatch(String channel, Timestamp cutoff) {
+        Integer purged = new TransactionTemplate(transactionManager).execute(status -> {
+            List<long[]> rows = OTHER_CHANNELS.equals(channel)
+                    ? jdbcTemplate.query(SELECT_OTHER_SQL, (rs, rowNum) -> row(rs.getLong(1), rs.getLong(2), rs.getBoolean(3)),
+                            cutoff, batchSize)
+                    : jdbcTemplate.query(SELECT_SQL, (rs, rowNum) -> row(rs.getLong(1), rs.getLong(2), rs.getBoolean(3)),
+                            channel, cutoff, batchSize);
+            if (rows.isEmpty()) {
+                return 0;
+            }
+
+            List<Object> ids = new ArrayList<>(rows.size());
+            Map<Long, Long> unreadByUser = new HashMap<>();
+            for (long[] row : rows) {
+                ids.add(row[0]);
+                if (row[2] == 0) {
+                    unreadByUser.merge(row[1], 1L, Long::sum);
+                }
+            }
+            String placeholders = String.join(", ", Collections.nCopies(ids.size(), "?"));
+            if (archive) {
+                List<Object> params = new ArrayList<>(ids.size() + 1);
+                params.add(Timestamp.valueOf(LocalDateTime.now()));
+                params.addAll(ids);
+                jdbcTemplate.update(String.format(ARCHIVE_SQL, placeholders), params.toArray());
+            }
+            int deleted = jdbcTemplate.update(String.format(DELETE_SQL, placeholders), ids.toArray());
+            unreadByUser.forEach(pushHub::unreadRemoved);
+            return deleted;
+        });
+        return purged != null ? purged : 0;
+    }
+
+    private static long[] row(long id, long userId, boolean read) {
+        return new long[]{id, userId, read ? 1 : 0};
+    }
+
+    /**
+     * استراحة قصيرة بين الدفعات حتى لا يزاحم التنظيف حركة الكتابة
+     */
+    private boolean pause() {
+        if (pauseMs <= 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(pauseMs);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * ملخص تشغيل تنظيف
+     */
+    @lombok.Data
+    @lombok.Builder
+    public static class PurgeResult {
+        private boolean archived;
+        private Map<String, Integer> purged;
+        private int total;
+        private int batches;
+        private long elapsedMs;
+        private long rowsPerSecond;
+    }
+}
@@ -1,15 +1,18 @@
 package com.bank.se3bank.notifications.service;
 
 import com.bank.se3bank.accounts.model.Account;
+import com.bank.se3bank.notifications.event.NotificationEvent;
 import com.bank.se3bank.notifications.model.Notification;
-import com.bank.se3bank.notifications.observers.NotificationObserver;
 import com.bank.se3bank.notifications.publisher.NotificationPublisher;
+import com.bank.se3bank.notifications.push.NotificationPushHub;
 import com.bank.se3bank.notifications.repository.NotificationRepository;
 import com.bank.se3bank.shared.dto.NotificationPreference;
+import com.bank.se3bank.shared.dto.NotificationResponse;
 import com.bank.se3bank.users.model.User;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -25,6 +28,8 @@ public class NotificationService {
     
     private final NotificationPublisher notificationPublisher;
     private final NotificationRepository notificationRepository;
+    private final NotificationPushHub pushHub;
+    private final NotificationPreferenceService preferenceService;
     
     // ========== Account Events ==========
     
@@ -32,10 +37,9 @@ public class NotificationService {
      * إرسال إشعار إنشاء حساب
      */
     public void sendAccountCreatedNotification(User user, Account account) {
-        log.info("📨 إرسال إشعار إنشاء حساب للمستخدم: {}", user.getUsername());
+        log.debug("📨 إرسال إشعار إنشاء حساب للمستخدم: {}", user.getUsername());
         
-        notificationPublisher.notifyObservers(
-                "ACCOUNT_CREATED", user, account, null);
+        notificationPublisher.notifyObservers(NotificationEvent.accountCreated(user, account));
     }
     
     /**
@@ -43,69 +47,46 @@ public class NotificationService {
      */
     public void sendTransferNotification(User fromUser, User toUser, 
                                          Double amount, String transactionId) {
-        log.info("📨 إرسال إشعار تحويل أموال: {} USD", amount);
+        log.debug("📨 إرسال إشعار تحويل أموال: {} USD", amount);
         
         // إشعار للمرسل
-        String[] senderData = {
-                amount.toString(),
-                "حسابك",
-                toUser.getFullName(),
-                transactionId
-        };
-        notificationPublisher.notifyObservers(
-                "MONEY_TRANSFER", fromUser, null, senderData);
+        notificationPublisher.notifyObservers(NotificationEvent.transfer(
+                fromUser, amount, "حسابك", toUser.getFullName(), transactionId, false));
         
         // إشعار للمستلم
-        String[] receiverData = {
-                amount.toString(),
-                fromUser.getFullName(),
-                "حسابك",
-                transactionId
-        };
-        notificationPublisher.notifyObservers(
-                "MONEY_TRANSFER", toUser, null, receiverData);
+        notificationPublisher.notifyObservers(NotificationEvent.transfer(
+                toUser, amount, fromUser.getFullName(), "حسابك", transactionId, true));
     }
     
     /**
      * إرسال إشعار سحب أموال
      */
-    public void sendWithdrawalNotification(User user, Double amount, 
+    public void sendWithdrawalNotification(User user, Account account, Double amount, 
                                           Double oldBalance, Double newBalance) {
-        log.info("📨 إرسال إشعار سحب: {} USD", amount);
+        log.debug("📨 إرسال إشعار سحب: {} USD", amount);
         
-        String[] data = {
-                amount.toString(),
-                oldBalance.toString(),
-                newBalance.toString()
-        };
         notificationPublisher.notifyObservers(
-                "WITHDRAWAL", user, null, data);
+                NotificationEvent.withdrawal(user, account, amount, oldBalance, newBalance));
     }
     
     /**
      * إرسال إشعار إيداع أموال
      */
-    public void sendDepositNotification(User user, Double amount, 
+    public void sendDepositNotification(User user, Account account, Double amount, 
                                         Double oldBalance, Double newBalance) {
-        log.info("📨 إرسال إشعار إيداع: {} USD", amount);
+        log.debug("📨 إرسال إشعار إيداع: {} USD", amount);
         
-        String[] data = {
-                amount.toString(),
-                oldBalance.toString(),
-                newBalance.toString()
-        };
         notificationPublisher.notifyObservers(
-                "DEPOSIT", user, null, data);
+                NotificationEvent.deposit(user, account, amount, oldBalance, newBalance));
     }
     
     /**
      * إرسال إشعار رصيد منخفض
      */
     public void sendLowBalanceNotification(User user, Account account) {
-        log.info("⚠️  إرسال إشعار رصيد منخفض للحساب: {}", account.getAccountNumber());
+        log.debug("⚠️  إرسال إشعار رصيد منخفض للحساب: {}", account.getAccountNumber());
         
-        notificationPublisher.notifyObservers(
-                "LOW_BALANCE", user, account, null);
+        notificationPublisher.notifyObservers(NotificationEvent.lowBalance(user, account));
     }
     
     // ========== Security Events ==========
@@ -114,11 +95,9 @@ public class NotificationService {
      * إرسال إشعار تسجيل دخول
      */
     public void sendLoginAlert(User user, String ipAddress, String device) {
-        log.info("🔐 إرسال إشعار تسجيل دخول للمستخدم: {}", user.getUsername());
+        log.debug("🔐 إرسال إشعار تسجيل دخول للمستخدم: {}", user.getUsername());
         
-        String[] data = {ipAddress, device, LocalDateTime.now().toString()};
-        notificationPublisher.notifyObservers(
-                "LOGIN_ALERT", user, null, data);
+        notificationPublisher.notifyObservers(NotificationEvent.loginAlert(user, ipAddress, device));
     }
     
     /**
@@ -127,19 +106,17 @@ public class NotificationService {
     public void sendSuspiciousActivityAlert(User user, Account account, String activity) {
         log.warn("🚨 إرسال إشعار نشاط مشبوه: {}", activity);
         
-        String[] data = {activity, LocalDateTime.now().toString()};
         notificationPublisher.notifyObservers(
-                "SUSPICIOUS_ACTIVITY", user, account, data);
+                NotificationEvent.suspiciousActivity(user, account, activity));
     }
     
     /**
      * إرسال إشعار تغيير كلمة المرور
      */
     public void sendPasswordChangedNotification(User user) {
-        log.info("🔑 إرسال إشعار تغيير كلمة المرور للمستخدم: {}", user.getUsername());
+        log.debug("🔑 إرسال إشعار تغيير كلمة المرور للمستخدم: {}", user.getUsername());
         
-        notificationPublisher.notifyObservers(
-                "PASSWORD_CHANGED", user, null, null);
+        notificationPublisher.notifyObservers(NotificationEvent.passwordChanged(user));
     }
     
     // ========== Banking Events ==========
@@ -149,14 +126,10 @@ public class NotificationService {
      */
     public void sendInterestAddedNotification(User user, Account account, 
                                               Double interestAmount) {
-        log.info("📈 إرسال إشعار إضافة فائدة: {} USD", interestAmount);
+        log.debug("📈 إرسال إشعار إضافة فائدة: {} USD", interestAmount);
         
-        String[] data = {
-                interestAmount.toString(),
-                account.getBalance().toString()
-        };
         notificationPublisher.notifyObservers(
-                "INTEREST_ADDED", user, account, data);
+                NotificationEvent.interestAdded(user, account, interestAmount));
     }
     
     /**
@@ -164,21 +137,19 @@ public class NotificationService {
      */
     public void sendBillPaymentNotification(User user, String billName, 
                                             Double amount, String reference) {
-        log.info("✅ إرسال إشعار دفع فاتورة: {}", billName);
+        log.debug("✅ إرسال إشعار دفع فاتورة: {}", billName);
         
-        String[] data = {billName, amount.toString(), reference};
         notificationPublisher.notifyObservers(
-                "BILL_PAID", user, null, data);
+                NotificationEvent.billPaid(user, billName, amount, reference));
     }
     
     /**
      * إرسال إشعار إنشاء مجموعة حسابات
      */
     public void sendGroupCreatedNotification(User user, Object group) {
-        log.info("🏢 إرسال إشعار إنشاء مجموعة حسابات");
+        log.debug("🏢 إرسال إشعار إنشاء مجموعة حسابات");
         
-        notificationPublisher.notifyObservers(
-                "GROUP_CREATED", user, null, group);
+        notificationPublisher.notifyObservers(NotificationEvent.groupCreated(user));
     }
     
     /**
@@ -186,11 +157,10 @@ public class NotificationService {
      */
     public void sendServiceRenewalNotification(User user, String serviceName, 
                                                Double fee) {
-        log.info("🔄 إرسال إشعار تجديد خدمة: {}", serviceName);
+        log.debug("🔄 إرسال إشعار تجديد خدمة: {}", serviceName);
         
-        String[] data = {serviceName, fee.toString()};
         notificationPublisher.notifyObservers(
-                "SERVICE_RENEWAL", user, null, data);
+                NotificationEvent.serviceRenewal(user, serviceName, fee));
     }
     
     // ========== Notification Management ==========
@@ -198,25 +168,43 @@ public class NotificationService {
     /**
      * الحصول على إشعارات المستخدم
      */
+    @Transactional(readOnly = true)
     public List<Notification> getUserNotifications(Long userId) {
         return notificationRepository.findByUserIdOrderByCreatedAtDesc(userId);
     }
     
+    /**
+     * إشعارات المستخدم كإسقاط DTO باستعلام واحد (للواجهات)
+     */
+    @Transactional(readOnly = true)
+    public List<NotificationResponse> getUserNotificationResponses(Long userId) {
+        return notificationRepository.findResponsesByUserId(userId);
+    }
+    
     /**
      * الحصول على إشعارات غير مقروءة
      */
+    @Transactional(readOnly = true)
     public List<Notification> getUnreadNotifications(Long userId) {
         return notificationRepository.findByUserIdAndIsReadFalseOrderByCreatedAtDesc(userId);
     }
     
     /**
-     * تعيين إشعار كمقروء
+     * عدد الإشعارات غير المقروءة من العداد في الذاكرة (بدون COUNT بعد أول طلب)
+     */
+    public long getUnreadCount(Long userId) {
+        return pushHub.unreadCount(userId);
+    }
+    
+    /**
+     * تعيين إشعار كمقروء؛ UPDATE مشروط يجعل طلبين متزامنين ينقصان العداد مرة واحدة فقط
      */
+    @Transactional
     public void markAsRead(Long notificationId) {
         notificationRepository.findById(notificationId).ifPresent(notification -> {
-            notification.setIsRead(true);
-            notification.setReadAt(LocalDateTime.now());
-            notificationRepository.save(notification);
+            if (notificationRepository.markAsReadIfUnread(notificationId, LocalDateTime.now()) == 1) {
+                pushHub.unreadRemoved(notification.getUser().getId(), 1);
+            }
             log.info("✅ تم تعيين الإشعار كمقروء: {}", notificationId);
         });
     }
@@ -224,60 +212,52 @@ public class NotificationService {
     /**
      * تعيين جميع إشعارات المستخدم كمقروءة
      */
-    public void markAllAsRead(Long userId) {
-        List<Notification> unreadNotifications = getUnreadNotifications(userId);
-        unreadNotifications.forEach(notification -> {
-            notification.setIsRead(true);
-            notification.setReadAt(LocalDateTime.now());
-        });
-        notificationRepository.saveAll(unreadNotifications);
-        log.info("✅ تم تعيين جميع إشعارات المستخدم كمقروءة: {}", userId);
+    @Transactional
+    public int markAllAsRead(Long userId) {
+        int updated = notificationRepository.markAllAsReadByUserId(userId, LocalDateTime.now());
+        pushHub.unreadCleared(userId);
+        log.info("✅ تم تعيين {} إشعار كمقروء للمستخدم: {}", updated, userId);
+        return updated;
     }
     
     /**
-     * حذف إشعار
+     * حذف إشعار؛ DELETE مشروط بحالة القراءة فيُنقص العداد فقط من حذف صفاً غير مقروء فعلاً
      */
+    @Transactional
     public void deleteNotification(Long notificationId) {
-        notificationRepository.deleteById(notificationId);
+        notificationRepository.findById(notificationId).ifPresent(notification -> {
+            if (notificationRepository.deleteByIdAndIsRead(notificationId, false) == 1) {
+                pushHub.unreadRemoved(notification.getUser().getId(), 1);
+            } else {
+                notificationRepository.deleteByIdAndIsRead(notificationId, true);
+            }
+        });
         log.info("🗑️ تم حذف الإشعار: {}", notificationId);
     }
     
     /**
      * حذف جميع إشعارات المستخدم
      */
-    public void deleteAllUserNotifications(Long userId) {
-        notificationRepository.deleteByUserId(userId);
-        log.info("🗑️ تم حذف جميع إشعارات المستخدم: {}", userId);
+    @Transactional
+    public int deleteAllUserNotifications(Long userId) {
+        int deleted = notificationRepository.deleteAllByUserId(userId);
+        pushHub.unreadCleared(userId);
+        log.info("🗑️ تم حذف {} إشعار للمستخدم: {}", deleted, userId);
+        return deleted;
     }
     
     /**
-     * الحصول على تفضيلات الإشعارات
+     * الحصول على تفضيلات الإشعارات الخاصة بالمستخدم
      */
     public NotificationPreference getNotificationPreferences(Long userId) {
-        // في تطبيق حقيقي، قد يكون هذا في قاعدة بيانات منفصلة
-        return NotificationPreference.builder()
-                .userId(userId)
-                .emailEnabled(notificationPublisher.isObserverEnabled("EMAIL"))
-                .smsEnabled(notificationPublisher.isObserverEnabled("SMS"))
-                .inAppEnabled(notificationPublisher.isObserverEnabled("IN_APP"))
-                .lowBalanceAlert(true)
-                .transferAlert(true)
-                .loginAlert(true)
-                .marketingEmails(false)
-                .build();
+        return preferenceService.getPreferences(userId);
     }
     
     /**
-     * تحديث تفضيلات الإشعارات
+     * تحديث تفضيلات الإشعارات للمستخدم فقط (تفعيل/تعطيل القناة للجميع يبقى في setObserverEnabled)
      */
-    public void updateNotificationPreferences(Long userId, Map<String, Boolean> preferences) {
-        preferences.forEach((key, value) -> {
-            if (key.startsWith("channel_")) {
-                String channel = key.replace("channel_", "").toUpperCase();
-                notificationPublisher.setObserverEnabled(channel, value);
-            }
-        });
-        log.info("⚙️ تم تحديث تفضيلات الإشعارات للمستخدم: {}", userId);
+    public NotificationPreference updateNotificationPreferences(Long userId, Map<String, Boolean> preferences) {
+        return preferenceService.updatePreferences(userId, preferences);
     }
     
     /**
@@ -300,27 +280,25 @@ public class NotificationService {
                 .build();
         
         notificationRepository.save(notification);
+        pushHub.notificationCreated(notification);
         
         // إرساله عبر القناة المحددة
+        NotificationEvent event = NotificationEvent.custom(eventType, user, message);
         if (channel != null) {
-            notificationPublisher.notifyObserver(
-                    channel.toUpperCase(), 
-                    eventType != null ? eventType : "CUSTOM", 
-                    user, null, message);
+            notificationPublisher.notifyObserver(channel.toUpperCase(), event);
         } else {
             // إرساله عبر جميع القنوات
-            notificationPublisher.notifyObservers(
-                    eventType != null ? eventType : "CUSTOM", 
-                    user, null, message);
+            notificationPublisher.notifyObservers(event);
         }
     }
     
     /**
      * إحصائيات الإشعارات
      */
+    @Transactional(readOnly = true)
     public NotificationStats getNotificationStats(Long userId) {
         long total = notificationRepository.countByUserId(userId);
-        long unread = notificationRepository.countByUserIdAndIsReadFalse(userId);
+        long unread = pushHub.unreadCount(userId);
         long today = notificationRepository.countByUserIdAndCreatedAtAfter(
                 userId, LocalDateTime.now().minusDays(1));
         
@@ -0,0 +1,129 @@
+package com.bank.se3bank.notifications.template;
+
+import com.bank.se3bank.notifications.event.NotificationEvent;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * قالب محلل مرة واحدة إلى مصفوفة مقاطع: نص ثابت، متغير {key}، أو مقطع اختياري [ ... ]
+ *
+ * - المتغير غير المتوفر خارج [ ] يُترك فارغاً
+ * - المقطع الاختياري يُحذف بالكامل إن غاب أي متغير بداخله (بديل "if (account != null)" في الكود القديم)
+ * - الأقواس { } [ ] محجوزة، ولا تداخل للمقاطع الاختيارية
+ */
+public final class CompiledTemplate {
+
+    private final String source;
+    private final Segment[] segments;
+
+    private CompiledTemplate(String source, Segment[] segments) {
+        this.source = source;
+        this.segments = segments;
+    }
+
+    public static CompiledTemplate parse(String source) {
+        List<Segment> top = new ArrayList<>();
+        List<Segment> optional = null;
+        StringBuilder literal = new StringBuilder();
+        int i = 0;
+        while (i < source.length()) {
+            char c = source.charAt(i);
+            List<Segment> target = optional != null ? optional : top;
+            if (c == '{') {
+                int end = source.indexOf('}', i);
+                if (end < 0) {
+                    throw new IllegalArgumentException("قالب غير مكتمل (ينقص }): " + source);
+                }
+                flush(literal, target);
+                target.add(Segment.variable(TemplateVariable.fromKey(source.substring(i + 1, end))));
+                i = end + 1;
+                continue;
+            }
+            if (c == '[') {
+                if (optional != null) {
+                    throw new IllegalArgumentException("لا يُسمح بتداخل [ ] في القالب: " + source);
+                }
+                flush(literal, top);
+                optional = new ArrayList<>();
+            } else if (c == ']') {
+                if (optional == null) {
+                    throw new IllegalArgumentException("] بدون [ في القالب: " + source);
+                }
+                flush(literal, optional);
+                top.add(Segment.optional(optional.toArray(new Segment[0])));
+                optional = null;
+            } else {
+                literal.append(c);
+            }
+            i++;
+        }
+        if (optional != null) {
+            throw new IllegalArgumentException("قالب غير مكتمل (ينقص ]): " + source);
+        }
+        flush(literal, top);
+        return new CompiledTemplate(source, top.toArray(new Segment[0]));
+    }
+
+    private static void flush(StringBuilder literal, List<Segment> target) {
+        if (!literal.isEmpty()) {
+            target.add(Segment.literal(literal.toString()));
+            literal.setLength(0);
+        }
+    }
+
+    /**
+     * العرض في مخزن يُمرر من المستدعي (مخزن الخيط المعاد استخدامه)
+     */
+    public void render(NotificationEvent event, StringBuilder out) {
+        for (Segment segment : segments) {
+            if (segment.text != null) {
+                out.append(segment.text);
+            } else if (segment.variable != null) {
+                event.append(segment.variable, out);
+            } else {
+                renderOptional(segment.optional, event, out);
+            }
+        }
+    }
+
+    private static void renderOptional(Segment[] optional, NotificationEvent event, StringBuilder out) {
+        int mark = out.length();
+        for (Segment segment : optional) {
+            if (segment.text != null) {
+                out.append(segment.text);
+            } else if (!event.append(segment.variable, out)) {
+                out.setLength(mark);
+                return;
+            }
+        }
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    private static final class Segment {
+        final String text;
+        final TemplateVariable variable;
+        final Segment[] optional;
+
+        private Segment(String text, TemplateVariable variable, Segment[] optional) {
+            this.text = text;
+            this.variable = variable;
+            this.optional = optional;
+        }
+
+        static Segment literal(String text) {
+            return new Segment(text, null, null);
+        }
+
+        static Segment variable(TemplateVariable variable) {
+            return new Segment(null, variable, null);
+        }
+
+        static Segment optional(Segment[] segments) {
+            return new Segment(null, null, segments);
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.bank.se3bank.notifications.template;
+
+import com.bank.se3bank.notifications.event.NotificationEvent;
+import com.bank.se3bank.notifications.model.NotificationType;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * محرك قوالب الإشعارات
+ *
+ * - notification-templates.properties يُقرأ ويُحلل مرة واحدة عند الإقلاع: {locale}.{channel}.{TYPE|DEFAULT}.title|body
+ *   مع header/footer اختياريين لكل قناة يُضافان حول كل body قبل التحليل
+ * - النصوص المتطابقة تُحلل إلى نفس CompiledTemplate، فالقنوات المتشابهة تشترك في نتيجة العرض داخل الحدث
+ * - العرض يكتب في مخزن StringBuilder لكل خيط يعاد استخدامه بدل مخزن جديد لكل رسالة
+ */
+@Component
+@Slf4j
+public class NotificationTemplateEngine {
+
+    static final String TEMPLATES_RESOURCE = "notification-templates.properties";
+
+    private static final String DEFAULT_KEY = "DEFAULT";
+    private static final int BUFFER_CAPACITY = 512;
+    // مخزن كبر بسبب رسالة استثنائية لا يبقى محجوزاً للخيط
+    private static final int MAX_POOLED_CAPACITY = 16 * 1024;
+    private static final ThreadLocal<StringBuilder> BUFFER =
+            ThreadLocal.withInitial(() -> new StringBuilder(BUFFER_CAPACITY));
+
+    private final String defaultLocale;
+    private final Map<String, Map<String, ChannelTemplates>> templates = new HashMap<>();
+    private final Map<String, CompiledTemplate> compiled = new HashMap<>();
+
+    @Autowired
+    public NotificationTemplateEngine(
+            @Value("${app.notifications.templates.default-locale:ar}") String defaultLocale) {
+        this(load(TEMPLATES_RESOURCE), defaultLocale);
+    }
+
+    NotificationTemplateEngine(Properties source, String defaultLocale) {
+        this.defaultLocale = defaultLocale;
+        for (String key : source.stringPropertyNames()) {
+            String[] parts = key.split("\\.");
+            if (parts.length < 3) {
+                throw new IllegalStateException("مفتاح قالب غير صالح: " + key);
+            }
+            templates.computeIfAbsent(parts[0], l -> new HashMap<>())
+                    .computeIfAbsent(parts[1], channel -> compileChannel(source, parts[0], channel));
+        }
+        if (!templates.containsKey(defaultLocale)) {
+            throw new IllegalStateException("لا توجد قوالب للغة الافتراضية: " + defaultLocale);
+        }
+        log.info("🧩 تم تحليل قوالب الإشعارات: {} لغة، {} قالب فريد", templates.size(), compiled.size());
+    }
+
+    /**
+     * عنوان ونص الإشعار لقناة معينة؛ كل قالب يُعرض مرة واحدة لكل حدث مهما تكرر عبر القنوات
+     */
+    public Rendered render(NotificationEvent event, String channel) {
+        ChannelTemplates channelTemplates = lookup(event.getLocale(), channel);
+        NotificationType type = event.getType();
+        return new Rendered(
+                renderOnce(event, channelTemplates.titles.get(type)),
+                renderOnce(event, channelTemplates.bodies.get(type)));
+    }
+
+    public int getCompiledCount() {
+        return compiled.size();
+    }
+
+    private ChannelTemplates lookup(String locale, String channel) {
+        Map<String, ChannelTemplates> channels = locale != null ? templates.get(locale) : null;
+        if (channels == null || !channels.containsKey(channel)) {
+            channels = templates.get(defaultLocale);
+        }
+        ChannelTemplates channelTemplates = channels.get(channel);
+        if (channelTemplates == null) {
+            throw new IllegalArgumentException("لا توجد قوالب للقناة: " + channel);
+        }
+        return channelTemplates;
+    }
+
+    private static String renderOnce(NotificationEvent event, CompiledTemplate template) {
+        return event.rendered(template, t -> renderNow(t, event));
+    }
+
+    private static String renderNow(CompiledTemplate template, NotificationEvent event) {
+        StringBuilder buffer = BUFFER.get();
+        buffer.setLength(0);
+        template.render(event, buffer);
+        String text = buffer.toString();
+        if (buffer.capacity() > MAX_POOLED_CAPACITY) {
+            BUFFER.remove();
+        }
+        return text;
+    }
+
+    private ChannelTemplates compileChannel(Properties source, String locale, String channel) {
+        String prefix = locale + "." + channel + ".";
+        String header = source.getProperty(prefix + "header", "");
+        String footer = source.getProperty(prefix + "footer", "");
+        String defaultTitle = required(source, prefix + DEFAULT_KEY + ".title");
+        String defaultBody = required(source, prefix + DEFAULT_KEY + ".body");
+
+        ChannelTemplates channelTemplates = new ChannelTemplates();
+        for (NotificationType type : NotificationType.values()) {
+            String title = source.getProperty(prefix + type.name() + ".title", defaultTitle);
+            String body = source.getProperty(prefix + type.name() + ".body", defaultBody);
+            channelTemplates.titles.put(type, intern(title));
+            channelTemplates.bodies.put(type, intern(header + body + footer));
+        }
+        return channelTemplates;
+    }
+
+    private CompiledTemplate intern(String text) {
+        return compiled.computeIfAbsent(text, CompiledTemplate::parse);
+    }
+
+    private static String required(Properties source, String key) {
+        String value = source.getProperty(key);
+        if (value == null) {
+            throw new IllegalStateException("قالب مفقود: " + key);
+        }
+        return value;
+    }
+
+    private static Properties load(String resource) {
+        InputStream in = NotificationTemplateEngine.class.getClassLoader().getResourceAsStream(resource);
+        if (in == null) {
+            throw new IllegalStateException("ملف القوالب غير موجود: " + resource);
+        }
+        Properties properties = new Properties();
+        try (Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        } catch (IOException e) {
+            throw new IllegalStateException("تعذر قراءة ملف القوالب: " + resource, e);
+        }
+        return properties;
+    }
+
+    private static final class ChannelTemplates {
+        final Map<NotificationType, CompiledTemplate> titles = new EnumMap<>(NotificationType.class);
+        final Map<NotificationType, CompiledTemplate> bodies = new EnumMap<>(NotificationType.class);
+    }
+
+    /**
+     * نتيجة العرض لقناة واحدة
+     */
+    @Getter
+    @RequiredArgsConstructor
+    public static final class Rendered {
+        private final String title;
+        private final String body;
+    }
+}
@@ -0,0 +1,47 @@
+package com.bank.se3bank.notifications.template;
+
+/**
+ * المتغيرات المسموحة في القوالب: {key}
+ * تُحل أسماؤها مرة واحدة عند تحليل القالب، فلا يوجد بحث بالأسماء أثناء العرض
+ */
+public enum TemplateVariable {
+    FIRST_NAME("firstName"),
+    FULL_NAME("fullName"),
+    ACCOUNT_NUMBER("accountNumber"),
+    ACCOUNT_TYPE("accountType"),
+    BALANCE("balance"),
+    AMOUNT("amount"),
+    FROM("from"),
+    TO("to"),
+    TRANSACTION_ID("transactionId"),
+    OLD_BALANCE("oldBalance"),
+    NEW_BALANCE("newBalance"),
+    IP("ip"),
+    DEVICE("device"),
+    TIME("time"),
+    ACTIVITY("activity"),
+    BILL("bill"),
+    REFERENCE("reference"),
+    SERVICE("service"),
+    MESSAGE("message"),
+    COUNT("count");
+
+    private final String key;
+
+    TemplateVariable(String key) {
+        this.key = key;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public static TemplateVariable fromKey(String key) {
+        for (TemplateVariable variable : values()) {
+            if (variable.key.equals(key)) {
+                return variable;
+            }
+        }
+        throw new IllegalArgumentException("متغير قالب غير معروف: {" + key + "}");
+    }
+}
@@ -0,0 +1,30 @@
+package com.bank.se3bank.reconciliation.controller;
+
+import com.bank.se3bank.reconciliation.model.ReconciliationReport;
+import com.bank.se3bank.reconciliation.service.ReconciliationService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/reconciliation")
+@RequiredArgsConstructor
+@Tag(name = "تسوية المدفوعات", description = "مطابقة ملفات التسوية من مزودي الدفع مع المعاملات (Sort-Merge)")
+public class ReconciliationController {
+
+    private final ReconciliationService reconciliationService;
+
+    @PostMapping("/run")
+    @PreAuthorize("hasAnyRole('ADMIN','MANAGER')")
+    @Operation(summary = "تشغيل التسوية",
+               description = "مطابقة ملف تسوية من مجلد الوارد مع المعاملات وإرجاع ملخص الاختلافات")
+    public ResponseEntity<ReconciliationReport> run(@RequestParam String fileName) {
+        return ResponseEntity.ok(reconciliationService.reconcileInboxFile(fileName));
+    }
+}
@@ -0,0 +1,145 @@
+package com.bank.se3bank.reconciliation.engine;
+
+import com.bank.se3bank.reconciliation.model.ReconciliationRecord;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * ترتيب خارجي (External Merge Sort) حسب المرجع
+ *
+ * المرحلة الأولى: تقطيع المدخلات إلى مجموعات بحجم chunkSize وترتيب كل منها في الذاكرة
+ * المرحلة الثانية: دمج k-way بحد أقصى maxFanIn ملف مفتوح في كل تمريرة
+ * الذاكرة محدودة بـ chunkSize سجل بغض النظر عن حجم الملف
+ */
+public class ExternalRecordSorter {
+
+    public static final Comparator<ReconciliationRecord> BY_REFERENCE =
+            Comparator.comparing(ReconciliationRecord::getReference);
+
+    private final int chunkSize;
+    private final int maxFanIn;
+
+    public ExternalRecordSorter(int chunkSize, int maxFanIn) {
+        if (chunkSize < 1 || maxFanIn < 2) {
+            throw new IllegalArgumentException("إعدادات الترتيب الخارجي غير صالحة");
+        }
+        this.chunkSize = chunkSize;
+        this.maxFanIn = maxFanIn;
+    }
+
+    /**
+     * ترتيب المصدر وإرجاع مسار ملف واحد مرتب (بدون ترويسة)
+     * عند أي فشل تُحذف كل الملفات المؤقتة التي أنشأها هذا الاستدعاء
+     */
+    public Path sort(Iterator<ReconciliationRecord> source, Path workDir) throws IOException {
+        Files.createDirectories(workDir);
+        List<Path> created = new ArrayList<>();
+        try {
+            List<Path> runs = new ArrayList<>();
+            List<ReconciliationRecord> buffer = new ArrayList<>(Math.min(chunkSize, 1 << 16));
+
+            while (source.hasNext()) {
+                buffer.add(source.next());
+                if (buffer.size() >= chunkSize) {
+                    runs.add(writeRun(buffer, workDir, created));
+                    buffer.clear();
+                }
+            }
+            if (!buffer.isEmpty() || runs.isEmpty()) {
+                runs.add(writeRun(buffer, workDir, created));
+                buffer.clear();
+            }
+
+            while (runs.size() > 1) {
+                List<Path> merged = new ArrayList<>();
+                for (int i = 0; i < runs.size(); i += maxFanIn) {
+                    merged.add(mergeRuns(runs.subList(i, Math.min(i + maxFanIn, runs.size())), workDir, created));
+                }
+                runs = merged;
+            }
+            return runs.get(0);
+        } catch (IOException | RuntimeException e) {
+            for (Path file : created) {
+                try {
+                    Files.deleteIfExists(file);
+                } catch (IOException suppressed) {
+                    e.addSuppressed(suppressed);
+                }
+            }
+            throw e;
+        }
+    }
+
+    private Path writeRun(List<ReconciliationRecord> buffer, Path workDir, List<Path> created) throws IOException {
+        buffer.sort(BY_REFERENCE);
+        Path run = Files.createTempFile(workDir, "run-", ".dat");
+        created.add(run);
+        try (BufferedWriter writer = Files.newBufferedWriter(run, StandardCharsets.UTF_8)) {
+            for (ReconciliationRecord record : buffer) {
+                writer.write(SettlementFileFormat.format(record));
+                writer.newLine();
+            }
+        }
+        return run;
+    }
+
+    private Path mergeRuns(List<Path> group, Path workDir, List<Path> created) throws IOException {
+        if (group.size() == 1) {
+            return group.get(0);
+        }
+
+        Path output = Files.createTempFile(workDir, "merge-", ".dat");
+        created.add(output);
+        List<RecordFileReader> readers = new ArrayList<>(group.size());
+        PriorityQueue<RunHead> heads = new PriorityQueue<>(group.size(),
+                (a, b) -> BY_REFERENCE.compare(a.record, b.record));
+
+        try (BufferedWriter writer = Files.newBufferedWriter(output, StandardCharsets.UTF_8)) {
+            for (Path run : group) {
+                RecordFileReader reader = new RecordFileReader(run);
+                readers.add(reader);
+                if (reader.hasNext()) {
+                    heads.add(new RunHead(reader.next(), reader));
+                }
+            }
+
+            while (!heads.isEmpty()) {
+                RunHead head = heads.poll();
+                writer.write(SettlementFileFormat.format(head.record));
+                writer.newLine();
+                if (head.reader.hasNext()) {
+                    head.record = head.reader.next();
+                    heads.add(head);
+                }
+            }
+        } finally {
+            for (RecordFileReader reader : readers) {
+                reader.close();
+            }
+        }
+
+        for (Path run : group) {
+            Files.deleteIfExists(run);
+        }
+        return output;
+    }
+
+    private static final class RunHead {
+        private ReconciliationRecord record;
+        private final RecordFileReader reader;
+
+        private RunHead(ReconciliationRecord record, RecordFileReader reader) {
+            this.record = record;
+            this.reader = reader;
+        }
+    }
+}
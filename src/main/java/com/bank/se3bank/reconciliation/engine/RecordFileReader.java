@@ -0,0 +1,57 @@
+package com.bank.se3bank.reconciliation.engine;
+
+import com.bank.se3bank.reconciliation.model.ReconciliationRecord;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * قارئ متدفق لملفات التسوية - سطر واحد في الذاكرة في كل لحظة
+ */
+public class RecordFileReader implements Iterator<ReconciliationRecord>, Closeable {
+
+    private final BufferedReader reader;
+    private String nextLine;
+
+    public RecordFileReader(Path file) throws IOException {
+        this.reader = Files.newBufferedReader(file, StandardCharsets.UTF_8);
+        advance();
+    }
+
+    private void advance() {
+        try {
+            do {
+                nextLine = reader.readLine();
+            } while (nextLine != null && (nextLine.isEmpty() || nextLine.charAt(0) == '#'));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        return nextLine != null;
+    }
+
+    @Override
+    public ReconciliationRecord next() {
+        if (nextLine == null) {
+            throw new NoSuchElementException();
+        }
+        ReconciliationRecord record = SettlementFileFormat.parse(nextLine);
+        advance();
+        return record;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
@@ -0,0 +1,92 @@
+package com.bank.se3bank.reconciliation.engine;
+
+import com.bank.se3bank.reconciliation.model.ReconciliationRecord;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+
+/**
+ * صيغة ملف التسوية اليومي من مزود الدفع
+ *
+ * السطر الأول ترويسة: #SE3SETTLEMENT|v1|stripe|2025-01-31
+ * ثم سطر لكل عملية: reference|amount|currency|status
+ * الأسطر الفارغة والأسطر التي تبدأ بـ # يتم تجاهلها
+ */
+public final class SettlementFileFormat {
+
+    public static final String MAGIC = "#SE3SETTLEMENT";
+    public static final String VERSION = "v1";
+    public static final char SEPARATOR = '|';
+
+    private SettlementFileFormat() {
+    }
+
+    @lombok.Data
+    @lombok.AllArgsConstructor
+    public static class Header {
+        private String provider;
+        private LocalDate businessDate;
+    }
+
+    public static String header(String provider, LocalDate businessDate) {
+        return MAGIC + SEPARATOR + VERSION + SEPARATOR + provider + SEPARATOR + businessDate;
+    }
+
+    /**
+     * قراءة الترويسة فقط دون تحميل الملف
+     */
+    public static Header readHeader(Path file) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            return parseHeader(reader.readLine());
+        }
+    }
+
+    public static Header parseHeader(String line) {
+        if (line == null || !line.startsWith(MAGIC + SEPARATOR)) {
+            throw new IllegalArgumentException("ملف التسوية لا يحتوي على ترويسة صالحة");
+        }
+        String[] parts = line.split("\\|");
+        if (parts.length != 4 || !VERSION.equals(parts[1])) {
+            throw new IllegalArgumentException("إصدار ملف التسوية غير مدعوم: " + line);
+        }
+        return new Header(parts[2], LocalDate.parse(parts[3]));
+    }
+
+    public static String format(ReconciliationRecord record) {
+        String reference = record.getReference();
+        if (reference == null || reference.indexOf(SEPARATOR) >= 0 || reference.indexOf('\n') >= 0) {
+            throw new IllegalArgumentException("مرجع غير صالح للتسوية: " + reference);
+        }
+        return new StringBuilder(64)
+                .append(reference).append(SEPARATOR)
+                .append(record.getAmount() != null ? record.getAmount() : "").append(SEPARATOR)
+                .append(record.getCurrency() != null ? record.getCurrency() : "").append(SEPARATOR)
+                .append(record.getStatus() != null ? record.getStatus() : "")
+                .toString();
+    }
+
+    /**
+     * تحليل سطر بدون regex لأنه يُستدعى لكل سطر في الملف
+     */
+    public static ReconciliationRecord parse(String line) {
+        int first = line.indexOf(SEPARATOR);
+        int second = first < 0 ? -1 : line.indexOf(SEPARATOR, first + 1);
+        int third = second < 0 ? -1 : line.indexOf(SEPARATOR, second + 1);
+        if (third < 0) {
+            throw new IllegalArgumentException("سطر تسوية غير صالح: " + line);
+        }
+        String amount = line.substring(first + 1, second);
+        String currency = line.substring(second + 1, third);
+        String status = line.substring(third + 1);
+        return ReconciliationRecord.builder()
+                .reference(line.substring(0, first))
+                .amount(amount.isEmpty() ? null : Double.valueOf(amount))
+                .currency(currency.isEmpty() ? null : currency)
+                .status(status.isEmpty() ? null : status)
+                .build();
+    }
+}
@@ -0,0 +1,80 @@
+package com.bank.se3bank.reconciliation.engine;
+
+import com.bank.se3bank.reconciliation.model.ReconciliationRecord;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * مولّد ملفات تسوية للاختبارات واختبارات الحمل
+ * المراجع بنفس شكل StripeAdapter/PayPalAdapter: provider_UUID
+ */
+public class SettlementFileGenerator {
+
+    private final Random random;
+
+    public SettlementFileGenerator(long seed) {
+        this.random = new Random(seed);
+    }
+
+    /**
+     * توليد سجلات عشوائية غير مرتبة (كما تصل من المزود)
+     */
+    public List<ReconciliationRecord> randomRecords(String provider, int count) {
+        List<ReconciliationRecord> records = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            UUID uuid = new UUID(random.nextLong(), random.nextLong());
+            double amount = Math.round((1 + random.nextDouble() * 9_999) * 100) / 100.0;
+            records.add(ReconciliationRecord.builder()
+                    .reference(provider + "_" + uuid)
+                    .amount(amount)
+                    .currency("USD")
+                    .status(random.nextInt(50) == 0 ? "FAILED" : "SUCCESS")
+                    .build());
+        }
+        Collections.shuffle(records, random);
+        return records;
+    }
+
+    public void write(Path file, String provider, LocalDate businessDate,
+                      Iterable<ReconciliationRecord> records) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write(SettlementFileFormat.header(provider, businessDate));
+            writer.newLine();
+            for (ReconciliationRecord record : records) {
+                writer.write(SettlementFileFormat.format(record));
+                writer.newLine();
+            }
+        }
+    }
+
+    /**
+     * توليد ملف مباشرة دون الاحتفاظ بالسجلات في الذاكرة (لملفات الحمل الكبيرة)
+     */
+    public void writeRandom(Path file, String provider, LocalDate businessDate, long count) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write(SettlementFileFormat.header(provider, businessDate));
+            writer.newLine();
+            for (long i = 0; i < count; i++) {
+                UUID uuid = new UUID(random.nextLong(), random.nextLong());
+                double amount = Math.round((1 + random.nextDouble() * 9_999) * 100) / 100.0;
+                writer.write(SettlementFileFormat.format(ReconciliationRecord.builder()
+                        .reference(provider + "_" + uuid)
+                        .amount(amount)
+                        .currency("USD")
+                        .status("SUCCESS")
+                        .build()));
+                writer.newLine();
+            }
+        }
+    }
+}
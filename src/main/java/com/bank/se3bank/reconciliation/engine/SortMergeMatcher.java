@@ -0,0 +1,122 @@
+package com.bank.se3bank.reconciliation.engine;
+
+import com.bank.se3bank.reconciliation.model.MismatchType;
+import com.bank.se3bank.reconciliation.model.ReconciliationRecord;
+import lombok.Getter;
+
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * مطابقة Sort-Merge بين مصدرين مرتبين حسب المرجع
+ * تمريرة واحدة O(n + m) وذاكرة ثابتة (سجل واحد من كل طرف)
+ */
+public class SortMergeMatcher {
+
+    private static final double AMOUNT_TOLERANCE = 0.005;
+
+    @FunctionalInterface
+    public interface MismatchSink {
+        void accept(MismatchType type, ReconciliationRecord settlement, ReconciliationRecord ledger);
+    }
+
+    @Getter
+    public static class MatchSummary {
+        private long settlementRows;
+        private long ledgerRows;
+        private long matchedRows;
+        private final Map<MismatchType, Long> mismatches = new EnumMap<>(MismatchType.class);
+
+        public long getMismatchCount(MismatchType type) {
+            return mismatches.getOrDefault(type, 0L);
+        }
+    }
+
+    public MatchSummary match(Iterator<ReconciliationRecord> settlement,
+                              Iterator<ReconciliationRecord> ledger,
+                              MismatchSink sink) {
+        MatchSummary summary = new MatchSummary();
+        ReconciliationRecord s = nextOrNull(settlement, summary, true);
+        ReconciliationRecord l = nextOrNull(ledger, summary, false);
+        String lastSettlement = null;
+        String lastLedger = null;
+
+        while (s != null || l != null) {
+            if (s != null && s.getReference().equals(lastSettlement)) {
+                report(summary, sink, MismatchType.DUPLICATE_IN_SETTLEMENT, s, null);
+                s = nextOrNull(settlement, summary, true);
+                continue;
+            }
+            if (l != null && l.getReference().equals(lastLedger)) {
+                report(summary, sink, MismatchType.DUPLICATE_IN_LEDGER, null, l);
+                l = nextOrNull(ledger, summary, false);
+                continue;
+            }
+            checkOrder(s, lastSettlement);
+            checkOrder(l, lastLedger);
+
+            int cmp = s == null ? 1 : l == null ? -1 : s.getReference().compareTo(l.getReference());
+            if (cmp < 0) {
+                report(summary, sink, MismatchType.MISSING_IN_LEDGER, s, null);
+                lastSettlement = s.getReference();
+                s = nextOrNull(settlement, summary, true);
+            } else if (cmp > 0) {
+                report(summary, sink, MismatchType.MISSING_IN_SETTLEMENT, null, l);
+                lastLedger = l.getReference();
+                l = nextOrNull(ledger, summary, false);
+            } else {
+                compare(summary, sink, s, l);
+                lastSettlement = s.getReference();
+                lastLedger = l.getReference();
+                s = nextOrNull(settlement, summary, true);
+                l = nextOrNull(ledger, summary, false);
+            }
+        }
+        return summary;
+    }
+
+    private void compare(MatchSummary summary, MismatchSink sink,
+                         ReconciliationRecord s, ReconciliationRecord l) {
+        if (!amountsEqual(s.getAmount(), l.getAmount())) {
+            report(summary, sink, MismatchType.AMOUNT_MISMATCH, s, l);
+        } else if (!Objects.equals(s.getStatus(), l.getStatus())) {
+            report(summary, sink, MismatchType.STATUS_MISMATCH, s, l);
+        } else {
+            summary.matchedRows++;
+        }
+    }
+
+    private static boolean amountsEqual(Double a, Double b) {
+        if (a == null || b == null) {
+            return a == b;
+        }
+        return Math.abs(a - b) < AMOUNT_TOLERANCE;
+    }
+
+    private static void checkOrder(ReconciliationRecord record, String previous) {
+        if (record != null && previous != null && record.getReference().compareTo(previous) < 0) {
+            throw new IllegalStateException("مدخلات المطابقة غير مرتبة عند المرجع: " + record.getReference());
+        }
+    }
+
+    private static void report(MatchSummary summary, MismatchSink sink, MismatchType type,
+                               ReconciliationRecord s, ReconciliationRecord l) {
+        summary.mismatches.merge(type, 1L, Long::sum);
+        sink.accept(type, s, l);
+    }
+
+    private static ReconciliationRecord nextOrNull(Iterator<ReconciliationRecord> source,
+                                                   MatchSummary summary, boolean settlementSide) {
+        if (!source.hasNext()) {
+            return null;
+        }
+        if (settlementSide) {
+            summary.settlementRows++;
+        } else {
+            summary.ledgerRows++;
+        }
+        return source.next();
+    }
+}
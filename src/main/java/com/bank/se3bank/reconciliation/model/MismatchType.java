@@ -0,0 +1,20 @@
+package com.bank.se3bank.reconciliation.model;
+
+public enum MismatchType {
+    AMOUNT_MISMATCH("اختلاف في المبلغ"),
+    STATUS_MISMATCH("اختلاف في الحالة"),
+    MISSING_IN_LEDGER("موجودة لدى المزود وغير موجودة لدينا"),
+    MISSING_IN_SETTLEMENT("موجودة لدينا وغير موجودة لدى المزود"),
+    DUPLICATE_IN_SETTLEMENT("مرجع مكرر في ملف المزود"),
+    DUPLICATE_IN_LEDGER("مرجع مكرر في المعاملات");
+
+    private final String arabicName;
+
+    MismatchType(String arabicName) {
+        this.arabicName = arabicName;
+    }
+
+    public String getArabicName() {
+        return arabicName;
+    }
+}
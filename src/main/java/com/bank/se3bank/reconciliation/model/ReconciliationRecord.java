@@ -0,0 +1,21 @@
+package com.bank.se3bank.reconciliation.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * سطر واحد في التسوية (من ملف المزود أو من جدول المعاملات)
+ * المرجع هو مفتاح المطابقة: PaymentResponse.transactionId == Transaction.referenceNumber (يحفظه PaymentService)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReconciliationRecord {
+    private String reference;
+    private Double amount;
+    private String currency;
+    private String status; // SUCCESS, FAILED, PENDING
+}
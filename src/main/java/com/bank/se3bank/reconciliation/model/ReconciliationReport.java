@@ -0,0 +1,30 @@
+package com.bank.se3bank.reconciliation.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * نتيجة تشغيل التسوية لملف مزود واحد
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReconciliationReport {
+    private String provider;
+    private LocalDate businessDate;
+    private Long settlementRows;
+    private Long ledgerRows;
+    private Long matchedRows;
+    private Map<MismatchType, Long> mismatches;
+    private String mismatchReportFile;
+    private Long processingTimeMs;
+    private Double rowsPerSecond;
+    private LocalDateTime timestamp;
+}
@@ -0,0 +1,194 @@
+package com.bank.se3bank.reconciliation.service;
+
+import com.bank.se3bank.reconciliation.engine.ExternalRecordSorter;
+import com.bank.se3bank.reconciliation.engine.RecordFileReader;
+import com.bank.se3bank.reconciliation.engine.SettlementFileFormat;
+import com.bank.se3bank.reconciliation.engine.SortMergeMatcher;
+import com.bank.se3bank.reconciliation.model.MismatchType;
+import com.bank.se3bank.reconciliation.model.ReconciliationRecord;
+import com.bank.se3bank.reconciliation.model.ReconciliationReport;
+import com.bank.se3bank.search.engine.SearchText;
+import com.bank.se3bank.shared.enums.TransactionStatus;
+import com.bank.se3bank.transactions.repository.TransactionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * تسوية ملفات المزودين مع جدول المعاملات
+ *
+ * الطرفان يُرتبان بنفس المقارن في Java (وليس ORDER BY) حتى لا يختلف الترتيب
+ * بسبب collation قاعدة البيانات، ثم تتم المطابقة بتمريرة Sort-Merge واحدة
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ReconciliationService {
+
+    private static final int MERGE_FAN_IN = 64;
+
+    private final TransactionRepository transactionRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${app.reconciliation.inbox-dir:./settlements/inbox}")
+    private String inboxDir;
+
+    @Value("${app.reconciliation.work-dir:./settlements/work}")
+    private String workDir;
+
+    @Value("${app.reconciliation.sort-chunk-size:500000}")
+    private int sortChunkSize;
+
+    /**
+     * تسوية ملف موجود في مجلد الوارد (يمنع الوصول لمسارات خارجه)
+     */
+    public ReconciliationReport reconcileInboxFile(String fileName) {
+        Path inbox = Paths.get(inboxDir).toAbsolutePath().normalize();
+        Path file = inbox.resolve(fileName).normalize();
+        if (!file.startsWith(inbox) || !Files.isRegularFile(file)) {
+            throw new IllegalArgumentException("ملف التسوية غير موجود: " + fileName);
+        }
+        return reconcile(file);
+    }
+
+    /**
+     * ترتيب ملف المزود والمطابقة يتمان خارج أي معاملة؛ فقط قراءة جدول المعاملات داخل معاملة قراءة
+     * ملفات الترتيب المؤقتة تُحذف دائماً، ويبقى تقرير الاختلافات فقط
+     */
+    public ReconciliationReport reconcile(Path settlementFile) {
+        long startTime = System.nanoTime();
+        Path sortedSettlement = null;
+        Path sortedLedger = null;
+        try {
+            SettlementFileFormat.Header header = SettlementFileFormat.readHeader(settlementFile);
+            String provider = header.getProvider().toLowerCase();
+            log.info("🧾 بدء تسوية ملف {} للمزود {} بتاريخ {}",
+                    settlementFile.getFileName(), provider, header.getBusinessDate());
+
+            Path runDir = Files.createDirectories(Paths.get(workDir)
+                    .resolve(provider + "-" + header.getBusinessDate() + "-" + System.currentTimeMillis()));
+            ExternalRecordSorter sorter = new ExternalRecordSorter(sortChunkSize, MERGE_FAN_IN);
+
+            try (RecordFileReader reader = new RecordFileReader(settlementFile)) {
+                sortedSettlement = sorter.sort(reader, runDir);
+            }
+
+            LocalDateTime from = header.getBusinessDate().atStartOfDay();
+            String prefix = SearchText.escapeLike(provider + "_") + "%";
+            TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+            readOnly.setReadOnly(true);
+            sortedLedger = readOnly.execute(status -> {
+                try (Stream<TransactionRepository.ReferenceView> rows = transactionRepository
+                        .streamByReferencePrefix(prefix, from, from.plusDays(1))) {
+                    return sorter.sort(rows.map(this::toRecord).iterator(), runDir);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+
+            Path reportFile = runDir.resolve("mismatches.txt");
+            SortMergeMatcher.MatchSummary summary;
+            try (RecordFileReader settlement = new RecordFileReader(sortedSettlement);
+                 RecordFileReader ledger = new RecordFileReader(sortedLedger);
+                 BufferedWriter report = Files.newBufferedWriter(reportFile, StandardCharsets.UTF_8)) {
+                report.write("type|reference|settlementAmount|ledgerAmount|settlementStatus|ledgerStatus");
+                report.newLine();
+                summary = new SortMergeMatcher().match(settlement, ledger,
+                        (type, s, l) -> writeMismatch(report, type, s, l));
+            }
+
+            long elapsedMs = Math.max(1, (System.nanoTime() - startTime) / 1_000_000);
+            long totalRows = summary.getSettlementRows() + summary.getLedgerRows();
+            Map<MismatchType, Long> mismatches = new EnumMap<>(MismatchType.class);
+            mismatches.putAll(summary.getMismatches());
+
+            log.info("✅ انتهت التسوية: {} مطابقة، {} اختلاف، {} سجل/ثانية",
+                    summary.getMatchedRows(),
+                    mismatches.values().stream().mapToLong(Long::longValue).sum(),
+                    totalRows * 1000 / elapsedMs);
+
+            return ReconciliationReport.builder()
+                    .provider(provider)
+                    .businessDate(header.getBusinessDate())
+                    .settlementRows(summary.getSettlementRows())
+                    .ledgerRows(summary.getLedgerRows())
+                    .matchedRows(summary.getMatchedRows())
+                    .mismatches(mismatches)
+                    .mismatchReportFile(reportFile.toString())
+                    .processingTimeMs(elapsedMs)
+                    .rowsPerSecond(totalRows * 1000.0 / elapsedMs)
+                    .timestamp(LocalDateTime.now())
+                    .build();
+        } catch (IOException | UncheckedIOException e) {
+            log.error("❌ فشل تسوية الملف {}: {}", settlementFile, e.getMessage());
+            throw new IllegalStateException("فشل تسوية الملف: " + e.getMessage(), e);
+        } finally {
+            deleteQuietly(sortedSettlement);
+            deleteQuietly(sortedLedger);
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("⚠️ تعذر حذف ملف التسوية المؤقت {}: {}", file, e.getMessage());
+        }
+    }
+
+    private ReconciliationRecord toRecord(TransactionRepository.ReferenceView row) {
+        return ReconciliationRecord.builder()
+                .reference(row.getReferenceNumber())
+                .amount(row.getAmount())
+                .status(toSettlementStatus(row.getStatus()))
+                .build();
+    }
+
+    /**
+     * توحيد حالة المعاملة مع حالات المزود (SUCCESS / FAILED / PENDING)
+     */
+    static String toSettlementStatus(TransactionStatus status) {
+        if (status == null) {
+            return null;
+        }
+        return switch (status) {
+            case COMPLETED -> "SUCCESS";
+            case FAILED, CANCELLED -> "FAILED";
+            default -> "PENDING";
+        };
+    }
+
+    private static void writeMismatch(BufferedWriter report, MismatchType type,
+                                      ReconciliationRecord s, ReconciliationRecord l) {
+        try {
+            ReconciliationRecord any = s != null ? s : l;
+            report.write(type.name() + "|" + any.getReference()
+                    + "|" + (s != null ? s.getAmount() : "")
+                    + "|" + (l != null ? l.getAmount() : "")
+                    + "|" + (s != null ? s.getStatus() : "")
+                    + "|" + (l != null ? l.getStatus() : ""));
+            report.newLine();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
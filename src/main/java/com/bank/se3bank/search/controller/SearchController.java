@@ -0,0 +1,57 @@
+package com.bank.se3bank.search.controller;
+
+import com.bank.se3bank.search.model.AccountSearchHit;
+import com.bank.se3bank.search.model.NotificationSearchHit;
+import com.bank.se3bank.search.model.SearchResult;
+import com.bank.se3bank.search.model.UserSearchHit;
+import com.bank.se3bank.search.service.SearchService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/search")
+@RequiredArgsConstructor
+@Tag(name = "البحث", description = "بحث مرتب ومقسم لصفحات في الحسابات والمستخدمين والإشعارات")
+public class SearchController {
+
+    private final SearchService searchService;
+
+    @GetMapping("/accounts")
+    @PreAuthorize("hasAnyRole('ADMIN','MANAGER','TELLER')")
+    @Operation(summary = "بحث الحسابات", description = "برقم الحساب (بادئة) أو جزء من اسم صاحبه أو اسم المستخدم")
+    public ResponseEntity<SearchResult<AccountSearchHit>> searchAccounts(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(searchService.searchAccounts(q, page, size));
+    }
+
+    @GetMapping("/users")
+    @PreAuthorize("hasAnyRole('ADMIN','MANAGER','TELLER')")
+    @Operation(summary = "بحث المستخدمين", description = "بجزء من الاسم الكامل أو اسم المستخدم أو البريد")
+    public ResponseEntity<SearchResult<UserSearchHit>> searchUsers(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(searchService.searchUsers(q, page, size));
+    }
+
+    @GetMapping("/notifications/user/{userId}")
+    @PreAuthorize("hasAnyRole('ADMIN','MANAGER','TELLER','CUSTOMER')")
+    @Operation(summary = "بحث الإشعارات", description = "بحث نصي في عنوان ونص إشعارات المستخدم")
+    public ResponseEntity<SearchResult<NotificationSearchHit>> searchNotifications(
+            @PathVariable Long userId,
+            @RequestParam String q,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(searchService.searchNotifications(userId, q, page, size));
+    }
+}
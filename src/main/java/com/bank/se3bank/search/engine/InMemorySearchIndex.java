@@ -0,0 +1,241 @@
+package com.bank.se3bank.search.engine;
+
+import com.bank.se3bank.accounts.repository.AccountRepository;
+import com.bank.se3bank.notifications.repository.NotificationRepository;
+import com.bank.se3bank.search.model.AccountSearchHit;
+import com.bank.se3bank.search.model.NotificationSearchHit;
+import com.bank.se3bank.search.model.SearchResult;
+import com.bank.se3bank.search.model.UserSearchHit;
+import com.bank.se3bank.shared.dto.NotificationResponse;
+import com.bank.se3bank.users.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * محرك بحث في الذاكرة للاختبارات وقاعدة H2 (app.search.engine=memory)
+ * يُعاد بناء الفهرس عند تغير عدد الحسابات أو المستخدمين أو بعد max-age-ms، لذا قد يتأخر تعديل اسم قليلاً
+ * الإشعارات تُقرأ لكل مستخدم على حدة (عددها صغير) وتُطابق كلماتها كبادئات مثل to_tsquery('x:*')
+ */
+@Component
+@ConditionalOnProperty(name = "app.search.engine", havingValue = "memory")
+@RequiredArgsConstructor
+@Slf4j
+public class InMemorySearchIndex implements SearchIndex {
+
+    private final AccountRepository accountRepository;
+    private final UserRepository userRepository;
+    private final NotificationRepository notificationRepository;
+
+    @Value("${app.search.memory.max-age-ms:30000}")
+    private long maxAgeMs = 30000;
+
+    private volatile Snapshot snapshot;
+
+    @Override
+    public SearchResult<AccountSearchHit> searchAccountsByNumberPrefix(String prefix, int page, int size, int maxHits) {
+        String from = prefix.toLowerCase(Locale.ROOT);
+        List<AccountSearchHit> hits = new ArrayList<>();
+        boolean truncated = false;
+        for (AccountSearchHit hit : current().accountsByNumber.subMap(from, true, from + Character.MAX_VALUE, false).values()) {
+            if (hits.size() == maxHits) {
+                truncated = true;
+                break;
+            }
+            hits.add(hit);
+        }
+        return page(prefix, hits, truncated, page, size);
+    }
+
+    @Override
+    public SearchResult<AccountSearchHit> searchAccounts(String query, int page, int size, int maxHits) {
+        TrigramIndex.Hits<AccountSearchHit> hits = current().accounts.search(query, maxHits);
+        List<AccountSearchHit> ranked = hits.getMatches().stream()
+                .map(match -> withScore(match.getDocument(), match.getScore()))
+                .toList();
+        return page(query, ranked, hits.isTruncated(), page, size);
+    }
+
+    @Override
+    public SearchResult<UserSearchHit> searchUsers(String query, int page, int size, int maxHits) {
+        TrigramIndex.Hits<UserSearchHit> hits = current().users.search(query, maxHits);
+        List<UserSearchHit> ranked = hits.getMatches().stream()
+                .map(match -> UserSearchHit.builder()
+                        .userId(match.getDocument().getUserId())
+                        .username(match.getDocument().getUsername())
+                        .fullName(match.getDocument().getFullName())
+                        .email(match.getDocument().getEmail())
+                        .score(match.getScore())
+                        .build())
+                .toList();
+        return page(query, ranked, hits.isTruncated(), page, size);
+    }
+
+    @Override
+    public SearchResult<NotificationSearchHit> searchNotifications(Long userId, String query,
+                                                                   int page, int size, int maxHits) {
+        List<String> tokens = SearchText.tokens(query);
+        List<NotificationSearchHit> hits = new ArrayList<>();
+        boolean truncated = false;
+        if (!tokens.isEmpty()) {
+            // الترتيب الأصلي من الأحدث للأقدم يبقى كمعيار ثانوي لأن الفرز مستقر
+            for (NotificationResponse notification : notificationRepository.findResponsesByUserId(userId)) {
+                double score = tokenScore(tokens, notification.getTitle(), notification.getMessage());
+                if (score <= 0) {
+                    continue;
+                }
+                if (hits.size() == maxHits) {
+                    truncated = true;
+                    break;
+                }
+                hits.add(NotificationSearchHit.builder()
+                        .id(notification.getId())
+                        .title(notification.getTitle())
+                        .message(notification.getMessage())
+                        .type(notification.getType())
+                        .isRead(notification.getIsRead())
+                        .createdAt(notification.getCreatedAt())
+                        .score(score)
+                        .build());
+            }
+            hits.sort((a, b) -> Double.compare(b.getScore(), a.getScore()));
+        }
+        return page(query, hits, truncated, page, size);
+    }
+
+    @Override
+    public String getName() {
+        return "memory";
+    }
+
+    /**
+     * كل كلمة يجب أن تكون بادئة لكلمة في العنوان أو النص؛ المطابقة في العنوان تُحسب مرتين
+     */
+    private static double tokenScore(List<String> tokens, String title, String message) {
+        List<String> titleWords = SearchText.tokens(title == null ? "" : title);
+        List<String> messageWords = SearchText.tokens(message == null ? "" : message);
+        double score = 0;
+        for (String token : tokens) {
+            boolean inTitle = titleWords.stream().anyMatch(word -> word.startsWith(token));
+            boolean inMessage = messageWords.stream().anyMatch(word -> word.startsWith(token));
+            if (!inTitle && !inMessage) {
+                return 0;
+            }
+            score += (inTitle ? 2 : 0) + (inMessage ? 1 : 0);
+        }
+        return score / (3.0 * tokens.size());
+    }
+
+    private Snapshot current() {
+        long accounts = accountRepository.count();
+        long users = userRepository.count();
+        Snapshot current = snapshot;
+        if (current != null && !current.isStale(accounts, users, maxAgeMs)) {
+            return current;
+        }
+        synchronized (this) {
+            current = snapshot;
+            if (current == null || current.isStale(accounts, users, maxAgeMs)) {
+                current = build(accounts, users);
+                snapshot = current;
+            }
+            return current;
+        }
+    }
+
+    private Snapshot build(long accountCount, long userCount) {
+        long started = System.nanoTime();
+        TrigramIndex<AccountSearchHit> accounts = new TrigramIndex<>();
+        NavigableMap<String, AccountSearchHit> accountsByNumber = new TreeMap<>();
+        for (AccountRepository.AccountSearchView view : accountRepository.findAllSearchViews()) {
+            String ownerName = view.getFirstName() + " " + view.getLastName();
+            AccountSearchHit hit = AccountSearchHit.builder()
+                    .accountId(view.getId())
+                    .accountNumber(view.getAccountNumber())
+                    .status(view.getStatus())
+                    .userId(view.getUserId())
+                    .username(view.getUsername())
+                    .ownerName(ownerName)
+                    .build();
+            accounts.add(hit, view.getAccountNumber(), view.getUsername(), ownerName);
+            accountsByNumber.put(view.getAccountNumber().toLowerCase(Locale.ROOT), withScore(hit, 1.0));
+        }
+
+        TrigramIndex<UserSearchHit> users = new TrigramIndex<>();
+        for (UserRepository.UserSearchView view : userRepository.findAllSearchViews()) {
+            String fullName = view.getFirstName() + " " + view.getLastName();
+            users.add(UserSearchHit.builder()
+                            .userId(view.getId())
+                            .username(view.getUsername())
+                            .fullName(fullName)
+                            .email(view.getEmail())
+                            .build(),
+                    view.getUsername(), fullName, view.getEmail());
+        }
+
+        log.debug("🔎 بناء فهرس البحث في الذاكرة: {} حساب، {} مستخدم خلال {} ms",
+                accounts.size(), users.size(), (System.nanoTime() - started) / 1_000_000);
+        return new Snapshot(accounts, accountsByNumber, users, accountCount, userCount, System.currentTimeMillis());
+    }
+
+    private static AccountSearchHit withScore(AccountSearchHit hit, double score) {
+        return AccountSearchHit.builder()
+                .accountId(hit.getAccountId())
+                .accountNumber(hit.getAccountNumber())
+                .status(hit.getStatus())
+                .userId(hit.getUserId())
+                .username(hit.getUsername())
+                .ownerName(hit.getOwnerName())
+                .score(score)
+                .build();
+    }
+
+    private <T> SearchResult<T> page(String query, List<T> ranked, boolean truncated, int page, int size) {
+        int from = (int) Math.min((long) page * size, ranked.size());
+        int to = Math.min(from + size, ranked.size());
+        return SearchResult.<T>builder()
+                .query(query)
+                .page(page)
+                .size(size)
+                .totalHits((long) ranked.size())
+                .truncated(truncated)
+                .engine(getName())
+                .items(from < to ? ranked.subList(from, to) : Collections.emptyList())
+                .build();
+    }
+
+    private static final class Snapshot {
+        private final TrigramIndex<AccountSearchHit> accounts;
+        private final NavigableMap<String, AccountSearchHit> accountsByNumber;
+        private final TrigramIndex<UserSearchHit> users;
+        private final long accountCount;
+        private final long userCount;
+        private final long builtAt;
+
+        private Snapshot(TrigramIndex<AccountSearchHit> accounts,
+                         NavigableMap<String, AccountSearchHit> accountsByNumber,
+                         TrigramIndex<UserSearchHit> users,
+                         long accountCount, long userCount, long builtAt) {
+            this.accounts = accounts;
+            this.accountsByNumber = accountsByNumber;
+            this.users = users;
+            this.accountCount = accountCount;
+            this.userCount = userCount;
+            this.builtAt = builtAt;
+        }
+
+        private boolean isStale(long accounts, long users, long maxAgeMs) {
+            return accounts != accountCount || users != userCount
+                    || System.currentTimeMillis() - builtAt > maxAgeMs;
+        }
+    }
+}
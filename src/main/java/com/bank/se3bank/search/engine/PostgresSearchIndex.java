@@ -0,0 +1,257 @@
+package com.bank.se3bank.search.engine;
+
+import com.bank.se3bank.search.model.AccountSearchHit;
+import com.bank.se3bank.search.model.NotificationSearchHit;
+import com.bank.se3bank.search.model.SearchResult;
+import com.bank.se3bank.search.model.UserSearchHit;
+import com.bank.se3bank.shared.enums.AccountStatus;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+/**
+ * محرك البحث على PostgreSQL (الافتراضي)
+ *
+ * - الأسماء وأرقام الحسابات: ILIKE '%q%' تخدمه فهارس GIN بـ gin_trgm_ops، والترتيب بـ word_similarity
+ * - بادئة رقم الحساب: LIKE 'q%' على فهرس text_pattern_ops ويُقرأ بترتيب الفهرس فيتوقف عند LIMIT
+ * - الإشعارات: بحث نصي كامل to_tsvector('simple') بكلمات بادئة، والترتيب بـ ts_rank
+ * المطابقات تُحد بـ maxHits داخل CTE قبل الترتيب حتى لا يُرتَّب مليون صف لاستعلام شائع
+ */
+@Component
+@ConditionalOnProperty(name = "app.search.engine", havingValue = "postgres", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class PostgresSearchIndex implements SearchIndex {
+
+    /**
+     * الفهارس تُنشأ CONCURRENTLY حتى لا تُقفل الجداول للكتابة، وتعبير الاسم يطابق حرفياً ما في الاستعلامات
+     */
+    private static final List<String> INDEX_DDL = List.of(
+            "CREATE EXTENSION IF NOT EXISTS pg_trgm",
+            "CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_accounts_number_prefix " +
+                    "ON accounts (account_number text_pattern_ops)",
+            "CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_accounts_number_trgm " +
+                    "ON accounts USING gin (account_number gin_trgm_ops)",
+            "CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_users_username_trgm " +
+                    "ON users USING gin (username gin_trgm_ops)",
+            "CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_users_full_name_trgm " +
+                    "ON users USING gin ((first_name || ' ' || last_name) gin_trgm_ops)",
+            "CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_users_email_trgm " +
+                    "ON users USING gin (email gin_trgm_ops)",
+            "CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_notifications_fts " +
+                    "ON notifications USING gin (to_tsvector('simple', title || ' ' || message))");
+
+    private static final String ACCOUNT_COLUMNS =
+            "a.id, a.account_number, a.status, u.id AS user_id, u.username, " +
+            "u.first_name || ' ' || u.last_name AS owner_name";
+
+    private static final String ACCOUNT_PREFIX_SQL =
+            "SELECT " + ACCOUNT_COLUMNS + ", 1.0 AS score " +
+            "FROM accounts a JOIN users u ON u.id = a.user_id " +
+            "WHERE a.account_number LIKE ? " +
+            "ORDER BY a.account_number USING ~<~ LIMIT ? OFFSET ?";
+
+    private static final String ACCOUNT_PREFIX_COUNT_SQL =
+            "SELECT COUNT(*) FROM (SELECT 1 FROM accounts WHERE account_number LIKE ? LIMIT ?) hits";
+
+    private static final String ACCOUNT_MATCHES =
+            "SELECT a.id FROM accounts a WHERE a.account_number ILIKE ? " +
+            "UNION " +
+            "SELECT a.id FROM accounts a JOIN users u ON u.id = a.user_id " +
+            "WHERE u.username ILIKE ? OR (u.first_name || ' ' || u.last_name) ILIKE ? " +
+            "LIMIT ?";
+
+    private static final String ACCOUNT_SEARCH_SQL =
+            "WITH hits AS (" + ACCOUNT_MATCHES + ") " +
+            "SELECT " + ACCOUNT_COLUMNS + ", " +
+            "GREATEST(word_similarity(?, a.account_number), word_similarity(?, u.username), " +
+            "word_similarity(?, u.first_name || ' ' || u.last_name)) AS score " +
+            "FROM hits JOIN accounts a ON a.id = hits.id JOIN users u ON u.id = a.user_id " +
+            "ORDER BY score DESC, a.id LIMIT ? OFFSET ?";
+
+    private static final String ACCOUNT_COUNT_SQL =
+            "SELECT COUNT(*) FROM (" + ACCOUNT_MATCHES + ") hits";
+
+    private static final String USER_MATCHES =
+            "SELECT id FROM users " +
+            "WHERE username ILIKE ? OR (first_name || ' ' || last_name) ILIKE ? OR email ILIKE ? " +
+            "LIMIT ?";
+
+    private static final String USER_SEARCH_SQL =
+            "WITH hits AS (" + USER_MATCHES + ") " +
+            "SELECT u.id, u.username, u.first_name || ' ' || u.last_name AS full_name, u.email, " +
+            "GREATEST(word_similarity(?, u.username), word_similarity(?, u.first_name || ' ' || u.last_name), " +
+            "word_similarity(?, u.email)) AS score " +
+            "FROM hits JOIN users u ON u.id = hits.id " +
+            "ORDER BY score DESC, u.id LIMIT ? OFFSET ?";
+
+    private static final String USER_COUNT_SQL =
+            "SELECT COUNT(*) FROM (" + USER_MATCHES + ") hits";
+
+    private static final String NOTIFICATION_MATCHES =
+            "SELECT id FROM notifications " +
+            "WHERE user_id = ? AND to_tsvector('simple', title || ' ' || message) @@ to_tsquery('simple', ?) " +
+            "LIMIT ?";
+
+    private static final String NOTIFICATION_SEARCH_SQL =
+            "WITH hits AS (" + NOTIFICATION_MATCHES + ") " +
+            "SELECT n.id, n.title, n.message, n.notification_type, n.is_read, n.created_at, " +
+            "ts_rank(to_tsvector('simple', n.title || ' ' || n.message), to_tsquery('simple', ?)) AS score " +
+            "FROM hits JOIN notifications n ON n.id = hits.id " +
+            "ORDER BY score DESC, n.created_at DESC LIMIT ? OFFSET ?";
+
+    private static final String NOTIFICATION_COUNT_SQL =
+            "SELECT COUNT(*) FROM (" + NOTIFICATION_MATCHES + ") hits";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${app.search.postgres.create-indexes:true}")
+    private boolean createIndexes = true;
+
+    /**
+     * بعد اكتمال الإقلاع (الجداول أنشأها Hibernate): تفعيل pg_trgm وإنشاء فهارس البحث إن لم توجد
+     * الفشل (صلاحيات الامتداد مثلاً) لا يوقف التطبيق، والبحث يعمل عندها بمسح تسلسلي
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureIndexes() {
+        if (!createIndexes) {
+            return;
+        }
+        for (String ddl : INDEX_DDL) {
+            try {
+                jdbcTemplate.execute(ddl);
+            } catch (DataAccessException e) {
+                log.warn("⚠️ تعذر إنشاء فهرس البحث ({}): {}", ddl, e.getMostSpecificCause().getMessage());
+            }
+        }
+        log.info("🔎 فهارس البحث (pg_trgm / full-text) جاهزة");
+    }
+
+    @Override
+    public SearchResult<AccountSearchHit> searchAccountsByNumberPrefix(String prefix, int page, int size, int maxHits) {
+        String pattern = SearchText.escapeLike(prefix.toUpperCase(Locale.ROOT)) + "%";
+        long total = count(ACCOUNT_PREFIX_COUNT_SQL, pattern, maxHits + 1);
+        List<AccountSearchHit> items = total == 0 ? List.of() : jdbcTemplate.query(ACCOUNT_PREFIX_SQL,
+                ACCOUNT_HIT, pattern, window(size, page, total, maxHits), (long) page * size);
+        return result(prefix, items, total, maxHits, page, size);
+    }
+
+    @Override
+    public SearchResult<AccountSearchHit> searchAccounts(String query, int page, int size, int maxHits) {
+        String pattern = contains(query);
+        long total = count(ACCOUNT_COUNT_SQL, pattern, pattern, pattern, maxHits + 1);
+        List<AccountSearchHit> items = total == 0 ? List.of() : jdbcTemplate.query(ACCOUNT_SEARCH_SQL,
+                ACCOUNT_HIT, pattern, pattern, pattern, maxHits, query, query, query,
+                window(size, page, total, maxHits), (long) page * size);
+        return result(query, items, total, maxHits, page, size);
+    }
+
+    @Override
+    public SearchResult<UserSearchHit> searchUsers(String query, int page, int size, int maxHits) {
+        String pattern = contains(query);
+        long total = count(USER_COUNT_SQL, pattern, pattern, pattern, maxHits + 1);
+        List<UserSearchHit> items = total == 0 ? List.of() : jdbcTemplate.query(USER_SEARCH_SQL,
+                USER_HIT, pattern, pattern, pattern, maxHits, query, query, query,
+                window(size, page, total, maxHits), (long) page * size);
+        return result(query, items, total, maxHits, page, size);
+    }
+
+    @Override
+    public SearchResult<NotificationSearchHit> searchNotifications(Long userId, String query,
+                                                                   int page, int size, int maxHits) {
+        List<String> tokens = SearchText.tokens(query);
+        if (tokens.isEmpty()) {
+            return result(query, List.of(), 0, maxHits, page, size);
+        }
+        String tsQuery = tokens.stream().map(token -> token + ":*").collect(Collectors.joining(" & "));
+        long total = count(NOTIFICATION_COUNT_SQL, userId, tsQuery, maxHits + 1);
+        List<NotificationSearchHit> items = total == 0 ? List.of() : jdbcTemplate.query(NOTIFICATION_SEARCH_SQL,
+                NOTIFICATION_HIT, userId, tsQuery, maxHits, tsQuery,
+                window(size, page, total, maxHits), (long) page * size);
+        return result(query, items, total, maxHits, page, size);
+    }
+
+    @Override
+    public String getName() {
+        return "postgres";
+    }
+
+    private long count(String sql, Object... args) {
+        Long count = jdbcTemplate.queryForObject(sql, Long.class, args);
+        return count != null ? count : 0;
+    }
+
+    /**
+     * حجم الصفحة بحيث لا تتجاوز نافذة الترتيب maxHits
+     */
+    private static int window(int size, int page, long total, int maxHits) {
+        long remaining = Math.min(total, maxHits) - (long) page * size;
+        return (int) Math.max(0, Math.min(size, remaining));
+    }
+
+    private static String contains(String query) {
+        return "%" + SearchText.escapeLike(query) + "%";
+    }
+
+    private <T> SearchResult<T> result(String query, List<T> items, long total, int maxHits, int page, int size) {
+        return SearchResult.<T>builder()
+                .query(query)
+                .page(page)
+                .size(size)
+                .totalHits(Math.min(total, maxHits))
+                .truncated(total > maxHits)
+                .engine(getName())
+                .items(new ArrayList<>(items))
+                .build();
+    }
+
+    private static final RowMapper<AccountSearchHit> ACCOUNT_HIT = (ResultSet rs, int rowNum) ->
+            AccountSearchHit.builder()
+                    .accountId(rs.getLong("id"))
+                    .accountNumber(rs.getString("account_number"))
+                    .status(AccountStatus.valueOf(rs.getString("status")))
+                    .userId(rs.getLong("user_id"))
+                    .username(rs.getString("username"))
+                    .ownerName(rs.getString("owner_name"))
+                    .score(rs.getDouble("score"))
+                    .build();
+
+    private static final RowMapper<UserSearchHit> USER_HIT = (ResultSet rs, int rowNum) ->
+            UserSearchHit.builder()
+                    .userId(rs.getLong("id"))
+                    .username(rs.getString("username"))
+                    .fullName(rs.getString("full_name"))
+                    .email(rs.getString("email"))
+                    .score(rs.getDouble("score"))
+                    .build();
+
+    private static final RowMapper<NotificationSearchHit> NOTIFICATION_HIT = (ResultSet rs, int rowNum) ->
+            NotificationSearchHit.builder()
+                    .id(rs.getLong("id"))
+                    .title(rs.getString("title"))
+                    .message(rs.getString("message"))
+                    .type(rs.getString("notification_type"))
+                    .isRead(rs.getBoolean("is_read"))
+                    .createdAt(toLocalDateTime(rs.getTimestamp("created_at")))
+                    .score(rs.getDouble("score"))
+                    .build();
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+}
@@ -0,0 +1,33 @@
+package com.bank.se3bank.search.engine;
+
+import com.bank.se3bank.search.model.AccountSearchHit;
+import com.bank.se3bank.search.model.NotificationSearchHit;
+import com.bank.se3bank.search.model.SearchResult;
+import com.bank.se3bank.search.model.UserSearchHit;
+
+/**
+ * محرك البحث (Strategy Pattern): فهارس PostgreSQL في الإنتاج أو فهرس في الذاكرة للاختبارات
+ * يُختار عبر app.search.engine، والاستعلام يصل منظّفاً من SearchService
+ * يُرتَّب أول maxHits تطابق فقط، ثم تُقطع منها الصفحة المطلوبة
+ */
+public interface SearchIndex {
+
+    /**
+     * مسار البادئة لأرقام الحسابات (فهرس مرتب)، النتائج بترتيب رقم الحساب
+     */
+    SearchResult<AccountSearchHit> searchAccountsByNumberPrefix(String prefix, int page, int size, int maxHits);
+
+    /**
+     * البحث في الحسابات بجزء من رقم الحساب أو اسم/اسم مستخدم صاحبه
+     */
+    SearchResult<AccountSearchHit> searchAccounts(String query, int page, int size, int maxHits);
+
+    SearchResult<UserSearchHit> searchUsers(String query, int page, int size, int maxHits);
+
+    /**
+     * بحث نصي في عنوان ونص إشعارات مستخدم واحد (كل كلمة كبادئة)
+     */
+    SearchResult<NotificationSearchHit> searchNotifications(Long userId, String query, int page, int size, int maxHits);
+
+    String getName();
+}
@@ -0,0 +1,58 @@
+package com.bank.se3bank.search.engine;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * أدوات نص مشتركة بين محركي البحث حتى تبقى دلالات المطابقة واحدة
+ */
+public final class SearchText {
+
+    /** حرف ثم رقم على الأقل وبدون مسافات: SAV-1234، LT00000042 */
+    private static final Pattern ACCOUNT_NUMBER_PREFIX = Pattern.compile("\\p{L}[\\p{L}\\d-]*\\d[\\p{L}\\d-]*");
+
+    private SearchText() {
+    }
+
+    /**
+     * قص المسافات الطرفية ودمج المسافات الداخلية
+     */
+    public static String normalize(String query) {
+        return query == null ? "" : query.trim().replaceAll("\\s+", " ");
+    }
+
+    public static boolean looksLikeAccountNumber(String query) {
+        return ACCOUNT_NUMBER_PREFIX.matcher(query).matches();
+    }
+
+    /**
+     * كلمات البحث النصي: حروف وأرقام فقط بأحرف صغيرة (تُطابق كبادئات)
+     */
+    public static List<String> tokens(String query) {
+        List<String> tokens = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        String lower = query.toLowerCase(Locale.ROOT);
+        for (int i = 0; i < lower.length(); i++) {
+            char c = lower.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                current.append(c);
+            } else if (!current.isEmpty()) {
+                tokens.add(current.toString());
+                current.setLength(0);
+            }
+        }
+        if (!current.isEmpty()) {
+            tokens.add(current.toString());
+        }
+        return tokens;
+    }
+
+    /**
+     * تهريب محارف LIKE (% و _ و \) في نص المستخدم
+     */
+    public static String escapeLike(String text) {
+        return text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
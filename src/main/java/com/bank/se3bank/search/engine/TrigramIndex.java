@@ -0,0 +1,165 @@
+package com.bank.se3bank.search.engine;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * فهرس trigram مقلوب في الذاكرة بدلالات ILIKE '%q%' (نفس ما تخدمه فهارس gin_trgm_ops في PostgreSQL)
+ * المرشحون هم تقاطع قوائم ثلاثيات الاستعلام، ثم يُتحقق من الاحتواء ويُحسب الترتيب
+ * يُبنى مرة ثم يُقرأ فقط (غير آمن للإضافة المتزامنة مع البحث)
+ */
+public class TrigramIndex<T> {
+
+    private static final int GRAM = 3;
+
+    private final List<T> documents = new ArrayList<>();
+    private final List<String[]> fields = new ArrayList<>();
+    private final Map<String, Postings> postings = new HashMap<>();
+
+    public void add(T document, String... texts) {
+        int id = documents.size();
+        String[] normalized = new String[texts.length];
+        for (int i = 0; i < texts.length; i++) {
+            normalized[i] = texts[i] == null ? "" : texts[i].toLowerCase(Locale.ROOT);
+            String text = normalized[i];
+            for (int start = 0; start + GRAM <= text.length(); start++) {
+                postings.computeIfAbsent(text.substring(start, start + GRAM), gram -> new Postings()).add(id);
+            }
+        }
+        documents.add(document);
+        fields.add(normalized);
+    }
+
+    public int size() {
+        return documents.size();
+    }
+
+    /**
+     * أفضل maxHits تطابقاً مرتبة تنازلياً حسب الصلة ثم حسب ترتيب الإضافة
+     */
+    public Hits<T> search(String query, int maxHits) {
+        String needle = query.toLowerCase(Locale.ROOT);
+        List<Match<T>> matches = new ArrayList<>();
+        boolean truncated = false;
+
+        if (needle.length() < GRAM) {
+            // لا ثلاثيات في الاستعلام: مسح خطي (مثل PostgreSQL مع استعلام من حرفين)
+            for (int id = 0; id < documents.size() && !truncated; id++) {
+                truncated = collect(id, needle, matches, maxHits);
+            }
+        } else {
+            int[] candidates = candidates(needle);
+            for (int i = 0; i < candidates.length && !truncated; i++) {
+                truncated = collect(candidates[i], needle, matches, maxHits);
+            }
+        }
+
+        matches.sort(Comparator.comparingDouble((Match<T> match) -> match.score).reversed()
+                .thenComparingInt(match -> match.order));
+        return new Hits<>(matches, truncated);
+    }
+
+    private boolean collect(int id, String needle, List<Match<T>> matches, int maxHits) {
+        double score = score(fields.get(id), needle);
+        if (score <= 0) {
+            return false;
+        }
+        if (matches.size() == maxHits) {
+            return true;
+        }
+        matches.add(new Match<>(documents.get(id), score, id));
+        return false;
+    }
+
+    private int[] candidates(String needle) {
+        Set<String> grams = new HashSet<>();
+        for (int start = 0; start + GRAM <= needle.length(); start++) {
+            grams.add(needle.substring(start, start + GRAM));
+        }
+        List<Postings> lists = new ArrayList<>(grams.size());
+        for (String gram : grams) {
+            Postings list = postings.get(gram);
+            if (list == null) {
+                return new int[0];
+            }
+            lists.add(list);
+        }
+        lists.sort(Comparator.comparingInt(list -> list.size));
+
+        // القوائم مرتبة تصاعدياً لأن المعرفات تُضاف بالترتيب
+        int[] result = Arrays.copyOf(lists.get(0).ids, lists.get(0).size);
+        int length = result.length;
+        for (int l = 1; l < lists.size() && length > 0; l++) {
+            Postings other = lists.get(l);
+            int kept = 0;
+            for (int i = 0; i < length; i++) {
+                if (Arrays.binarySearch(other.ids, 0, other.size, result[i]) >= 0) {
+                    result[kept++] = result[i];
+                }
+            }
+            length = kept;
+        }
+        return Arrays.copyOf(result, length);
+    }
+
+    /**
+     * أفضل حقل يحتوي الاستعلام: نسبة الطول، والمطابقة من بداية الحقل لا تقل عن 0.5
+     */
+    private static double score(String[] texts, String needle) {
+        double best = 0;
+        for (String text : texts) {
+            if (text.isEmpty() || !text.contains(needle)) {
+                continue;
+            }
+            double score = (double) needle.length() / text.length();
+            if (text.startsWith(needle)) {
+                score = (1 + score) / 2;
+            }
+            best = Math.max(best, score);
+        }
+        return best;
+    }
+
+    /**
+     * قائمة معرفات متنامية بدون تغليف Integer (مهم عند ملايين المدخلات)
+     */
+    private static final class Postings {
+        private int[] ids = new int[4];
+        private int size;
+
+        void add(int id) {
+            if (size > 0 && ids[size - 1] == id) {
+                return;
+            }
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = id;
+        }
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public static class Match<T> {
+        private final T document;
+        private final double score;
+        private final int order;
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public static class Hits<T> {
+        private final List<Match<T>> matches;
+        private final boolean truncated;
+    }
+}
@@ -0,0 +1,24 @@
+package com.bank.se3bank.search.model;
+
+import com.bank.se3bank.shared.enums.AccountStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * حساب مطابق للبحث مع بيانات صاحبه (بدون تحميل الكيانات)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountSearchHit {
+    private Long accountId;
+    private String accountNumber;
+    private AccountStatus status;
+    private Long userId;
+    private String username;
+    private String ownerName;
+    private Double score;
+}
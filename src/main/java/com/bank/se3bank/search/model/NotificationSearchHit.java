@@ -0,0 +1,25 @@
+package com.bank.se3bank.search.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * إشعار مطابق للبحث النصي ضمن إشعارات مستخدم واحد
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationSearchHit {
+    private Long id;
+    private String title;
+    private String message;
+    private String type;
+    private Boolean isRead;
+    private LocalDateTime createdAt;
+    private Double score;
+}
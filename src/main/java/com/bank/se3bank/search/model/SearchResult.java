@@ -0,0 +1,26 @@
+package com.bank.se3bank.search.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * صفحة من نتائج بحث مرتبة حسب الصلة
+ * totalHits محدود بـ app.search.max-hits، و truncated يعني أن هناك تطابقات أكثر لم تُرتَّب
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchResult<T> {
+    private String query;
+    private Integer page;
+    private Integer size;
+    private Long totalHits;
+    private Boolean truncated;
+    private String engine;
+    private List<T> items;
+}
@@ -0,0 +1,21 @@
+package com.bank.se3bank.search.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * مستخدم مطابق للبحث بالاسم أو اسم المستخدم أو البريد
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserSearchHit {
+    private Long userId;
+    private String username;
+    private String fullName;
+    private String email;
+    private Double score;
+}
@@ -0,0 +1,81 @@
+package com.bank.se3bank.search.service;
+
+import com.bank.se3bank.search.engine.SearchIndex;
+import com.bank.se3bank.search.engine.SearchText;
+import com.bank.se3bank.search.model.AccountSearchHit;
+import com.bank.se3bank.search.model.NotificationSearchHit;
+import com.bank.se3bank.search.model.SearchResult;
+import com.bank.se3bank.search.model.UserSearchHit;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * نقطة الدخول للبحث: تنظيف الاستعلام، حدود الصفحات، واختيار مسار البادئة لأرقام الحسابات
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SearchService {
+
+    private final SearchIndex searchIndex;
+
+    @Value("${app.search.min-query-length:2}")
+    private int minQueryLength = 2;
+
+    @Value("${app.search.max-page-size:100}")
+    private int maxPageSize = 100;
+
+    @Value("${app.search.max-hits:1000}")
+    private int maxHits = 1000;
+
+    /**
+     * البحث في الحسابات: بادئة رقم الحساب أولاً إذا كان الاستعلام يشبه رقم حساب، وإلا بحث trigram
+     */
+    @Transactional(readOnly = true)
+    public SearchResult<AccountSearchHit> searchAccounts(String query, int page, int size) {
+        String text = validate(query, page, size);
+        if (SearchText.looksLikeAccountNumber(text)) {
+            SearchResult<AccountSearchHit> byNumber = searchIndex.searchAccountsByNumberPrefix(text, page, size, maxHits);
+            if (byNumber.getTotalHits() > 0) {
+                return byNumber;
+            }
+        }
+        SearchResult<AccountSearchHit> result = searchIndex.searchAccounts(text, page, size, maxHits);
+        log.debug("🔍 بحث الحسابات عبر {}: {} نتيجة", searchIndex.getName(), result.getTotalHits());
+        return result;
+    }
+
+    @Transactional(readOnly = true)
+    public SearchResult<UserSearchHit> searchUsers(String query, int page, int size) {
+        String text = validate(query, page, size);
+        SearchResult<UserSearchHit> result = searchIndex.searchUsers(text, page, size, maxHits);
+        log.debug("🔍 بحث المستخدمين عبر {}: {} نتيجة", searchIndex.getName(), result.getTotalHits());
+        return result;
+    }
+
+    @Transactional(readOnly = true)
+    public SearchResult<NotificationSearchHit> searchNotifications(Long userId, String query, int page, int size) {
+        if (userId == null) {
+            throw new IllegalArgumentException("معرف المستخدم مطلوب للبحث في الإشعارات");
+        }
+        String text = validate(query, page, size);
+        return searchIndex.searchNotifications(userId, text, page, size, maxHits);
+    }
+
+    private String validate(String query, int page, int size) {
+        String text = SearchText.normalize(query);
+        if (text.length() < minQueryLength) {
+            throw new IllegalArgumentException("نص البحث يجب أن يكون " + minQueryLength + " أحرف على الأقل");
+        }
+        if (page < 0) {
+            throw new IllegalArgumentException("رقم الصفحة لا يمكن أن يكون سالباً");
+        }
+        if (size <= 0 || size > maxPageSize) {
+            throw new IllegalArgumentException("حجم الصفحة يجب أن يكون بين 1 و " + maxPageSize);
+        }
+        return text;
+    }
+}
@@ -0,0 +1,33 @@
+package com.bank.se3bank.shared.audit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * سجل التدقيق: مسار منفصل (logger باسم AUDIT) يُكتب كـ JSON في ملف مستقل عبر appender غير متزامن
+ * الحقول تُمرّر كأزواج key/value بدلاً من بناء Map ونصها، والوقت يأتي من حدث السجل نفسه
+ */
+public final class AuditLog {
+
+    public static final String LOGGER_NAME = "AUDIT";
+
+    private static final Logger AUDIT = LoggerFactory.getLogger(LOGGER_NAME);
+
+    private AuditLog() {
+    }
+
+    public static void transaction(String operation, Long fromUserId, Long toUserId,
+                                   Double amount, String description) {
+        if (!AUDIT.isInfoEnabled()) {
+            return;
+        }
+        AUDIT.atInfo()
+                .addKeyValue("operation", operation)
+                .addKeyValue("fromUserId", fromUserId)
+                .addKeyValue("toUserId", toUserId)
+                .addKeyValue("amount", amount)
+                .addKeyValue("description", description)
+                .addKeyValue("facadeOperation", true)
+                .log("📝 تدقيق عملية {}", operation);
+    }
+}
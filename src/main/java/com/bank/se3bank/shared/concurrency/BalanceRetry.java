@@ -0,0 +1,73 @@
+package com.bank.se3bank.shared.concurrency;
+
+import com.bank.se3bank.shared.metrics.BankMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * إعادة تنفيذ عملية رصيد كاملة بعد تعارض على صفوف الحسابات (مهلة قفل، deadlock، تعارض optimistic)
+ *
+ * كل محاولة يجب أن تبدأ معاملة جديدة، لذلك يُستدعى من خارج أي معاملة (المتحكم أو حلقة الدُفعات)؛
+ * داخل معاملة قائمة يُرمى التعارض فوراً لأن المعاملة نفسها أصبحت rollback-only.
+ * كل إعادة محاولة تُعد في bank.balance.retries، وما يبقى بعد آخر محاولة يصل إلى GlobalExceptionHandler (409).
+ */
+@Component
+@Slf4j
+public class BalanceRetry {
+
+    private final int maxAttempts;
+    private final long backoffMs;
+    private final BankMetrics metrics;
+
+    public BalanceRetry(@Value("${app.accounts.balance.max-attempts:3}") int maxAttempts,
+                        @Value("${app.accounts.balance.retry-backoff-ms:20}") long backoffMs,
+                        BankMetrics metrics) {
+        if (maxAttempts <= 0) {
+            throw new IllegalArgumentException("app.accounts.balance.max-attempts يجب أن يكون أكبر من صفر");
+        }
+        this.maxAttempts = maxAttempts;
+        this.backoffMs = backoffMs;
+        this.metrics = metrics;
+    }
+
+    public <T> T execute(String operation, Supplier<T> action) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return action.get();
+            } catch (ConcurrencyFailureException e) {
+                if (attempt >= maxAttempts || TransactionSynchronizationManager.isActualTransactionActive()) {
+                    throw e;
+                }
+                metrics.recordBalanceRetry(operation);
+                log.debug("🔁 تعارض في {} ({})، إعادة المحاولة {}/{}",
+                        operation, e.getClass().getSimpleName(), attempt + 1, maxAttempts);
+                if (!backoff(attempt)) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    /**
+     * انتظار متزايد مع عشوائية حتى لا تتصادم المحاولات المتنافسة مرة أخرى في نفس اللحظة
+     */
+    private boolean backoff(int attempt) {
+        if (backoffMs <= 0) {
+            return true;
+        }
+        long delay = backoffMs * attempt + ThreadLocalRandom.current().nextLong(backoffMs);
+        try {
+            Thread.sleep(delay);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.bank.se3bank.shared.concurrency;
+
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * منفّذات للأعمال التي تنتظر JDBC أو الشبكة
+ * في وضع الخيوط الافتراضية: خيط افتراضي لكل مهمة (يتطلب Java 21)، وإلا مجمع خيوط منصة ثابت الحجم.
+ * الحد الفعلي للوصول لقاعدة البيانات يبقى على DatabaseConcurrencyLimiter وليس على عدد الخيوط.
+ */
+public final class BlockingExecutors {
+
+    private BlockingExecutors() {
+    }
+
+    public static AsyncTaskExecutor create(String threadNamePrefix, boolean virtualThreads, int platformThreads) {
+        if (virtualThreads) {
+            return new VirtualThreadTaskExecutor(threadNamePrefix);
+        }
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix(threadNamePrefix);
+        executor.setCorePoolSize(platformThreads);
+        executor.setMaxPoolSize(platformThreads);
+        executor.setDaemon(true);
+        executor.initialize();
+        return executor;
+    }
+
+    public static void shutdown(AsyncTaskExecutor executor) {
+        if (executor instanceof ThreadPoolTaskExecutor pool) {
+            pool.shutdown();
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.bank.se3bank.shared.concurrency;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * يحجز تصريح قاعدة البيانات طوال معالجة طلب الـ API
+ * الرفض يمر عبر GlobalExceptionHandler (503) لأن استثناءات preHandle تُعالج كاستثناءات المعالج
+ */
+@Component
+@RequiredArgsConstructor
+public class DatabaseConcurrencyInterceptor implements HandlerInterceptor {
+
+    private final DatabaseConcurrencyLimiter limiter;
+
+    @Override
+    public boolean preHandle(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                             @NonNull Object handler) {
+        limiter.acquire();
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                                @NonNull Object handler, Exception ex) {
+        limiter.release();
+    }
+}
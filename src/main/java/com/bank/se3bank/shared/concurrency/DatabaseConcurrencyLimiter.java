@@ -0,0 +1,121 @@
+package com.bank.se3bank.shared.concurrency;
+
+import com.bank.se3bank.shared.exceptions.DatabaseBusyException;
+import com.bank.se3bank.shared.metrics.BankMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * محدد تزامن أمام مجمع اتصالات Hikari
+ *
+ * مع الخيوط الافتراضية لا يوجد حد طبيعي لعدد الطلبات المتزامنة، فيتكدس الجميع على getConnection
+ * حتى connectionTimeout. المحدد يسمح بعدد من الأعمال يساوي حجم المجمع، ويرفض بسرعة (503) بعد مهلة قصيرة.
+ * التصريح قابل لإعادة الدخول داخل نفس الخيط حتى لا تحجز الاستدعاءات المتداخلة تصريحين.
+ */
+@Component
+@Slf4j
+public class DatabaseConcurrencyLimiter {
+
+    private final boolean enabled;
+    private final int permits;
+    private final long acquireTimeoutMs;
+    private final Semaphore semaphore;
+    private final BankMetrics metrics;
+    private final ThreadLocal<int[]> holds = ThreadLocal.withInitial(() -> new int[1]);
+
+    public DatabaseConcurrencyLimiter(@Value("${app.db.limiter.enabled:false}") boolean enabled,
+                                      @Value("${app.db.limiter.permits:20}") int permits,
+                                      @Value("${app.db.limiter.acquire-timeout-ms:5000}") long acquireTimeoutMs,
+                                      BankMetrics metrics) {
+        if (permits <= 0) {
+            throw new IllegalArgumentException("app.db.limiter.permits يجب أن يكون أكبر من صفر");
+        }
+        this.enabled = enabled;
+        this.permits = permits;
+        this.acquireTimeoutMs = acquireTimeoutMs;
+        this.semaphore = new Semaphore(permits, true);
+        this.metrics = metrics;
+        metrics.bindDatabaseLimiter(semaphore);
+        log.info("🚦 محدد تزامن قاعدة البيانات: {} ({} تصريح، مهلة {} ms)",
+                enabled ? "مفعّل" : "معطّل", permits, acquireTimeoutMs);
+    }
+
+    /**
+     * حجز تصريح أو رمي DatabaseBusyException بعد المهلة
+     */
+    public void acquire() {
+        if (!enabled) {
+            return;
+        }
+        int[] held = holds.get();
+        if (held[0] > 0) {
+            held[0]++;
+            return;
+        }
+
+        long started = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = semaphore.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("تمت مقاطعة انتظار تصريح قاعدة البيانات", e);
+        }
+        metrics.recordDatabaseLimiterWait(System.nanoTime() - started, acquired);
+        if (!acquired) {
+            holds.remove();
+            throw new DatabaseBusyException(acquireTimeoutMs);
+        }
+        held[0] = 1;
+    }
+
+    public void release() {
+        if (!enabled) {
+            return;
+        }
+        int[] held = holds.get();
+        if (held[0] == 0) {
+            holds.remove();
+            return;
+        }
+        if (--held[0] == 0) {
+            holds.remove();
+            semaphore.release();
+        }
+    }
+
+    public <T> T call(Supplier<T> work) {
+        acquire();
+        try {
+            return work.get();
+        } finally {
+            release();
+        }
+    }
+
+    public void run(Runnable work) {
+        acquire();
+        try {
+            work.run();
+        } finally {
+            release();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int getPermits() {
+        return permits;
+    }
+
+    public int getAvailablePermits() {
+        return semaphore.availablePermits();
+    }
+}
@@ -41,4 +41,3 @@ public class AccountResponse {
                 .build();
     }
 }
-
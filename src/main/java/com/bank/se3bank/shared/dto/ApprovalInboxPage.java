@@ -0,0 +1,24 @@
+package com.bank.se3bank.shared.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * صفحة من صندوق اعتماد المدير
+ * nextCursor يُمرر كما هو لطلب الصفحة التالية (null = آخر صفحة)، و pendingTotal يُحسب في الصفحة الأولى فقط
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ApprovalInboxPage {
+    private String sort;
+    private Integer size;
+    private Long pendingTotal;
+    private String nextCursor;
+    private List<TransactionResponse> items;
+}
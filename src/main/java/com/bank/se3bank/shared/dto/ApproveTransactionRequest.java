@@ -1,11 +1,10 @@
 package com.bank.se3bank.shared.dto;
 
-import jakarta.validation.constraints.NotNull;
 import lombok.Data;
 
 @Data
 public class ApproveTransactionRequest {
-    @NotNull
+    // لم يعد مستخدماً: المدير يؤخذ من التوكن؛ يبقى الحقل حتى لا تنكسر الطلبات القديمة
     private Long managerId;
     
     private String reason;
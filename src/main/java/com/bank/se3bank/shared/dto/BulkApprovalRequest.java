@@ -0,0 +1,15 @@
+package com.bank.se3bank.shared.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BulkApprovalRequest {
+    @NotEmpty
+    private List<Long> transactionIds;
+
+    private String reason;
+    private String comments;
+}
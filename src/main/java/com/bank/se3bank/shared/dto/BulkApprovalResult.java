@@ -0,0 +1,34 @@
+package com.bank.se3bank.shared.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * نتيجة قرار جماعي: نتيجة لكل معرف بنفس ترتيب الطلب (APPROVED / REJECTED / NOT_PENDING / NOT_FOUND)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkApprovalResult {
+    private String decision;
+    private Long managerId;
+    private Integer requested;
+    private Integer applied;
+    private Integer skipped;
+    private Long processingTimeMs;
+    private List<Item> items;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Item {
+        private Long transactionId;
+        private String outcome;
+        private String currentStatus; // الحالة بعد القرار (أو الحالة التي منعت القرار)
+    }
+}
@@ -0,0 +1,26 @@
+package com.bank.se3bank.shared.dto;
+
+import com.bank.se3bank.shared.enums.TransactionStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * نتيجة عملية انتهت مهلة تأكيدها في محرك الأرصدة: PENDING ما دامت لم تُحسم، ثم COMPLETED أو FAILED
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CommandOutcomeResponse {
+    private String commandId;
+    private TransactionStatus status;
+    private String transactionId;
+    private Double balance;
+    private Double counterpartyBalance;
+    private String message;
+    private LocalDateTime timestamp;
+}
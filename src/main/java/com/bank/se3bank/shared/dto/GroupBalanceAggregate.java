@@ -0,0 +1,46 @@
+package com.bank.se3bank.shared.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * مجاميع أرصدة المجموعة محسوبة باستعلام تجميعي واحد (بدون تحميل الحسابات الفرعية)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class GroupBalanceAggregate {
+    private Long groupId;
+    private Long accountCount;
+    private Long activeAccounts;
+    private Long frozenAccounts;
+    private Double totalBalance;
+    private Double activeBalance;
+    private Double minBalance;
+    private Double maxBalance;
+
+    /**
+     * يُستخدم من JPQL constructor expression - SUM/MIN/MAX ترجع null لمجموعة فارغة
+     */
+    public GroupBalanceAggregate(Long accountCount, Long activeAccounts, Long frozenAccounts,
+                                 Double totalBalance, Double activeBalance,
+                                 Double minBalance, Double maxBalance) {
+        this.accountCount = accountCount != null ? accountCount : 0L;
+        this.activeAccounts = activeAccounts != null ? activeAccounts : 0L;
+        this.frozenAccounts = frozenAccounts != null ? frozenAccounts : 0L;
+        this.totalBalance = totalBalance != null ? totalBalance : 0.0;
+        this.activeBalance = activeBalance != null ? activeBalance : 0.0;
+        this.minBalance = minBalance != null ? minBalance : 0.0;
+        this.maxBalance = maxBalance != null ? maxBalance : 0.0;
+    }
+
+    /**
+     * متوسط الرصيد بنفس تعريف AccountGroup.getAverageBalance (الرصيد النشط / عدد الحسابات)
+     */
+    public Double getAverageBalance() {
+        return accountCount == null || accountCount == 0 ? 0.0 : activeBalance / accountCount;
+    }
+}
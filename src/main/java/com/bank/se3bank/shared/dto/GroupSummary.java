@@ -0,0 +1,32 @@
+package com.bank.se3bank.shared.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * ملخص مجموعة للقوائم - بدون childAccounts وبدون المالك
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class GroupSummary {
+    private Long id;
+    private String accountNumber;
+    private String groupName;
+    private String description;
+    private String groupType;
+    private Integer maxAccounts;
+    private Long childCount;
+    private Double totalBalance;
+    
+    /**
+     * للاستعلام المجمّع: الرصيد يُحسب بالاستعلام التكراري ثم يُضبط
+     */
+    public GroupSummary(Long id, String accountNumber, String groupName, String description,
+                        String groupType, Integer maxAccounts, Long childCount) {
+        this(id, accountNumber, groupName, description, groupType, maxAccounts, childCount, 0.0);
+    }
+}
@@ -0,0 +1,37 @@
+package com.bank.se3bank.shared.dto;
+
+import com.bank.se3bank.notifications.model.Notification;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * إشعار للعرض - بدون علاقة user الكسولة (ترتيب الحقول يطابق constructor expression في المستودع)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationResponse {
+    private Long id;
+    private String title;
+    private String message;
+    private String type;
+    private String channel;
+    private Boolean isRead;
+    private Boolean isSent;
+    private LocalDateTime sentAt;
+    private LocalDateTime readAt;
+    private LocalDateTime createdAt;
+    private String transactionId;
+
+    public static NotificationResponse from(Notification notification) {
+        return new NotificationResponse(notification.getId(), notification.getTitle(), notification.getMessage(),
+                notification.getType(), notification.getChannel(), notification.getIsRead(), notification.getIsSent(),
+                notification.getSentAt(), notification.getReadAt(), notification.getCreatedAt(),
+                notification.getTransactionId());
+    }
+}
@@ -23,6 +23,7 @@ public class TransactionResponse {
     private LocalDateTime createdAt;
     private LocalDateTime processedAt;
     private String failureReason;
+    private Integer riskScore;
 
     public static TransactionResponse from(Transaction transaction) {
         return TransactionResponse.builder()
@@ -40,6 +41,7 @@ public class TransactionResponse {
                 .createdAt(transaction.getCreatedAt())
                 .processedAt(transaction.getProcessedAt())
                 .failureReason(transaction.getFailureReason())
+                .riskScore(transaction.getRiskScore())
                 .build();
     }
 }
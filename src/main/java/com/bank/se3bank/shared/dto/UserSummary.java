@@ -1,8 +1,5 @@
 package com.bank.se3bank.shared.dto;
 
-import com.bank.se3bank.accounts.model.Account;
-import com.bank.se3bank.accounts.model.AccountGroup;
-import com.bank.se3bank.transactions.model.Transaction;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -23,9 +20,9 @@ public class UserSummary {
     private Integer totalAccounts;
     private Double totalBalance;
     
-    private List<Account> accounts;
-    private List<AccountGroup> groups;
-    private List<Transaction> recentTransactions;
+    private List<AccountResponse> accounts;
+    private List<GroupSummary> groups;
+    private List<TransactionResponse> recentTransactions;
     
     private LocalDateTime lastLogin;
     private LocalDateTime memberSince;
@@ -16,4 +16,19 @@ public enum AccountType {
     public String getArabicName() {
         return arabicName;
     }
+
+    /**
+     * القيمة المطابقة للاسم، أو null لقيم ليست نوع منتج (مثل قيم التمييز للمجموعات والديكورات)
+     */
+    public static AccountType fromName(String name) {
+        if (name == null) {
+            return null;
+        }
+        for (AccountType type : values()) {
+            if (type.name().equals(name)) {
+                return type;
+            }
+        }
+        return null;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,20 @@
+package com.bank.se3bank.shared.enums;
+
+/**
+ * ترتيب صندوق اعتماد المدير؛ كل ترتيب له فهرس (status, المفتاح, id) ومؤشر keyset خاص به
+ */
+public enum ApprovalInboxSort {
+    AMOUNT("الأكبر مبلغاً أولاً"),
+    AGE("الأقدم أولاً"),
+    RISK("الأعلى خطورة أولاً");
+
+    private final String arabicName;
+
+    ApprovalInboxSort(String arabicName) {
+        this.arabicName = arabicName;
+    }
+
+    public String getArabicName() {
+        return arabicName;
+    }
+}
@@ -0,0 +1,24 @@
+package com.bank.se3bank.shared.enums;
+
+/**
+ * الحساب المحاسبي لقيد في دفتر الأستاذ: حساب عميل أو حساب داخلي مقابل
+ */
+public enum LedgerCode {
+    CUSTOMER("حساب عميل"),
+    CASH("الصندوق"),
+    INTEREST_EXPENSE("مصروف الفوائد"),
+    FEE_INCOME("إيراد الرسوم"),
+    OPENING("أرصدة افتتاحية"),
+    PAYMENT_CLEARING("مدفوعات المزودين"),
+    ADJUSTMENT("تسويات");
+
+    private final String arabicName;
+
+    LedgerCode(String arabicName) {
+        this.arabicName = arabicName;
+    }
+
+    public String getArabicName() {
+        return arabicName;
+    }
+}
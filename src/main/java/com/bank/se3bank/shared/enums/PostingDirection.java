@@ -0,0 +1,30 @@
+package com.bank.se3bank.shared.enums;
+
+public enum PostingDirection {
+    DEBIT("مدين"),
+    CREDIT("دائن");
+
+    private final String arabicName;
+
+    PostingDirection(String arabicName) {
+        this.arabicName = arabicName;
+    }
+
+    public String getArabicName() {
+        return arabicName;
+    }
+
+    /**
+     * الاتجاه المعاكس (الطرف الآخر من القيد)
+     */
+    public PostingDirection opposite() {
+        return this == DEBIT ? CREDIT : DEBIT;
+    }
+
+    /**
+     * أثر القيد على رصيد حساب العميل: الدائن يزيده والمدين ينقصه
+     */
+    public double signed(double amount) {
+        return this == CREDIT ? amount : -amount;
+    }
+}
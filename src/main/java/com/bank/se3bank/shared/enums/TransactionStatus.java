@@ -5,7 +5,9 @@ public enum TransactionStatus {
     COMPLETED("مكتمل"),
     FAILED("فاشل"),
     CANCELLED("ملغي"),
-    PENDING_APPROVAL("بانتظار الاعتماد");
+    PENDING_APPROVAL("بانتظار الاعتماد"),
+    // دفع عبر مزود خارجي خُصم مبلغه وينتظر نتيجة المزود؛ لا يستلمه عامل المعاملات المعلقة
+    AWAITING_SETTLEMENT("بانتظار تسوية المزود");
 
     private final String arabicName;
 
@@ -30,7 +32,7 @@ public enum TransactionStatus {
      * التحقق إذا كانت الحالة معلقة
      */
     public boolean isPending() {
-        return this == PENDING || this == PENDING_APPROVAL;
+        return this == PENDING || this == PENDING_APPROVAL || this == AWAITING_SETTLEMENT;
     }
     
     /**
@@ -53,7 +55,7 @@ public enum TransactionStatus {
     public TransactionStatus[] getAllowedTransitions() {
         return switch (this) {
             case PENDING -> new TransactionStatus[]{COMPLETED, FAILED, CANCELLED, PENDING_APPROVAL};
-            case PENDING_APPROVAL -> new TransactionStatus[]{COMPLETED, FAILED, CANCELLED};
+            case PENDING_APPROVAL, AWAITING_SETTLEMENT -> new TransactionStatus[]{COMPLETED, FAILED, CANCELLED};
             case COMPLETED, FAILED, CANCELLED -> new TransactionStatus[]{};
         };
     }
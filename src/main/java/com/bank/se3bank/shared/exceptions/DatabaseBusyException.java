@@ -0,0 +1,7 @@
+package com.bank.se3bank.shared.exceptions;
+
+public class DatabaseBusyException extends RuntimeException {
+    public DatabaseBusyException(long waitedMs) {
+        super("قاعدة البيانات مشغولة حالياً، يرجى إعادة المحاولة (انتظار " + waitedMs + " ms)");
+    }
+}
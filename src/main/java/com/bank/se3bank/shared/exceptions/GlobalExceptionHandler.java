@@ -1,5 +1,8 @@
 package com.bank.se3bank.shared.exceptions;
 
+import com.bank.se3bank.shared.metrics.BankMetrics;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.ConcurrencyFailureException;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -14,8 +17,11 @@ import java.util.HashMap;
 import java.util.Map;
 
 @RestControllerAdvice
+@RequiredArgsConstructor
 public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
 
+    private final BankMetrics metrics;
+
     @Override
     protected ResponseEntity<Object> handleMethodArgumentNotValid(@org.springframework.lang.NonNull MethodArgumentNotValidException ex,
                                                                   @org.springframework.lang.NonNull HttpHeaders headers,
@@ -50,5 +56,43 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
         body.put("error", ex.getMessage());
         return ResponseEntity.status(HttpStatus.FORBIDDEN).body(body);
     }
-}
 
+    /**
+     * تعارض قفل / deadlock / optimistic على صفوف الحسابات عند commit
+     */
+    @ExceptionHandler(ConcurrencyFailureException.class)
+    public ResponseEntity<Map<String, Object>> handleConcurrencyFailure(ConcurrencyFailureException ex) {
+        metrics.recordBalanceContention(ex.getClass().getSimpleName());
+        Map<String, Object> body = new HashMap<>();
+        body.put("status", HttpStatus.CONFLICT.value());
+        body.put("error", "تعارض في تحديث البيانات، يرجى إعادة المحاولة");
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(body);
+    }
+
+    /**
+     * محرك الأرصدة لم يؤكد الأمر خلال المهلة: النتيجة غير معروفة بعد، والعميل يستعلم عنها بدلاً من إعادة الإرسال
+     */
+    @ExceptionHandler(OutcomeUnknownException.class)
+    public ResponseEntity<Map<String, Object>> handleOutcomeUnknown(OutcomeUnknownException ex) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("status", HttpStatus.ACCEPTED.value());
+        body.put("error", ex.getMessage());
+        body.put("commandId", ex.getCommandId());
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .header(HttpHeaders.LOCATION, "/api/banking/commands/" + ex.getCommandId())
+                .body(body);
+    }
+
+    /**
+     * محدد التزامن أمام مجمع الاتصالات لم يمنح تصريحاً خلال المهلة
+     */
+    @ExceptionHandler(DatabaseBusyException.class)
+    public ResponseEntity<Map<String, Object>> handleDatabaseBusy(DatabaseBusyException ex) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("status", HttpStatus.SERVICE_UNAVAILABLE.value());
+        body.put("error", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(body);
+    }
+}
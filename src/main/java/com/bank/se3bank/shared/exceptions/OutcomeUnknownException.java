@@ -0,0 +1,19 @@
+package com.bank.se3bank.shared.exceptions;
+
+/**
+ * أمر قُبل في محرك الأرصدة ولم يُؤكد خلال المهلة: قد يُطبق بعدها، فهو ليس فشلاً ولا يُعاد إرساله؛
+ * نتيجته تُستعلم بمعرف الأمر (GET /api/banking/commands/{commandId})
+ */
+public class OutcomeUnknownException extends RuntimeException {
+
+    private final String commandId;
+
+    public OutcomeUnknownException(String commandId) {
+        super("لم تُؤكد العملية خلال المهلة ونتيجتها غير معروفة بعد؛ لا تُعد إرسالها واستعلم عنها بالمعرف " + commandId);
+        this.commandId = commandId;
+    }
+
+    public String getCommandId() {
+        return commandId;
+    }
+}
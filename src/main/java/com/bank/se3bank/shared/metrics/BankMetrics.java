@@ -0,0 +1,377 @@
+package com.bank.se3bank.shared.metrics;
+
+import com.bank.se3bank.transactions.model.Transaction;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntSupplier;
+import java.util.function.LongSupplier;
+
+/**
+ * نقطة واحدة لتسجيل مقاييس المسارات الساخنة (Micrometer)
+ * الأسماء بصيغة bank.* وتظهر في Prometheus كـ bank_*؛ الاستدعاءات لا ترمي استثناءات ولا تغيّر السلوك
+ */
+@Component
+public class BankMetrics {
+
+    public static final String APPROVAL_HANDLER = "bank.approval.handler";
+    public static final String TRANSACTION_PROCESS = "bank.transaction.process";
+    public static final String TRANSACTION_OUTCOME = "bank.transaction.outcome";
+    public static final String APPROVAL_DECISION = "bank.approval.decision";
+    public static final String APPROVAL_DECIDED = "bank.approval.decided";
+    public static final String BALANCE_UPDATE = "bank.balance.update";
+    public static final String BALANCE_CONTENTION = "bank.balance.contention";
+    public static final String BALANCE_RETRIES = "bank.balance.retries";
+    public static final String INTEREST_RUN = "bank.interest.run";
+    public static final String INTEREST_ACCOUNTS = "bank.interest.accounts";
+    public static final String INTEREST_THROUGHPUT = "bank.interest.run.throughput";
+    public static final String NOTIFICATION_DISPATCH = "bank.notification.dispatch";
+    public static final String NOTIFICATION_FAILURES = "bank.notification.failures";
+    public static final String NOTIFICATION_SUPPRESSED = "bank.notification.suppressed";
+    public static final String NOTIFICATION_COALESCED = "bank.notification.coalesced";
+    public static final String NOTIFICATION_DIGESTS = "bank.notification.digests";
+    public static final String NOTIFICATION_PREFERENCES_CACHED = "bank.notification.preferences.cached";
+    public static final String NOTIFICATION_PUSH_CONNECTIONS = "bank.notification.push.connections";
+    public static final String NOTIFICATION_PUSH_COUNTERS = "bank.notification.push.counters";
+    public static final String NOTIFICATION_PUSH_EVENTS = "bank.notification.push.events";
+    public static final String NOTIFICATION_RETENTION_PURGED = "bank.notification.retention.purged";
+    public static final String NOTIFICATION_RETENTION_RUN = "bank.notification.retention.run";
+    public static final String NOTIFICATION_RETENTION_THROUGHPUT = "bank.notification.retention.throughput";
+    public static final String DB_LIMITER_WAIT = "bank.db.limiter.wait";
+    public static final String DB_LIMITER_AVAILABLE = "bank.db.limiter.available";
+    public static final String DB_LIMITER_WAITING = "bank.db.limiter.waiting";
+    public static final String DB_LIMITER_REJECTED = "bank.db.limiter.rejected";
+    public static final String PENDING_LAG = "bank.transactions.pending.lag";
+    public static final String PENDING_BACKLOG = "bank.transactions.pending.backlog";
+    public static final String PENDING_CLAIMED = "bank.transactions.pending.claimed";
+    public static final String PENDING_PROCESSED = "bank.transactions.pending.processed";
+    public static final String PENDING_BATCH = "bank.transactions.pending.batch";
+    public static final String PENDING_THROUGHPUT = "bank.transactions.pending.throughput";
+    public static final String LEDGER_JOURNALS = "bank.ledger.journals";
+    public static final String LEDGER_ENTRIES = "bank.ledger.entries";
+    public static final String LEDGER_SNAPSHOT = "bank.ledger.snapshot";
+    public static final String LEDGER_INCONSISTENCIES = "bank.ledger.inconsistencies";
+    public static final String HOT_ACCOUNT_SWEEPS = "bank.accounts.hot.sweeps";
+    public static final String HOT_ACCOUNT_FOLD = "bank.accounts.hot.fold";
+    public static final String ENGINE_COMMIT = "bank.accounts.engine.commit";
+    public static final String ENGINE_COMMANDS = "bank.accounts.engine.commands";
+    public static final String ENGINE_PROJECTED = "bank.accounts.engine.projected";
+    public static final String ENGINE_PROJECTION_LAG = "bank.accounts.engine.projection.lag";
+    public static final String ENGINE_LOADED_ACCOUNTS = "bank.accounts.engine.loaded";
+
+    private final MeterRegistry registry;
+    private final AtomicLong lastInterestThroughput = new AtomicLong();
+    private final AtomicLong pendingLagSeconds = new AtomicLong();
+    private final AtomicLong pendingBacklog = new AtomicLong();
+    private final AtomicLong lastPendingThroughput = new AtomicLong();
+    private final AtomicLong ledgerUnbalanced = new AtomicLong();
+    private final AtomicLong ledgerSnapshotMismatches = new AtomicLong();
+    private final AtomicLong ledgerBalanceDrift = new AtomicLong();
+    private final AtomicLong lastRetentionThroughput = new AtomicLong();
+
+    public BankMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        registry.gauge(INTEREST_THROUGHPUT, lastInterestThroughput);
+        registry.gauge(PENDING_LAG, pendingLagSeconds);
+        registry.gauge(PENDING_BACKLOG, pendingBacklog);
+        registry.gauge(PENDING_THROUGHPUT, lastPendingThroughput);
+        registry.gauge(LEDGER_INCONSISTENCIES, Tags.of("check", "unbalanced"), ledgerUnbalanced);
+        registry.gauge(LEDGER_INCONSISTENCIES, Tags.of("check", "snapshot"), ledgerSnapshotMismatches);
+        registry.gauge(LEDGER_INCONSISTENCIES, Tags.of("check", "balance"), ledgerBalanceDrift);
+        registry.gauge(NOTIFICATION_RETENTION_THROUGHPUT, lastRetentionThroughput);
+    }
+
+    // ========== سلسلة الاعتماد والمعاملات ==========
+
+    /**
+     * الزمن الذاتي للمعالج (بدون زمن المعالجات التالية في السلسلة)
+     */
+    public void recordHandler(String handlerName, long selfNanos, String outcome) {
+        Timer.builder(APPROVAL_HANDLER)
+                .description("الزمن الذاتي لكل معالج في سلسلة الاعتماد")
+                .tag("handler", handlerName)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .publishPercentiles(0.5, 0.99)
+                .register(registry)
+                .record(selfNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordTransactionProcessed(Transaction transaction, long nanos) {
+        String type = transaction.getTransactionType() != null ? transaction.getTransactionType().name() : "UNKNOWN";
+        Timer.builder(TRANSACTION_PROCESS)
+                .description("زمن معالجة المعاملة كاملة (السلسلة + الحفظ)")
+                .tag("type", type)
+                .publishPercentileHistogram()
+                .publishPercentiles(0.5, 0.99)
+                .register(registry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+        recordTransactionOutcome(transaction);
+    }
+
+    public void recordTransactionOutcome(Transaction transaction) {
+        String status = transaction.getStatus() != null ? transaction.getStatus().name() : "UNKNOWN";
+        String type = transaction.getTransactionType() != null ? transaction.getTransactionType().name() : "UNKNOWN";
+        Counter.builder(TRANSACTION_OUTCOME)
+                .description("عدد المعاملات حسب الحالة النهائية")
+                .tag("status", status)
+                .tag("type", type)
+                .register(registry)
+                .increment();
+    }
+
+    /**
+     * قرار جماعي من صندوق الاعتماد: الزمن الكلي وعدد المعاملات حسب النتيجة
+     */
+    public void recordApprovalDecision(String decision, int applied, int skipped, long nanos) {
+        Timer.builder(APPROVAL_DECISION)
+                .description("زمن القرار الجماعي في صندوق اعتماد المدير")
+                .tag("decision", decision)
+                .register(registry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+        registry.counter(APPROVAL_DECIDED, "decision", decision, "outcome", "applied").increment(applied);
+        registry.counter(APPROVAL_DECIDED, "decision", decision, "outcome", "skipped").increment(skipped);
+    }
+
+    // ========== تحديث الأرصدة ==========
+
+    public void recordBalanceUpdate(String operation, long nanos) {
+        Timer.builder(BALANCE_UPDATE)
+                .description("زمن تحديث رصيد حساب")
+                .tag("operation", operation)
+                .publishPercentileHistogram()
+                .publishPercentiles(0.5, 0.99)
+                .register(registry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * تعارض على صف الحساب (قفل، deadlock، تعارض optimistic)
+     */
+    public void recordBalanceContention(String cause) {
+        Counter.builder(BALANCE_CONTENTION)
+                .description("تعارضات تحديث الأرصدة حسب السبب")
+                .tag("cause", cause)
+                .register(registry)
+                .increment();
+    }
+
+    public void recordBalanceRetry(String operation) {
+        Counter.builder(BALANCE_RETRIES)
+                .description("إعادة محاولات تحديث الرصيد بعد تعارض")
+                .tag("operation", operation)
+                .register(registry)
+                .increment();
+    }
+
+    // ========== الفائدة ==========
+
+    public void recordInterestRun(long nanos, int applied, int skipped, int failed) {
+        registry.timer(INTEREST_RUN).record(nanos, TimeUnit.NANOSECONDS);
+        registry.counter(INTEREST_ACCOUNTS, "result", "applied").increment(applied);
+        registry.counter(INTEREST_ACCOUNTS, "result", "skipped").increment(skipped);
+        registry.counter(INTEREST_ACCOUNTS, "result", "failed").increment(failed);
+
+        long processed = (long) applied + skipped + failed;
+        long millis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(nanos));
+        lastInterestThroughput.set(processed * 1000 / millis);
+    }
+
+    // ========== عامل المعاملات المعلقة ==========
+
+    /**
+     * التأخر = عمر أقدم معاملة PENDING بالثواني (صفر عند فراغ الطابور)
+     */
+    public void recordPendingBacklog(long backlog, long lagSeconds) {
+        pendingBacklog.set(backlog);
+        pendingLagSeconds.set(lagSeconds);
+    }
+
+    public void recordPendingBatch(int claimed, long nanos) {
+        registry.counter(PENDING_CLAIMED).increment(claimed);
+        Timer.builder(PENDING_BATCH)
+                .description("زمن معالجة دفعة معاملات معلقة بكل أقسامها")
+                .publishPercentileHistogram()
+                .publishPercentiles(0.5, 0.99)
+                .register(registry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+        long millis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(nanos));
+        lastPendingThroughput.set(claimed * 1000L / millis);
+    }
+
+    public void recordPendingProcessed(String outcome) {
+        registry.counter(PENDING_PROCESSED, "outcome", outcome).increment();
+    }
+
+    // ========== دفتر الأستاذ ==========
+
+    public void recordLedgerPostings(int journals, int entries) {
+        registry.counter(LEDGER_JOURNALS).increment(journals);
+        registry.counter(LEDGER_ENTRIES).increment(entries);
+    }
+
+    public void recordLedgerSnapshot(int accounts, long nanos) {
+        Timer.builder(LEDGER_SNAPSHOT)
+                .description("زمن طي القيود في لقطات الأرصدة")
+                .register(registry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+        registry.counter(LEDGER_SNAPSHOT + ".accounts").increment(accounts);
+    }
+
+    /**
+     * نتيجة آخر تحقق: يجب أن تبقى الثلاثة صفراً
+     */
+    public void recordLedgerVerification(long unbalanced, long snapshotMismatches, long balanceDrift) {
+        ledgerUnbalanced.set(unbalanced);
+        ledgerSnapshotMismatches.set(snapshotMismatches);
+        ledgerBalanceDrift.set(balanceDrift);
+    }
+
+    // ========== الحسابات الساخنة ==========
+
+    /**
+     * أجزاء نُقلت إلى صف الحساب لأن العمود وحده لم يكفِ للخصم
+     */
+    public void recordHotAccountSweep(int slots) {
+        registry.counter(HOT_ACCOUNT_SWEEPS).increment(slots);
+    }
+
+    public void recordHotAccountFold(int accounts, long nanos) {
+        Timer.builder(HOT_ACCOUNT_FOLD)
+                .description("زمن طي أجزاء الحسابات الساخنة")
+                .register(registry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+        registry.counter(HOT_ACCOUNT_FOLD + ".accounts").increment(accounts);
+    }
+
+    // ========== محرك الأرصدة في الذاكرة ==========
+
+    /**
+     * تأخر الإسقاط (عدد السجلات المثبتة في الدفتر ولم تصل لقاعدة البيانات) وعدد الحسابات في الذاكرة
+     */
+    public void bindBalanceEngine(LongSupplier projectionLag, LongSupplier loadedAccounts) {
+        // strongReference: الـ lambda لا يملكها أحد غير المقياس
+        Gauge.builder(ENGINE_PROJECTION_LAG, projectionLag, LongSupplier::getAsLong)
+                .strongReference(true)
+                .register(registry);
+        Gauge.builder(ENGINE_LOADED_ACCOUNTS, loadedAccounts, LongSupplier::getAsLong)
+                .strongReference(true)
+                .register(registry);
+    }
+
+    /**
+     * دورة التزام جماعي واحدة: fsync واحد لكل الأوامر المتجمعة
+     */
+    public void recordBalanceEngineCommit(int commands, long nanos) {
+        Timer.builder(ENGINE_COMMIT)
+                .description("زمن fsync الجماعي لدفتر محرك الأرصدة")
+                .publishPercentileHistogram()
+                .publishPercentiles(0.5, 0.99)
+                .register(registry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+        registry.counter(ENGINE_COMMANDS).increment(commands);
+    }
+
+    public void recordBalanceEngineProjection(int records) {
+        registry.counter(ENGINE_PROJECTED).increment(records);
+    }
+
+    // ========== الإشعارات ==========
+
+    public void recordNotificationDispatch(String channel, long nanos, boolean success) {
+        Timer.builder(NOTIFICATION_DISPATCH)
+                .description("زمن إرسال الإشعار لكل قناة")
+                .tag("channel", channel)
+                .tag("outcome", success ? "success" : "failure")
+                .publishPercentileHistogram()
+                .publishPercentiles(0.5, 0.99)
+                .register(registry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+        if (!success) {
+            registry.counter(NOTIFICATION_FAILURES, "channel", channel).increment();
+        }
+    }
+
+    /**
+     * إشعار لم يُرسل على قناة لأن المستخدم أوقفها أو أوقف فئة الحدث
+     */
+    public void recordNotificationSuppressed(String channel) {
+        registry.counter(NOTIFICATION_SUPPRESSED, "channel", channel).increment();
+    }
+
+    /**
+     * حدث ضُم إلى ملخص بدل إرساله (لكل نوع)، وملخص أُرسل بدل عدة إشعارات
+     */
+    public void recordNotificationCoalesced(String type) {
+        registry.counter(NOTIFICATION_COALESCED, "type", type).increment();
+    }
+
+    public void recordNotificationDigest(String type) {
+        registry.counter(NOTIFICATION_DIGESTS, "type", type).increment();
+    }
+
+    public void bindNotificationPreferences(IntSupplier cached) {
+        Gauge.builder(NOTIFICATION_PREFERENCES_CACHED, cached, IntSupplier::getAsInt)
+                .strongReference(true)
+                .register(registry);
+    }
+
+    /**
+     * اتصالات SSE المفتوحة وعدد عدادات غير المقروء المحمّلة في الذاكرة
+     */
+    public void bindNotificationPush(IntSupplier connections, IntSupplier counters) {
+        Gauge.builder(NOTIFICATION_PUSH_CONNECTIONS, connections, IntSupplier::getAsInt)
+                .strongReference(true)
+                .register(registry);
+        Gauge.builder(NOTIFICATION_PUSH_COUNTERS, counters, IntSupplier::getAsInt)
+                .strongReference(true)
+                .register(registry);
+    }
+
+    public void recordNotificationPush(String event, boolean delivered) {
+        registry.counter(NOTIFICATION_PUSH_EVENTS, "event", event, "outcome", delivered ? "sent" : "dropped").increment();
+    }
+
+    public void recordNotificationRetention(String channel, int rows) {
+        registry.counter(NOTIFICATION_RETENTION_PURGED, "channel", channel).increment(rows);
+    }
+
+    /**
+     * تشغيل تنظيف واحد؛ المقياس throughput = صفوف/ثانية لآخر تشغيل
+     */
+    public void recordNotificationRetentionRun(int rows, long nanos) {
+        Timer.builder(NOTIFICATION_RETENTION_RUN)
+                .description("زمن تشغيل تنظيف الإشعارات القديمة")
+                .register(registry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+        long millis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(nanos));
+        lastRetentionThroughput.set(rows * 1000L / millis);
+    }
+
+    // ========== محدد التزامن أمام قاعدة البيانات ==========
+
+    public void bindDatabaseLimiter(Semaphore permits) {
+        registry.gauge(DB_LIMITER_AVAILABLE, permits, Semaphore::availablePermits);
+        registry.gauge(DB_LIMITER_WAITING, permits, Semaphore::getQueueLength);
+    }
+
+    public void recordDatabaseLimiterWait(long nanos, boolean acquired) {
+        Timer.builder(DB_LIMITER_WAIT)
+                .description("زمن انتظار تصريح الوصول لقاعدة البيانات")
+                .tag("outcome", acquired ? "acquired" : "rejected")
+                .publishPercentileHistogram()
+                .publishPercentiles(0.5, 0.99)
+                .register(registry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+        if (!acquired) {
+            registry.counter(DB_LIMITER_REJECTED).increment();
+        }
+    }
+}
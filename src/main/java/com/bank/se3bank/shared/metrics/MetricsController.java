@@ -0,0 +1,131 @@
+package com.bank.se3bank.shared.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@RestController
+@RequestMapping("/api/metrics")
+@RequiredArgsConstructor
+@Tag(name = "المقاييس", description = "مقاييس المسارات الساخنة للوحة التحكم")
+public class MetricsController {
+
+    private static final String[] PREFIXES = {
+            "bank.", "hikaricp.", "hibernate.second.level.cache.", "hibernate.query.cache."
+    };
+
+    private final MeterRegistry registry;
+
+    @GetMapping("/hot-paths")
+    @PreAuthorize("hasAnyRole('ADMIN','MANAGER')")
+    @Operation(summary = "لقطة المقاييس", description = "مؤقتات وعدادات bank.* و hikaricp.* وكاش Hibernate بصيغة JSON (Prometheus على /actuator/prometheus)")
+    public ResponseEntity<MetricsSnapshot> getHotPathMetrics() {
+        MetricsSnapshot snapshot = MetricsSnapshot.builder()
+                .timers(new ArrayList<>())
+                .counters(new ArrayList<>())
+                .gauges(new ArrayList<>())
+                .build();
+
+        for (Meter meter : registry.getMeters()) {
+            String name = meter.getId().getName();
+            if (!isHotPathMeter(name)) {
+                continue;
+            }
+            if (meter instanceof Timer timer) {
+                snapshot.getTimers().add(timerStat(timer));
+            } else if (meter instanceof Counter counter) {
+                snapshot.getCounters().add(MeterStat.builder()
+                        .name(name)
+                        .tags(tags(meter))
+                        .count((long) counter.count())
+                        .build());
+            } else if (meter instanceof FunctionCounter counter) {
+                snapshot.getCounters().add(MeterStat.builder()
+                        .name(name)
+                        .tags(tags(meter))
+                        .count((long) counter.count())
+                        .build());
+            } else if (meter instanceof Gauge gauge) {
+                snapshot.getGauges().add(MeterStat.builder()
+                        .name(name)
+                        .tags(tags(meter))
+                        .value(gauge.value())
+                        .build());
+            }
+        }
+        return ResponseEntity.ok(snapshot);
+    }
+
+    private static boolean isHotPathMeter(String name) {
+        for (String prefix : PREFIXES) {
+            if (name.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private MeterStat timerStat(Timer timer) {
+        MeterStat.MeterStatBuilder stat = MeterStat.builder()
+                .name(timer.getId().getName())
+                .tags(tags(timer))
+                .count(timer.count())
+                .meanMs(timer.mean(TimeUnit.MILLISECONDS))
+                .maxMs(timer.max(TimeUnit.MILLISECONDS));
+        for (ValueAtPercentile percentile : timer.takeSnapshot().percentileValues()) {
+            if (percentile.percentile() == 0.5) {
+                stat.p50Ms(percentile.value(TimeUnit.MILLISECONDS));
+            } else if (percentile.percentile() == 0.99) {
+                stat.p99Ms(percentile.value(TimeUnit.MILLISECONDS));
+            }
+        }
+        return stat.build();
+    }
+
+    private static Map<String, String> tags(Meter meter) {
+        Map<String, String> tags = new LinkedHashMap<>();
+        for (io.micrometer.core.instrument.Tag tag : meter.getId().getTags()) {
+            tags.put(tag.getKey(), tag.getValue());
+        }
+        return tags;
+    }
+
+    @lombok.Data
+    @lombok.Builder
+    public static class MetricsSnapshot {
+        private List<MeterStat> timers;
+        private List<MeterStat> counters;
+        private List<MeterStat> gauges;
+    }
+
+    @lombok.Data
+    @lombok.Builder
+    public static class MeterStat {
+        private String name;
+        private Map<String, String> tags;
+        private Long count;
+        private Double value;
+        private Double meanMs;
+        private Double maxMs;
+        private Double p50Ms;
+        private Double p99Ms;
+    }
+}
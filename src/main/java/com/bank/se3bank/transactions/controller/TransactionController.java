@@ -2,10 +2,16 @@ package com.bank.se3bank.transactions.controller;
 
 import com.bank.se3bank.accounts.model.Account;
 import com.bank.se3bank.accounts.service.AccountService;
+import com.bank.se3bank.shared.dto.ApprovalInboxPage;
 import com.bank.se3bank.shared.dto.ApproveTransactionRequest;
+import com.bank.se3bank.shared.dto.BulkApprovalRequest;
+import com.bank.se3bank.shared.dto.BulkApprovalResult;
 import com.bank.se3bank.shared.dto.CreateTransactionRequest;
 import com.bank.se3bank.shared.dto.TransactionResponse;
+import com.bank.se3bank.shared.enums.ApprovalInboxSort;
 import com.bank.se3bank.transactions.model.Transaction;
+import com.bank.se3bank.transactions.service.ApprovalInboxService;
+import com.bank.se3bank.transactions.service.PendingTransactionWorker;
 import com.bank.se3bank.transactions.service.TransactionService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -17,7 +23,6 @@ import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/transactions")
@@ -27,6 +32,8 @@ public class TransactionController {
 
     private final TransactionService transactionService;
     private final AccountService accountService;
+    private final PendingTransactionWorker pendingTransactionWorker;
+    private final ApprovalInboxService approvalInboxService;
 
     @PostMapping
     @PreAuthorize("hasAnyRole('ADMIN','MANAGER','TELLER','CUSTOMER')")
@@ -118,37 +125,61 @@ public class TransactionController {
 
     @GetMapping("/pending-approval")
     @PreAuthorize("hasAnyRole('ADMIN','MANAGER')")
-    @Operation(summary = "المعاملات المعلقة اعتماد", description = "الحصول على جميع المعاملات التي تنتظر اعتماد المدير")
-    public ResponseEntity<List<TransactionResponse>> getPendingApprovalTransactions() {
-        List<TransactionResponse> transactions = transactionService.getPendingApprovalTransactions()
-                .stream()
-                .map(TransactionResponse::from)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(transactions);
+    @Operation(summary = "المعاملات المعلقة اعتماد", description = "أقدم المعاملات التي تنتظر اعتماد المدير (للتصفح الكامل: /approvals)")
+    public ResponseEntity<List<TransactionResponse>> getPendingApprovalTransactions(
+            @RequestParam(defaultValue = "200") int limit) {
+        return ResponseEntity.ok(approvalInboxService.getInbox(ApprovalInboxSort.AGE, null, limit).getItems());
+    }
+
+    @GetMapping("/approvals")
+    @PreAuthorize("hasAnyRole('ADMIN','MANAGER')")
+    @Operation(summary = "صندوق الاعتماد", description = "صفحات keyset من المعاملات بانتظار الاعتماد مرتبة حسب المبلغ أو العمر أو الخطورة")
+    public ResponseEntity<ApprovalInboxPage> getApprovalInbox(
+            @RequestParam(defaultValue = "AGE") ApprovalInboxSort sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(approvalInboxService.getInbox(sort, cursor, size));
+    }
+
+    @PostMapping("/approvals/approve")
+    @PreAuthorize("hasAnyRole('ADMIN','MANAGER')")
+    @Operation(summary = "اعتماد جماعي", description = "اعتماد حتى آلاف المعاملات في تحديث واحد لكل دفعة مع نتيجة لكل معاملة")
+    public ResponseEntity<BulkApprovalResult> approveTransactions(@Valid @RequestBody BulkApprovalRequest request) {
+        return ResponseEntity.ok(approvalInboxService.approve(request.getTransactionIds(), request.getComments()));
+    }
+
+    @PostMapping("/approvals/reject")
+    @PreAuthorize("hasAnyRole('ADMIN','MANAGER')")
+    @Operation(summary = "رفض جماعي", description = "رفض حتى آلاف المعاملات في تحديث واحد لكل دفعة مع نتيجة لكل معاملة")
+    public ResponseEntity<BulkApprovalResult> rejectTransactions(@Valid @RequestBody BulkApprovalRequest request) {
+        return ResponseEntity.ok(approvalInboxService.reject(
+                request.getTransactionIds(), request.getReason(), request.getComments()));
     }
 
     @PostMapping("/{transactionId}/approve")
     @PreAuthorize("hasAnyRole('ADMIN','MANAGER')")
-    @Operation(summary = "اعتماد معاملة", description = "اعتماد معاملة معلقة بواسطة المدير")
+    @Operation(summary = "اعتماد معاملة", description = "اعتماد معاملة معلقة بواسطة المدير الحالي (من التوكن)")
     public ResponseEntity<TransactionResponse> approveTransaction(
             @PathVariable Long transactionId,
-            @Valid @RequestBody ApproveTransactionRequest request) {
+            @RequestBody(required = false) ApproveTransactionRequest request) {
 
         Transaction transaction = transactionService.approveTransaction(
-                transactionId, request.getManagerId(), request.getComments());
+                transactionId, approvalInboxService.currentManager(),
+                request != null ? request.getComments() : null);
         return ResponseEntity.ok(TransactionResponse.from(transaction));
     }
 
     @PostMapping("/{transactionId}/reject")
     @PreAuthorize("hasAnyRole('ADMIN','MANAGER')")
-    @Operation(summary = "رفض معاملة", description = "رفض معاملة معلقة بواسطة المدير")
+    @Operation(summary = "رفض معاملة", description = "رفض معاملة معلقة بواسطة المدير الحالي (من التوكن)")
     public ResponseEntity<TransactionResponse> rejectTransaction(
             @PathVariable Long transactionId,
-            @Valid @RequestBody ApproveTransactionRequest request) {
+            @RequestBody(required = false) ApproveTransactionRequest request) {
 
         Transaction transaction = transactionService.rejectTransaction(
-                transactionId, request.getManagerId(),
-                request.getReason(), request.getComments());
+                transactionId, approvalInboxService.currentManager(),
+                request != null ? request.getReason() : null,
+                request != null ? request.getComments() : null);
         return ResponseEntity.ok(TransactionResponse.from(transaction));
     }
 
@@ -184,10 +215,9 @@ public class TransactionController {
 
     @PostMapping("/process-pending")
     @PreAuthorize("hasAnyRole('ADMIN','MANAGER')")
-    @Operation(summary = "معالجة المعاملات المعلقة", description = "معالجة جميع المعاملات المعلقة تلقائياً")
-    public ResponseEntity<Void> processPendingTransactions() {
-        transactionService.processPendingTransactions();
-        return ResponseEntity.ok().build();
+    @Operation(summary = "معالجة المعاملات المعلقة", description = "تفريغ طابور المعاملات المعلقة الآن على هذه العقدة (يعمل تلقائياً أيضاً بشكل مجدول)")
+    public ResponseEntity<PendingTransactionWorker.DrainResult> processPendingTransactions() {
+        return ResponseEntity.ok(pendingTransactionWorker.drain());
     }
 
     @lombok.Data
@@ -1,6 +1,8 @@
 // 📁 src/main/java/com/bank/se3bank/transactions/handlers/ApprovalChainFactory.java
 package com.bank.se3bank.transactions.handlers;
 
+import com.bank.se3bank.accounts.service.DecoratorResolver;
+import com.bank.se3bank.shared.metrics.BankMetrics;
 import com.bank.se3bank.transactions.repository.TransactionRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -15,6 +17,8 @@ import org.springframework.stereotype.Component;
 public class ApprovalChainFactory {
     
     private final TransactionRepository transactionRepository;
+    private final BankMetrics metrics;
+    private final DecoratorResolver decoratorResolver;
     
     /**
      * إنشاء سلسلة الاعتماد الكاملة
@@ -22,13 +26,14 @@ public class ApprovalChainFactory {
     public TransactionHandler createApprovalChain() {
         log.info("🔗 إنشاء سلسلة اعتماد المعاملات (Chain of Responsibility)...");
         
-        // إنشاء المعالجات
-        TransactionHandler balanceCheck = new BalanceCheckHandler();
-        TransactionHandler fraudDetection = new FraudDetectionHandler(transactionRepository);
-        TransactionHandler amlCompliance = new AMLComplianceHandler();
-        TransactionHandler limitCheck = new LimitCheckHandler();
-        TransactionHandler autoApprove = new AutoApprovalHandler(5000.0); // حد 5000 للاعتماد التلقائي
-        TransactionHandler managerApprove = new ManagerApprovalHandler();
+        // إنشاء المعالجات (مغلفة بقياس الزمن لكل معالج)
+        TimedTransactionHandler.ChainClock clock = new TimedTransactionHandler.ChainClock(6);
+        TransactionHandler balanceCheck = timed(new BalanceCheckHandler(decoratorResolver), clock);
+        TransactionHandler fraudDetection = timed(new FraudDetectionHandler(transactionRepository), clock);
+        TransactionHandler amlCompliance = timed(new AMLComplianceHandler(), clock);
+        TransactionHandler limitCheck = timed(new LimitCheckHandler(), clock);
+        TransactionHandler autoApprove = timed(new AutoApprovalHandler(5000.0), clock); // حد 5000 للاعتماد التلقائي
+        TransactionHandler managerApprove = timed(new ManagerApprovalHandler(), clock);
         
         // بناء السلسلة
         balanceCheck.setNextHandler(fraudDetection);
@@ -46,7 +51,7 @@ public class ApprovalChainFactory {
      * إنشاء سلسلة مبسطة للاختبار
      */
     public TransactionHandler createSimpleChain() {
-        TransactionHandler balanceCheck = new BalanceCheckHandler();
+        TransactionHandler balanceCheck = new BalanceCheckHandler(decoratorResolver);
         TransactionHandler autoApprove = new AutoApprovalHandler(1000.0);
         TransactionHandler managerApprove = new ManagerApprovalHandler();
         
@@ -60,7 +65,7 @@ public class ApprovalChainFactory {
      * إنشاء سلسلة للمعاملات الصغيرة (لا تحتاج اعتماد مدير)
      */
     public TransactionHandler createSmallTransactionChain() {
-        TransactionHandler balanceCheck = new BalanceCheckHandler();
+        TransactionHandler balanceCheck = new BalanceCheckHandler(decoratorResolver);
         TransactionHandler limitCheck = new LimitCheckHandler();
         TransactionHandler autoApprove = new AutoApprovalHandler(10000.0);
         
@@ -69,4 +74,8 @@ public class ApprovalChainFactory {
         
         return balanceCheck;
     }
-}
\ No newline at end of file
+    
+    private TransactionHandler timed(TransactionHandler handler, TimedTransactionHandler.ChainClock clock) {
+        return new TimedTransactionHandler(handler, clock, metrics);
+    }
+}
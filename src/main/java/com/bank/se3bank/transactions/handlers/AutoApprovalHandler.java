@@ -19,7 +19,7 @@ public class AutoApprovalHandler extends TransactionHandler {
     
     @Override
     public boolean handle(Transaction transaction) {
-        log.info("🤖 {} يعالج المعاملة {}", handlerName, transaction.getTransactionId());
+        log.debug("🤖 {} يعالج المعاملة {}", handlerName, transaction.getTransactionId());
         
         // إذا كانت المعاملة معلقة اعتماد
         if (transaction.requiresApproval()) {
@@ -30,13 +30,13 @@ public class AutoApprovalHandler extends TransactionHandler {
                 logApproval(transaction, 
                         String.format("تم الاعتماد تلقائياً (المبلغ %.2f <= %.2f)", 
                                 transaction.getAmount(), autoApproveLimit));
-                log.info("✅ {}: تم الاعتماد التلقائي للمعاملة", handlerName);
+                log.debug("✅ {}: تم الاعتماد التلقائي للمعاملة", handlerName);
                 return true;
             } else {
                 logApproval(transaction, 
                         String.format("تتطلب اعتماد مدير (المبلغ %.2f > %.2f)", 
                                 transaction.getAmount(), autoApproveLimit));
-                log.info("⏳ {}: تتطلب اعتماد مدير", handlerName);
+                log.debug("⏳ {}: تتطلب اعتماد مدير", handlerName);
                 return true; // ما زالت معلقة اعتماد مدير
             }
         }
@@ -47,7 +47,7 @@ public class AutoApprovalHandler extends TransactionHandler {
             transaction.setStatus(TransactionStatus.COMPLETED);
             transaction.setApprovedBy(0L);
             logApproval(transaction, "معاملة صغيرة - تم الاعتماد تلقائياً");
-            log.info("✅ {}: تم الاعتماد التلقائي", handlerName);
+            log.debug("✅ {}: تم الاعتماد التلقائي", handlerName);
             return true;
         }
         
@@ -1,5 +1,6 @@
 package com.bank.se3bank.transactions.handlers;
 
+import com.bank.se3bank.accounts.service.DecoratorResolver;
 import com.bank.se3bank.shared.enums.TransactionType;
 import com.bank.se3bank.transactions.model.Transaction;
 import lombok.extern.slf4j.Slf4j;
@@ -11,20 +12,33 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class BalanceCheckHandler extends TransactionHandler {
     
+    /**
+     * مصدر مكشوف الديكورات (null: حد الحساب نفسه فقط)
+     */
+    private final DecoratorResolver decoratorResolver;
+    
     public BalanceCheckHandler() {
+        this(null);
+    }
+    
+    public BalanceCheckHandler(DecoratorResolver decoratorResolver) {
         super("BalanceCheckHandler");
+        this.decoratorResolver = decoratorResolver;
     }
     
     @Override
     public boolean handle(Transaction transaction) {
-        log.info("🔍 {} يتحقق من رصيد المعاملة {}", 
+        log.debug("🔍 {} يتحقق من رصيد المعاملة {}", 
                 handlerName, transaction.getTransactionId());
         
         // فقط المعاملات الصادرة تحتاج للتحقق من الرصيد
         if (transaction.getFromAccount() != null && 
             transaction.getTransactionType() != TransactionType.DEPOSIT) {
             
-            if (!transaction.getFromAccount().canWithdraw(transaction.getAmount())) {
+            double decoratorOverdraft = decoratorResolver != null
+                    ? decoratorResolver.resolve(transaction.getFromAccount().getId()).getOverdraftAllowance()
+                    : 0.0;
+            if (!transaction.getFromAccount().canWithdraw(transaction.getAmount(), decoratorOverdraft)) {
                 String message = String.format("رصيد غير كافي. الرصيد الحالي: %.2f, المبلغ المطلوب: %.2f",
                         transaction.getFromAccount().getBalance(),
                         transaction.getAmount());
@@ -37,7 +51,7 @@ public class BalanceCheckHandler extends TransactionHandler {
         }
         
         logApproval(transaction, "تم التحقق من الرصيد بنجاح");
-        log.info("✅ {}: تم التحقق من الرصيد", handlerName);
+        log.debug("✅ {}: تم التحقق من الرصيد", handlerName);
         
         return passToNext(transaction);
     }
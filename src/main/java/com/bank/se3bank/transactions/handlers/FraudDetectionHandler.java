@@ -15,6 +15,12 @@ import java.time.LocalDateTime;
 @Slf4j
 public class FraudDetectionHandler extends TransactionHandler {
     
+    // درجات الخطورة التي يرتب بها صندوق اعتماد المدير
+    static final int HIGH_FREQUENCY_RISK = 70;
+    static final int LARGE_AMOUNT_RISK = 40;
+    static final int VERY_LARGE_AMOUNT_RISK = 60;
+    static final int UNUSUAL_TIME_RISK = 20;
+    
     private final TransactionRepository transactionRepository;
     
     public FraudDetectionHandler(TransactionRepository transactionRepository) {
@@ -24,11 +30,14 @@ public class FraudDetectionHandler extends TransactionHandler {
     
     @Override
     public boolean handle(Transaction transaction) {
-        log.info("🕵️ {} يفحص المعاملة {} لاكتشاف الاحتيال", 
+        log.debug("🕵️ {} يفحص المعاملة {} لاكتشاف الاحتيال", 
                 handlerName, transaction.getTransactionId());
         
+        boolean unusualTime = isUnusualTimeTransaction(transaction);
+        
         // 1. التحقق من عدد المعاملات الكبير في فترة قصيرة
         if (isHighFrequencyTransaction(transaction)) {
+            transaction.raiseRiskScore(HIGH_FREQUENCY_RISK + (unusualTime ? UNUSUAL_TIME_RISK : 0));
             logApproval(transaction, "تم اكتشاف عدد كبير من المعاملات في فترة قصيرة");
             transaction.markAsPendingApproval();
             log.warn("⚠️ {}: تتطلب اعتماداً إضافياً (تردد عالي)", handlerName);
@@ -37,6 +46,8 @@ public class FraudDetectionHandler extends TransactionHandler {
         
         // 2. التحقق من المبالغ الكبيرة
         if (isLargeAmountTransaction(transaction)) {
+            transaction.raiseRiskScore((transaction.getAmount() > 100000.0 ? VERY_LARGE_AMOUNT_RISK : LARGE_AMOUNT_RISK)
+                    + (unusualTime ? UNUSUAL_TIME_RISK : 0));
             logApproval(transaction, "معاملة بمبلغ كبير تتطلب اعتماداً إضافياً");
             transaction.markAsPendingApproval();
             log.warn("⚠️ {}: تتطلب اعتماداً إضافياً (مبلغ كبير)", handlerName);
@@ -44,13 +55,14 @@ public class FraudDetectionHandler extends TransactionHandler {
         }
         
         // 3. التحقق من المعاملات في أوقات غير اعتيادية
-        if (isUnusualTimeTransaction(transaction)) {
+        if (unusualTime) {
+            transaction.raiseRiskScore(UNUSUAL_TIME_RISK);
             logApproval(transaction, "معاملة في وقت غير اعتيادي");
-            log.info("⚠️ {}: معاملة في وقت غير اعتيادي", handlerName);
+            log.debug("⚠️ {}: معاملة في وقت غير اعتيادي", handlerName);
         }
         
         logApproval(transaction, "لا توجد مؤشرات احتيال");
-        log.info("✅ {}: لا توجد مؤشرات احتيال", handlerName);
+        log.debug("✅ {}: لا توجد مؤشرات احتيال", handlerName);
         
         return passToNext(transaction);
     }
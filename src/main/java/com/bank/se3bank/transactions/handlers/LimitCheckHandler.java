@@ -17,7 +17,7 @@ public class LimitCheckHandler extends TransactionHandler {
     
     @Override
     public boolean handle(Transaction transaction) {
-        log.info("📊 {} يتحقق من حدود المعاملة {}", 
+        log.debug("📊 {} يتحقق من حدود المعاملة {}", 
                 handlerName, transaction.getTransactionId());
         
         // التحقق من حسابات التوفير وحدود السحب الشهرية
@@ -39,11 +39,11 @@ public class LimitCheckHandler extends TransactionHandler {
         if (transaction.getAmount() > 5000.0 && 
             transaction.getTransactionType() == TransactionType.WITHDRAWAL) {
             logApproval(transaction, "تجاوز الحد اليومي للسحب");
-            log.info("⚠️ {}: تجاوز الحد اليومي للسحب", handlerName);
+            log.debug("⚠️ {}: تجاوز الحد اليومي للسحب", handlerName);
         }
         
         logApproval(transaction, "تم التحقق من الحدود بنجاح");
-        log.info("✅ {}: ضمن الحدود المسموحة", handlerName);
+        log.debug("✅ {}: ضمن الحدود المسموحة", handlerName);
         
         return passToNext(transaction);
     }
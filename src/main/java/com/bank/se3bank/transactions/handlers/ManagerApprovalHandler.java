@@ -16,12 +16,12 @@ public class ManagerApprovalHandler extends TransactionHandler {
     
     @Override
     public boolean handle(Transaction transaction) {
-        log.info("👔 {} يعالج المعاملة {}", handlerName, transaction.getTransactionId());
+        log.debug("👔 {} يعالج المعاملة {}", handlerName, transaction.getTransactionId());
         
         // إذا كانت المعاملة تتطلب اعتماد مدير
         if (transaction.requiresApproval()) {
             logApproval(transaction, "بانتظار اعتماد المدير");
-            log.info("⏳ {}: بانتظار اعتماد المدير", handlerName);
+            log.debug("⏳ {}: بانتظار اعتماد المدير", handlerName);
             
             // في تطبيق حقيقي، هنا سننتظر اعتماد المدير
             // لكن للاختبار، سنعتمدها تلقائياً بعد فترة
@@ -33,14 +33,15 @@ public class ManagerApprovalHandler extends TransactionHandler {
         if (transaction.getAmount() > 10000.0 && 
             transaction.getStatus() == TransactionStatus.PENDING) {
             transaction.markAsPendingApproval();
+            transaction.raiseRiskScore(FraudDetectionHandler.LARGE_AMOUNT_RISK);
             logApproval(transaction, "معاملة كبيرة - وضعت بانتظار اعتماد المدير");
-            log.info("⚠️ {}: معاملة كبيرة - تنتظر اعتماد مدير", handlerName);
+            log.debug("⚠️ {}: معاملة كبيرة - تنتظر اعتماد مدير", handlerName);
             return true;
         }
         
         logApproval(transaction, "تمت المعالجة");
         transaction.markAsCompleted();
-        log.info("✅ {}: تمت المعالجة بنجاح", handlerName);
+        log.debug("✅ {}: تمت المعالجة بنجاح", handlerName);
         return true;
     }
     
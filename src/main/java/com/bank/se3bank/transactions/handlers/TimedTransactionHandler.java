@@ -0,0 +1,74 @@
+package com.bank.se3bank.transactions.handlers;
+
+import com.bank.se3bank.shared.metrics.BankMetrics;
+import com.bank.se3bank.transactions.model.Transaction;
+
+/**
+ * غلاف قياس لمعالج في السلسلة: يسجل الزمن الذاتي للمعالج في BankMetrics
+ * كل أغلفة السلسلة تتشارك ChainClock واحداً لطرح زمن المعالجات التالية (handle متداخل عبر passToNext)
+ */
+class TimedTransactionHandler extends TransactionHandler {
+
+    private final TransactionHandler delegate;
+    private final ChainClock clock;
+    private final BankMetrics metrics;
+
+    TimedTransactionHandler(TransactionHandler delegate, ChainClock clock, BankMetrics metrics) {
+        super(delegate.getHandlerName());
+        this.delegate = delegate;
+        this.clock = clock;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public void setNextHandler(TransactionHandler handler) {
+        delegate.setNextHandler(handler);
+    }
+
+    @Override
+    public boolean handle(Transaction transaction) {
+        clock.enter();
+        String outcome = "error";
+        try {
+            boolean result = delegate.handle(transaction);
+            outcome = result ? "passed" : "rejected";
+            return result;
+        } finally {
+            metrics.recordHandler(handlerName, clock.exit(), outcome);
+        }
+    }
+
+    /**
+     * ساعة مشتركة لسلسلة واحدة (السلسلة تُنشأ لكل معاملة فلا تُستخدم من أكثر من خيط)
+     */
+    static final class ChainClock {
+
+        private final long[] started;
+        private final long[] downstream;
+        private int depth = -1;
+
+        ChainClock(int maxDepth) {
+            this.started = new long[maxDepth];
+            this.downstream = new long[maxDepth];
+        }
+
+        void enter() {
+            depth++;
+            started[depth] = System.nanoTime();
+            downstream[depth] = 0;
+        }
+
+        /**
+         * @return الزمن الذاتي للمستوى الحالي
+         */
+        long exit() {
+            long elapsed = System.nanoTime() - started[depth];
+            long self = elapsed - downstream[depth];
+            depth--;
+            if (depth >= 0) {
+                downstream[depth] += elapsed;
+            }
+            return self;
+        }
+    }
+}
@@ -9,7 +9,14 @@ import lombok.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "transactions")
+@Table(name = "transactions", indexes = {
+        @Index(name = "idx_transactions_reference", columnList = "reference_number"),
+        @Index(name = "idx_transactions_status_id", columnList = "status, id"),
+        // صندوق الاعتماد: ترتيب keyset حسب المبلغ / العمر / الخطورة داخل حالة PENDING_APPROVAL
+        @Index(name = "idx_transactions_status_amount", columnList = "status, amount DESC, id"),
+        @Index(name = "idx_transactions_status_created", columnList = "status, created_at, id"),
+        @Index(name = "idx_transactions_status_risk", columnList = "status, risk_score DESC, id")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -72,6 +79,17 @@ public class Transaction {
     @Column(name = "approval_chain_log", columnDefinition = "TEXT")
     private String approvalChainLog; // سجل سلسلة الاعتماد
     
+    @Column(name = "claimed_by", length = 100)
+    private String claimedBy; // العقدة التي حجزت المعاملة المعلقة للمعالجة
+    
+    @Column(name = "claimed_until")
+    private LocalDateTime claimedUntil; // انتهاء الحجز؛ بعده تستطيع عقدة أخرى استلامها
+    
+    // درجة خطورة 0-100 من سلسلة الاعتماد؛ default في العمود لأن إدراجات JDBC المباشرة لا تضعها
+    @Column(name = "risk_score", columnDefinition = "integer default 0 not null")
+    @Builder.Default
+    private Integer riskScore = 0;
+    
     @PrePersist
     public void generateTransactionId() {
         if (this.transactionId == null) {
@@ -100,6 +118,14 @@ public class Transaction {
         this.processedAt = LocalDateTime.now();
     }
     
+    /**
+     * رفع درجة الخطورة (لا تنخفض أبداً، والحد الأقصى 100)
+     */
+    public void raiseRiskScore(int score) {
+        int current = riskScore != null ? riskScore : 0;
+        this.riskScore = Math.min(100, Math.max(current, score));
+    }
+    
     public boolean requiresApproval() {
         return this.status == TransactionStatus.PENDING_APPROVAL;
     }
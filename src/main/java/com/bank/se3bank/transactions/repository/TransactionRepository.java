@@ -3,15 +3,21 @@ package com.bank.se3bank.transactions.repository;
 import com.bank.se3bank.transactions.model.Transaction;
 import com.bank.se3bank.shared.enums.TransactionStatus;
 import com.bank.se3bank.shared.enums.TransactionType;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface TransactionRepository extends JpaRepository<Transaction, Long> {
@@ -74,12 +80,83 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
            "ORDER BY t.createdAt ASC")
     List<Transaction> findPendingApprovalTransactions(@Param("status") TransactionStatus status);
     
+    // ========== صندوق الاعتماد (keyset) ==========
+    // الصفحة الأولى تمرر قيماً حدية (MAX / 0 / EPOCH) فيكفي استعلام واحد لكل ترتيب
+    
+    @EntityGraph(attributePaths = {"fromAccount", "toAccount"})
+    @Query("SELECT t FROM Transaction t WHERE t.status = :status " +
+           "AND (t.amount < :amount OR (t.amount = :amount AND t.id > :id)) " +
+           "ORDER BY t.amount DESC, t.id ASC")
+    List<Transaction> findApprovalInboxByAmount(@Param("status") TransactionStatus status,
+                                                @Param("amount") Double amount,
+                                                @Param("id") Long id,
+                                                Pageable pageable);
+    
+    @EntityGraph(attributePaths = {"fromAccount", "toAccount"})
+    @Query("SELECT t FROM Transaction t WHERE t.status = :status " +
+           "AND (t.createdAt > :createdAt OR (t.createdAt = :createdAt AND t.id > :id)) " +
+           "ORDER BY t.createdAt ASC, t.id ASC")
+    List<Transaction> findApprovalInboxByAge(@Param("status") TransactionStatus status,
+                                             @Param("createdAt") LocalDateTime createdAt,
+                                             @Param("id") Long id,
+                                             Pageable pageable);
+    
+    @EntityGraph(attributePaths = {"fromAccount", "toAccount"})
+    @Query("SELECT t FROM Transaction t WHERE t.status = :status " +
+           "AND (t.riskScore < :riskScore OR (t.riskScore = :riskScore AND t.id > :id)) " +
+           "ORDER BY t.riskScore DESC, t.id ASC")
+    List<Transaction> findApprovalInboxByRisk(@Param("status") TransactionStatus status,
+                                              @Param("riskScore") Integer riskScore,
+                                              @Param("id") Long id,
+                                              Pageable pageable);
+    
+    long countByStatus(TransactionStatus status);
+    
+    /**
+     * قفل صفوف القرار الجماعي بترتيب ثابت وإرجاع حالتها الحالية [id, status]
+     */
+    @Query(value = "SELECT id, status FROM transactions WHERE id IN (:ids) ORDER BY id FOR UPDATE",
+           nativeQuery = true)
+    List<Object[]> lockStatuses(@Param("ids") Collection<Long> ids);
+    
+    /**
+     * قرار المدير على مجموعة معاملات في UPDATE واحد؛ الشرط على الحالة يحمي من قرار مزدوج
+     */
+    @Modifying
+    @Query("UPDATE Transaction t SET t.status = :decision, t.approvedBy = :managerId, t.processedAt = :now, " +
+           "t.failureReason = :reason, " +
+           "t.approvalChainLog = CONCAT(COALESCE(t.approvalChainLog, ''), :logEntry) " +
+           "WHERE t.id IN :ids AND t.status = :pending")
+    int applyApprovalDecision(@Param("ids") Collection<Long> ids,
+                              @Param("pending") TransactionStatus pending,
+                              @Param("decision") TransactionStatus decision,
+                              @Param("managerId") Long managerId,
+                              @Param("reason") String reason,
+                              @Param("logEntry") String logEntry,
+                              @Param("now") LocalDateTime now);
+    
+    /**
+     * المعاملات مع الحسابين ومالكيهما (لإشعارات ما بعد القرار الجماعي بدون N+1)
+     */
+    @EntityGraph(attributePaths = {"fromAccount.user", "toAccount.user"})
+    @Query("SELECT t FROM Transaction t WHERE t.id IN :ids")
+    List<Transaction> findAllWithAccountUsersByIdIn(@Param("ids") Collection<Long> ids);
+    
     @Query("SELECT t FROM Transaction t WHERE t.approvedBy = :userId " +
            "AND t.status = :status " +
            "ORDER BY t.createdAt DESC")
     List<Transaction> findApprovedTransactionsByUser(@Param("userId") Long userId,
                                                      @Param("status") TransactionStatus status);
     
+    /**
+     * آخر معاملات المستخدم مع الحسابين في نفس الاستعلام (LEFT JOIN حتى لا تسقط الإيداعات)
+     */
+    @EntityGraph(attributePaths = {"fromAccount", "toAccount"})
+    @Query("SELECT t FROM Transaction t LEFT JOIN t.fromAccount fa LEFT JOIN t.toAccount ta " +
+           "WHERE fa.user.id = :userId OR ta.user.id = :userId " +
+           "ORDER BY t.createdAt DESC")
+    List<Transaction> findRecentWithAccountsByUser(@Param("userId") Long userId, Pageable pageable);
+    
     // دوال مساعدة جديدة بدون Pageable (لكل احتياجات Service)
     @Query(value = "SELECT * FROM transactions t WHERE " +
            "(t.from_account_id = :accountId OR t.to_account_id = :accountId) " +
@@ -108,4 +185,27 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
     Double getTotalCompletedWithdrawals(@Param("accountId") Long accountId,
                                        @Param("startDate") LocalDateTime startDate,
                                        @Param("endDate") LocalDateTime endDate);
-}
\ No newline at end of file
+    
+    // ========== التسوية مع مزودي الدفع ==========
+    
+    /**
+     * إسقاط خفيف لأعمدة المطابقة فقط (بدون تحميل الحسابات)
+     */
+    interface ReferenceView {
+        String getReferenceNumber();
+        Double getAmount();
+        TransactionStatus getStatus();
+    }
+    
+    /**
+     * قراءة متدفقة لمعاملات مزود معين - يجب استدعاؤها داخل معاملة وإغلاق الـ Stream
+     * prefix نمط LIKE مُهرّب (محرف الهروب \)
+     */
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "5000"))
+    @Query("SELECT t.referenceNumber AS referenceNumber, t.amount AS amount, t.status AS status " +
+           "FROM Transaction t WHERE t.referenceNumber LIKE :prefix ESCAPE '\\' " +
+           "AND t.createdAt >= :startDate AND t.createdAt < :endDate")
+    Stream<ReferenceView> streamByReferencePrefix(@Param("prefix") String prefix,
+                                                  @Param("startDate") LocalDateTime startDate,
+                                                  @Param("endDate") LocalDateTime endDate);
+}
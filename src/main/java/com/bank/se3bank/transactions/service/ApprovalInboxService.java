@@ -0,0 +1,254 @@
+package com.bank.se3bank.transactions.service;
+
+import com.bank.se3bank.shared.dto.ApprovalInboxPage;
+import com.bank.se3bank.shared.dto.BulkApprovalResult;
+import com.bank.se3bank.shared.dto.TransactionResponse;
+import com.bank.se3bank.shared.enums.ApprovalInboxSort;
+import com.bank.se3bank.shared.enums.Role;
+import com.bank.se3bank.shared.enums.TransactionStatus;
+import com.bank.se3bank.shared.metrics.BankMetrics;
+import com.bank.se3bank.transactions.model.Transaction;
+import com.bank.se3bank.transactions.repository.TransactionRepository;
+import com.bank.se3bank.users.model.User;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.function.Function;
+
+/**
+ * صندوق اعتماد المدير للمعاملات PENDING_APPROVAL
+ *
+ * - القائمة بصفحات keyset (المؤشر = مفتاح الترتيب + id لآخر عنصر) فتكلفة الصفحة ثابتة مهما كان عمق التصفح
+ * - القرار الجماعي على دفعات: قفل صفوف الدفعة بترتيب id وقراءة حالتها، ثم UPDATE واحد للمؤهل منها،
+ *   فيكون لكل معرف نتيجة واضحة (تم / ليست بانتظار الاعتماد / غير موجودة)
+ * - المدير ودوره من سياق الأمان (التوكن) بدون إعادة تحميل المستخدم من قاعدة البيانات
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ApprovalInboxService {
+
+    public static final String APPROVED = "APPROVED";
+    public static final String REJECTED = "REJECTED";
+    public static final String NOT_PENDING = "NOT_PENDING";
+    public static final String NOT_FOUND = "NOT_FOUND";
+
+    private static final LocalDateTime OLDEST = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private final TransactionRepository transactionRepository;
+    private final TransactionService transactionService;
+    private final PlatformTransactionManager transactionManager;
+    private final BankMetrics metrics;
+
+    @Value("${app.transactions.approval.max-page-size:200}")
+    private int maxPageSize = 200;
+
+    @Value("${app.transactions.approval.bulk-max-ids:5000}")
+    private int bulkMaxIds = 5000;
+
+    @Value("${app.transactions.approval.bulk-chunk-size:1000}")
+    private int bulkChunkSize = 1000;
+
+    // ========== Manager ==========
+
+    /**
+     * المدير الحالي من سياق الأمان؛ SecurityException إن لم يكن مصادقاً عليه أو ليس لديه ROLE_MANAGER
+     */
+    public User currentManager() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !(authentication.getPrincipal() instanceof User user)) {
+            throw new SecurityException("لا يوجد مستخدم مصادق عليه");
+        }
+        boolean manager = authentication.getAuthorities().stream()
+                .anyMatch(authority -> Role.ROLE_MANAGER.name().equals(authority.getAuthority()));
+        if (!manager) {
+            throw new SecurityException("المستخدم ليس مديراً");
+        }
+        return user;
+    }
+
+    // ========== Inbox ==========
+
+    @Transactional(readOnly = true)
+    public ApprovalInboxPage getInbox(ApprovalInboxSort sort, String cursor, int size) {
+        int pageSize = Math.max(1, Math.min(size, maxPageSize));
+        Pageable limit = PageRequest.of(0, pageSize);
+        TransactionStatus pending = TransactionStatus.PENDING_APPROVAL;
+        long afterId = cursor != null ? cursorId(cursor) : 0L;
+
+        List<Transaction> page = switch (sort) {
+            case AMOUNT -> transactionRepository.findApprovalInboxByAmount(pending,
+                    cursor != null ? cursorKey(cursor, Double::valueOf) : Double.MAX_VALUE, afterId, limit);
+            case AGE -> transactionRepository.findApprovalInboxByAge(pending,
+                    cursor != null ? cursorKey(cursor, LocalDateTime::parse) : OLDEST, afterId, limit);
+            case RISK -> transactionRepository.findApprovalInboxByRisk(pending,
+                    cursor != null ? cursorKey(cursor, Integer::valueOf) : Integer.MAX_VALUE, afterId, limit);
+        };
+
+        String nextCursor = null;
+        if (page.size() == pageSize) {
+            Transaction last = page.get(page.size() - 1);
+            Object key = switch (sort) {
+                case AMOUNT -> last.getAmount();
+                case AGE -> last.getCreatedAt();
+                case RISK -> last.getRiskScore();
+            };
+            nextCursor = key + ":" + last.getId();
+        }
+
+        return ApprovalInboxPage.builder()
+                .sort(sort.name())
+                .size(pageSize)
+                .pendingTotal(cursor == null ? transactionRepository.countByStatus(pending) : null)
+                .nextCursor(nextCursor)
+                .items(page.stream().map(TransactionResponse::from).toList())
+                .build();
+    }
+
+    /**
+     * المؤشر "مفتاح:id"؛ المفتاح قبل آخر ':' لأن التاريخ نفسه يحتوي ':'
+     */
+    private static <T> T cursorKey(String cursor, Function<String, T> parser) {
+        try {
+            return parser.apply(cursor.substring(0, cursor.lastIndexOf(':')));
+        } catch (NumberFormatException | DateTimeParseException | StringIndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("مؤشر الصفحة غير صالح: " + cursor);
+        }
+    }
+
+    private static long cursorId(String cursor) {
+        try {
+            return Long.parseLong(cursor.substring(cursor.lastIndexOf(':') + 1));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("مؤشر الصفحة غير صالح: " + cursor);
+        }
+    }
+
+    // ========== Bulk Decisions ==========
+
+    public BulkApprovalResult approve(Collection<Long> transactionIds, String comments) {
+        return decide(transactionIds, TransactionStatus.COMPLETED, null, comments);
+    }
+
+    public BulkApprovalResult reject(Collection<Long> transactionIds, String reason, String comments) {
+        return decide(transactionIds, TransactionStatus.FAILED, reason, comments);
+    }
+
+    private BulkApprovalResult decide(Collection<Long> transactionIds, TransactionStatus decision,
+                                      String reason, String comments) {
+        long started = System.nanoTime();
+        User manager = currentManager();
+        LinkedHashSet<Long> requested = requestedIds(transactionIds);
+        String outcome = decision == TransactionStatus.COMPLETED ? APPROVED : REJECTED;
+        LocalDateTime now = LocalDateTime.now();
+        String failureReason = decision == TransactionStatus.FAILED ? "مرفوض بواسطة المدير: " + reason : null;
+        String message = decision == TransactionStatus.COMPLETED
+                ? String.format("تم الاعتماد بواسطة المدير #%d", manager.getId())
+                : String.format("مرفوض بواسطة المدير #%d: %s", manager.getId(), reason);
+        if (comments != null && !comments.isBlank()) {
+            message += " (" + comments + ")";
+        }
+        String logEntry = String.format("[%s] %s: %s\n", now, "ApprovalInbox", message);
+
+        Map<Long, BulkApprovalResult.Item> outcomes = new HashMap<>(requested.size() * 2);
+        List<Long> applied = new ArrayList<>();
+        List<Long> sorted = new ArrayList<>(new TreeSet<>(requested));
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        for (int from = 0; from < sorted.size(); from += bulkChunkSize) {
+            List<Long> chunk = sorted.subList(from, Math.min(from + bulkChunkSize, sorted.size()));
+            template.executeWithoutResult(status -> {
+                List<Long> eligible = new ArrayList<>(chunk.size());
+                Map<Long, BulkApprovalResult.Item> chunkOutcomes = new HashMap<>(chunk.size() * 2);
+                for (Object[] row : transactionRepository.lockStatuses(chunk)) {
+                    Long id = ((Number) row[0]).longValue();
+                    String current = String.valueOf(row[1]);
+                    if (TransactionStatus.PENDING_APPROVAL.name().equals(current)) {
+                        eligible.add(id);
+                        chunkOutcomes.put(id, new BulkApprovalResult.Item(id, outcome, decision.name()));
+                    } else {
+                        chunkOutcomes.put(id, new BulkApprovalResult.Item(id, NOT_PENDING, current));
+                    }
+                }
+                if (!eligible.isEmpty()) {
+                    int updated = transactionRepository.applyApprovalDecision(eligible, TransactionStatus.PENDING_APPROVAL,
+                            decision, manager.getId(), failureReason, logEntry, now);
+                    if (updated != eligible.size()) {
+                        throw new IllegalStateException("تغيرت حالة معاملات مقفلة أثناء القرار الجماعي");
+                    }
+                }
+                outcomes.putAll(chunkOutcomes);
+                applied.addAll(eligible);
+            });
+        }
+
+        List<BulkApprovalResult.Item> items = new ArrayList<>(requested.size());
+        for (Long id : requested) {
+            items.add(outcomes.getOrDefault(id, new BulkApprovalResult.Item(id, NOT_FOUND, null)));
+        }
+
+        if (decision == TransactionStatus.COMPLETED && !applied.isEmpty()) {
+            notifyApproved(applied);
+        }
+
+        long nanos = System.nanoTime() - started;
+        int skipped = requested.size() - applied.size();
+        metrics.recordApprovalDecision(outcome, applied.size(), skipped, nanos);
+        log.info("👔 قرار جماعي {} بواسطة المدير {}: {} معاملة، تم {}، تخطي {} ({} ms)",
+                outcome, manager.getId(), requested.size(), applied.size(), skipped, nanos / 1_000_000);
+
+        return BulkApprovalResult.builder()
+                .decision(outcome)
+                .managerId(manager.getId())
+                .requested(requested.size())
+                .applied(applied.size())
+                .skipped(skipped)
+                .processingTimeMs(nanos / 1_000_000)
+                .items(items)
+                .build();
+    }
+
+    private LinkedHashSet<Long> requestedIds(Collection<Long> transactionIds) {
+        if (transactionIds == null || transactionIds.isEmpty()) {
+            throw new IllegalArgumentException("قائمة المعاملات فارغة");
+        }
+        LinkedHashSet<Long> ids = new LinkedHashSet<>(transactionIds);
+        if (ids.contains(null)) {
+            throw new IllegalArgumentException("قائمة المعاملات تحتوي معرفاً فارغاً");
+        }
+        if (ids.size() > bulkMaxIds) {
+            throw new IllegalArgumentException("الحد الأقصى للقرار الجماعي " + bulkMaxIds + " معاملة");
+        }
+        return ids;
+    }
+
+    /**
+     * إشعارات المعتمدة بعد الالتزام: تحميل المعاملات مع الحسابين ومالكيهما دفعة دفعة
+     */
+    private void notifyApproved(List<Long> approved) {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        for (int from = 0; from < approved.size(); from += bulkChunkSize) {
+            List<Long> chunk = approved.subList(from, Math.min(from + bulkChunkSize, approved.size()));
+            readOnly.executeWithoutResult(status -> transactionRepository.findAllWithAccountUsersByIdIn(chunk)
+                    .forEach(transactionService::sendTransactionNotifications));
+        }
+    }
+}
@@ -0,0 +1,334 @@
+package com.bank.se3bank.transactions.service;
+
+import com.bank.se3bank.shared.concurrency.BlockingExecutors;
+import com.bank.se3bank.shared.concurrency.DatabaseConcurrencyLimiter;
+import com.bank.se3bank.shared.enums.TransactionStatus;
+import com.bank.se3bank.shared.metrics.BankMetrics;
+import com.bank.se3bank.transactions.model.Transaction;
+import com.bank.se3bank.transactions.repository.TransactionRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * عامل طابور المعاملات المعلقة (بديل processPendingTransactions)
+ *
+ * - الاستلام بدفعات: SELECT ... FOR UPDATE SKIP LOCKED ثم حجز مؤقت (claimed_by / claimed_until) في معاملة قصيرة،
+ *   فتأخذ كل عقدة دفعة مختلفة دون انتظار الأخرى، والحجز المنتهي لعقدة متوقفة يُستلم من جديد
+ * - التقسيم حسب hash حساب المصدر (أو الوجهة للإيداع): كل قسم يُعالج بالترتيب، والأقسام بالتوازي
+ * - لا تُستلم معاملة إذا كانت لنفس الحساب معاملة أقدم محجوزة لدى عقدة أخرى، فيبقى ترتيب الحساب محفوظاً بين العقد
+ * - كل معاملة في معاملة قاعدة بيانات مستقلة، فلا يُفسد فشل واحدة سياق الاستمرارية للبقية
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PendingTransactionWorker {
+
+    private static final String CLAIM_SQL =
+            "SELECT t.id, COALESCE(t.from_account_id, t.to_account_id) AS account_id FROM transactions t " +
+            "WHERE t.status = 'PENDING' AND (t.claimed_until IS NULL OR t.claimed_until < ?) " +
+            "AND NOT EXISTS (SELECT 1 FROM transactions o WHERE o.status = 'PENDING' AND o.id < t.id " +
+            "AND o.claimed_until >= ? " +
+            "AND COALESCE(o.from_account_id, o.to_account_id) = COALESCE(t.from_account_id, t.to_account_id)) " +
+            "ORDER BY t.id LIMIT ? FOR UPDATE SKIP LOCKED";
+
+    private static final String LEASE_SQL =
+            "UPDATE transactions SET claimed_by = ?, claimed_until = ? WHERE id = ?";
+
+    private static final String FAIL_SQL =
+            "UPDATE transactions SET status = 'FAILED', failure_reason = ?, processed_at = ?, " +
+            "claimed_by = NULL, claimed_until = NULL WHERE id = ? AND status = 'PENDING'";
+
+    private static final String BACKLOG_SQL =
+            "SELECT COUNT(*) AS backlog, MIN(created_at) AS oldest FROM transactions WHERE status = 'PENDING'";
+
+    private final TransactionRepository transactionRepository;
+    private final TransactionService transactionService;
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final DatabaseConcurrencyLimiter limiter;
+    private final BankMetrics metrics;
+
+    @Value("${app.transactions.pending.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${app.transactions.pending.batch-size:200}")
+    private int batchSize = 200;
+
+    @Value("${app.transactions.pending.partitions:8}")
+    private int partitions = 8;
+
+    @Value("${app.transactions.pending.lease-ms:60000}")
+    private long leaseMs = 60000;
+
+    @Value("${app.transactions.pending.max-batches-per-poll:50}")
+    private int maxBatchesPerPoll = 50;
+
+    @Value("${app.transactions.pending.node-id:}")
+    private String nodeId;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private volatile AsyncTaskExecutor executor;
+
+    /**
+     * الدورة المجدولة على كل عقدة؛ تتخطى إذا كانت دورة سابقة (أو استدعاء يدوي) ما زالت تعمل
+     */
+    @Scheduled(fixedDelayString = "${app.transactions.pending.poll-interval-ms:1000}",
+               initialDelayString = "${app.transactions.pending.initial-delay-ms:10000}")
+    public void poll() {
+        if (!enabled || !running.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            drainClaimed();
+        } catch (RuntimeException e) {
+            log.error("❌ فشلت دورة عامل المعاملات المعلقة: {}", e.getMessage());
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * تفريغ الطابور الآن (للمدير)؛ يرمي IllegalStateException إذا كانت دورة أخرى تعمل على هذه العقدة
+     */
+    public DrainResult drain() {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("عامل المعاملات المعلقة قيد التشغيل حالياً");
+        }
+        try {
+            return drainClaimed();
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private DrainResult drainClaimed() {
+        DrainResult result = new DrainResult();
+        for (int batch = 0; batch < maxBatchesPerPoll; batch++) {
+            List<ClaimedTransaction> claimed = claimBatch();
+            if (claimed.isEmpty()) {
+                break;
+            }
+            long started = System.nanoTime();
+            processBatch(claimed, result);
+            metrics.recordPendingBatch(claimed.size(), System.nanoTime() - started);
+            if (claimed.size() < batchSize) {
+                break;
+            }
+        }
+        recordBacklog();
+        if (result.getClaimed() > 0) {
+            log.info("⏳ عامل المعاملات المعلقة ({}): {} مستلمة، {} مكتملة، {} بانتظار الاعتماد، {} فاشلة، {} متخطاة",
+                    nodeId(), result.getClaimed(), result.getCompleted(), result.getPendingApproval(),
+                    result.getFailed(), result.getSkipped());
+        }
+        return result;
+    }
+
+    /**
+     * حجز دفعة بترتيب المعرف؛ الصفوف المقفلة لدى عقدة أخرى تُتخطى بدلاً من انتظارها
+     */
+    List<ClaimedTransaction> claimBatch() {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        return limiter.call(() -> template.execute(status -> {
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            List<ClaimedTransaction> claimed = jdbcTemplate.query(CLAIM_SQL,
+                    (rs, rowNum) -> new ClaimedTransaction(rs.getLong("id"), rs.getObject("account_id", Long.class)),
+                    now, now, batchSize);
+            if (!claimed.isEmpty()) {
+                Timestamp until = Timestamp.valueOf(LocalDateTime.now().plus(Duration.ofMillis(leaseMs)));
+                String owner = nodeId();
+                List<Object[]> leases = new ArrayList<>(claimed.size());
+                for (ClaimedTransaction transaction : claimed) {
+                    leases.add(new Object[]{owner, until, transaction.getId()});
+                }
+                jdbcTemplate.batchUpdate(LEASE_SQL, leases);
+            }
+            return claimed;
+        }));
+    }
+
+    private void processBatch(List<ClaimedTransaction> claimed, DrainResult result) {
+        List<List<ClaimedTransaction>> byPartition = partition(claimed, partitions);
+        List<Future<?>> futures = new ArrayList<>(byPartition.size());
+        AsyncTaskExecutor pool = executor();
+        for (List<ClaimedTransaction> partition : byPartition) {
+            if (!partition.isEmpty()) {
+                futures.add(pool.submit(() -> partition.forEach(transaction -> processOne(transaction.getId(), result))));
+            }
+        }
+        try {
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("تمت مقاطعة معالجة المعاملات المعلقة", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("فشل أحد أقسام المعاملات المعلقة: " + e.getCause().getMessage(), e.getCause());
+        }
+        result.claimed.addAndGet(claimed.size());
+    }
+
+    /**
+     * معاملة واحدة في معاملة قاعدة بيانات مستقلة؛ الفشل يُسجَّل FAILED بتحديث منفصل ولا يوقف القسم
+     */
+    private void processOne(Long id, DrainResult result) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        try {
+            TransactionStatus outcome = limiter.call(() -> template.execute(status -> {
+                Transaction transaction = transactionRepository.findById(id).orElse(null);
+                if (transaction == null || transaction.getStatus() != TransactionStatus.PENDING) {
+                    return null;
+                }
+                transaction.setClaimedBy(null);
+                transaction.setClaimedUntil(null);
+                Transaction processed = transactionService.processTransaction(transaction);
+                if (processed.getStatus() == TransactionStatus.PENDING) {
+                    // لم تُحسم بعد: يبقى الحجز حتى لا يُعاد استلامها في كل دورة
+                    processed.setClaimedBy(nodeId());
+                    processed.setClaimedUntil(LocalDateTime.now().plus(Duration.ofMillis(leaseMs)));
+                }
+                return processed.getStatus();
+            }));
+            result.count(outcome);
+            metrics.recordPendingProcessed(outcome == null ? "skipped" : outcome.name().toLowerCase());
+        } catch (RuntimeException e) {
+            log.error("❌ فشل معالجة المعاملة المعلقة {}: {}", id, e.getMessage());
+            try {
+                limiter.run(() -> template.executeWithoutResult(status -> jdbcTemplate.update(FAIL_SQL,
+                        "خطأ في المعالجة: " + e.getMessage(), Timestamp.valueOf(LocalDateTime.now()), id)));
+            } catch (RuntimeException markFailure) {
+                // يبقى الحجز حتى انتهاء مدته ثم تُعاد المحاولة
+                log.error("❌ تعذر تعليم المعاملة {} كفاشلة: {}", id, markFailure.getMessage());
+            }
+            result.count(TransactionStatus.FAILED);
+            metrics.recordPendingProcessed("error");
+        }
+    }
+
+    /**
+     * توزيع الدفعة على الأقسام مع الحفاظ على ترتيبها داخل كل قسم
+     */
+    static List<List<ClaimedTransaction>> partition(List<ClaimedTransaction> claimed, int partitions) {
+        List<List<ClaimedTransaction>> result = new ArrayList<>(partitions);
+        for (int i = 0; i < partitions; i++) {
+            result.add(new ArrayList<>());
+        }
+        for (ClaimedTransaction transaction : claimed) {
+            long key = transaction.getAccountId() != null ? transaction.getAccountId() : 0L;
+            result.get(Math.floorMod(Long.hashCode(key * 0x9E3779B97F4A7C15L), partitions)).add(transaction);
+        }
+        return result;
+    }
+
+    private void recordBacklog() {
+        try {
+            jdbcTemplate.query(BACKLOG_SQL, rs -> {
+                Timestamp oldest = rs.getTimestamp("oldest");
+                long lagSeconds = oldest == null ? 0
+                        : Math.max(0, Duration.between(oldest.toLocalDateTime(), LocalDateTime.now()).toSeconds());
+                metrics.recordPendingBacklog(rs.getLong("backlog"), lagSeconds);
+            });
+        } catch (RuntimeException e) {
+            log.warn("⚠️ تعذر قياس طابور المعاملات المعلقة: {}", e.getMessage());
+        }
+    }
+
+    private String nodeId() {
+        if (nodeId == null || nodeId.isBlank()) {
+            nodeId = ManagementFactory.getRuntimeMXBean().getName();
+        }
+        return nodeId;
+    }
+
+    private AsyncTaskExecutor executor() {
+        if (executor == null) {
+            synchronized (this) {
+                if (executor == null) {
+                    executor = BlockingExecutors.create("pending-tx-", virtualThreads, partitions);
+                }
+            }
+        }
+        return executor;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (executor != null) {
+            BlockingExecutors.shutdown(executor);
+        }
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    static class ClaimedTransaction {
+        private final Long id;
+        private final Long accountId;
+    }
+
+    /**
+     * ملخص تفريغ الطابور
+     */
+    public static class DrainResult {
+        private final AtomicInteger claimed = new AtomicInteger();
+        private final AtomicInteger completed = new AtomicInteger();
+        private final AtomicInteger pendingApproval = new AtomicInteger();
+        private final AtomicInteger failed = new AtomicInteger();
+        private final AtomicInteger skipped = new AtomicInteger();
+
+        void count(TransactionStatus status) {
+            if (status == null || status == TransactionStatus.PENDING) {
+                skipped.incrementAndGet();
+            } else if (status == TransactionStatus.COMPLETED) {
+                completed.incrementAndGet();
+            } else if (status == TransactionStatus.PENDING_APPROVAL) {
+                pendingApproval.incrementAndGet();
+            } else {
+                failed.incrementAndGet();
+            }
+        }
+
+        public int getClaimed() {
+            return claimed.get();
+        }
+
+        public int getCompleted() {
+            return completed.get();
+        }
+
+        public int getPendingApproval() {
+            return pendingApproval.get();
+        }
+
+        public int getFailed() {
+            return failed.get();
+        }
+
+        public int getSkipped() {
+            return skipped.get();
+        }
+    }
+}
@@ -2,8 +2,10 @@ package com.bank.se3bank.transactions.service;
 
 import com.bank.se3bank.accounts.model.Account;
 import com.bank.se3bank.notifications.service.NotificationService;
+import com.bank.se3bank.shared.dto.TransactionResponse;
 import com.bank.se3bank.shared.enums.TransactionStatus;
 import com.bank.se3bank.shared.enums.TransactionType;
+import com.bank.se3bank.shared.metrics.BankMetrics;
 import com.bank.se3bank.transactions.handlers.ApprovalChainFactory;
 import com.bank.se3bank.transactions.handlers.ManagerApprovalHandler;
 import com.bank.se3bank.transactions.handlers.TransactionHandler;
@@ -30,6 +32,7 @@ public class TransactionService {
     private final ApprovalChainFactory approvalChainFactory;
     private final NotificationService notificationService;
     private final UserService userService;
+    private final BankMetrics metrics;
     
     // ========== Create Transactions ==========
     
@@ -39,10 +42,12 @@ public class TransactionService {
     @Transactional
     public Transaction createTransaction(Account fromAccount, Account toAccount, 
                                          Double amount, String description) {
-        log.info("💸 إنشاء معاملة تحويل من {} إلى {} بمبلغ {}", 
-                fromAccount.getAccountNumber(), 
-                toAccount.getAccountNumber(), 
-                amount);
+        if (log.isDebugEnabled()) {
+            log.debug("💸 إنشاء معاملة تحويل من {} إلى {} بمبلغ {}", 
+                    fromAccount.getAccountNumber(), 
+                    toAccount.getAccountNumber(), 
+                    amount);
+        }
         
         Transaction transaction = Transaction.builder()
                 .fromAccount(fromAccount)
@@ -63,7 +68,7 @@ public class TransactionService {
     @Transactional
     public Transaction createWithdrawalTransaction(Account account, Double amount, 
                                                    String description) {
-        log.info("💰 إنشاء معاملة سحب من {} بمبلغ {}", 
+        log.debug("💰 إنشاء معاملة سحب من {} بمبلغ {}", 
                 account.getAccountNumber(), amount);
         
         Transaction transaction = Transaction.builder()
@@ -84,7 +89,7 @@ public class TransactionService {
     @Transactional
     public Transaction createDepositTransaction(Account account, Double amount, 
                                                 String description) {
-        log.info("📥 إنشاء معاملة إيداع إلى {} بمبلغ {}", 
+        log.debug("📥 إنشاء معاملة إيداع إلى {} بمبلغ {}", 
                 account.getAccountNumber(), amount);
         
         Transaction transaction = Transaction.builder()
@@ -127,9 +132,10 @@ public class TransactionService {
      */
     @Transactional
     public Transaction processTransaction(Transaction transaction) {
-        log.info("⚙️ معالجة المعاملة {} باستخدام Chain of Responsibility", 
+        log.debug("⚙️ معالجة المعاملة {} باستخدام Chain of Responsibility", 
                 transaction.getTransactionId());
         
+        long started = System.nanoTime();
         try {
             // إنشاء سلسلة الاعتماد
             TransactionHandler approvalChain = approvalChainFactory.createApprovalChain();
@@ -141,7 +147,7 @@ public class TransactionService {
             Transaction savedTransaction = transactionRepository.save(transaction);
             
             if (processedSuccessfully) {
-                log.info("✅ تمت معالجة المعاملة {} بنجاح. الحالة: {}", 
+                log.debug("✅ تمت معالجة المعاملة {} بنجاح. الحالة: {}", 
                         savedTransaction.getTransactionId(), 
                         savedTransaction.getStatus());
                 
@@ -153,30 +159,39 @@ public class TransactionService {
                 log.error("❌ فشلت معالجة المعاملة {}", savedTransaction.getTransactionId());
             }
             
+            metrics.recordTransactionProcessed(savedTransaction, System.nanoTime() - started);
             return savedTransaction;
             
         } catch (Exception e) {
             log.error("❌ خطأ في معالجة المعاملة: {}", e.getMessage());
             transaction.markAsFailed("خطأ في المعالجة: " + e.getMessage());
-            return transactionRepository.save(transaction);
+            Transaction failedTransaction = transactionRepository.save(transaction);
+            metrics.recordTransactionProcessed(transaction, System.nanoTime() - started);
+            return failedTransaction;
         }
     }
     
     /**
-     * اعتماد معاملة بواسطة المدير
+     * اعتماد معاملة بواسطة المدير (تحميل المدير من قاعدة البيانات)
      */
     @Transactional
     public Transaction approveTransaction(Long transactionId, Long managerId, String comments) {
+        return approveTransaction(transactionId, userService.getUserById(managerId), comments);
+    }
+    
+    /**
+     * اعتماد معاملة بواسطة المدير (المستخدم المصادق عليه من سياق الأمان)
+     */
+    @Transactional
+    public Transaction approveTransaction(Long transactionId, User manager, String comments) {
+        Long managerId = manager != null ? manager.getId() : null;
         log.info("👔 محاولة اعتماد المعاملة {} بواسطة المدير {}", transactionId, managerId);
         
         Transaction transaction = transactionRepository.findById(transactionId)
                 .orElseThrow(() -> new IllegalArgumentException("المعاملة غير موجودة"));
 
         // التحقق من أن المستخدم مدير
-        User manager = userService.getUserById(managerId);
-        if (!manager.hasRole(com.bank.se3bank.shared.enums.Role.ROLE_MANAGER)) {
-            throw new SecurityException("المستخدم ليس مديراً");
-        }
+        requireManager(manager);
 
         if (!transaction.requiresApproval()) {
             throw new IllegalStateException("المعاملة لا تتطلب اعتماداً");
@@ -187,6 +202,7 @@ public class TransactionService {
         managerHandler.approveTransaction(transaction, managerId);
         
         Transaction savedTransaction = transactionRepository.save(transaction);
+        metrics.recordTransactionOutcome(savedTransaction);
         
         // إرسال إشعارات
         sendTransactionNotifications(savedTransaction);
@@ -198,21 +214,28 @@ public class TransactionService {
     }
     
     /**
-     * رفض معاملة بواسطة المدير
+     * رفض معاملة بواسطة المدير (تحميل المدير من قاعدة البيانات)
      */
     @Transactional
     public Transaction rejectTransaction(Long transactionId, Long managerId, 
                                          String reason, String comments) {
+        return rejectTransaction(transactionId, userService.getUserById(managerId), reason, comments);
+    }
+    
+    /**
+     * رفض معاملة بواسطة المدير (المستخدم المصادق عليه من سياق الأمان)
+     */
+    @Transactional
+    public Transaction rejectTransaction(Long transactionId, User manager, 
+                                         String reason, String comments) {
+        Long managerId = manager != null ? manager.getId() : null;
         log.info("👔 محاولة رفض المعاملة {} بواسطة المدير {}", transactionId, managerId);
         
         Transaction transaction = transactionRepository.findById(transactionId)
                 .orElseThrow(() -> new IllegalArgumentException("المعاملة غير موجودة"));
 
         // التحقق من أن المستخدم مدير
-        User manager = userService.getUserById(managerId);
-        if (!manager.hasRole(com.bank.se3bank.shared.enums.Role.ROLE_MANAGER)) {
-            throw new SecurityException("المستخدم ليس مديراً");
-        }
+        requireManager(manager);
 
         if (!transaction.requiresApproval()) {
             throw new IllegalStateException("المعاملة لا تتطلب اعتماداً");
@@ -223,6 +246,7 @@ public class TransactionService {
         managerHandler.rejectTransaction(transaction, managerId, reason);
         
         Transaction savedTransaction = transactionRepository.save(transaction);
+        metrics.recordTransactionOutcome(savedTransaction);
         
         log.info("❌ تم رفض المعاملة {} بواسطة المدير {}", 
                 savedTransaction.getTransactionId(), managerId);
@@ -235,6 +259,7 @@ public class TransactionService {
     /**
      * الحصول على المعاملات الأخيرة لحساب
      */
+    @Transactional(readOnly = true)
     public List<Transaction> getRecentTransactions(Long accountId, int limit) {
         // استخدام الدوال Native مع LIMIT
         return transactionRepository.findRecentTransactionsByAccountNative(accountId, limit);
@@ -243,14 +268,27 @@ public class TransactionService {
     /**
      * الحصول على المعاملات الأخيرة للمستخدم
      */
+    @Transactional(readOnly = true)
     public List<Transaction> getRecentTransactionsByUser(Long userId, int limit) {
         // استخدام الدوال Native مع LIMIT
         return transactionRepository.findRecentTransactionsByUserNative(userId, limit);
     }
     
+    /**
+     * آخر معاملات المستخدم كاستجابات جاهزة (الحسابات محمّلة مسبقاً عبر EntityGraph)
+     */
+    @Transactional(readOnly = true)
+    public List<TransactionResponse> getRecentTransactionResponsesByUser(Long userId, int limit) {
+        return transactionRepository.findRecentWithAccountsByUser(userId, PageRequest.of(0, limit))
+                .stream()
+                .map(TransactionResponse::from)
+                .toList();
+    }
+    
     /**
      * الحصول على إجمالي الإيداعات لحساب
      */
+    @Transactional(readOnly = true)
     public Double getTotalDeposits(Long accountId) {
         LocalDateTime startOfMonth = LocalDateTime.now().withDayOfMonth(1).withHour(0).withMinute(0).withSecond(0);
         LocalDateTime endOfMonth = LocalDateTime.now();
@@ -263,6 +301,7 @@ public class TransactionService {
     /**
      * الحصول على إجمالي السحوبات لحساب
      */
+    @Transactional(readOnly = true)
     public Double getTotalWithdrawals(Long accountId) {
         LocalDateTime startOfMonth = LocalDateTime.now().withDayOfMonth(1).withHour(0).withMinute(0).withSecond(0);
         LocalDateTime endOfMonth = LocalDateTime.now();
@@ -298,6 +337,7 @@ public class TransactionService {
     /**
      * الحصول على جميع معاملات حساب
      */
+    @Transactional(readOnly = true)
     public List<Transaction> getAccountTransactions(Long accountId, 
                                                     LocalDateTime startDate, 
                                                     LocalDateTime endDate) {
@@ -315,10 +355,16 @@ public class TransactionService {
     
     // ========== Helper Methods ==========
     
+    private static void requireManager(User manager) {
+        if (manager == null || !manager.hasRole(com.bank.se3bank.shared.enums.Role.ROLE_MANAGER)) {
+            throw new SecurityException("المستخدم ليس مديراً");
+        }
+    }
+    
     /**
-     * إرسال إشعارات للمعاملة
+     * إرسال إشعارات للمعاملة (تُستدعى أيضاً بعد القرار الجماعي في صندوق الاعتماد)
      */
-    private void sendTransactionNotifications(Transaction transaction) {
+    public void sendTransactionNotifications(Transaction transaction) {
         try {
             if (transaction.getStatus() == TransactionStatus.COMPLETED) {
                 switch (transaction.getTransactionType()) {
@@ -338,6 +384,7 @@ public class TransactionService {
                             Double oldBalance = transaction.getFromAccount().getBalance() + transaction.getAmount();
                             notificationService.sendWithdrawalNotification(
                                     transaction.getFromAccount().getUser(),
+                                    transaction.getFromAccount(),
                                     transaction.getAmount(),
                                     oldBalance,
                                     transaction.getFromAccount().getBalance()
@@ -350,6 +397,7 @@ public class TransactionService {
                             Double oldBalance = transaction.getToAccount().getBalance() - transaction.getAmount();
                             notificationService.sendDepositNotification(
                                     transaction.getToAccount().getUser(),
+                                    transaction.getToAccount(),
                                     transaction.getAmount(),
                                     oldBalance,
                                     transaction.getToAccount().getBalance()
@@ -392,32 +440,15 @@ public class TransactionService {
         
         log.info("🗑️ تم إلغاء المعاملة {} بواسطة المستخدم {}", transactionId, userId);
         
-        return transactionRepository.save(transaction);
-    }
-    
-    /**
-     * معالجة المعاملات المعلقة تلقائياً (للمهام المجدولة)
-     */
-    @Transactional
-    public void processPendingTransactions() {
-        List<Transaction> pendingTransactions = transactionRepository
-                .findByStatus(TransactionStatus.PENDING);
-        
-        log.info("⏳ معالجة {} معاملة معلقة", pendingTransactions.size());
-        
-        for (Transaction transaction : pendingTransactions) {
-            try {
-                processTransaction(transaction);
-            } catch (Exception e) {
-                log.error("❌ فشل معالجة المعاملة {}: {}", 
-                        transaction.getTransactionId(), e.getMessage());
-            }
-        }
+        Transaction savedTransaction = transactionRepository.save(transaction);
+        metrics.recordTransactionOutcome(savedTransaction);
+        return savedTransaction;
     }
     
     /**
      * الحصول على إحصائيات المعاملات
      */
+    @Transactional(readOnly = true)
     public TransactionStatistics getTransactionStatistics(Long accountId) {
         Double totalDeposits = getTotalDeposits(accountId);
         Double totalWithdrawals = getTotalWithdrawals(accountId);
@@ -3,6 +3,8 @@ package com.bank.se3bank.users.model;
 import com.bank.se3bank.shared.enums.Role;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -15,6 +17,8 @@ import java.util.stream.Collectors;
 
 @Entity
 @Table(name = "users")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = User.CACHE_REGION)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -22,6 +26,10 @@ import java.util.stream.Collectors;
 @Builder
 public class User implements UserDetails {
     
+    public static final String CACHE_REGION = "users";
+    public static final String ROLES_CACHE_REGION = "users-roles";
+    public static final String LOOKUP_CACHE_REGION = "users-by-natural-key";
+    
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -52,6 +60,7 @@ public class User implements UserDetails {
     
     @ElementCollection(fetch = FetchType.EAGER)
     @CollectionTable(name = "user_roles", joinColumns = @JoinColumn(name = "user_id"))
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = User.ROLES_CACHE_REGION)
     @Column(name = "role")
     @Enumerated(EnumType.STRING)
     @Builder.Default
@@ -1,17 +1,46 @@
 package com.bank.se3bank.users.repository;
 
 import com.bank.se3bank.users.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = User.LOOKUP_CACHE_REGION)
+    })
     Optional<User> findByUsername(String username);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = User.LOOKUP_CACHE_REGION)
+    })
     Optional<User> findByEmail(String email);
     Optional<User> findByNationalId(String nationalId);
     boolean existsByUsername(String username);
     boolean existsByEmail(String email);
     boolean existsByNationalId(String nationalId);
+
+    /**
+     * أعمدة فهرس البحث في الذاكرة (InMemorySearchIndex)
+     */
+    interface UserSearchView {
+        Long getId();
+        String getUsername();
+        String getFirstName();
+        String getLastName();
+        String getEmail();
+    }
+
+    @Query("SELECT u.id AS id, u.username AS username, u.firstName AS firstName, " +
+           "u.lastName AS lastName, u.email AS email FROM User u ORDER BY u.id")
+    List<UserSearchView> findAllSearchViews();
 }
\ No newline at end of file
@@ -0,0 +1,45 @@
+package com.bank.se3bank.users.service;
+
+import com.bank.se3bank.users.model.User;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * طرد المستخدم من الكاش بعد commit تغييرات الأمان (الأدوار، التفعيل)
+ * READ_WRITE يحدّث الكيان تلقائياً، لكن الطرد الصريح يشمل منطقة الأدوار ونتائج findByUsername/findByEmail
+ * ويضمن ألا يُقرأ مستخدم معطّل أو دور مسحوب من الكاش ولو للحظة
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class UserCacheEvictor {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    public void evictAfterCommit(Long userId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(userId);
+                }
+            });
+        } else {
+            evict(userId);
+        }
+    }
+
+    public void evict(Long userId) {
+        Cache cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        cache.evictEntityData(User.class, userId);
+        cache.evictCollectionData(User.class.getName() + ".roles", userId);
+        cache.evictQueryRegion(User.LOOKUP_CACHE_REGION);
+        log.debug("🧹 تم طرد المستخدم {} من الكاش", userId);
+    }
+}
@@ -1,4 +1,6 @@
 package com.bank.se3bank.users.service;
+import com.bank.se3bank.search.model.UserSearchHit;
+import com.bank.se3bank.search.service.SearchService;
 import com.bank.se3bank.shared.enums.Role;
 import com.bank.se3bank.shared.exceptions.UserNotFoundException;
 import com.bank.se3bank.users.model.User;
@@ -11,7 +13,11 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -20,6 +26,10 @@ public class UserService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final UserCacheEvictor cacheEvictor;
+    private final SearchService searchService;
+
+    private static final int SEARCH_LIMIT = 50;
 
     /**
      * إنشاء مستخدم جديد
@@ -85,6 +95,7 @@ public class UserService {
     public User addRoleToUser(Long userId, Role role) {
         User user = getUserById(userId);
         user.addRole(role);
+        cacheEvictor.evictAfterCommit(userId);
         return userRepository.save(user);
     }
 
@@ -95,6 +106,7 @@ public class UserService {
     public User removeRoleFromUser(Long userId, Role role) {
         User user = getUserById(userId);
         user.removeRole(role);
+        cacheEvictor.evictAfterCommit(userId);
         return userRepository.save(user);
     }
 
@@ -105,6 +117,7 @@ public class UserService {
     public User setUserActiveStatus(Long userId, boolean isActive) {
         User user = getUserById(userId);
         user.setIsActive(isActive);
+        cacheEvictor.evictAfterCommit(userId);
         return userRepository.save(user);
     }
 
@@ -123,11 +136,15 @@ public class UserService {
     }
 
     /**
-     * البحث عن المستخدمين بالاسم
+     * البحث عن المستخدمين بالاسم (أفضل النتائج من فهرس البحث بترتيب الصلة)
      */
+    @Transactional(readOnly = true)
     public List<User> searchUsersByName(String name) {
-        return userRepository.findAll().stream()
-                .filter(user -> user.getFullName().toLowerCase().contains(name.toLowerCase()))
+        List<Long> ids = searchService.searchUsers(name, 0, SEARCH_LIMIT).getItems().stream()
+                .map(UserSearchHit::getUserId)
                 .toList();
+        Map<Long, User> byId = userRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+        return ids.stream().map(byId::get).filter(Objects::nonNull).toList();
     }
 }
\ No newline at end of file
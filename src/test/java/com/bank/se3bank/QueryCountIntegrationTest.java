@@ -0,0 +1,138 @@
+package com.bank.se3bank;
+
+import com.bank.se3bank.notifications.model.Notification;
+import com.bank.se3bank.notifications.repository.NotificationRepository;
+import com.bank.se3bank.users.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * حارس خطط الجلب: عدد جمل SQL لكل endpoint يجب ألا يعتمد على عدد الصفوف
+ * الميزانية تشمل جملتين لتحميل المستخدم في فلتر JWT
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class QueryCountIntegrationTest {
+
+    private static final int ROWS = 8;
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    private String token;
+    private Long userId;
+
+    @BeforeEach
+    void seed() throws Exception {
+        String username = "qcount" + SEQUENCE.incrementAndGet();
+        String registerResponse = mockMvc.perform(post("/auth/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(String.format("""
+                                {
+                                  "username":"%s",
+                                  "email":"%s@test.com",
+                                  "password":"password",
+                                  "firstName":"Query",
+                                  "lastName":"Count",
+                                  "roles":["ROLE_ADMIN"]
+                                }
+                                """, username, username)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        userId = objectMapper.readTree(registerResponse).get("userId").asLong();
+
+        String loginResponse = mockMvc.perform(post("/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(String.format("{\"username\":\"%s\",\"password\":\"password\"}", username)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        token = objectMapper.readTree(loginResponse).get("token").asText();
+
+        for (int i = 0; i < ROWS; i++) {
+            mockMvc.perform(post("/api/accounts")
+                            .header("Authorization", "Bearer " + token)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(String.format("""
+                                    {"accountType":"%s","userId":%d,"initialBalance":%d}
+                                    """, i % 2 == 0 ? "SAVINGS" : "CHECKING", userId, 100 + i)))
+                    .andExpect(status().isCreated());
+
+            notificationRepository.save(Notification.builder()
+                    .user(userRepository.findById(userId).orElseThrow())
+                    .title("title " + i)
+                    .message("message " + i)
+                    .type("ACCOUNT")
+                    .channel("IN_APP")
+                    .build());
+        }
+    }
+
+    @Test
+    void getAllAccounts_constantStatementCount() throws Exception {
+        assertMaxStatements("/api/accounts", 5);
+    }
+
+    @Test
+    void getUserAccounts_constantStatementCount() throws Exception {
+        assertMaxStatements("/api/accounts/user/" + userId, 5);
+    }
+
+    @Test
+    void getUserGroups_constantStatementCount() throws Exception {
+        assertMaxStatements("/api/groups/user/" + userId, 4);
+    }
+
+    @Test
+    void getUserNotifications_constantStatementCount() throws Exception {
+        assertMaxStatements("/api/notifications/user/" + userId, 4);
+    }
+
+    @Test
+    void getUserSummary_constantStatementCount() throws Exception {
+        assertMaxStatements("/api/banking/users/" + userId + "/summary", 10);
+    }
+
+    private void assertMaxStatements(String url, long maxStatements) throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+
+        mockMvc.perform(get(url).header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk());
+
+        assertThat(statistics.getPrepareStatementCount())
+                .as("عدد جمل SQL لـ %s", url)
+                .isLessThanOrEqualTo(maxStatements);
+    }
+}
@@ -0,0 +1,28 @@
+package com.bank.se3bank.accounts;
+
+import com.bank.se3bank.accounts.model.Account;
+import com.bank.se3bank.accounts.service.AccountService;
+import com.bank.se3bank.shared.dto.CreateAccountRequest;
+import com.bank.se3bank.shared.enums.AccountType;
+import com.bank.se3bank.users.model.User;
+
+/**
+ * إنشاء حسابات لاختبارات التكامل عبر AccountService.createAccount، فتمر بنفس المصنع والقيد الافتتاحي
+ */
+public final class AccountFixtures {
+
+    private AccountFixtures() {
+    }
+
+    public static Account account(AccountService accountService, User owner, double balance) {
+        return account(accountService, owner, AccountType.CHECKING, balance);
+    }
+
+    public static Account account(AccountService accountService, User owner, AccountType type, double balance) {
+        CreateAccountRequest request = new CreateAccountRequest();
+        request.setAccountType(type);
+        request.setUserId(owner.getId());
+        request.setInitialBalance(balance);
+        return accountService.createAccount(request);
+    }
+}
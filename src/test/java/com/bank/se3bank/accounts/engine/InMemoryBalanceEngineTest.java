@@ -0,0 +1,357 @@
+package com.bank.se3bank.accounts.engine;
+
+import com.bank.se3bank.shared.enums.TransactionType;
+import com.bank.se3bank.shared.exceptions.OutcomeUnknownException;
+import com.bank.se3bank.shared.metrics.BankMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.catchThrowable;
+import static org.mockito.Mockito.doCallRealMethod;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.spy;
+
+class InMemoryBalanceEngineTest {
+
+    @TempDir
+    Path directory;
+
+    /**
+     * قاعدة بيانات وهمية: أرصدة ونقطة إسقاط في الذاكرة، ويمكن جعلها تفشل لمحاكاة انقطاع قاعدة البيانات
+     */
+    static class FakeProjection implements BalanceProjection {
+        final Map<Long, Double> balances = new ConcurrentHashMap<>();
+        volatile long checkpoint;
+        volatile boolean failing;
+
+        @Override
+        public long lastProjectedSequence() {
+            return checkpoint;
+        }
+
+        @Override
+        public synchronized void project(List<JournalRecord> records) {
+            if (failing) {
+                throw new IllegalStateException("قاعدة البيانات غير متاحة");
+            }
+            for (JournalRecord record : records) {
+                if (record.getSequence() <= checkpoint) {
+                    continue;
+                }
+                balances.merge(record.getAccountId(), record.accountDelta(), Double::sum);
+                if (record.getType() == TransactionType.TRANSFER) {
+                    balances.merge(record.getCounterpartyId(), record.getAmount(), Double::sum);
+                }
+                checkpoint = record.getSequence();
+            }
+        }
+    }
+
+    /**
+     * بذرة توقف خيط الجزء عند فحص السحب حتى تُفتح البوابة، لإبقاء الأمر معلقاً أو حلقة الجزء ممتلئة
+     */
+    static class GatedState extends AccountState {
+        final CountDownLatch entered = new CountDownLatch(1);
+        final CountDownLatch gate = new CountDownLatch(1);
+
+        GatedState(long id, double balance) {
+            super(id, balance, true, null);
+        }
+
+        @Override
+        boolean canWithdraw(double amount) {
+            entered.countDown();
+            try {
+                gate.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return super.canWithdraw(amount);
+        }
+    }
+
+    private InMemoryBalanceEngine engine(FakeProjection projection) throws IOException {
+        return engine(projection, 1024, 5000);
+    }
+
+    private InMemoryBalanceEngine engine(FakeProjection projection, int ringSize, long ackTimeoutMs) throws IOException {
+        InMemoryBalanceEngine engine = new InMemoryBalanceEngine(directory.toString(), 4, ringSize, 64,
+                BalanceJournal.RECORD_BYTES * 16, ackTimeoutMs, 100, projection, new BankMetrics(new SimpleMeterRegistry()));
+        engine.start();
+        return engine;
+    }
+
+    private static AccountState account(long id, double balance) {
+        return new AccountState(id, balance, true, null);
+    }
+
+    @Test
+    void acknowledgedCommandsSurviveCrashBeforeProjection() throws IOException {
+        FakeProjection down = new FakeProjection();
+        down.failing = true;
+        InMemoryBalanceEngine first = engine(down);
+        for (int i = 0; i < 50; i++) {
+            first.deposit(account(1, 0), 10);
+            first.transfer(account(1, 0), account(2, 0), 4);
+        }
+        first.withdraw(account(2, 0), 20);
+        assertThat(first.getBalance(1L)).isEqualTo(300.0);
+        assertThat(first.getBalance(2L)).isEqualTo(180.0);
+        first.close();
+        assertThat(down.balances).isEmpty();
+
+        FakeProjection up = new FakeProjection();
+        InMemoryBalanceEngine second = engine(up);
+        try {
+            assertThat(up.checkpoint).isEqualTo(101);
+            assertThat(up.balances).containsEntry(1L, 300.0).containsEntry(2L, 180.0);
+            assertThat(second.getBalance(1L)).isNull();
+
+            EngineResult next = second.deposit(account(1, up.balances.get(1L)), 1);
+            assertThat(next.getSequence()).isEqualTo(102);
+            assertThat(next.getBalance()).isEqualTo(301.0);
+        } finally {
+            second.close();
+        }
+    }
+
+    @Test
+    void restartReplaysOnlyRecordsAfterCheckpoint() throws IOException {
+        FakeProjection projection = new FakeProjection();
+        InMemoryBalanceEngine first = engine(projection);
+        for (int i = 0; i < 40; i++) {
+            first.deposit(account(7, 0), 1);
+        }
+        first.close();
+        assertThat(projection.balances).containsEntry(7L, 40.0);
+
+        InMemoryBalanceEngine second = engine(projection);
+        try {
+            assertThat(projection.balances).containsEntry(7L, 40.0);
+            assertThat(second.getLastSequence()).isEqualTo(40);
+        } finally {
+            second.close();
+        }
+    }
+
+    @Test
+    void rejectsWithdrawalBeyondBalanceAndKeepsState() throws IOException {
+        InMemoryBalanceEngine engine = engine(new FakeProjection());
+        try {
+            engine.deposit(account(3, 50), 10);
+
+            assertThatThrownBy(() -> engine.withdraw(account(3, 0), 100))
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessage(BalanceShard.INSUFFICIENT_BALANCE);
+            assertThatThrownBy(() -> engine.transfer(account(3, 0), account(3, 0), 1))
+                    .isInstanceOf(IllegalArgumentException.class);
+            assertThat(engine.getBalance(3L)).isEqualTo(60.0);
+            assertThat(engine.getLastSequence()).isEqualTo(1);
+        } finally {
+            engine.close();
+        }
+    }
+
+    @Test
+    void fsyncFailureStopsEngineUntilRestartReplaysJournal() throws IOException {
+        FakeProjection projection = new FakeProjection();
+        InMemoryBalanceEngine first = engine(projection);
+        first.deposit(account(5, 100), 10);
+
+        BalanceJournal journal = (BalanceJournal) ReflectionTestUtils.getField(first, "journal");
+        BalanceJournal failing = spy(journal);
+        doThrow(new UncheckedIOException(new IOException("EIO"))).when(failing).force();
+        ReflectionTestUtils.setField(first, "journal", failing);
+
+        assertThatThrownBy(() -> first.withdraw(account(5, 0), 30))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("إعادة التشغيل");
+        // الذاكرة طبقت السحب غير المؤكد، فلا تُقرأ ولا تقبل أوامر حتى إعادة التشغيل
+        assertThatThrownBy(() -> first.getBalance(5L)).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> first.deposit(account(5, 0), 1)).isInstanceOf(IllegalStateException.class);
+        assertThat(first.getLastSequence()).isEqualTo(2);
+
+        doCallRealMethod().when(failing).force();
+        first.close();
+        assertThat(projection.checkpoint).isEqualTo(1);
+
+        // السجل غير المؤكد وصل إلى الملف، فالاستعادة من الدفتر تحسم نتيجته
+        InMemoryBalanceEngine second = engine(projection);
+        try {
+            assertThat(projection.checkpoint).isEqualTo(2);
+            assertThat(projection.balances).containsEntry(5L, -20.0);
+            assertThat(second.deposit(account(5, 80), 5).getBalance()).isEqualTo(85.0);
+        } finally {
+            second.close();
+        }
+    }
+
+    @Test
+    void ackTimeoutReturnsOutcomeToLookUpInsteadOfFailure() throws Exception {
+        InMemoryBalanceEngine engine = engine(new FakeProjection(), 1024, 200);
+        GatedState slow = new GatedState(11, 100);
+        try {
+            Throwable timeout = catchThrowable(() -> engine.withdraw(slow, 30));
+            assertThat(timeout).isInstanceOf(OutcomeUnknownException.class);
+            String commandId = ((OutcomeUnknownException) timeout).getCommandId();
+            assertThatThrownBy(() -> engine.getOutcome(commandId)).isInstanceOf(OutcomeUnknownException.class);
+
+            slow.gate.countDown();
+            EngineResult outcome = await(() -> engine.getOutcome(commandId));
+            assertThat(outcome.getBalance()).isEqualTo(70.0);
+            assertThat(outcome.getSequence()).isEqualTo(1);
+            assertThat(engine.getBalance(11L)).isEqualTo(70.0);
+            assertThatThrownBy(() -> engine.getOutcome("unknown")).isInstanceOf(IllegalArgumentException.class);
+        } finally {
+            slow.gate.countDown();
+            engine.close();
+        }
+    }
+
+    @Test
+    void transferIsNotProjectedWhileItsCreditLegWaitsForFullRing() throws Exception {
+        FakeProjection projection = new FakeProjection();
+        InMemoryBalanceEngine engine = engine(projection, 1, 5000);
+        long from = 1;
+        long[] target = idsOutsideShardOf(engine, from, 3);
+        GatedState blocker = new GatedState(target[0], 100);
+        long filler = target[1];
+        long to = target[2];
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            // خيط جزء المستقبل متوقف، وحلقته (بسعة 1) ممتلئة بأمر آخر
+            Future<EngineResult> blocked = executor.submit(() -> engine.withdraw(blocker, 30));
+            assertThat(blocker.entered.await(5, TimeUnit.SECONDS)).isTrue();
+            Future<EngineResult> queued = executor.submit(() -> engine.deposit(account(filler, 0), 1));
+            ArrayBlockingQueue<?> ring = (ArrayBlockingQueue<?>) ReflectionTestUtils.getField(engine.shardOf(to), "ring");
+            awaitCondition(() -> ring.remainingCapacity() == 0);
+
+            Future<EngineResult> transfer = executor.submit(() -> engine.transfer(account(from, 500), account(to, 0), 100));
+            awaitCondition(() -> engine.getLastSequence() == 1);
+            Thread.sleep(300);
+
+            // التحويل مثبت في الدفتر وطرف إيداعه مؤجل: لا يصل إلى قاعدة البيانات قبل الذاكرة
+            assertThat(projection.checkpoint).isZero();
+            assertThat(projection.balances).doesNotContainKey(to);
+
+            // أمر جديد يُبذر من قاعدة البيانات في هذه اللحظة لا يحسب المبلغ مرتين
+            Future<EngineResult> next = executor.submit(() ->
+                    engine.deposit(account(to, projection.balances.getOrDefault(to, 0.0)), 5));
+            blocker.gate.countDown();
+            assertThat(blocked.get(5, TimeUnit.SECONDS).getBalance()).isEqualTo(70.0);
+            queued.get(5, TimeUnit.SECONDS);
+            assertThat(transfer.get(5, TimeUnit.SECONDS).getBalance()).isEqualTo(400.0);
+            next.get(5, TimeUnit.SECONDS);
+
+            assertThat(engine.getBalance(to)).isEqualTo(105.0);
+            awaitCondition(() -> engine.getProjectedSequence() == engine.getLastSequence());
+            assertThat(projection.balances).containsEntry(to, 105.0);
+        } finally {
+            blocker.gate.countDown();
+            executor.shutdownNow();
+            engine.close();
+        }
+    }
+
+    /**
+     * حسابات في جزء واحد غير جزء الحساب المعطى
+     */
+    private static long[] idsOutsideShardOf(InMemoryBalanceEngine engine, long accountId, int count) {
+        BalanceShard other = null;
+        long[] ids = new long[count];
+        int found = 0;
+        for (long id = accountId + 1; found < count; id++) {
+            BalanceShard shard = engine.shardOf(id);
+            if (shard == engine.shardOf(accountId) || (other != null && shard != other)) {
+                continue;
+            }
+            other = shard;
+            ids[found++] = id;
+        }
+        return ids;
+    }
+
+    private static void awaitCondition(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).isLessThan(deadline);
+            Thread.sleep(10);
+        }
+    }
+
+    private static <T> T await(Callable<T> lookup) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (true) {
+            try {
+                return lookup.call();
+            } catch (OutcomeUnknownException e) {
+                if (System.nanoTime() > deadline) {
+                    throw e;
+                }
+                Thread.sleep(10);
+            }
+        }
+    }
+
+    @Test
+    void journalStopsAtTornTailAndContinuesSequence() throws IOException {
+        BalanceJournal journal = new BalanceJournal(directory, BalanceJournal.RECORD_BYTES * 100);
+        journal.open(0, record -> { });
+        List<JournalRecord> records = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            records.add(new JournalRecord(0, TransactionType.DEPOSIT, 9, 0, 1, System.currentTimeMillis()));
+        }
+        journal.append(records);
+        journal.close();
+
+        Path segment;
+        try (Stream<Path> files = Files.list(directory)) {
+            segment = files.findFirst().orElseThrow();
+        }
+        try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw")) {
+            file.seek(BalanceJournal.RECORD_BYTES * 4L + 30);
+            file.write(0x7F);
+        }
+
+        List<JournalRecord> replayed = new ArrayList<>();
+        BalanceJournal reopened = new BalanceJournal(directory, BalanceJournal.RECORD_BYTES * 100);
+        reopened.open(1, replayed::add);
+        assertThat(replayed).extracting(JournalRecord::getSequence).containsExactly(2L, 3L, 4L);
+        assertThat(reopened.getLastSequence()).isEqualTo(4);
+
+        JournalRecord next = new JournalRecord(0, TransactionType.WITHDRAWAL, 9, 0, 1, System.currentTimeMillis());
+        reopened.append(List.of(next));
+        reopened.close();
+        assertThat(next.getSequence()).isEqualTo(5);
+
+        List<JournalRecord> again = new ArrayList<>();
+        BalanceJournal third = new BalanceJournal(directory, BalanceJournal.RECORD_BYTES * 100);
+        third.open(0, again::add);
+        third.close();
+        assertThat(again).extracting(JournalRecord::getType).last().isEqualTo(TransactionType.WITHDRAWAL);
+        assertThat(again).hasSize(5);
+    }
+}
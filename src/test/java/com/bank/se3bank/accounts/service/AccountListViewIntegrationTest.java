@@ -0,0 +1,126 @@
+package com.bank.se3bank.accounts.service;
+
+import com.bank.se3bank.accounts.decorators.AccountDecorator;
+import com.bank.se3bank.accounts.decorators.DecoratorFactory;
+import com.bank.se3bank.accounts.model.Account;
+import com.bank.se3bank.accounts.model.AccountGroup;
+import com.bank.se3bank.accounts.repository.AccountDecoratorRepository;
+import com.bank.se3bank.accounts.repository.AccountGroupRepository;
+import com.bank.se3bank.shared.dto.AccountResponse;
+import com.bank.se3bank.shared.dto.AddDecoratorRequest;
+import com.bank.se3bank.shared.enums.AccountType;
+import com.bank.se3bank.users.model.User;
+import com.bank.se3bank.users.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.bank.se3bank.accounts.AccountFixtures.account;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * قائمة الحسابات من الإسقاط: نوع ورصيد المجموعات والديكورات يُحلّان في الاستعلام
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class AccountListViewIntegrationTest {
+
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private GroupService groupService;
+
+    @Autowired
+    private AccountGroupRepository accountGroupRepository;
+
+    @Autowired
+    private DecoratorFactory decoratorFactory;
+
+    @Autowired
+    private AccountDecoratorRepository decoratorRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void groupBalanceFollowsMembershipAndNestedGroups() {
+        User owner = user();
+        User member = user();
+        AccountGroup group = group(owner, "family");
+        AccountGroup nested = group(member, "kids");
+        groupService.addAccountToGroup(group.getId(), account(accountService, owner, AccountType.SAVINGS, 100.0).getId());
+        groupService.addAccountToGroup(nested.getId(), account(accountService, member, AccountType.SAVINGS, 200.0).getId());
+        groupService.addAccountToGroup(group.getId(), nested.getId());
+        jdbcTemplate.update("UPDATE accounts SET balance = 9999 WHERE id IN (?, ?)", group.getId(), nested.getId());
+
+        AccountResponse response = find(accountService.getUserAccountResponses(owner.getId()), group.getId());
+
+        assertThat(response.getBalance()).isEqualTo(300.0);
+        assertThat(response.getAccountType()).isEqualTo(AccountType.SAVINGS);
+        assertThat(find(accountService.getAllAccountResponses(), nested.getId()).getBalance()).isEqualTo(200.0);
+    }
+
+    @Test
+    void decoratorRowsShowWrappedTypeAndBalance() {
+        User owner = user();
+        Account checking = account(accountService, owner, AccountType.CHECKING, 500.0);
+        AccountDecorator insurance = decorate(checking, 10_000.0);
+        AccountDecorator second = decorate(checking, 20_000.0);
+        jdbcTemplate.update("UPDATE accounts SET balance = 700 WHERE id = ?", checking.getId());
+
+        List<AccountResponse> responses = accountService.getUserAccountResponses(owner.getId());
+
+        for (Long id : List.of(insurance.getId(), second.getId())) {
+            AccountResponse response = find(responses, id);
+            assertThat(response.getAccountType()).isEqualTo(AccountType.CHECKING);
+            assertThat(response.getBalance()).isEqualTo(700.0);
+        }
+    }
+
+    private User user() {
+        String username = "listview" + SEQUENCE.incrementAndGet();
+        return userRepository.save(User.builder()
+                .username(username)
+                .email(username + "@test.com")
+                .password("password")
+                .firstName("List")
+                .lastName("View")
+                .build());
+    }
+
+    private AccountGroup group(User owner, String name) {
+        return accountGroupRepository.save(AccountGroup.builder()
+                .groupName(name)
+                .groupType("SAVINGS")
+                .user(owner)
+                .owner(owner)
+                .accountNumber("GRP-" + owner.getUsername() + "-" + name)
+                .build());
+    }
+
+    private AccountDecorator decorate(Account account, double coverage) {
+        AddDecoratorRequest request = new AddDecoratorRequest();
+        request.setAccountId(account.getId());
+        request.setDecoratorType("INSURANCE");
+        request.setCoverageAmount(coverage);
+        request.setInsuranceType("FRAUD");
+        AccountDecorator decorator = decoratorFactory.createDecorator(account, request);
+        decorator.setAccountNumber(account.getAccountNumber() + "-" + (long) coverage);
+        return decoratorRepository.save(decorator);
+    }
+
+    private static AccountResponse find(List<AccountResponse> responses, Long id) {
+        return responses.stream().filter(response -> response.getId().equals(id)).findFirst().orElseThrow();
+    }
+}
@@ -1,29 +1,42 @@
 package com.bank.se3bank.accounts.service;
 
+import com.bank.se3bank.accounts.engine.AccountState;
+import com.bank.se3bank.accounts.engine.EngineResult;
+import com.bank.se3bank.accounts.engine.InMemoryBalanceEngine;
 import com.bank.se3bank.accounts.factory.AccountFactory;
 import com.bank.se3bank.accounts.model.Account;
 import com.bank.se3bank.accounts.model.SavingsAccount;
 import com.bank.se3bank.accounts.repository.AccountRepository;
+import com.bank.se3bank.ledger.service.LedgerService;
+import com.bank.se3bank.search.service.SearchService;
 import com.bank.se3bank.shared.dto.CreateAccountRequest;
 import com.bank.se3bank.shared.enums.AccountStatus;
 import com.bank.se3bank.shared.enums.AccountType;
+import com.bank.se3bank.shared.enums.LedgerCode;
 import com.bank.se3bank.shared.exceptions.AccountNotFoundException;
+import com.bank.se3bank.shared.metrics.BankMetrics;
 import com.bank.se3bank.users.model.User;
 import com.bank.se3bank.users.service.UserService;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 
 @ExtendWith(MockitoExtension.class)
@@ -37,6 +50,18 @@ class AccountServiceTest {
     private UserService userService;
     @Mock
     private GroupService groupService;
+    @Mock
+    private BankMetrics metrics;
+    @Mock
+    private SearchService searchService;
+    @Mock
+    private LedgerService ledgerService;
+    @Mock
+    private HotAccountService hotAccountService;
+    @Mock
+    private ObjectProvider<InMemoryBalanceEngine> balanceEngine;
+    @Mock
+    private EntityManager entityManager;
 
     @InjectMocks
     private AccountService accountService;
@@ -83,14 +108,43 @@ class AccountServiceTest {
     }
 
     @Test
-    void updateBalance_updatesAndSaves() {
+    void updateBalance_locksRowAndPostsExplicitAdjustment() {
         given(accountRepository.findById(account.getId())).willReturn(Optional.of(account));
+        given(accountRepository.lockByIds(List.of(account.getId()))).willReturn(List.of(account.getId()));
         given(accountRepository.save(any(Account.class))).willReturn(account);
 
         Account updated = accountService.updateBalance(account.getId(), 150.0);
 
         assertThat(updated.getBalance()).isEqualTo(150.0);
+        verify(accountRepository).lockByIds(List.of(account.getId()));
         verify(accountRepository).save(account);
+        verify(ledgerService).credit(account.getId(), 50.0, LedgerCode.ADJUSTMENT, null);
+    }
+
+    @Test
+    void deposit_hotAccountCreditsSlotWithoutSavingRow() {
+        account.setBalanceSlots(4);
+        given(accountRepository.findById(account.getId())).willReturn(Optional.of(account));
+
+        Account result = accountService.deposit(account.getId(), 25.0);
+
+        assertThat(result.getBalance()).isEqualTo(100.0);
+        verify(hotAccountService).credit(account, 25.0);
+        verify(accountRepository, never()).save(any(Account.class));
+    }
+
+    @Test
+    void deposit_inMemoryEngineReturnsDetachedAccountWithEngineBalance() {
+        InMemoryBalanceEngine engine = mock(InMemoryBalanceEngine.class);
+        given(balanceEngine.getIfAvailable()).willReturn(engine);
+        given(accountRepository.findById(account.getId())).willReturn(Optional.of(account));
+        given(engine.deposit(any(AccountState.class), eq(25.0))).willReturn(new EngineResult(7L, 125.0, null));
+
+        Account result = accountService.deposit(account.getId(), 25.0);
+
+        assertThat(result.getBalance()).isEqualTo(125.0);
+        verify(entityManager).detach(account);
+        verify(accountRepository, never()).save(any(Account.class));
     }
 
     @Test
@@ -0,0 +1,109 @@
+package com.bank.se3bank.accounts.service;
+
+import com.bank.se3bank.accounts.decorators.ComposedAccountView;
+import com.bank.se3bank.accounts.decorators.DecoratorFeature;
+import com.bank.se3bank.accounts.decorators.OverdraftProtectionDecorator;
+import com.bank.se3bank.accounts.decorators.PremiumServicesDecorator;
+import com.bank.se3bank.accounts.model.CheckingAccount;
+import com.bank.se3bank.shared.enums.AccountStatus;
+import com.bank.se3bank.accounts.repository.AccountDecoratorRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class DecoratorResolverTest {
+
+    @Mock
+    private AccountDecoratorRepository decoratorRepository;
+
+    @InjectMocks
+    private DecoratorResolver decoratorResolver;
+
+    @Test
+    void resolve_composesActiveDecoratorsOnceAndCachesView() {
+        given(decoratorRepository.findByDecoratedAccountIdAndIsActiveTrue(1L)).willReturn(List.of(
+                new OverdraftProtectionDecorator(null, 500.0),
+                new PremiumServicesDecorator(null, "GOLD")));
+
+        ComposedAccountView view = decoratorResolver.resolve(1L);
+        ComposedAccountView again = decoratorResolver.resolve(1L);
+
+        assertThat(again).isSameAs(view);
+        verify(decoratorRepository, times(1)).findByDecoratedAccountIdAndIsActiveTrue(1L);
+
+        assertThat(view.hasFeature(DecoratorFeature.NEGATIVE_BALANCE_ALLOWED)).isTrue();
+        assertThat(view.hasFeature(DecoratorFeature.DEDICATED_SUPPORT)).isTrue();
+        assertThat(view.hasFeature(DecoratorFeature.FRAUD_PROTECTION)).isFalse();
+        assertThat(view.hasDecoratorType("OVERDRAFT_PROTECTION")).isTrue();
+        assertThat(view.hasDecoratorType("INSURANCE")).isFalse();
+        assertThat(view.getOverdraftLimit()).isEqualTo(500.0);
+        assertThat(view.getTotalMonthlyFees()).isEqualTo(60.0);
+        assertThat(view.getFeatures()).endsWith("BASIC_BANKING", "ONLINE_BANKING", "MOBILE_BANKING");
+    }
+
+    @Test
+    void invalidate_forcesReload() {
+        given(decoratorRepository.findByDecoratedAccountIdAndIsActiveTrue(2L)).willReturn(List.of());
+
+        ComposedAccountView first = decoratorResolver.resolve(2L);
+        decoratorResolver.invalidate(2L);
+        ComposedAccountView second = decoratorResolver.resolve(2L);
+
+        assertThat(second).isNotSameAs(first);
+        assertThat(second.isDecorated()).isFalse();
+        assertThat(second.getFeatures()).containsExactly("BASIC_BANKING", "ONLINE_BANKING", "MOBILE_BANKING");
+        verify(decoratorRepository, times(2)).findByDecoratedAccountIdAndIsActiveTrue(2L);
+    }
+
+    @Test
+    void invalidate_keepsOtherAccountsCached() {
+        given(decoratorRepository.findByDecoratedAccountIdAndIsActiveTrue(3L)).willReturn(List.of());
+        given(decoratorRepository.findByDecoratedAccountIdAndIsActiveTrue(4L)).willReturn(List.of());
+
+        ComposedAccountView other = decoratorResolver.resolve(3L);
+        decoratorResolver.resolve(4L);
+        decoratorResolver.invalidate(4L);
+
+        assertThat(decoratorResolver.resolve(3L)).isSameAs(other);
+        verify(decoratorRepository, times(1)).findByDecoratedAccountIdAndIsActiveTrue(3L);
+    }
+
+    @Test
+    void resolve_doesNotCacheViewLoadedBeforeInvalidation() {
+        given(decoratorRepository.findByDecoratedAccountIdAndIsActiveTrue(5L)).willAnswer(invocation -> {
+            // ديكور أُضيف وأُبطل العرض أثناء قراءة القائمة القديمة
+            decoratorResolver.invalidate(5L);
+            return List.of();
+        }).willReturn(List.of(new OverdraftProtectionDecorator(null, 300.0)));
+
+        assertThat(decoratorResolver.resolve(5L).isDecorated()).isFalse();
+        assertThat(decoratorResolver.resolve(5L).getOverdraftLimit()).isEqualTo(300.0);
+        assertThat(decoratorResolver.getCachedViewCount()).isEqualTo(1);
+    }
+
+    @Test
+    void overdraftAllowance_extendsWithdrawalLimit() {
+        given(decoratorRepository.findByDecoratedAccountIdAndIsActiveTrue(6L)).willReturn(List.of(
+                new OverdraftProtectionDecorator(null, 500.0)));
+        CheckingAccount account = CheckingAccount.builder().balance(100.0).status(AccountStatus.ACTIVE).build();
+
+        double allowance = decoratorResolver.resolve(6L).getOverdraftAllowance();
+
+        assertThat(allowance).isEqualTo(500.0);
+        assertThat(account.canWithdraw(550.0)).isFalse();
+        assertThat(account.canWithdraw(550.0, allowance)).isTrue();
+        assertThat(account.canWithdraw(650.0, allowance)).isFalse();
+        account.withdraw(550.0, allowance);
+        assertThat(account.getBalance()).isEqualTo(-450.0);
+    }
+}
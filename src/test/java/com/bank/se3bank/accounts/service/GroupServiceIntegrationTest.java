@@ -0,0 +1,148 @@
+package com.bank.se3bank.accounts.service;
+
+import com.bank.se3bank.accounts.model.Account;
+import com.bank.se3bank.accounts.model.AccountGroup;
+import com.bank.se3bank.shared.dto.GroupBalanceAggregate;
+import com.bank.se3bank.shared.dto.GroupSummary;
+import com.bank.se3bank.accounts.repository.AccountGroupRepository;
+import com.bank.se3bank.shared.enums.AccountType;
+import com.bank.se3bank.users.model.User;
+import com.bank.se3bank.users.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static com.bank.se3bank.accounts.AccountFixtures.account;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * مجاميع المجموعة على H2: المجموعة الفرعية تُحسب بمجموع أبنائها لا بعمود balance المخزن لها
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class GroupServiceIntegrationTest {
+
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+    @Autowired
+    private GroupService groupService;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private AccountGroupRepository accountGroupRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        String username = "groups" + SEQUENCE.incrementAndGet();
+        user = userRepository.save(User.builder()
+                .username(username)
+                .email(username + "@test.com")
+                .password("password")
+                .firstName("Group")
+                .lastName("Owner")
+                .build());
+    }
+
+    @Test
+    void flatGroupUsesAggregateQuery() {
+        AccountGroup group = group("flat");
+        groupService.addAccountToGroup(group.getId(), account(accountService, user, AccountType.SAVINGS, 100.0).getId());
+        groupService.addAccountToGroup(group.getId(), account(accountService, user, AccountType.SAVINGS, 300.0).getId());
+
+        GroupBalanceAggregate aggregate = groupService.getGroupAggregate(group.getId());
+
+        assertThat(aggregate.getAccountCount()).isEqualTo(2);
+        assertThat(aggregate.getActiveBalance()).isEqualTo(400.0);
+        assertThat(aggregate.getMaxBalance()).isEqualTo(300.0);
+        assertThat(groupService.getGroupTotalBalance(group.getId())).isEqualTo(400.0);
+    }
+
+    @Test
+    void nestedGroupBalanceIsSumOfItsChildren() {
+        AccountGroup parent = group("parent");
+        AccountGroup nested = group("nested");
+        Account direct = account(accountService, user, AccountType.SAVINGS, 100.0);
+        Account nestedActive = account(accountService, user, AccountType.SAVINGS, 200.0);
+        Account nestedFrozen = account(accountService, user, AccountType.SAVINGS, 50.0);
+        jdbcTemplate.update("UPDATE accounts SET status = 'FROZEN' WHERE id = ?", nestedFrozen.getId());
+        // عمود balance للمجموعة الفرعية قديم ولا يجب أن يظهر في المجاميع
+        jdbcTemplate.update("UPDATE accounts SET balance = 9999 WHERE id = ?", nested.getId());
+
+        groupService.addAccountToGroup(parent.getId(), direct.getId());
+        groupService.addAccountToGroup(nested.getId(), nestedActive.getId());
+        groupService.addAccountToGroup(nested.getId(), nestedFrozen.getId());
+        groupService.addAccountToGroup(parent.getId(), nested.getId());
+
+        GroupBalanceAggregate aggregate = groupService.getGroupAggregate(parent.getId());
+
+        assertThat(aggregate.getAccountCount()).isEqualTo(2);
+        assertThat(aggregate.getActiveAccounts()).isEqualTo(2);
+        assertThat(aggregate.getActiveBalance()).isEqualTo(300.0);
+        assertThat(aggregate.getMinBalance()).isEqualTo(100.0);
+        assertThat(aggregate.getMaxBalance()).isEqualTo(200.0);
+        assertThat(groupService.getGroupTotalBalance(parent.getId())).isEqualTo(300.0);
+
+        GroupService.GroupStatistics statistics = groupService.getGroupStatistics(parent.getId());
+        assertThat(statistics.getLargestAccountNumber()).isEqualTo(nested.getAccountNumber());
+        assertThat(statistics.getLargestAccountBalance()).isEqualTo(200.0);
+        assertThat(statistics.getSmallestAccountNumber()).isEqualTo(direct.getAccountNumber());
+    }
+
+    @Test
+    void userSummariesMatchNestedGroupAggregate() {
+        AccountGroup parent = group("summary-parent");
+        AccountGroup nested = group("summary-nested");
+        AccountGroup empty = group("summary-empty");
+        Account direct = account(accountService, user, AccountType.SAVINGS, 100.0);
+        Account nestedActive = account(accountService, user, AccountType.SAVINGS, 200.0);
+        Account nestedFrozen = account(accountService, user, AccountType.SAVINGS, 50.0);
+        jdbcTemplate.update("UPDATE accounts SET status = 'FROZEN' WHERE id = ?", nestedFrozen.getId());
+        jdbcTemplate.update("UPDATE accounts SET balance = 9999 WHERE id = ?", nested.getId());
+
+        groupService.addAccountToGroup(parent.getId(), direct.getId());
+        groupService.addAccountToGroup(nested.getId(), nestedActive.getId());
+        groupService.addAccountToGroup(nested.getId(), nestedFrozen.getId());
+        groupService.addAccountToGroup(parent.getId(), nested.getId());
+
+        Map<Long, GroupSummary> summaries = groupService.getUserGroupSummaries(user.getId()).stream()
+                .collect(Collectors.toMap(GroupSummary::getId, Function.identity()));
+
+        assertThat(summaries).hasSize(3);
+        assertThat(summaries.get(parent.getId()).getChildCount()).isEqualTo(2);
+        assertThat(summaries.get(parent.getId()).getTotalBalance())
+                .isEqualTo(groupService.getGroupAggregate(parent.getId()).getActiveBalance())
+                .isEqualTo(300.0);
+        assertThat(summaries.get(nested.getId()).getChildCount()).isEqualTo(2);
+        assertThat(summaries.get(nested.getId()).getTotalBalance()).isEqualTo(200.0);
+        assertThat(summaries.get(empty.getId()).getChildCount()).isZero();
+        assertThat(summaries.get(empty.getId()).getTotalBalance()).isZero();
+    }
+
+    private AccountGroup group(String name) {
+        return accountGroupRepository.save(AccountGroup.builder()
+                .groupName(name)
+                .groupType("SAVINGS")
+                .user(user)
+                .owner(user)
+                .accountNumber("GRP-" + user.getUsername() + "-" + name)
+                .build());
+    }
+}
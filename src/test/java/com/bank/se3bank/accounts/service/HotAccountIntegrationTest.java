@@ -0,0 +1,234 @@
+package com.bank.se3bank.accounts.service;
+
+import com.bank.se3bank.accounts.model.Account;
+import com.bank.se3bank.accounts.model.AccountGroup;
+import com.bank.se3bank.accounts.repository.AccountGroupRepository;
+import com.bank.se3bank.accounts.repository.AccountRepository;
+import com.bank.se3bank.ledger.service.LedgerService;
+import com.bank.se3bank.ledger.service.LedgerVerifier;
+import com.bank.se3bank.shared.concurrency.BalanceRetry;
+import com.bank.se3bank.shared.dto.GroupBalanceAggregate;
+import com.bank.se3bank.users.model.User;
+import com.bank.se3bank.users.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.bank.se3bank.accounts.AccountFixtures.account;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * الحساب الساخن على H2: التعيين الإداري والطي والسحب يعملون تحت قفل الصف، وإيداعات الأجزاء المتزامنة
+ * لا تُنتج فرقاً بين الرصيد الكامل (العمود + الأجزاء) والدفتر، والقوائم والمجاميع تقرأ الرصيد الكامل
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class HotAccountIntegrationTest {
+
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+    private static final int SLOTS = 4;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private HotAccountService hotAccountService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private GroupService groupService;
+
+    @Autowired
+    private AccountGroupRepository accountGroupRepository;
+
+    @Autowired
+    private LedgerService ledgerService;
+
+    @Autowired
+    private LedgerVerifier verifier;
+
+    @Autowired
+    private BalanceRetry balanceRetry;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        // القاعدة مشتركة بين الاختبارات، فالعينة تشمل كل الحسابات المختلفة
+        ReflectionTestUtils.setField(verifier, "sampleSize", 100_000);
+        String username = "hot" + SEQUENCE.incrementAndGet();
+        user = userRepository.save(User.builder()
+                .username(username)
+                .email(username + "@test.com")
+                .password("password")
+                .firstName("Hot")
+                .lastName("Account")
+                .build());
+    }
+
+    @Test
+    void updateBalanceSetsFullBalanceAndCollectsSlots() {
+        Long id = hotAccount(100.0);
+        for (int i = 0; i < 3; i++) {
+            accountService.deposit(id, 50.0);
+        }
+        assertThat(slotBalance(id)).isEqualTo(150.0);
+
+        accountService.updateBalance(id, 400.0);
+
+        assertThat(column(id)).isEqualTo(400.0);
+        assertThat(slotBalance(id)).isZero();
+        assertThat(ledgerService.getBalance(id)).isEqualTo(400.0);
+        assertThat(verifier.verify().getBalanceDriftSample()).doesNotContain(id);
+    }
+
+    @Test
+    void slotDepositsDuringAdministrativeChangesKeepLedgerInStep() throws Exception {
+        Long id = hotAccount(1_000.0);
+        List<Callable<Void>> workers = new ArrayList<>();
+        for (int t = 0; t < 3; t++) {
+            workers.add(() -> {
+                for (int i = 0; i < 10; i++) {
+                    balanceRetry.execute("test", () -> accountService.deposit(id, 10.0));
+                }
+                return null;
+            });
+        }
+        workers.add(() -> {
+            for (int i = 0; i < 5; i++) {
+                double target = 2_000.0 + i * 100;
+                balanceRetry.execute("test", () -> accountService.updateBalance(id, target));
+            }
+            return null;
+        });
+
+        runConcurrently(workers);
+
+        assertThat(ledgerService.getBalance(id)).isEqualTo(fullBalance(id));
+        assertThat(verifier.verify().getBalanceDriftSample()).doesNotContain(id);
+
+        accountService.updateBalance(id, 5_000.0);
+
+        assertThat(fullBalance(id)).isEqualTo(5_000.0);
+        assertThat(ledgerService.getBalance(id)).isEqualTo(5_000.0);
+    }
+
+    @Test
+    void foldsAndWithdrawalsDuringSlotDepositsLoseNothing() throws Exception {
+        Long id = hotAccount(500.0);
+        List<Callable<Void>> workers = new ArrayList<>();
+        for (int t = 0; t < 2; t++) {
+            workers.add(() -> {
+                for (int i = 0; i < 10; i++) {
+                    balanceRetry.execute("test", () -> accountService.deposit(id, 30.0));
+                    balanceRetry.execute("test", () -> accountService.withdraw(id, 10.0));
+                }
+                return null;
+            });
+        }
+        workers.add(() -> {
+            for (int i = 0; i < 10; i++) {
+                hotAccountService.foldAll();
+            }
+            return null;
+        });
+
+        runConcurrently(workers);
+
+        double expected = 500.0 + 2 * 10 * 20.0;
+        assertThat(fullBalance(id)).isEqualTo(expected);
+        assertThat(ledgerService.getBalance(id)).isEqualTo(expected);
+        assertThat(verifier.verify().getBalanceDriftSample()).doesNotContain(id);
+    }
+
+    @Test
+    void listsAndAggregatesIncludeUnfoldedSlots() {
+        Long id = hotAccount(100.0);
+        accountService.deposit(id, 50.0);
+        accountService.deposit(id, 25.0);
+        assertThat(slotBalance(id)).isEqualTo(75.0);
+        AccountGroup group = accountGroupRepository.save(AccountGroup.builder()
+                .groupName("hot")
+                .groupType("SAVINGS")
+                .user(user)
+                .owner(user)
+                .accountNumber("GRP-" + user.getUsername())
+                .build());
+        groupService.addAccountToGroup(group.getId(), id);
+
+        assertThat(accountService.getUserAccountResponses(user.getId()))
+                .filteredOn(response -> response.getId().equals(id))
+                .singleElement()
+                .satisfies(response -> assertThat(response.getBalance()).isEqualTo(175.0));
+        assertThat(accountService.getUserAccountResponses(user.getId()))
+                .filteredOn(response -> response.getId().equals(group.getId()))
+                .singleElement()
+                .satisfies(response -> assertThat(response.getBalance()).isEqualTo(175.0));
+        GroupBalanceAggregate aggregate = groupService.getGroupAggregate(group.getId());
+        assertThat(aggregate.getActiveBalance()).isEqualTo(175.0);
+        assertThat(aggregate.getMaxBalance()).isEqualTo(175.0);
+        assertThat(groupService.getUserGroupSummaries(user.getId()))
+                .singleElement()
+                .satisfies(summary -> assertThat(summary.getTotalBalance()).isEqualTo(175.0));
+        assertThat(accountService.getTotalBalanceByUser(user.getId())).isEqualTo(175.0);
+    }
+
+    private Long hotAccount(double balance) {
+        Long id = account(accountService, user, balance).getId();
+        hotAccountService.configure(id, SLOTS);
+        return id;
+    }
+
+    private static void runConcurrently(List<Callable<Void>> workers) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(workers.size());
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Void>> futures = new ArrayList<>();
+        try {
+            for (Callable<Void> worker : workers) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return worker.call();
+                }));
+            }
+            start.countDown();
+            for (Future<Void> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Account load(Long id) {
+        return accountRepository.findById(id).orElseThrow();
+    }
+
+    private double column(Long id) {
+        return load(id).getBalance();
+    }
+
+    private double slotBalance(Long id) {
+        return hotAccountService.getSlotBalance(load(id));
+    }
+
+    private double fullBalance(Long id) {
+        return hotAccountService.getBalance(load(id));
+    }
+}
@@ -0,0 +1,160 @@
+package com.bank.se3bank.accounts.service;
+
+import com.bank.se3bank.accounts.decorators.AccountDecorator;
+import com.bank.se3bank.accounts.decorators.DecoratorFactory;
+import com.bank.se3bank.accounts.model.Account;
+import com.bank.se3bank.accounts.repository.AccountDecoratorRepository;
+import com.bank.se3bank.accounts.repository.AccountRepository;
+import com.bank.se3bank.ledger.service.LedgerService;
+import com.bank.se3bank.shared.dto.AddDecoratorRequest;
+import com.bank.se3bank.shared.enums.LedgerCode;
+import com.bank.se3bank.users.model.User;
+import com.bank.se3bank.users.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.bank.se3bank.accounts.AccountFixtures.account;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * دفعة الرسوم على H2: الخصم وقيده معاً، ديكور يُضاف لاحقاً في نفس الفترة لا يتعارض مع معاملة FEE الأولى
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class MonthlyFeeEngineIntegrationTest {
+
+    private static final String PERIOD = "2099-01";
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+    @Autowired
+    private MonthlyFeeEngine feeEngine;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private DecoratorFactory decoratorFactory;
+
+    @Autowired
+    private AccountDecoratorRepository decoratorRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private LedgerService ledgerService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        String username = "fees" + SEQUENCE.incrementAndGet();
+        user = userRepository.save(User.builder()
+                .username(username)
+                .email(username + "@test.com")
+                .password("password")
+                .firstName("Fee")
+                .lastName("Engine")
+                .build());
+    }
+
+    @Test
+    void chargesFeesWithLedgerEntriesOncePerPeriod() {
+        Account account = account(accountService, user, 1_000.0);
+        decorate(account, 10_000.0);
+
+        MonthlyFeeEngine.ChunkResult first = chunk(account);
+        MonthlyFeeEngine.ChunkResult again = chunk(account);
+
+        assertThat(first.accountsCharged).isEqualTo(1);
+        assertThat(first.totalFees).isEqualTo(50.0);
+        assertThat(again.accountsCharged).isZero();
+        assertThat(balance(account)).isEqualTo(950.0);
+        assertThat(ledgerService.getBalance(account.getId())).isEqualTo(950.0);
+        assertThat(feeTransactions(account)).hasSize(1);
+    }
+
+    @Test
+    void decoratorAddedLaterInPeriodGetsItsOwnFeeTransaction() {
+        Account account = account(accountService, user, 1_000.0);
+        decorate(account, 10_000.0);
+        chunk(account);
+
+        decorate(account, 20_000.0);
+        MonthlyFeeEngine.ChunkResult later = chunk(account);
+
+        assertThat(later.accountsCharged).isEqualTo(1);
+        assertThat(later.totalFees).isEqualTo(100.0);
+        assertThat(balance(account)).isEqualTo(850.0);
+        assertThat(ledgerService.getBalance(account.getId())).isEqualTo(850.0);
+        assertThat(feeTransactions(account)).hasSize(2).doesNotHaveDuplicates();
+    }
+
+    @Test
+    void uncoveredAccountIsSkippedWithoutLedgerEntryAndRetriedLater() {
+        Account account = account(accountService, user, 10.0);
+        decorate(account, 10_000.0);
+
+        MonthlyFeeEngine.ChunkResult result = chunk(account);
+
+        assertThat(result.skippedAccountIds).containsExactly(account.getId());
+        assertThat(balance(account)).isEqualTo(10.0);
+        assertThat(ledgerService.getBalance(account.getId())).isEqualTo(10.0);
+        assertThat(feeTransactions(account)).isEmpty();
+
+        jdbcTemplate.update("UPDATE accounts SET balance = 100 WHERE id = ?", account.getId());
+        ledgerService.credit(account.getId(), 90.0, LedgerCode.ADJUSTMENT, null);
+
+        assertThat(chunk(account).accountsCharged).isEqualTo(1);
+        assertThat(balance(account)).isEqualTo(50.0);
+        assertThat(ledgerService.getBalance(account.getId())).isEqualTo(50.0);
+    }
+
+    /**
+     * تأمين برسوم 0.5% من التغطية
+     */
+    private void decorate(Account account, double coverage) {
+        AddDecoratorRequest request = new AddDecoratorRequest();
+        request.setAccountId(account.getId());
+        request.setDecoratorType("INSURANCE");
+        request.setCoverageAmount(coverage);
+        request.setInsuranceType("FRAUD");
+        AccountDecorator decorator = decoratorFactory.createDecorator(account, request);
+        // صف الديكور في accounts يحتاج رقماً فريداً خاصاً به
+        decorator.setAccountNumber(account.getAccountNumber() + "-" + (long) coverage);
+        decoratorRepository.save(decorator);
+    }
+
+    private MonthlyFeeEngine.ChunkResult chunk(Account account) {
+        return new TransactionTemplate(transactionManager)
+                .execute(status -> feeEngine.processChunk(PERIOD, List.of(account.getId())));
+    }
+
+    private double balance(Account account) {
+        return accountRepository.findById(account.getId()).orElseThrow().getBalance();
+    }
+
+    private List<String> feeTransactions(Account account) {
+        return jdbcTemplate.queryForList(
+                "SELECT transaction_id FROM transactions WHERE transaction_type = 'FEE' AND from_account_id = ?",
+                String.class, account.getId());
+    }
+}
@@ -1,5 +1,12 @@
 package com.bank.se3bank.adapters;
 
+import com.bank.se3bank.accounts.model.Account;
+import com.bank.se3bank.accounts.repository.AccountRepository;
+import com.bank.se3bank.accounts.service.AccountService;
+import com.bank.se3bank.shared.enums.TransactionStatus;
+import com.bank.se3bank.shared.enums.TransactionType;
+import com.bank.se3bank.transactions.repository.TransactionRepository;
+import com.bank.se3bank.users.repository.UserRepository;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
@@ -11,6 +18,7 @@ import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 
+import static com.bank.se3bank.accounts.AccountFixtures.account;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
@@ -26,7 +34,20 @@ class PaymentControllerIntegrationTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
     private String token;
+    private Account account;
 
     @BeforeEach
     void setupUser() throws Exception {
@@ -51,19 +72,21 @@ class PaymentControllerIntegrationTest {
                 .andExpect(status().isOk())
                 .andReturn().getResponse().getContentAsString();
         token = objectMapper.readTree(loginResponse).get("token").asText();
+
+        account = account(accountService, userRepository.findByUsername("payuser").orElseThrow(), 100.0);
     }
 
     @Test
     void processPayment_returnsSuccess() throws Exception {
         String request = """
                 {
-                  "accountNumber":"ACC-DEMO",
+                  "accountNumber":"%s",
                   "recipient":"Demo Store",
                   "amount":40.5,
                   "currency":"USD",
                   "description":"Mock purchase"
                 }
-                """;
+                """.formatted(account.getAccountNumber());
 
         String response = mockMvc.perform(post("/api/payments/process")
                         .header("Authorization", "Bearer " + token)
@@ -75,6 +98,17 @@ class PaymentControllerIntegrationTest {
         JsonNode node = objectMapper.readTree(response);
         assertThat(node.get("status").asText()).isEqualTo("SUCCESS");
         assertThat(node.get("transactionId").asText()).contains("stripe_");
+
+        // المرجع محفوظ كمعاملة PAYMENT حتى تجده التسوية
+        assertThat(transactionRepository.findAll())
+                .filteredOn(t -> node.get("transactionId").asText().equals(t.getReferenceNumber()))
+                .singleElement()
+                .satisfies(t -> {
+                    assertThat(t.getTransactionType()).isEqualTo(TransactionType.PAYMENT);
+                    assertThat(t.getStatus()).isEqualTo(TransactionStatus.COMPLETED);
+                    assertThat(t.getAmount()).isEqualTo(40.5);
+                });
+        assertThat(accountRepository.findById(account.getId()).orElseThrow().getBalance()).isEqualTo(59.5);
     }
 }
 
@@ -0,0 +1,173 @@
+package com.bank.se3bank.adapters;
+
+import com.bank.se3bank.accounts.model.Account;
+import com.bank.se3bank.accounts.repository.AccountRepository;
+import com.bank.se3bank.accounts.service.AccountService;
+import com.bank.se3bank.ledger.service.LedgerService;
+import com.bank.se3bank.shared.enums.TransactionStatus;
+import com.bank.se3bank.shared.enums.TransactionType;
+import com.bank.se3bank.shared.exceptions.InsufficientBalanceException;
+import com.bank.se3bank.transactions.model.Transaction;
+import com.bank.se3bank.transactions.repository.TransactionRepository;
+import com.bank.se3bank.transactions.service.PendingTransactionWorker;
+import com.bank.se3bank.users.model.User;
+import com.bank.se3bank.users.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.bank.se3bank.accounts.AccountFixtures.account;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * الدفع عبر المزود على H2: الخصم وقيده قبل المزود، المزود خارج المعاملة،
+ * والنتيجة تُكمل أو تعيد المبلغ أو تبقى بانتظار التسوية دون أن يستلمها عامل المعاملات المعلقة
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class PaymentServiceIntegrationTest {
+
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private PaymentGatewayAdapter paymentGatewayAdapter;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private LedgerService ledgerService;
+
+    @Autowired
+    private PendingTransactionWorker pendingTransactionWorker;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final PaymentGatewayAdapter gateway = mock(PaymentGatewayAdapter.class);
+    private final AtomicBoolean calledInTransaction = new AtomicBoolean();
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(paymentService, "paymentGatewayAdapter", gateway);
+        String username = "payer" + SEQUENCE.incrementAndGet();
+        user = userRepository.save(User.builder()
+                .username(username)
+                .email(username + "@test.com")
+                .password("password")
+                .firstName("Pay")
+                .lastName("Er")
+                .build());
+    }
+
+    @AfterEach
+    void restoreGateway() {
+        ReflectionTestUtils.setField(paymentService, "paymentGatewayAdapter", paymentGatewayAdapter);
+    }
+
+    @Test
+    void successfulPaymentDebitsAccountAndLedgerOutsideGatewayCall() {
+        Account account = account(accountService, user, 200.0);
+        gatewayReturns("SUCCESS", "stripe_ok" + user.getId());
+
+        paymentService.process("stripe", payment(account, 40.5));
+
+        assertThat(calledInTransaction).isFalse();
+        assertThat(balance(account)).isEqualTo(159.5);
+        assertThat(ledgerService.getBalance(account.getId())).isEqualTo(159.5);
+        assertThat(payment("stripe_ok" + user.getId()).getStatus()).isEqualTo(TransactionStatus.COMPLETED);
+    }
+
+    @Test
+    void failedPaymentReturnsReservedAmount() {
+        Account account = account(accountService, user, 200.0);
+        gatewayReturns("FAILED", "stripe_failed" + user.getId());
+
+        paymentService.process("stripe", payment(account, 50.0));
+
+        assertThat(balance(account)).isEqualTo(200.0);
+        assertThat(ledgerService.getBalance(account.getId())).isEqualTo(200.0);
+        assertThat(payment("stripe_failed" + user.getId()).getStatus()).isEqualTo(TransactionStatus.FAILED);
+    }
+
+    @Test
+    void providerPendingPaymentIsNotClaimedByPendingWorker() {
+        Account account = account(accountService, user, 200.0);
+        gatewayReturns("PENDING", "stripe_pending" + user.getId());
+
+        paymentService.process("stripe", payment(account, 60.0));
+        pendingTransactionWorker.drain();
+
+        Transaction transaction = payment("stripe_pending" + user.getId());
+        assertThat(transaction.getStatus()).isEqualTo(TransactionStatus.AWAITING_SETTLEMENT);
+        assertThat(transaction.getTransactionType()).isEqualTo(TransactionType.PAYMENT);
+        assertThat(balance(account)).isEqualTo(140.0);
+        assertThat(ledgerService.getBalance(account.getId())).isEqualTo(140.0);
+    }
+
+    @Test
+    void insufficientBalanceIsRejectedBeforeGateway() {
+        Account account = account(accountService, user, 20.0);
+
+        assertThatThrownBy(() -> paymentService.process("stripe", payment(account, 50.0)))
+                .isInstanceOf(InsufficientBalanceException.class);
+
+        verifyNoInteractions(gateway);
+        assertThat(balance(account)).isEqualTo(20.0);
+        assertThat(transactionRepository.findAll())
+                .noneMatch(t -> t.getTransactionType() == TransactionType.PAYMENT
+                        && t.getFromAccount() != null && account.getId().equals(t.getFromAccount().getId()));
+    }
+
+    private void gatewayReturns(String status, String reference) {
+        when(gateway.processWithGateway(anyString(), any())).thenAnswer(invocation -> {
+            calledInTransaction.set(TransactionSynchronizationManager.isActualTransactionActive());
+            return PaymentResponse.builder().status(status).transactionId(reference).message(status).build();
+        });
+    }
+
+    private static PaymentRequest payment(Account account, double amount) {
+        return PaymentRequest.builder()
+                .accountNumber(account.getAccountNumber())
+                .recipient("Store")
+                .amount(amount)
+                .currency("USD")
+                .build();
+    }
+
+    private double balance(Account account) {
+        return accountRepository.findById(account.getId()).orElseThrow().getBalance();
+    }
+
+    private Transaction payment(String reference) {
+        return transactionRepository.findAll().stream()
+                .filter(t -> reference.equals(t.getReferenceNumber()))
+                .findFirst()
+                .orElseThrow();
+    }
+}
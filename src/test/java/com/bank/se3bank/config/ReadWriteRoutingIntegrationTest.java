@@ -0,0 +1,89 @@
+package com.bank.se3bank.config;
+
+import com.bank.se3bank.users.repository.UserRepository;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * مع app.db.read.enabled: المعاملات readOnly تحجز اتصالها من مجمع القراءة، والباقي من المجمع الأساسي
+ * (المجمعان هنا على نفس قاعدة H2؛ المهم أي مجمع أعطى الاتصال)
+ */
+@SpringBootTest(properties = "app.db.read.enabled=true")
+@ActiveProfiles("test")
+class ReadWriteRoutingIntegrationTest {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private HikariDataSource primary;
+    private HikariDataSource readPool;
+
+    @BeforeEach
+    void setUp() {
+        assertThat(dataSource).isInstanceOf(LazyConnectionDataSourceProxy.class);
+        LazyConnectionDataSourceProxy routing = (LazyConnectionDataSourceProxy) dataSource;
+        primary = (HikariDataSource) routing.getTargetDataSource();
+        readPool = (HikariDataSource) ReflectionTestUtils.getField(routing, "readOnlyDataSource");
+        assertThat(primary.getPoolName()).isEqualTo("BankDBPool");
+        assertThat(readPool.getPoolName()).isEqualTo("BankReadPool");
+    }
+
+    @Test
+    void readOnlyTransactionUsesReplicaPool() {
+        int primaryBefore = active(primary);
+        int readBefore = active(readPool);
+
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readOnly.executeWithoutResult(status -> {
+            userRepository.count();
+            assertThat(active(readPool)).isEqualTo(readBefore + 1);
+            assertThat(active(primary)).isEqualTo(primaryBefore);
+        });
+    }
+
+    @Test
+    void readWriteTransactionUsesPrimaryPool() {
+        int primaryBefore = active(primary);
+        int readBefore = active(readPool);
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            userRepository.count();
+            assertThat(active(primary)).isEqualTo(primaryBefore + 1);
+            assertThat(active(readPool)).isEqualTo(readBefore);
+        });
+    }
+
+    @Test
+    void transactionWithoutQueriesBorrowsNoConnection() {
+        int primaryBefore = active(primary);
+        int readBefore = active(readPool);
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            assertThat(active(primary)).isEqualTo(primaryBefore);
+            assertThat(active(readPool)).isEqualTo(readBefore);
+        });
+    }
+
+    private static int active(HikariDataSource pool) {
+        return pool.getHikariPoolMXBean().getActiveConnections();
+    }
+}
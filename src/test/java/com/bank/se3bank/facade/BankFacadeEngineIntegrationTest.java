@@ -0,0 +1,197 @@
+package com.bank.se3bank.facade;
+
+import com.bank.se3bank.accounts.engine.InMemoryBalanceEngine;
+import com.bank.se3bank.accounts.model.Account;
+import com.bank.se3bank.accounts.model.AccountGroup;
+import com.bank.se3bank.accounts.repository.AccountGroupRepository;
+import com.bank.se3bank.accounts.repository.AccountRepository;
+import com.bank.se3bank.accounts.service.AccountService;
+import com.bank.se3bank.accounts.service.GroupService;
+import com.bank.se3bank.accounts.service.HotAccountService;
+import com.bank.se3bank.accounts.service.MonthlyFeeEngine;
+import com.bank.se3bank.interest.service.InterestService;
+import com.bank.se3bank.ledger.service.LedgerService;
+import com.bank.se3bank.shared.dto.DepositRequest;
+import com.bank.se3bank.shared.dto.DepositResponse;
+import com.bank.se3bank.shared.dto.TransferRequest;
+import com.bank.se3bank.shared.dto.TransferResponse;
+import com.bank.se3bank.shared.dto.WithdrawalRequest;
+import com.bank.se3bank.shared.dto.WithdrawalResponse;
+import com.bank.se3bank.shared.exceptions.InvalidTransactionException;
+import com.bank.se3bank.users.model.User;
+import com.bank.se3bank.users.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.YearMonth;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.bank.se3bank.accounts.AccountFixtures.account;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * مع app.accounts.engine=memory: عمليات الواجهة تمر بالمحرك فيراها رصيد الذاكرة والإسقاط معاً،
+ * والمسارات التي تكتب accounts.balance مباشرة ترفض العمل
+ */
+@SpringBootTest(properties = "app.accounts.engine=memory")
+@ActiveProfiles("test")
+class BankFacadeEngineIntegrationTest {
+
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+    @DynamicPropertySource
+    static void journalDirectory(DynamicPropertyRegistry registry) throws IOException {
+        // دفتر جديد لكل تشغيل، فلا تُستعاد سجلات تشغيل سابق على قاعدة H2 فارغة
+        String directory = Files.createTempDirectory("balance-journal").toString();
+        registry.add("app.accounts.engine.journal-dir", () -> directory);
+    }
+
+    @Autowired
+    private BankFacade bankFacade;
+
+    @Autowired
+    private InMemoryBalanceEngine engine;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private InterestService interestService;
+
+    @Autowired
+    private MonthlyFeeEngine feeEngine;
+
+    @Autowired
+    private GroupService groupService;
+
+    @Autowired
+    private HotAccountService hotAccountService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private AccountGroupRepository accountGroupRepository;
+
+    @Autowired
+    private LedgerService ledgerService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        String username = "engine" + SEQUENCE.incrementAndGet();
+        user = userRepository.save(User.builder()
+                .username(username)
+                .email(username + "@test.com")
+                .password("password")
+                .firstName("Balance")
+                .lastName("Engine")
+                .build());
+    }
+
+    @Test
+    void facadeMovementsGoThroughEngine() throws InterruptedException {
+        Account from = account(accountService, user, 1_000.0);
+        Account to = account(accountService, user, 200.0);
+
+        DepositResponse deposit = bankFacade.depositMoney(deposit(from, 50.0));
+        WithdrawalResponse withdrawal = bankFacade.withdrawMoney(withdrawal(from, 30.0));
+        TransferResponse transfer = bankFacade.transferMoney(transfer(from, to, 100.0));
+
+        assertThat(deposit.getNewBalance()).isEqualTo(1_050.0);
+        assertThat(deposit.getTransactionId()).startsWith("ENG-");
+        assertThat(withdrawal.getNewBalance()).isEqualTo(1_020.0);
+        assertThat(transfer.getNewFromBalance()).isEqualTo(920.0);
+        assertThat(transfer.getNewToBalance()).isEqualTo(300.0);
+
+        // الرصيد في الذاكرة هو ما يقرر السحب، لا العمود الذي لم يُسقط بعد
+        assertThatThrownBy(() -> bankFacade.withdrawMoney(withdrawal(from, 950.0)))
+                .isInstanceOf(InvalidTransactionException.class);
+        assertThat(engine.getBalance(from.getId())).isEqualTo(920.0);
+        assertThat(engine.getBalance(to.getId())).isEqualTo(300.0);
+
+        awaitProjection();
+        assertThat(column(from)).isEqualTo(920.0);
+        assertThat(column(to)).isEqualTo(300.0);
+        assertThat(ledgerService.getBalance(from.getId())).isEqualTo(920.0);
+        assertThat(ledgerService.getBalance(to.getId())).isEqualTo(300.0);
+    }
+
+    @Test
+    void directBalanceWritersAreRefused() {
+        Account account = account(accountService, user, 500.0);
+        Account other = account(accountService, user, 100.0);
+        AccountGroup group = accountGroupRepository.save(AccountGroup.builder()
+                .groupName("engine")
+                .groupType("SAVINGS")
+                .user(user)
+                .owner(user)
+                .accountNumber("GRP-ENG-" + SEQUENCE.incrementAndGet())
+                .build());
+
+        assertThatThrownBy(() -> accountService.updateBalance(account.getId(), 900.0))
+                .isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> interestService.applyInterestToAccount(account.getId()))
+                .isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> interestService.applyInterestToAllAccounts())
+                .isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> feeEngine.applyMonthlyFees(YearMonth.of(2099, 2)))
+                .isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> groupService.transferWithinGroup(group.getId(),
+                account.getAccountNumber(), other.getAccountNumber(), 10.0))
+                .isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> hotAccountService.credit(account, 10.0))
+                .isInstanceOf(IllegalStateException.class);
+
+        assertThat(column(account)).isEqualTo(500.0);
+        assertThat(column(other)).isEqualTo(100.0);
+        assertThat(ledgerService.getBalance(account.getId())).isEqualTo(500.0);
+    }
+
+    private double column(Account account) {
+        return accountRepository.findById(account.getId()).orElseThrow().getBalance();
+    }
+
+    private void awaitProjection() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (engine.getProjectedSequence() < engine.getLastSequence() && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        assertThat(engine.getProjectedSequence()).isEqualTo(engine.getLastSequence());
+    }
+
+    private static DepositRequest deposit(Account account, double amount) {
+        DepositRequest request = new DepositRequest();
+        request.setAccountNumber(account.getAccountNumber());
+        request.setAmount(amount);
+        return request;
+    }
+
+    private static WithdrawalRequest withdrawal(Account account, double amount) {
+        WithdrawalRequest request = new WithdrawalRequest();
+        request.setAccountNumber(account.getAccountNumber());
+        request.setAmount(amount);
+        return request;
+    }
+
+    private static TransferRequest transfer(Account from, Account to, double amount) {
+        TransferRequest request = new TransferRequest();
+        request.setFromAccountNumber(from.getAccountNumber());
+        request.setToAccountNumber(to.getAccountNumber());
+        request.setAmount(amount);
+        return request;
+    }
+}
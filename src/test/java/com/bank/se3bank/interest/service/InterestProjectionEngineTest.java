@@ -0,0 +1,122 @@
+package com.bank.se3bank.interest.service;
+
+import com.bank.se3bank.accounts.decorators.InsuranceDecorator;
+import com.bank.se3bank.accounts.decorators.PremiumServicesDecorator;
+import com.bank.se3bank.accounts.model.SavingsAccount;
+import com.bank.se3bank.interest.strategy.CompoundInterestStrategy;
+import com.bank.se3bank.interest.strategy.FixedDepositInterestStrategy;
+import com.bank.se3bank.interest.strategy.GrowthFactors;
+import com.bank.se3bank.interest.strategy.InterestStrategy;
+import com.bank.se3bank.interest.strategy.IslamicBankingInterestStrategy;
+import com.bank.se3bank.interest.strategy.SimpleInterestStrategy;
+import com.bank.se3bank.interest.strategy.TieredInterestStrategy;
+import com.bank.se3bank.shared.enums.AccountType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class InterestProjectionEngineTest {
+
+    private final List<InterestStrategy> strategies = List.of(
+            new SimpleInterestStrategy(),
+            new CompoundInterestStrategy(),
+            new TieredInterestStrategy(),
+            new FixedDepositInterestStrategy(),
+            new IslamicBankingInterestStrategy());
+
+    private InterestCalculator calculator;
+    private InterestProjectionEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        calculator = new InterestCalculator();
+        calculator.registerStrategy("simpleInterestStrategy", strategies.get(0));
+        calculator.registerStrategy("compoundInterestStrategy", strategies.get(1));
+        calculator.setDefaultStrategy(AccountType.SAVINGS, strategies.get(0));
+        engine = new InterestProjectionEngine(calculator);
+    }
+
+    @Test
+    void scheduleMatchesCalculateInterestForEveryMonth() {
+        for (double balance : new double[] {250.0, 9_999.99, 42_000.0, 75_000.0, 250_000.0}) {
+            SavingsAccount account = account("SAV-" + balance, balance, 18);
+            InterestProjectionEngine.Projection projection =
+                    engine.project(account, strategies, GrowthFactors.MAX_MONTHS);
+
+            for (int s = 0; s < strategies.size(); s++) {
+                InterestProjectionEngine.Schedule schedule = projection.schedule(s);
+                for (int m = 1; m <= GrowthFactors.MAX_MONTHS; m++) {
+                    assertThat(schedule.interestAt(m))
+                            .as("%s balance=%s month=%d", schedule.getStrategyName(), balance, m)
+                            .isEqualTo(strategies.get(s).calculateInterest(balance, m, account));
+                }
+            }
+        }
+    }
+
+    @Test
+    void projectCurrentUsesAccountStrategyAndZeroBalanceProjectsZero() {
+        SavingsAccount account = account("SAV-1", 12_000.0, 6);
+        account.setInterestStrategyName("compoundInterestStrategy");
+
+        InterestProjectionEngine.Projection projection = engine.projectCurrent(account, 60);
+
+        assertThat(projection.getSchedules()).hasSize(1);
+        assertThat(projection.schedule(0).interestAt(60))
+                .isEqualTo(strategies.get(1).calculateInterest(12_000.0, 60, account));
+        assertThat(projection.getAccountAgeMonths()).isEqualTo(6);
+        assertThat(engine.projectCurrent(account("SAV-2", 0.0, 6), 12).schedule(0).getCumulative())
+                .containsOnly(0.0);
+    }
+
+    @Test
+    void portfolioSumsEveryAccountSchedule() {
+        SavingsAccount first = account("SAV-A", 1_000.0, 3);
+        SavingsAccount second = account("SAV-B", 3_000.0, 3);
+
+        InterestProjectionEngine.PortfolioProjection portfolio = engine.projectPortfolio(List.of(first, second), 24);
+
+        double expected = strategies.get(0).calculateInterest(1_000.0, 24, first)
+                + strategies.get(0).calculateInterest(3_000.0, 24, second);
+        assertThat(portfolio.getCumulative()[23]).isEqualTo(expected);
+        assertThat(portfolio.getTotalBalance()).isEqualTo(4_000.0);
+        assertThat(portfolio.getAccounts()).hasSize(2);
+    }
+
+    @Test
+    void portfolioSkipsDecoratorsThatMirrorTheirAccount() {
+        SavingsAccount base = account("SAV-A", 2_000.0, 3);
+        PremiumServicesDecorator premium = new PremiumServicesDecorator(base, "GOLD");
+        InsuranceDecorator insurance = new InsuranceDecorator(base, 10_000.0, "LIFE");
+
+        InterestProjectionEngine.PortfolioProjection portfolio =
+                engine.projectPortfolio(List.of(base, premium, insurance), 12);
+
+        assertThat(portfolio.getAccounts()).hasSize(1);
+        assertThat(portfolio.getTotalBalance()).isEqualTo(2_000.0);
+        assertThat(portfolio.getCumulative()[11])
+                .isEqualTo(strategies.get(0).calculateInterest(2_000.0, 12, base));
+    }
+
+    @Test
+    void rejectsMonthsOutsideTable() {
+        SavingsAccount account = account("SAV-1", 1_000.0, 1);
+
+        assertThatThrownBy(() -> engine.projectCurrent(account, 0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> engine.projectCurrent(account, GrowthFactors.MAX_MONTHS + 1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static SavingsAccount account(String number, double balance, int ageMonths) {
+        return SavingsAccount.builder()
+                .accountNumber(number)
+                .balance(balance)
+                .createdAt(LocalDateTime.now().minusMonths(ageMonths).minusDays(1))
+                .build();
+    }
+}
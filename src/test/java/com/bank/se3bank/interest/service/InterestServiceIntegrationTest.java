@@ -0,0 +1,136 @@
+package com.bank.se3bank.interest.service;
+
+import com.bank.se3bank.accounts.model.Account;
+import com.bank.se3bank.accounts.model.AccountGroup;
+import com.bank.se3bank.accounts.repository.AccountGroupRepository;
+import com.bank.se3bank.accounts.repository.AccountRepository;
+import com.bank.se3bank.accounts.service.AccountService;
+import com.bank.se3bank.accounts.service.GroupService;
+import com.bank.se3bank.shared.enums.AccountType;
+import com.bank.se3bank.users.model.User;
+import com.bank.se3bank.users.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.bank.se3bank.accounts.AccountFixtures.account;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * الدفعة الشهرية خارج أي معاملة: المجموعات (childAccounts كسولة) لا توقف التشغيل ولا تأخذ فائدة،
+ * والتشغيل الثاني في نفس الفترة لا يضيف فائدة مرة أخرى، ولو تزامن مع الأول
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class InterestServiceIntegrationTest {
+
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+    @Autowired
+    private InterestService interestService;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private GroupService groupService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private AccountGroupRepository accountGroupRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        String username = "interest" + SEQUENCE.incrementAndGet();
+        user = userRepository.save(User.builder()
+                .username(username)
+                .email(username + "@test.com")
+                .password("password")
+                .firstName("Interest")
+                .lastName("Run")
+                .build());
+    }
+
+    @Test
+    void monthlyRunSkipsGroupsAndAppliesInterestOnce() {
+        Account savings = account(accountService, user, AccountType.SAVINGS, 1_000.0);
+        AccountGroup group = accountGroupRepository.save(AccountGroup.builder()
+                .groupName("family")
+                .groupType("SAVINGS")
+                .user(user)
+                .owner(user)
+                .accountNumber("GRP-" + user.getUsername())
+                .build());
+        groupService.addAccountToGroup(group.getId(), account(accountService, user, AccountType.SAVINGS, 500.0).getId());
+
+        interestService.applyInterestToAllAccounts();
+
+        Account afterFirst = accountRepository.findById(savings.getId()).orElseThrow();
+        assertThat(afterFirst.getBalance()).isGreaterThan(1_000.0);
+        assertThat(afterFirst.getLastInterestCalculation()).isNotNull();
+        assertThat(accountRepository.findById(group.getId()).orElseThrow().getLastInterestCalculation()).isNull();
+
+        interestService.applyInterestToAllAccounts();
+
+        assertThat(accountRepository.findById(savings.getId()).orElseThrow().getBalance())
+                .isEqualTo(afterFirst.getBalance());
+    }
+
+    @Test
+    void concurrentRunsApplyInterestOncePerAccount() throws Exception {
+        List<Account> accounts = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            accounts.add(account(accountService, user, AccountType.SAVINGS, 1_000.0 + i));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> runs = new ArrayList<>();
+        try {
+            for (int run = 0; run < 2; run++) {
+                runs.add(executor.submit(() -> {
+                    start.await();
+                    interestService.applyInterestToAllAccounts();
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> run : runs) {
+                run.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        for (Account account : accounts) {
+            assertThat(interestTransactions(account)).as(account.getAccountNumber()).isEqualTo(1);
+        }
+    }
+
+    private int interestTransactions(Account account) {
+        return jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM transactions WHERE to_account_id = ? AND description LIKE 'فائدة شهرية%'",
+                Integer.class, account.getId());
+    }
+}
@@ -0,0 +1,63 @@
+package com.bank.se3bank.ledger.model;
+
+import com.bank.se3bank.shared.enums.LedgerCode;
+import com.bank.se3bank.shared.enums.PostingDirection;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+class LedgerJournalTest {
+
+    @Test
+    void transferDebitsSourceAndCreditsTarget() {
+        LedgerJournal journal = LedgerJournal.transfer("TXN1", 5L, 1L, 2L, 40.0);
+
+        assertThat(journal.getJournalId()).isEqualTo("TXN1");
+        assertThat(journal.getTransactionId()).isEqualTo(5L);
+        assertThat(journal.getLegs()).extracting(LedgerJournal.Leg::getAccountId, LedgerJournal.Leg::getDirection)
+                .containsExactly(
+                        tuple(1L, PostingDirection.DEBIT),
+                        tuple(2L, PostingDirection.CREDIT));
+        assertThatCode(journal::validate).doesNotThrowAnyException();
+    }
+
+    @Test
+    void creditAndDebitBalanceAgainstInternalAccount() {
+        LedgerJournal deposit = LedgerJournal.credit(null, null, 1L, 25.0, LedgerCode.CASH);
+        LedgerJournal fee = LedgerJournal.debit("FEE-2026-01-1", null, 1L, 3.5, LedgerCode.FEE_INCOME);
+
+        assertThat(deposit.getJournalId()).startsWith("JRN-");
+        assertThat(deposit.getLegs()).extracting(LedgerJournal.Leg::getCode)
+                .containsExactly(LedgerCode.CASH, LedgerCode.CUSTOMER);
+        assertThat(fee.getLegs()).extracting(LedgerJournal.Leg::getCode)
+                .containsExactly(LedgerCode.CUSTOMER, LedgerCode.FEE_INCOME);
+        assertThatCode(deposit::validate).doesNotThrowAnyException();
+        assertThatCode(fee::validate).doesNotThrowAnyException();
+    }
+
+    @Test
+    void rejectsUnbalancedOrNonPositiveJournals() {
+        LedgerJournal unbalanced = new LedgerJournal("J1", null, List.of(
+                LedgerJournal.Leg.customer(1L, PostingDirection.DEBIT, 10.0),
+                LedgerJournal.Leg.customer(2L, PostingDirection.CREDIT, 9.0)));
+        LedgerJournal zero = LedgerJournal.credit("J2", null, 1L, 0.0, LedgerCode.CASH);
+        LedgerJournal single = new LedgerJournal("J3", null, List.of(
+                LedgerJournal.Leg.customer(1L, PostingDirection.CREDIT, 10.0)));
+
+        assertThatThrownBy(unbalanced::validate).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(zero::validate).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(single::validate).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void customerSignFollowsDirection() {
+        assertThat(PostingDirection.CREDIT.signed(10.0)).isEqualTo(10.0);
+        assertThat(PostingDirection.DEBIT.signed(10.0)).isEqualTo(-10.0);
+        assertThat(PostingDirection.DEBIT.opposite()).isEqualTo(PostingDirection.CREDIT);
+    }
+}
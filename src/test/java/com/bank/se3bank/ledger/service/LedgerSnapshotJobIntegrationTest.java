@@ -0,0 +1,116 @@
+package com.bank.se3bank.ledger.service;
+
+import com.bank.se3bank.accounts.model.Account;
+import com.bank.se3bank.accounts.service.AccountService;
+import com.bank.se3bank.shared.enums.LedgerCode;
+import com.bank.se3bank.users.model.User;
+import com.bank.se3bank.users.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.bank.se3bank.accounts.AccountFixtures.account;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * طي القيود في اللقطات لا يغير رصيد الدفتر، وقيود معاملة تُثبت بعد تشغيل اللقطة تُطوى في التشغيل التالي
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class LedgerSnapshotJobIntegrationTest {
+
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+    @Autowired
+    private LedgerSnapshotJob snapshotJob;
+
+    @Autowired
+    private LedgerVerifier verifier;
+
+    @Autowired
+    private LedgerService ledgerService;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(snapshotJob, "settleMs", 0L);
+        ReflectionTestUtils.setField(verifier, "sampleSize", 100_000);
+        String username = "snapshot" + SEQUENCE.incrementAndGet();
+        user = userRepository.save(User.builder()
+                .username(username)
+                .email(username + "@test.com")
+                .password("password")
+                .firstName("Ledger")
+                .lastName("Snapshot")
+                .build());
+    }
+
+    @Test
+    void snapshotFoldsEntriesWithoutChangingLedgerBalance() {
+        Account account = account(accountService, user, 100.0);
+        accountService.deposit(account.getId(), 50.0);
+
+        snapshotJob.takeSnapshots();
+
+        assertThat(snapshotBalance(account)).isEqualTo(150.0);
+        assertThat(ledgerService.getBalance(account.getId())).isEqualTo(150.0);
+
+        accountService.withdraw(account.getId(), 30.0);
+        snapshotJob.takeSnapshots();
+
+        assertThat(snapshotBalance(account)).isEqualTo(120.0);
+        assertThat(ledgerService.getBalance(account.getId())).isEqualTo(120.0);
+        assertThat(verifier.verify().getSnapshotMismatchSample()).doesNotContain(account.getId());
+    }
+
+    @Test
+    void entriesOfTransactionCommittingAfterSnapshotAreFoldedLater() {
+        Account account = account(accountService, user, 100.0);
+        TransactionTemplate requiresNew = new TransactionTemplate(transactionManager);
+        requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            // معاملة طويلة تسجل قيدها أولاً ثم تُثبت بعد أن تُثبت معاملة أحدث وتُؤخذ لقطة
+            ledgerService.credit(account.getId(), 30.0, LedgerCode.ADJUSTMENT, null);
+            requiresNew.executeWithoutResult(inner ->
+                    ledgerService.credit(account.getId(), 20.0, LedgerCode.ADJUSTMENT, null));
+            CompletableFuture.runAsync(snapshotJob::takeSnapshots).join();
+        });
+
+        assertThat(ledgerService.getBalance(account.getId())).isEqualTo(150.0);
+
+        snapshotJob.takeSnapshots();
+
+        assertThat(snapshotBalance(account)).isEqualTo(150.0);
+        assertThat(ledgerService.getBalance(account.getId())).isEqualTo(150.0);
+        assertThat(verifier.verify().getSnapshotMismatchSample()).doesNotContain(account.getId());
+    }
+
+    private double snapshotBalance(Account account) {
+        return jdbcTemplate.queryForObject(
+                "SELECT balance FROM ledger_snapshots WHERE account_id = ?", Double.class, account.getId());
+    }
+}
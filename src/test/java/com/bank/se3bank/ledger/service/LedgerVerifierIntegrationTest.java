@@ -0,0 +1,154 @@
+package com.bank.se3bank.ledger.service;
+
+import com.bank.se3bank.accounts.model.Account;
+import com.bank.se3bank.accounts.repository.AccountRepository;
+import com.bank.se3bank.accounts.service.AccountService;
+import com.bank.se3bank.facade.BankFacade;
+import com.bank.se3bank.ledger.model.LedgerVerification;
+import com.bank.se3bank.shared.concurrency.BalanceRetry;
+import com.bank.se3bank.shared.dto.DepositRequest;
+import com.bank.se3bank.shared.dto.WithdrawalRequest;
+import com.bank.se3bank.users.model.User;
+import com.bank.se3bank.users.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.bank.se3bank.accounts.AccountFixtures.account;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * عمود الرصيد والدفتر يتحركان معاً في كل مسار؛ أي كتابة خارجها يكشفها التحقق ولا تُسوّى تلقائياً
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class LedgerVerifierIntegrationTest {
+
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+    @Autowired
+    private LedgerVerifier verifier;
+
+    @Autowired
+    private LedgerService ledgerService;
+
+    @Autowired
+    private BankFacade bankFacade;
+
+    @Autowired
+    private BalanceRetry balanceRetry;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        // القاعدة مشتركة بين الاختبارات، فالعينة تشمل كل الحسابات المختلفة
+        ReflectionTestUtils.setField(verifier, "sampleSize", 100_000);
+        String username = "verifier" + SEQUENCE.incrementAndGet();
+        user = userRepository.save(User.builder()
+                .username(username)
+                .email(username + "@test.com")
+                .password("password")
+                .firstName("Ledger")
+                .lastName("Verifier")
+                .build());
+    }
+
+    @Test
+    void concurrentFacadeMovementsKeepColumnAndLedgerTogether() throws Exception {
+        Account account = account(accountService, user, 1_000.0);
+        int threads = 4;
+        int perThread = 5;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < perThread; i++) {
+                        balanceRetry.execute("test", () -> bankFacade.depositMoney(deposit(account, 30.0)));
+                        balanceRetry.execute("test", () -> bankFacade.withdrawMoney(withdrawal(account, 10.0)));
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        double expected = 1_000.0 + threads * perThread * 20.0;
+        assertThat(balance(account)).isEqualTo(expected);
+        assertThat(ledgerService.getBalance(account.getId())).isEqualTo(expected);
+        assertThat(verifier.verify().getBalanceDriftSample()).doesNotContain(account.getId());
+    }
+
+    @Test
+    void directColumnWriteIsReportedWithoutAdjustment() {
+        Account account = account(accountService, user, 500.0);
+        jdbcTemplate.update("UPDATE accounts SET balance = balance + 75 WHERE id = ?", account.getId());
+
+        LedgerVerification result = verifier.verify();
+
+        assertThat(result.getConsistent()).isFalse();
+        assertThat(result.getBalanceDriftSample()).contains(account.getId());
+        assertThat(ledgerService.getBalance(account.getId())).isEqualTo(500.0);
+    }
+
+    @Test
+    void administrativeBalanceChangeIsJournaled() {
+        Account account = account(accountService, user, 500.0);
+
+        accountService.updateBalance(account.getId(), 420.0);
+
+        assertThat(balance(account)).isEqualTo(420.0);
+        assertThat(ledgerService.getBalance(account.getId())).isEqualTo(420.0);
+        assertThat(verifier.verify().getBalanceDriftSample()).doesNotContain(account.getId());
+    }
+
+    private double balance(Account account) {
+        return accountRepository.findById(account.getId()).orElseThrow().getBalance();
+    }
+
+    private static DepositRequest deposit(Account account, double amount) {
+        DepositRequest request = new DepositRequest();
+        request.setAccountNumber(account.getAccountNumber());
+        request.setAmount(amount);
+        return request;
+    }
+
+    private static WithdrawalRequest withdrawal(Account account, double amount) {
+        WithdrawalRequest request = new WithdrawalRequest();
+        request.setAccountNumber(account.getAccountNumber());
+        request.setAmount(amount);
+        return request;
+    }
+}
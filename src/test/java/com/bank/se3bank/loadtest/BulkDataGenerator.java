@@ -0,0 +1,371 @@
+package com.bank.se3bank.loadtest;
+
+import com.bank.se3bank.accounts.model.CheckingAccount;
+import com.bank.se3bank.accounts.model.SavingsAccount;
+import com.bank.se3bank.ledger.service.LedgerService;
+import com.bank.se3bank.shared.enums.Role;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * مولّد بيانات اختبار الحمل بالجملة (مستخدمون، حسابات، معاملات)
+ * يكتب مباشرة عبر COPY / JDBC batch متجاوزاً خدمات الكيانات، ويعمل فقط مع ملف التعريف loadtest
+ * من مصادر الاختبار (spring-boot:run -Dspring-boot.run.useTestClasspath=true)؛ أرصدة الحسابات المولدة
+ * تُقيد في الدفتر كقيود افتتاحية حتى يطابقها LedgerVerifier، والمعاملات سجل تاريخي لا يغير الأرصدة
+ */
+@Component
+@Profile("loadtest")
+@RequiredArgsConstructor
+@Slf4j
+public class BulkDataGenerator implements CommandLineRunner {
+
+    private static final int TRANSACTION_CHUNK = 1_000_000;
+    private static final int HISTORY_DAYS = 365;
+
+    private final DataSource dataSource;
+    private final EntityManagerFactory entityManagerFactory;
+    private final PasswordEncoder passwordEncoder;
+    private final LedgerService ledgerService;
+
+    @Value("${app.loadtest.generate.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.loadtest.users:100000}")
+    private int customerCount = 100_000;
+
+    @Value("${app.loadtest.accounts:1000000}")
+    private int accountCount = 1_000_000;
+
+    @Value("${app.loadtest.transactions:100000000}")
+    private long transactionCount = 100_000_000L;
+
+    @Value("${app.loadtest.hot-fraction:0.001}")
+    private double hotFraction = 0.001;
+
+    @Value("${app.loadtest.hot-share:0.5}")
+    private double hotShare = 0.5;
+
+    @Value("${app.loadtest.parallelism:4}")
+    private int parallelism = 4;
+
+    @Value("${app.loadtest.batch-size:5000}")
+    private int batchSize = 5000;
+
+    @Value("${app.loadtest.seed:42}")
+    private long seed = 42;
+
+    @Value("${app.loadtest.password:loadtest}")
+    private String password = "loadtest";
+
+    @Value("${app.loadtest.manifest:./target/loadtest/dataset.properties}")
+    private String manifest;
+
+    @Override
+    public void run(String... args) throws Exception {
+        if (!enabled) {
+            log.info("⏭️ توليد بيانات اختبار الحمل معطّل (app.loadtest.generate.enabled=false)");
+            return;
+        }
+        if (datasetExists()) {
+            log.info("⏭️ بيانات اختبار الحمل موجودة مسبقاً ({})، لن يتم التوليد مجدداً",
+                    LoadTestDataset.ADMIN_USERNAME);
+            return;
+        }
+
+        long started = System.nanoTime();
+        log.info("🏭 بدء توليد بيانات الحمل: {} عميل، {} حساب، {} معاملة",
+                customerCount, accountCount, transactionCount);
+
+        LoadTestDataset dataset = LoadTestDataset.builder()
+                .firstUserId(nextId("users"))
+                .customerCount(customerCount)
+                .firstAccountId(nextId("accounts"))
+                .accountCount(accountCount)
+                .transactionCount(transactionCount)
+                .hotFraction(hotFraction)
+                .hotShare(hotShare)
+                .password(password)
+                .build();
+
+        generateUsers(dataset);
+        generateAccounts(dataset);
+        generateOpeningEntries();
+        generateTransactions(dataset);
+        analyze();
+
+        dataset.write(Path.of(manifest));
+        log.info("✅ تم توليد بيانات الحمل خلال {} ث، الوصف في {}",
+                (System.nanoTime() - started) / 1_000_000_000, manifest);
+    }
+
+    private void generateUsers(LoadTestDataset dataset) throws SQLException {
+        long started = System.nanoTime();
+        String passwordHash = passwordEncoder.encode(password);
+        LocalDateTime now = LocalDateTime.now();
+
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try (RowSink users = RowSink.open(connection, batchSize, "users",
+                    "id", "username", "email", "password", "first_name", "last_name", "is_active", "created_at")) {
+                users.add(dataset.getFirstUserId(), LoadTestDataset.ADMIN_USERNAME, "lt_admin@loadtest.local",
+                        passwordHash, "Load", "Admin", true, now);
+                for (int i = 0; i < dataset.getCustomerCount(); i++) {
+                    String username = LoadTestDataset.USERNAME_PREFIX + i;
+                    users.add(dataset.customerId(i), username, username + "@loadtest.local",
+                            passwordHash, "Load", "Customer " + i, true, now);
+                }
+            }
+            try (RowSink roles = RowSink.open(connection, batchSize, "user_roles", "user_id", "role")) {
+                roles.add(dataset.getFirstUserId(), Role.ROLE_ADMIN.name());
+                roles.add(dataset.getFirstUserId(), Role.ROLE_MANAGER.name());
+                for (int i = 0; i < dataset.getCustomerCount(); i++) {
+                    roles.add(dataset.customerId(i), Role.ROLE_CUSTOMER.name());
+                }
+            }
+            connection.commit();
+            restartIdentity(connection, "users", dataset.customerId(dataset.getCustomerCount() - 1) + 1);
+            connection.commit();
+        }
+        log.info("👥 {} مستخدم خلال {} مللي ث", dataset.getCustomerCount() + 1, elapsedMillis(started));
+    }
+
+    /**
+     * الحساب 0 حساب صاحب العمل برصيد ضخم، والبقية 70% توفير و30% جاري موزعة على العملاء
+     */
+    private void generateAccounts(LoadTestDataset dataset) throws SQLException {
+        long started = System.nanoTime();
+        String savingsTable = tableOf(SavingsAccount.class);
+        String checkingTable = tableOf(CheckingAccount.class);
+        SplittableRandom random = new SplittableRandom(seed);
+        LocalDateTime now = LocalDateTime.now();
+
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            boolean[] savings = new boolean[dataset.getAccountCount()];
+            try (RowSink accounts = RowSink.open(connection, batchSize, "accounts",
+                    "id", "account_type", "account_number", "user_id", "balance", "status",
+                    "created_at", "updated_at", "interest_rate", "overdraft_limit", "minimum_balance",
+                    "total_interest_earned")) {
+                for (int i = 0; i < dataset.getAccountCount(); i++) {
+                    boolean employer = i == 0;
+                    savings[i] = !employer && random.nextInt(10) < 7;
+                    long ownerId = employer
+                            ? dataset.getFirstUserId()
+                            : dataset.customerId(i % dataset.getCustomerCount());
+                    double balance = employer ? 1.0e12 : Math.round(random.nextDouble(100, 50_000) * 100) / 100.0;
+                    accounts.add(dataset.accountId(i), savings[i] ? "SAVINGS" : "CHECKING",
+                            dataset.accountNumber(i), ownerId, balance, "ACTIVE",
+                            now.minusDays(random.nextInt(HISTORY_DAYS * 3)), now,
+                            savings[i] ? 0.025 : null, savings[i] ? null : 1000.0, savings[i] ? 100.0 : null,
+                            0.0);
+                }
+            }
+            try (RowSink savingsRows = RowSink.open(connection, batchSize, savingsTable,
+                    "id", "monthly_withdrawal_limit", "withdrawals_this_month");
+                 RowSink checkingRows = RowSink.open(connection, batchSize, checkingTable,
+                         "id", "checkbook_available")) {
+                for (int i = 0; i < dataset.getAccountCount(); i++) {
+                    if (savings[i]) {
+                        savingsRows.add(dataset.accountId(i), 5, 0);
+                    } else {
+                        checkingRows.add(dataset.accountId(i), true);
+                    }
+                }
+            }
+            connection.commit();
+            restartIdentity(connection, "accounts", dataset.accountId(dataset.getAccountCount() - 1) + 1);
+            connection.commit();
+        }
+        log.info("🏦 {} حساب خلال {} مللي ث", dataset.getAccountCount(), elapsedMillis(started));
+    }
+
+    /**
+     * قيد OPEN-{id} لكل حساب مولد بنفس رصيده (INSERT ... SELECT واحد من جدول accounts)
+     */
+    private void generateOpeningEntries() {
+        long started = System.nanoTime();
+        int accounts = ledgerService.backfillOpeningBalances();
+        log.info("🧾 {} قيد افتتاحي خلال {} مللي ث", accounts, elapsedMillis(started));
+    }
+
+    /**
+     * المعاملات مقسمة على parallelism أجزاء، لكل جزء اتصاله وCOPY خاص به و commit كل مليون صف
+     */
+    private void generateTransactions(LoadTestDataset dataset) throws Exception {
+        long started = System.nanoTime();
+        AtomicLong written = new AtomicLong();
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            long perPartition = (dataset.getTransactionCount() + parallelism - 1) / parallelism;
+            for (int p = 0; p < parallelism; p++) {
+                long from = p * perPartition;
+                long to = Math.min(dataset.getTransactionCount(), from + perPartition);
+                if (from >= to) {
+                    break;
+                }
+                int partition = p;
+                futures.add(executor.submit(() -> {
+                    writeTransactionPartition(dataset, partition, from, to, written);
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        long millis = Math.max(1, elapsedMillis(started));
+        log.info("💸 {} معاملة خلال {} مللي ث ({} صف/ث)",
+                written.get(), millis, written.get() * 1000 / millis);
+    }
+
+    private void writeTransactionPartition(LoadTestDataset dataset, int partition,
+                                           long from, long to, AtomicLong written) throws SQLException {
+        SplittableRandom random = new SplittableRandom(seed + 31L * (partition + 1));
+        SkewedPicker accounts = dataset.accountPicker();
+        LocalDateTime now = LocalDateTime.now();
+
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            long position = from;
+            while (position < to) {
+                long chunkEnd = Math.min(to, position + TRANSACTION_CHUNK);
+                try (RowSink sink = RowSink.open(connection, batchSize, "transactions",
+                        "transaction_id", "from_account_id", "to_account_id", "amount", "transaction_type",
+                        "status", "description", "reference_number", "initiated_by", "created_at",
+                        "processed_at")) {
+                    for (long n = position; n < chunkEnd; n++) {
+                        writeTransaction(sink, dataset, accounts, random, now, n);
+                    }
+                }
+                connection.commit();
+                written.addAndGet(chunkEnd - position);
+                position = chunkEnd;
+            }
+        }
+        log.debug("🧵 الجزء {} انتهى ({} - {})", partition, from, to);
+    }
+
+    /**
+     * المزيج: 80% تحويلات بين حسابات منحرفة، 8% إيداع، 7% سحب، 5% رواتب من حساب صاحب العمل يوم 25
+     */
+    private void writeTransaction(RowSink sink, LoadTestDataset dataset, SkewedPicker accounts,
+                                  SplittableRandom random, LocalDateTime now, long sequence) throws SQLException {
+        int roll = random.nextInt(100);
+        LocalDateTime createdAt = now.minusSeconds(random.nextLong(HISTORY_DAYS * 86_400L));
+        String type;
+        Long fromId = null;
+        Long toId = null;
+        double amount;
+
+        if (roll < 80) {
+            int fromIndex = accounts.pick(random);
+            type = "TRANSFER";
+            fromId = dataset.accountId(fromIndex);
+            toId = dataset.accountId(accounts.pickOther(random, fromIndex));
+            amount = random.nextDouble(1, 2_000);
+        } else if (roll < 88) {
+            type = "DEPOSIT";
+            toId = dataset.accountId(accounts.pick(random));
+            amount = random.nextDouble(10, 5_000);
+        } else if (roll < 95) {
+            type = "WITHDRAWAL";
+            fromId = dataset.accountId(accounts.pick(random));
+            amount = random.nextDouble(10, 1_000);
+        } else {
+            type = "TRANSFER";
+            fromId = dataset.accountId(0);
+            toId = dataset.accountId(1 + random.nextInt(dataset.getAccountCount() - 1));
+            amount = random.nextDouble(2_000, 15_000);
+            createdAt = createdAt.withDayOfMonth(25).withHour(9);
+        }
+
+        String reference = "LT-" + sequence;
+        sink.add(reference, fromId, toId, Math.round(amount * 100) / 100.0, type,
+                "COMPLETED", "load-test " + type.toLowerCase(), reference, null, createdAt, createdAt);
+    }
+
+    private boolean datasetExists() throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             var statement = connection.prepareStatement("SELECT COUNT(*) FROM users WHERE username = ?")) {
+            statement.setString(1, LoadTestDataset.ADMIN_USERNAME);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next() && resultSet.getLong(1) > 0 && Files.exists(Path.of(manifest));
+            }
+        }
+    }
+
+    private long nextId(String table) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT COALESCE(MAX(id), 0) FROM " + table)) {
+            resultSet.next();
+            return resultSet.getLong(1) + 1;
+        }
+    }
+
+    /**
+     * المعرفات كُتبت صراحةً، لذا يجب تقديم عداد IDENTITY بعدها
+     */
+    private void restartIdentity(Connection connection, String table, long next) throws SQLException {
+        String product = connection.getMetaData().getDatabaseProductName();
+        try (Statement statement = connection.createStatement()) {
+            if ("PostgreSQL".equalsIgnoreCase(product)) {
+                statement.execute("SELECT setval(pg_get_serial_sequence('" + table + "', 'id'), " + (next - 1) + ")");
+            } else {
+                statement.execute("ALTER TABLE " + table + " ALTER COLUMN id RESTART WITH " + next);
+            }
+        }
+    }
+
+    private void analyze() throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            if ("PostgreSQL".equalsIgnoreCase(connection.getMetaData().getDatabaseProductName())) {
+                connection.setAutoCommit(true);
+                statement.execute("ANALYZE users");
+                statement.execute("ANALYZE accounts");
+                statement.execute("ANALYZE ledger_entries");
+                statement.execute("ANALYZE transactions");
+            }
+        }
+    }
+
+    private String tableOf(Class<?> entityType) {
+        AbstractEntityPersister persister = (AbstractEntityPersister) entityManagerFactory
+                .unwrap(SessionFactoryImplementor.class)
+                .getMappingMetamodel()
+                .getEntityDescriptor(entityType);
+        return persister.getTableName();
+    }
+
+    private static long elapsedMillis(long startedNanos) {
+        return (System.nanoTime() - startedNanos) / 1_000_000;
+    }
+}
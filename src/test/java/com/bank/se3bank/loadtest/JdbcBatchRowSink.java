@@ -0,0 +1,47 @@
+package com.bank.se3bank.loadtest;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Collections;
+
+/**
+ * كتابة الصفوف عبر INSERT مُجمّع (JDBC batch) لقواعد البيانات التي لا تدعم COPY
+ */
+class JdbcBatchRowSink implements RowSink {
+
+    private final PreparedStatement statement;
+    private final int batchSize;
+    private int pending;
+
+    JdbcBatchRowSink(Connection connection, int batchSize, String table, String... columns) throws SQLException {
+        String placeholders = String.join(", ", Collections.nCopies(columns.length, "?"));
+        String sql = "INSERT INTO " + table + " (" + String.join(", ", columns) + ") VALUES (" + placeholders + ")";
+        this.statement = connection.prepareStatement(sql);
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public void add(Object... values) throws SQLException {
+        for (int i = 0; i < values.length; i++) {
+            statement.setObject(i + 1, values[i]);
+        }
+        statement.addBatch();
+        if (++pending >= batchSize) {
+            statement.executeBatch();
+            pending = 0;
+        }
+    }
+
+    @Override
+    public void close() throws SQLException {
+        try {
+            if (pending > 0) {
+                statement.executeBatch();
+                pending = 0;
+            }
+        } finally {
+            statement.close();
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.bank.se3bank.loadtest;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+
+/**
+ * وصف مجموعة بيانات اختبار الحمل المولّدة (manifest)
+ * يكتبه BulkDataGenerator ويقرؤه مشغّل الحمل ليعرف المعرفات وأرقام الحسابات بدون استعلام
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoadTestDataset {
+
+    public static final String ACCOUNT_NUMBER_FORMAT = "LT%010d";
+    public static final String USERNAME_PREFIX = "lt_user_";
+    public static final String ADMIN_USERNAME = "lt_admin";
+
+    /** معرف مستخدم المدير (أول مستخدم مولّد)، يليه العملاء */
+    private long firstUserId;
+    private int customerCount;
+    /** الحساب ذو الفهرس 0 هو حساب صاحب العمل (مصدر الرواتب) ويملكه المدير */
+    private long firstAccountId;
+    private int accountCount;
+    private long transactionCount;
+    private double hotFraction;
+    private double hotShare;
+    private String password;
+
+    public String accountNumber(int index) {
+        return String.format(ACCOUNT_NUMBER_FORMAT, index);
+    }
+
+    public long accountId(int index) {
+        return firstAccountId + index;
+    }
+
+    /** معرف العميل ذي الفهرس المحدد (0..customerCount-1) */
+    public long customerId(int index) {
+        return firstUserId + 1 + index;
+    }
+
+    public SkewedPicker accountPicker() {
+        return new SkewedPicker(accountCount, hotFraction, hotShare);
+    }
+
+    public SkewedPicker customerPicker() {
+        return new SkewedPicker(customerCount, hotFraction, hotShare);
+    }
+
+    public void write(Path path) throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty("firstUserId", Long.toString(firstUserId));
+        properties.setProperty("customerCount", Integer.toString(customerCount));
+        properties.setProperty("firstAccountId", Long.toString(firstAccountId));
+        properties.setProperty("accountCount", Integer.toString(accountCount));
+        properties.setProperty("transactionCount", Long.toString(transactionCount));
+        properties.setProperty("hotFraction", Double.toString(hotFraction));
+        properties.setProperty("hotShare", Double.toString(hotShare));
+        properties.setProperty("password", password);
+
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        try (Writer writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            properties.store(writer, "SE3 Bank load-test dataset");
+        }
+    }
+
+    public static LoadTestDataset read(Path path) throws IOException {
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        }
+        return LoadTestDataset.builder()
+                .firstUserId(Long.parseLong(properties.getProperty("firstUserId")))
+                .customerCount(Integer.parseInt(properties.getProperty("customerCount")))
+                .firstAccountId(Long.parseLong(properties.getProperty("firstAccountId")))
+                .accountCount(Integer.parseInt(properties.getProperty("accountCount")))
+                .transactionCount(Long.parseLong(properties.getProperty("transactionCount")))
+                .hotFraction(Double.parseDouble(properties.getProperty("hotFraction")))
+                .hotShare(Double.parseDouble(properties.getProperty("hotShare")))
+                .password(properties.getProperty("password"))
+                .build();
+    }
+}
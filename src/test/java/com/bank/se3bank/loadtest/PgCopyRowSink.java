@@ -0,0 +1,76 @@
+package com.bank.se3bank.loadtest;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+
+/**
+ * كتابة الصفوف عبر بروتوكول COPY بصيغة النص (tab-separated) مع تجميع ~1MB قبل الإرسال
+ */
+class PgCopyRowSink implements RowSink {
+
+    private static final int FLUSH_BYTES = 1 << 20;
+
+    private final CopyIn copyIn;
+    private final StringBuilder buffer = new StringBuilder(FLUSH_BYTES + 4096);
+
+    PgCopyRowSink(PGConnection connection, String table, String... columns) throws SQLException {
+        String sql = "COPY " + table + " (" + String.join(", ", columns) + ") FROM STDIN";
+        this.copyIn = connection.getCopyAPI().copyIn(sql);
+    }
+
+    @Override
+    public void add(Object... values) throws SQLException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                buffer.append('\t');
+            }
+            appendValue(values[i]);
+        }
+        buffer.append('\n');
+        if (buffer.length() >= FLUSH_BYTES) {
+            flush();
+        }
+    }
+
+    @Override
+    public void close() throws SQLException {
+        try {
+            flush();
+            copyIn.endCopy();
+        } finally {
+            if (copyIn.isActive()) {
+                copyIn.cancelCopy();
+            }
+        }
+    }
+
+    private void appendValue(Object value) {
+        if (value == null) {
+            buffer.append("\\N");
+            return;
+        }
+        String text = value.toString();
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '\\' -> buffer.append("\\\\");
+                case '\t' -> buffer.append("\\t");
+                case '\n' -> buffer.append("\\n");
+                case '\r' -> buffer.append("\\r");
+                default -> buffer.append(c);
+            }
+        }
+    }
+
+    private void flush() throws SQLException {
+        if (buffer.isEmpty()) {
+            return;
+        }
+        byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+        copyIn.writeToCopy(bytes, 0, bytes.length);
+        buffer.setLength(0);
+    }
+}
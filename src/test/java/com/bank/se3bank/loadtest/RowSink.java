@@ -0,0 +1,28 @@
+package com.bank.se3bank.loadtest;
+
+import org.postgresql.PGConnection;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * وجهة كتابة صفوف بالجملة لجدول واحد
+ * PostgreSQL: عبر COPY FROM STDIN، غيره (H2): عبر JDBC batch
+ */
+public interface RowSink extends AutoCloseable {
+
+    void add(Object... values) throws SQLException;
+
+    /**
+     * يرسل ما تبقى في المخزن المؤقت وينهي الكتابة (بدون commit)
+     */
+    @Override
+    void close() throws SQLException;
+
+    static RowSink open(Connection connection, int batchSize, String table, String... columns) throws SQLException {
+        if (connection.isWrapperFor(PGConnection.class)) {
+            return new PgCopyRowSink(connection.unwrap(PGConnection.class), table, columns);
+        }
+        return new JdbcBatchRowSink(connection, batchSize, table, columns);
+    }
+}
@@ -0,0 +1,62 @@
+package com.bank.se3bank.loadtest;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * اختيار فهرس بتوزيع منحرف: نسبة صغيرة من العناصر (الحسابات الساخنة) تستقبل حصة كبيرة من الطلبات
+ * مثال: hotFraction=0.001 و hotShare=0.5 تعني أن 0.1% من الحسابات تستقبل نصف الحركة
+ */
+public final class SkewedPicker {
+
+    private final int size;
+    private final int hotSize;
+    private final double hotShare;
+
+    public SkewedPicker(int size, double hotFraction, double hotShare) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("عدد العناصر يجب أن يكون أكبر من صفر");
+        }
+        if (hotFraction < 0 || hotFraction > 1 || hotShare < 0 || hotShare > 1) {
+            throw new IllegalArgumentException("hotFraction و hotShare يجب أن تكون بين 0 و 1");
+        }
+        this.size = size;
+        this.hotSize = Math.max(1, (int) Math.round(size * hotFraction));
+        this.hotShare = hotShare;
+    }
+
+    /**
+     * فهرس بين 0 و size-1؛ الفهارس [0, hotSize) هي المجموعة الساخنة
+     */
+    public int pick(RandomGenerator random) {
+        if (random.nextDouble() < hotShare) {
+            return random.nextInt(hotSize);
+        }
+        return random.nextInt(size);
+    }
+
+    /**
+     * فهرس مختلف عن except (لطرفي التحويل)
+     */
+    public int pickOther(RandomGenerator random, int except) {
+        if (size == 1) {
+            throw new IllegalStateException("لا يوجد عنصر آخر للاختيار");
+        }
+        int index;
+        do {
+            index = pick(random);
+        } while (index == except);
+        return index;
+    }
+
+    public boolean isHot(int index) {
+        return index < hotSize;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public int getHotSize() {
+        return hotSize;
+    }
+}
@@ -0,0 +1,72 @@
+package com.bank.se3bank.loadtest;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SkewedPickerTest {
+
+    @Test
+    void hotSetReceivesConfiguredShare() {
+        SkewedPicker picker = new SkewedPicker(100_000, 0.001, 0.5);
+        SplittableRandom random = new SplittableRandom(1);
+
+        int samples = 200_000;
+        int hot = 0;
+        for (int i = 0; i < samples; i++) {
+            int index = picker.pick(random);
+            assertThat(index).isBetween(0, 99_999);
+            if (picker.isHot(index)) {
+                hot++;
+            }
+        }
+
+        assertThat(picker.getHotSize()).isEqualTo(100);
+        // 50% مباشرة + 0.1% من الاختيار المنتظم
+        assertThat(hot / (double) samples).isBetween(0.48, 0.52);
+    }
+
+    @Test
+    void pickOtherNeverReturnsExcludedIndex() {
+        SkewedPicker picker = new SkewedPicker(2, 0.5, 0.9);
+        SplittableRandom random = new SplittableRandom(2);
+
+        for (int i = 0; i < 1_000; i++) {
+            assertThat(picker.pickOther(random, 0)).isEqualTo(1);
+        }
+    }
+
+    @Test
+    void invalidArgumentsAreRejected() {
+        assertThatThrownBy(() -> new SkewedPicker(0, 0.1, 0.5)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new SkewedPicker(10, 1.5, 0.5)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void datasetManifestRoundTrips(@TempDir Path dir) throws Exception {
+        LoadTestDataset dataset = LoadTestDataset.builder()
+                .firstUserId(11)
+                .customerCount(1_000)
+                .firstAccountId(501)
+                .accountCount(10_000)
+                .transactionCount(1_000_000)
+                .hotFraction(0.001)
+                .hotShare(0.5)
+                .password("loadtest")
+                .build();
+
+        Path manifest = dir.resolve("nested/dataset.properties");
+        dataset.write(manifest);
+        LoadTestDataset read = LoadTestDataset.read(manifest);
+
+        assertThat(read).isEqualTo(dataset);
+        assertThat(read.accountNumber(42)).isEqualTo("LT0000000042");
+        assertThat(read.accountId(0)).isEqualTo(501);
+        assertThat(read.customerId(0)).isEqualTo(12);
+    }
+}
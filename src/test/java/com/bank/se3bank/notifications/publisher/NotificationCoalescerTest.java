@@ -0,0 +1,167 @@
+package com.bank.se3bank.notifications.publisher;
+
+import com.bank.se3bank.accounts.model.Account;
+import com.bank.se3bank.accounts.model.SavingsAccount;
+import com.bank.se3bank.notifications.event.NotificationEvent;
+import com.bank.se3bank.notifications.event.NotificationPayload;
+import com.bank.se3bank.notifications.model.NotificationType;
+import com.bank.se3bank.shared.metrics.BankMetrics;
+import com.bank.se3bank.users.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationCoalescerTest {
+
+    private static final long WINDOW = 30_000;
+
+    @Mock
+    private BankMetrics metrics;
+
+    private NotificationCoalescer coalescer;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        coalescer = new NotificationCoalescer(true, WINDOW, "MONEY_TRANSFER,WITHDRAWAL", 1000, metrics);
+        user = User.builder().id(7L).username("payroll").firstName("Pay").lastName("Roll").build();
+    }
+
+    @Test
+    void sendsFirstEventAndFoldsTheBurstIntoOneDigest() {
+        assertThat(coalescer.offer(transfer(100.0), 0)).isFalse();
+        for (int i = 0; i < 4_999; i++) {
+            assertThat(coalescer.offer(transfer(10.10), i)).isTrue();
+        }
+
+        List<NotificationEvent> sent = new ArrayList<>();
+        assertThat(coalescer.flush(WINDOW - 1, false, sent::add)).isZero();
+        assertThat(coalescer.flush(WINDOW, false, sent::add)).isEqualTo(1);
+
+        NotificationEvent digest = sent.get(0);
+        assertThat(digest.getType()).isEqualTo(NotificationType.MONEY_TRANSFER_DIGEST);
+        assertThat(digest.getUser()).isSameAs(user);
+        NotificationPayload.Digest payload = (NotificationPayload.Digest) digest.getPayload();
+        assertThat(payload.getCount()).isEqualTo(4_999);
+        assertThat(payload.getAmount()).isEqualTo(50_489.9);
+    }
+
+    @Test
+    void keepsWindowOpenWhileBurstContinuesAndClosesWhenQuiet() {
+        coalescer.offer(transfer(1.0), 0);
+        coalescer.offer(transfer(1.0), 1);
+        coalescer.flush(WINDOW, false, e -> { });
+
+        // النافذة التالية مفتوحة: الحدث التالي يُجمع ولا يُرسل فوراً
+        assertThat(coalescer.offer(transfer(1.0), WINDOW + 1)).isTrue();
+        assertThat(coalescer.flush(2 * WINDOW, false, e -> { })).isEqualTo(1);
+
+        assertThat(coalescer.flush(3 * WINDOW, false, e -> { })).isZero();
+        assertThat(coalescer.getOpenWindows()).isZero();
+        assertThat(coalescer.offer(transfer(1.0), 3 * WINDOW + 1)).isFalse();
+    }
+
+    @Test
+    void securityAndUnlistedEventsBypass() {
+        assertThat(coalescer.offer(NotificationEvent.loginAlert(user, "10.0.0.1", "web"), 0)).isFalse();
+        assertThat(coalescer.offer(NotificationEvent.loginAlert(user, "10.0.0.1", "web"), 1)).isFalse();
+        assertThat(coalescer.offer(NotificationEvent.deposit(user, null, 5.0, 0.0, 5.0), 0)).isFalse();
+        assertThat(coalescer.offer(NotificationEvent.deposit(user, null, 5.0, 5.0, 10.0), 1)).isFalse();
+        assertThat(coalescer.getOpenWindows()).isZero();
+    }
+
+    @Test
+    void flushAllSendsPendingDigestsWithLastBalance() {
+        Account current = account("CUR-1");
+        coalescer.offer(NotificationEvent.withdrawal(user, current, 10.0, 100.0, 90.0), 0);
+        coalescer.offer(NotificationEvent.withdrawal(user, current, 10.0, 90.0, 80.0), 1);
+        coalescer.offer(NotificationEvent.withdrawal(user, current, 10.0, 80.0, 70.0), 2);
+
+        List<NotificationEvent> sent = new ArrayList<>();
+        assertThat(coalescer.flush(3, true, sent::add)).isEqualTo(1);
+
+        NotificationPayload.Digest payload = (NotificationPayload.Digest) sent.get(0).getPayload();
+        assertThat(sent.get(0).getType()).isEqualTo(NotificationType.WITHDRAWAL_DIGEST);
+        assertThat(payload.getCount()).isEqualTo(2);
+        assertThat(payload.getNewBalance()).isEqualTo(70.0);
+        assertThat(sent.get(0).getAccount()).isSameAs(current);
+        assertThat(coalescer.getOpenWindows()).isZero();
+    }
+
+    @Test
+    void separatesIncomingFromOutgoingTransfers() {
+        coalescer.offer(transfer(100.0), 0);
+        coalescer.offer(transfer(100.0), 1);
+        coalescer.offer(received(40.0), 2);
+        coalescer.offer(received(25.0), 3);
+        coalescer.offer(received(15.0), 4);
+
+        List<NotificationEvent> sent = new ArrayList<>();
+        assertThat(coalescer.flush(WINDOW + 4, true, sent::add)).isEqualTo(2);
+
+        NotificationPayload.Digest outgoing = digestWhere(sent, d -> d.getFrom() != null);
+        NotificationPayload.Digest incoming = digestWhere(sent, d -> d.getTo() != null);
+        assertThat(outgoing.getCount()).isEqualTo(1);
+        assertThat(outgoing.getAmount()).isEqualTo(100.0);
+        assertThat(outgoing.getTo()).isNull();
+        assertThat(incoming.getCount()).isEqualTo(2);
+        assertThat(incoming.getAmount()).isEqualTo(40.0);
+        assertThat(incoming.getFrom()).isNull();
+    }
+
+    @Test
+    void keepsLastBalancePerAccount() {
+        Account current = account("CUR-1");
+        Account savings = account("SAV-1");
+        coalescer.offer(NotificationEvent.withdrawal(user, current, 10.0, 100.0, 90.0), 0);
+        coalescer.offer(NotificationEvent.withdrawal(user, savings, 5.0, 500.0, 495.0), 1);
+        coalescer.offer(NotificationEvent.withdrawal(user, current, 10.0, 90.0, 80.0), 2);
+        coalescer.offer(NotificationEvent.withdrawal(user, savings, 5.0, 495.0, 490.0), 3);
+
+        List<NotificationEvent> sent = new ArrayList<>();
+        assertThat(coalescer.flush(4, true, sent::add)).isEqualTo(2);
+
+        for (NotificationEvent digest : sent) {
+            NotificationPayload.Digest payload = (NotificationPayload.Digest) digest.getPayload();
+            assertThat(payload.getCount()).isEqualTo(1);
+            assertThat(payload.getNewBalance()).isEqualTo(digest.getAccount() == current ? 80.0 : 490.0);
+        }
+    }
+
+    @Test
+    void rejectsTypesWithoutDigest() {
+        assertThatThrownBy(() -> new NotificationCoalescer(true, WINDOW, "LOGIN_ALERT", 1000, metrics))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private NotificationEvent transfer(double amount) {
+        return NotificationEvent.transfer(user, amount, "حسابك", "Employee", "TXN", false);
+    }
+
+    private NotificationEvent received(double amount) {
+        return NotificationEvent.transfer(user, amount, "Employer", "حسابك", "TXN", true);
+    }
+
+    private static Account account(String number) {
+        return SavingsAccount.builder().accountNumber(number).build();
+    }
+
+    private static NotificationPayload.Digest digestWhere(List<NotificationEvent> sent,
+                                                          Predicate<NotificationPayload.Digest> match) {
+        return sent.stream()
+                .map(e -> (NotificationPayload.Digest) e.getPayload())
+                .filter(match)
+                .findFirst()
+                .orElseThrow();
+    }
+}
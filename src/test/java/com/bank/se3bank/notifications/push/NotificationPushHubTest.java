@@ -0,0 +1,170 @@
+package com.bank.se3bank.notifications.push;
+
+import com.bank.se3bank.notifications.model.Notification;
+import com.bank.se3bank.notifications.repository.NotificationRepository;
+import com.bank.se3bank.shared.metrics.BankMetrics;
+import com.bank.se3bank.users.model.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationPushHubTest {
+
+    @Mock
+    private NotificationRepository notificationRepository;
+
+    @Mock
+    private BankMetrics metrics;
+
+    private NotificationPushHub hub;
+
+    @BeforeEach
+    void setUp() {
+        hub = new NotificationPushHub(notificationRepository, metrics);
+    }
+
+    @AfterEach
+    void tearDown() {
+        hub.shutdown();
+    }
+
+    private Notification unreadNotification(long id) {
+        return Notification.builder()
+                .id(id)
+                .user(User.builder().id(1L).build())
+                .title("t")
+                .message("m")
+                .type("DEPOSIT")
+                .channel("IN_APP")
+                .build();
+    }
+
+    @Test
+    void unreadCounter_seededOnConnectThenMaintainedInMemory() {
+        when(notificationRepository.countByUserIdAndIsReadFalse(1L)).thenReturn(5L);
+        hub.connect(1L, null);
+
+        assertThat(hub.unreadCount(1L)).isEqualTo(5);
+        hub.notificationCreated(unreadNotification(10L));
+        hub.notificationCreated(unreadNotification(11L));
+        assertThat(hub.unreadCount(1L)).isEqualTo(7);
+
+        hub.unreadRemoved(1L, 3);
+        assertThat(hub.unreadCount(1L)).isEqualTo(4);
+
+        hub.unreadCleared(1L);
+        assertThat(hub.unreadCount(1L)).isZero();
+        hub.unreadRemoved(1L, 1);
+        assertThat(hub.unreadCount(1L)).isZero();
+
+        verify(notificationRepository, times(1)).countByUserIdAndIsReadFalse(1L);
+    }
+
+    @Test
+    void unreadCounter_notCachedWithoutOpenStream() {
+        when(notificationRepository.countByUserIdAndIsReadFalse(1L)).thenReturn(3L, 4L);
+
+        assertThat(hub.unreadCount(1L)).isEqualTo(3);
+        // إنشاء يُلتزم بعد COUNT لا يضيع: الطلب التالي يقرأ COUNT جديداً
+        hub.notificationCreated(unreadNotification(12L));
+        assertThat(hub.unreadCount(1L)).isEqualTo(4);
+    }
+
+    @Test
+    void resyncCounters_recountsConnectedUsers() {
+        when(notificationRepository.countByUserIdAndIsReadFalse(1L)).thenReturn(2L, 6L);
+        hub.connect(1L, null);
+        hub.unreadRemoved(1L, 1);
+        assertThat(hub.unreadCount(1L)).isEqualTo(1);
+
+        hub.resyncCounters();
+
+        assertThat(hub.unreadCount(1L)).isEqualTo(6);
+    }
+
+    @Test
+    void connect_resyncsCounterAndReplaysAfterLastEventId() {
+        when(notificationRepository.countByUserIdAndIsReadFalse(1L)).thenReturn(2L);
+        when(notificationRepository.findResponsesByUserIdAfterId(1L, 40L, PageRequest.of(0, 100)))
+                .thenReturn(List.of());
+
+        assertThat(hub.connect(1L, 40L)).isNotNull();
+        hub.connect(1L, null);
+
+        assertThat(hub.getConnectionCount()).isEqualTo(2);
+        assertThat(hub.unreadCount(1L)).isEqualTo(2);
+        verify(notificationRepository).findResponsesByUserIdAfterId(1L, 40L, PageRequest.of(0, 100));
+        verify(metrics).bindNotificationPush(any(), any());
+    }
+
+    @Test
+    void stalledClientIsDroppedAfterSendTimeoutAndDoesNotBlockOthers() throws InterruptedException {
+        ReflectionTestUtils.setField(hub, "sendThreads", 1);
+        ReflectionTestUtils.setField(hub, "sendTimeoutMs", 200L);
+        StalledEmitter stalled = new StalledEmitter();
+        RecordingEmitter other = new RecordingEmitter();
+
+        // مع خيط إرسال واحد: الاتصال المتوقف يحجزه حتى تنقضي المهلة
+        hub.connect(1L, null, stalled);
+        assertThat(stalled.started.await(5, TimeUnit.SECONDS)).isTrue();
+        hub.connect(2L, null, other);
+
+        assertThat(other.delivered.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(stalled.interrupted.get()).isTrue();
+        assertThat(hub.getConnectionCount()).isEqualTo(1);
+
+        hub.heartbeat();
+        verify(metrics, timeout(5_000)).recordNotificationPush(NotificationPushHub.HEARTBEAT, true);
+        verify(metrics).recordNotificationPush(NotificationPushHub.UNREAD_EVENT, true);
+        verify(metrics).recordNotificationPush(NotificationPushHub.UNREAD_EVENT, false);
+    }
+
+    /**
+     * عميل لا يقرأ: الإرسال يحجب الخيط حتى يُقاطع
+     */
+    private static final class StalledEmitter extends SseEmitter {
+        final CountDownLatch started = new CountDownLatch(1);
+        final AtomicBoolean interrupted = new AtomicBoolean();
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            started.countDown();
+            try {
+                new CountDownLatch(1).await();
+            } catch (InterruptedException e) {
+                interrupted.set(true);
+                throw new InterruptedIOException("stalled");
+            }
+        }
+    }
+
+    private static final class RecordingEmitter extends SseEmitter {
+        final CountDownLatch delivered = new CountDownLatch(1);
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            delivered.countDown();
+        }
+    }
+}
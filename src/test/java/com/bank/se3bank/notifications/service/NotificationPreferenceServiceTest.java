@@ -0,0 +1,84 @@
+package com.bank.se3bank.notifications.service;
+
+import com.bank.se3bank.notifications.model.NotificationPreference;
+import com.bank.se3bank.notifications.model.NotificationType;
+import com.bank.se3bank.notifications.repository.NotificationPreferenceRepository;
+import com.bank.se3bank.shared.metrics.BankMetrics;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationPreferenceServiceTest {
+
+    @Mock
+    private NotificationPreferenceRepository preferenceRepository;
+
+    @Mock
+    private BankMetrics metrics;
+
+    @InjectMocks
+    private NotificationPreferenceService preferenceService;
+
+    @Test
+    void loadsMaskOnceAndDefaultsWhenNoRow() {
+        when(preferenceRepository.findMaskByUserId(1L)).thenReturn(Optional.empty());
+
+        assertThat(preferenceService.mask(1L)).isEqualTo(NotificationPreference.DEFAULT_MASK);
+        assertThat(preferenceService.mask(1L)).isEqualTo(NotificationPreference.DEFAULT_MASK);
+
+        verify(preferenceRepository, times(1)).findMaskByUserId(1L);
+        assertThat(preferenceService.getCachedCount()).isEqualTo(1);
+    }
+
+    @Test
+    void updateStoresMaskAndRefreshesCache() {
+        when(preferenceRepository.findMaskByUserId(1L)).thenReturn(Optional.empty());
+        when(preferenceRepository.findById(1L)).thenReturn(Optional.empty());
+        preferenceService.mask(1L);
+
+        com.bank.se3bank.shared.dto.NotificationPreference response = preferenceService.updatePreferences(1L,
+                Map.of("smsEnabled", false, "channel_email", false, "marketingEmails", true));
+
+        assertThat(response.getSmsEnabled()).isFalse();
+        assertThat(response.getEmailEnabled()).isFalse();
+        assertThat(response.getInAppEnabled()).isTrue();
+        assertThat(response.getMarketingEmails()).isTrue();
+        int mask = preferenceService.mask(1L);
+        assertThat(NotificationPreference.allows(mask, "SMS", NotificationType.DEPOSIT)).isFalse();
+        assertThat(NotificationPreference.allows(mask, "IN_APP", NotificationType.DEPOSIT)).isTrue();
+        verify(preferenceRepository).save(any(NotificationPreference.class));
+        verify(preferenceRepository, times(1)).findMaskByUserId(1L);
+    }
+
+    @Test
+    void eventCategoryBlocksEveryChannelButSecurityEventsStay() {
+        int mask = NotificationPreference.DEFAULT_MASK & ~NotificationPreference.TRANSFER_ALERT;
+
+        assertThat(NotificationPreference.allows(mask, "IN_APP", NotificationType.MONEY_TRANSFER)).isFalse();
+        assertThat(NotificationPreference.allows(mask, "EMAIL", NotificationType.MONEY_TRANSFER)).isFalse();
+        assertThat(NotificationPreference.allows(mask, "EMAIL", NotificationType.SUSPICIOUS_ACTIVITY)).isTrue();
+    }
+
+    @Test
+    void rejectsUnknownKeyWithoutSaving() {
+        when(preferenceRepository.findById(1L)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> preferenceService.updatePreferences(1L, Map.of("pushEnabled", true)))
+                .isInstanceOf(IllegalArgumentException.class);
+        verify(preferenceRepository, never()).save(any());
+    }
+}
@@ -0,0 +1,153 @@
+package com.bank.se3bank.notifications.service;
+
+import com.bank.se3bank.notifications.model.Notification;
+import com.bank.se3bank.notifications.push.NotificationPushHub;
+import com.bank.se3bank.notifications.repository.NotificationRepository;
+import com.bank.se3bank.shared.metrics.BankMetrics;
+import com.bank.se3bank.users.model.User;
+import com.bank.se3bank.users.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class NotificationRetentionJobIntegrationTest {
+
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private BankMetrics metrics;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    private NotificationPushHub pushHub;
+    private NotificationRetentionJob job;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        // بيانات سابقة في قاعدة الاختبار المشتركة لا تدخل في العدّ
+        jdbcTemplate.update("UPDATE notifications SET created_at = ? WHERE created_at < ?",
+                LocalDateTime.now(), LocalDateTime.now().minusDays(1));
+
+        pushHub = mock(NotificationPushHub.class);
+        job = new NotificationRetentionJob(jdbcTemplate, transactionManager, pushHub, metrics);
+        ReflectionTestUtils.setField(job, "archive", true);
+        ReflectionTestUtils.setField(job, "batchSize", 2);
+        ReflectionTestUtils.setField(job, "maxBatchesPerChannel", 1);
+        ReflectionTestUtils.setField(job, "pauseMs", 0L);
+
+        String username = "retention" + SEQUENCE.incrementAndGet();
+        user = userRepository.save(User.builder()
+                .username(username)
+                .email(username + "@test.com")
+                .password("password")
+                .firstName("Retention")
+                .lastName("Job")
+                .build());
+    }
+
+    @Test
+    void purgesEachChannelPastItsCutoffWithItsOwnBudget() {
+        Long emailOldest = notification("EMAIL", 120, false);
+        Long emailOlder = notification("EMAIL", 110, false);
+        Long emailOld = notification("EMAIL", 100, true);
+        Long emailFresh = notification("EMAIL", 10, false);
+        Long smsOld = notification("SMS", 40, false);
+        Long inAppKept = notification("IN_APP", 100, false);
+        Long pushOld = notification("PUSH", 200, true);
+
+        NotificationRetentionJob.PurgeResult first = job.purge();
+
+        // EMAIL استنفد ميزانيته (دفعة واحدة من صفين) دون أن يمنع بقية القنوات
+        assertThat(first.getPurged()).containsEntry("EMAIL", 2).containsEntry("SMS", 1)
+                .containsEntry("IN_APP", 0).containsEntry(NotificationRetentionJob.OTHER_CHANNELS, 1);
+        assertThat(remaining(emailOldest, emailOlder, emailOld, emailFresh, smsOld, inAppKept, pushOld))
+                .containsExactlyInAnyOrder(emailOld, emailFresh, inAppKept);
+        assertThat(archived(emailOldest, emailOlder, smsOld, pushOld, emailOld))
+                .containsExactlyInAnyOrder(emailOldest, emailOlder, smsOld, pushOld);
+        verify(pushHub).unreadRemoved(user.getId(), 2L);
+        verify(pushHub).unreadRemoved(user.getId(), 1L);
+
+        NotificationRetentionJob.PurgeResult second = job.purge();
+
+        assertThat(second.getPurged()).containsEntry("EMAIL", 1).containsEntry("SMS", 0);
+        assertThat(remaining(emailOld, emailFresh, inAppKept)).containsExactlyInAnyOrder(emailFresh, inAppKept);
+        assertThat(archived(emailOld)).containsExactly(emailOld);
+    }
+
+    @Test
+    void archiveAndDeleteRollBackTogether() {
+        Long unread = notification("SMS", 45, false);
+        doThrow(new IllegalStateException("boom")).when(pushHub).unreadRemoved(eq(user.getId()), anyLong());
+
+        assertThatThrownBy(() -> job.purge()).isInstanceOf(IllegalStateException.class);
+
+        assertThat(remaining(unread)).containsExactly(unread);
+        assertThat(archived(unread)).isEmpty();
+    }
+
+    @Test
+    void readRowsDoNotTouchUnreadCounter() {
+        Long read = notification("IN_APP", 200, true);
+
+        job.purge();
+
+        assertThat(remaining(read)).isEmpty();
+        verify(pushHub, never()).unreadRemoved(eq(user.getId()), anyLong());
+    }
+
+    private Long notification(String channel, int ageDays, boolean read) {
+        Notification saved = notificationRepository.save(Notification.builder()
+                .user(user)
+                .title("t")
+                .message("m")
+                .type("TRANSACTION")
+                .channel(channel)
+                .isRead(read)
+                .build());
+        jdbcTemplate.update("UPDATE notifications SET created_at = ? WHERE id = ?",
+                LocalDateTime.now().minusDays(ageDays), saved.getId());
+        return saved.getId();
+    }
+
+    private List<Long> remaining(Long... ids) {
+        return notificationRepository.findAllById(List.of(ids)).stream().map(Notification::getId).toList();
+    }
+
+    private List<Long> archived(Long... ids) {
+        return List.of(ids).stream()
+                .filter(id -> jdbcTemplate.queryForObject(
+                        "SELECT COUNT(*) FROM notifications_archive WHERE id = ?", Integer.class, id) > 0)
+                .toList();
+    }
+}
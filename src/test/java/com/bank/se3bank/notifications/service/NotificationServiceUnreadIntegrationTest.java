@@ -0,0 +1,114 @@
+package com.bank.se3bank.notifications.service;
+
+import com.bank.se3bank.notifications.model.Notification;
+import com.bank.se3bank.notifications.publisher.NotificationPublisher;
+import com.bank.se3bank.notifications.push.NotificationPushHub;
+import com.bank.se3bank.notifications.repository.NotificationRepository;
+import com.bank.se3bank.users.model.User;
+import com.bank.se3bank.users.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * القراءة والحذف المتكرران لنفس الإشعار يُنقصان عداد غير المقروء مرة واحدة فقط
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class NotificationServiceUnreadIntegrationTest {
+
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private NotificationPushHub pushHub;
+    private NotificationService service;
+    private TransactionTemplate transactionTemplate;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        pushHub = mock(NotificationPushHub.class);
+        service = new NotificationService(mock(NotificationPublisher.class), notificationRepository, pushHub,
+                mock(NotificationPreferenceService.class));
+        transactionTemplate = new TransactionTemplate(transactionManager);
+
+        String username = "unread" + SEQUENCE.incrementAndGet();
+        user = userRepository.save(User.builder()
+                .username(username)
+                .email(username + "@test.com")
+                .password("password")
+                .firstName("Unread")
+                .lastName("Counter")
+                .build());
+    }
+
+    @Test
+    void markAsReadTwiceDecrementsOnce() {
+        Long id = unreadNotification();
+
+        inTransaction(() -> service.markAsRead(id));
+        inTransaction(() -> service.markAsRead(id));
+
+        verify(pushHub, times(1)).unreadRemoved(user.getId(), 1);
+        assertThat(notificationRepository.findById(id)).get()
+                .extracting(Notification::getIsRead).isEqualTo(true);
+    }
+
+    @Test
+    void deletingReadNotificationKeepsCounter() {
+        Long id = unreadNotification();
+
+        inTransaction(() -> service.markAsRead(id));
+        inTransaction(() -> service.deleteNotification(id));
+
+        verify(pushHub, times(1)).unreadRemoved(user.getId(), 1);
+        assertThat(notificationRepository.findById(id)).isEmpty();
+    }
+
+    @Test
+    void deletingUnreadNotificationDecrementsOnce() {
+        Long id = unreadNotification();
+
+        inTransaction(() -> service.deleteNotification(id));
+        inTransaction(() -> service.deleteNotification(id));
+        inTransaction(() -> service.markAsRead(id));
+
+        verify(pushHub, times(1)).unreadRemoved(user.getId(), 1);
+        verify(pushHub, times(1)).unreadRemoved(anyLong(), anyLong());
+        assertThat(notificationRepository.findById(id)).isEmpty();
+    }
+
+    private Long unreadNotification() {
+        return notificationRepository.save(Notification.builder()
+                .user(user)
+                .title("t")
+                .message("m")
+                .type("DEPOSIT")
+                .channel("IN_APP")
+                .build()).getId();
+    }
+
+    private void inTransaction(Runnable action) {
+        transactionTemplate.executeWithoutResult(status -> action.run());
+    }
+}
@@ -0,0 +1,105 @@
+package com.bank.se3bank.notifications.template;
+
+import com.bank.se3bank.accounts.model.SavingsAccount;
+import com.bank.se3bank.notifications.event.NotificationEvent;
+import com.bank.se3bank.notifications.model.NotificationType;
+import com.bank.se3bank.users.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Properties;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class NotificationTemplateEngineTest {
+
+    private NotificationTemplateEngine engine;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        engine = new NotificationTemplateEngine("ar");
+        user = User.builder()
+                .id(1L)
+                .username("sara")
+                .firstName("Sara")
+                .lastName("Ahmad")
+                .phoneNumber("0999999999")
+                .build();
+    }
+
+    @Test
+    void rendersTransferForEveryChannelFromTypedPayload() {
+        NotificationEvent event = NotificationEvent.transfer(user, 250.0, "حسابك", "Khaled", "TXN-1", false);
+
+        NotificationTemplateEngine.Rendered email = engine.render(event, "EMAIL");
+        NotificationTemplateEngine.Rendered sms = engine.render(event, "SMS");
+        NotificationTemplateEngine.Rendered inApp = engine.render(event, "IN_APP");
+
+        assertThat(email.getTitle()).isEqualTo("إشعار تحويل أموال");
+        assertThat(email.getBody())
+                .startsWith("عزيزي/عزيزتي Sara Ahmad،\n\n")
+                .contains("المبلغ: 250.0 USD\nمن حساب: حسابك\nإلى حساب: Khaled\nرقم العملية: TXN-1\n")
+                .endsWith("\nمع تحيات،\nفريق SE3 Bank");
+        assertThat(sms.getTitle()).isEqualTo("إشعار SMS");
+        assertThat(sms.getBody()).isEqualTo("SE3Bank: تم تحويل 250.0USD. تحقق من حسابك.");
+        assertThat(inApp.getBody()).isEqualTo("تم إجراء تحويل أموال.\nالمبلغ: 250.0 USD\nرقم العملية: TXN-1");
+    }
+
+    @Test
+    void rendersTransferDigestWithItsDirection() {
+        NotificationEvent incoming = NotificationEvent.digest(NotificationType.MONEY_TRANSFER_DIGEST, user, null,
+                3, 90.0, null, null, "حسابك");
+
+        assertThat(engine.render(incoming, "SMS").getBody())
+                .isEqualTo("SE3Bank: 3 تحويلات أخرى إلى حسابك بإجمالي 90.0USD. تحقق من حسابك.");
+    }
+
+    @Test
+    void dropsOptionalSectionWhenVariableIsMissing() {
+        SavingsAccount account = SavingsAccount.builder().accountNumber("SAV-1").balance(40.0).build();
+
+        assertThat(engine.render(NotificationEvent.lowBalance(user, account), "IN_APP").getBody())
+                .isEqualTo("انتباه! ⚠️\nرصيد حسابك منخفض.\nالرصيد الحالي: 40.0 USD");
+        assertThat(engine.render(NotificationEvent.lowBalance(user, null), "IN_APP").getBody())
+                .isEqualTo("انتباه! ⚠️\nرصيد حسابك منخفض.\n");
+    }
+
+    @Test
+    void fallsBackToDefaultTemplateAndKeepsCustomCode() {
+        NotificationEvent event = NotificationEvent.custom("PROMO", user, "عرض خاص");
+
+        assertThat(event.getCode()).isEqualTo("PROMO");
+        assertThat(engine.render(event, "IN_APP").getTitle()).isEqualTo("📢 إشعار جديد");
+        assertThat(engine.render(event, "IN_APP").getBody()).isEqualTo("عرض خاص");
+        assertThat(engine.render(NotificationEvent.passwordChanged(user), "SMS").getBody())
+                .isEqualTo("SE3Bank: لديك إشعار جديد. تحقق من تطبيق البنك.");
+    }
+
+    @Test
+    void rendersSharedTemplateOncePerEvent() {
+        Properties source = new Properties();
+        source.setProperty("ar.A.DEFAULT.title", "T");
+        source.setProperty("ar.A.DEFAULT.body", "{firstName}");
+        source.setProperty("ar.B.DEFAULT.title", "T");
+        source.setProperty("ar.B.DEFAULT.body", "{firstName}");
+        NotificationTemplateEngine shared = new NotificationTemplateEngine(source, "ar");
+        NotificationEvent event = NotificationEvent.passwordChanged(user);
+
+        assertThat(shared.getCompiledCount()).isEqualTo(2);
+        assertThat(shared.render(event, "A").getBody()).isSameAs(shared.render(event, "B").getBody());
+    }
+
+    @Test
+    void rejectsBrokenTemplatesAtParseTime() {
+        assertThatThrownBy(() -> CompiledTemplate.parse("{unknown}"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> CompiledTemplate.parse("[a [b]]"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> CompiledTemplate.parse("[{amount}"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> engine.render(NotificationEvent.passwordChanged(user), "PUSH"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
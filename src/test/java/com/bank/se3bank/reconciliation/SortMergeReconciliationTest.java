@@ -0,0 +1,126 @@
+package com.bank.se3bank.reconciliation;
+
+import com.bank.se3bank.reconciliation.engine.ExternalRecordSorter;
+import com.bank.se3bank.reconciliation.engine.RecordFileReader;
+import com.bank.se3bank.reconciliation.engine.SettlementFileFormat;
+import com.bank.se3bank.reconciliation.engine.SettlementFileGenerator;
+import com.bank.se3bank.reconciliation.engine.SortMergeMatcher;
+import com.bank.se3bank.reconciliation.model.MismatchType;
+import com.bank.se3bank.reconciliation.model.ReconciliationRecord;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SortMergeReconciliationTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void externalSort_multiPassMerge_producesSortedOutput() throws Exception {
+        SettlementFileGenerator generator = new SettlementFileGenerator(42);
+        List<ReconciliationRecord> records = generator.randomRecords("stripe", 1_000);
+
+        // chunk صغير و fan-in = 2 لإجبار عدة تمريرات دمج
+        Path sorted = new ExternalRecordSorter(37, 2).sort(records.iterator(), tempDir);
+
+        List<String> references = new ArrayList<>();
+        try (RecordFileReader reader = new RecordFileReader(sorted)) {
+            reader.forEachRemaining(r -> references.add(r.getReference()));
+        }
+        assertThat(references).hasSize(1_000).isSorted();
+    }
+
+    @Test
+    void match_detectsEveryMismatchType() throws Exception {
+        SettlementFileGenerator generator = new SettlementFileGenerator(7);
+        List<ReconciliationRecord> settlement = generator.randomRecords("paypal", 200);
+        List<ReconciliationRecord> ledger = new ArrayList<>();
+        for (ReconciliationRecord r : settlement) {
+            ledger.add(ReconciliationRecord.builder()
+                    .reference(r.getReference()).amount(r.getAmount()).status(r.getStatus()).build());
+        }
+
+        ledger.get(0).setAmount(ledger.get(0).getAmount() + 1);
+        ledger.get(1).setStatus("PENDING".equals(ledger.get(1).getStatus()) ? "SUCCESS" : "PENDING");
+        ledger.remove(2);
+        ledger.add(ReconciliationRecord.builder().reference("paypal_only-in-ledger").amount(10.0).status("SUCCESS").build());
+        settlement.add(settlement.get(3));
+
+        Path file = tempDir.resolve("paypal.txt");
+        generator.write(file, "paypal", LocalDate.of(2025, 1, 31), settlement);
+        assertThat(SettlementFileFormat.readHeader(file).getProvider()).isEqualTo("paypal");
+
+        ExternalRecordSorter sorter = new ExternalRecordSorter(50, 4);
+        Path sortedSettlement;
+        try (RecordFileReader reader = new RecordFileReader(file)) {
+            sortedSettlement = sorter.sort(reader, tempDir);
+        }
+        Path sortedLedger = sorter.sort(ledger.iterator(), tempDir);
+
+        List<MismatchType> reported = new ArrayList<>();
+        SortMergeMatcher.MatchSummary summary;
+        try (RecordFileReader s = new RecordFileReader(sortedSettlement);
+             RecordFileReader l = new RecordFileReader(sortedLedger)) {
+            summary = new SortMergeMatcher().match(s, l, (type, a, b) -> reported.add(type));
+        }
+
+        assertThat(summary.getSettlementRows()).isEqualTo(201);
+        assertThat(summary.getLedgerRows()).isEqualTo(200);
+        assertThat(summary.getMatchedRows()).isEqualTo(197);
+        assertThat(summary.getMismatchCount(MismatchType.AMOUNT_MISMATCH)).isEqualTo(1);
+        assertThat(summary.getMismatchCount(MismatchType.STATUS_MISMATCH)).isEqualTo(1);
+        assertThat(summary.getMismatchCount(MismatchType.MISSING_IN_LEDGER)).isEqualTo(1);
+        assertThat(summary.getMismatchCount(MismatchType.MISSING_IN_SETTLEMENT)).isEqualTo(1);
+        assertThat(summary.getMismatchCount(MismatchType.DUPLICATE_IN_SETTLEMENT)).isEqualTo(1);
+        assertThat(reported).hasSize(5);
+    }
+
+    @Test
+    void match_rejectsUnsortedInput() {
+        List<ReconciliationRecord> unsorted = List.of(
+                ReconciliationRecord.builder().reference("b").amount(1.0).build(),
+                ReconciliationRecord.builder().reference("a").amount(1.0).build());
+
+        assertThatThrownBy(() -> new SortMergeMatcher()
+                .match(unsorted.iterator(), List.<ReconciliationRecord>of().iterator(), (t, s, l) -> { }))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void externalSort_failureDeletesTemporaryRuns() throws Exception {
+        List<ReconciliationRecord> records = new SettlementFileGenerator(3).randomRecords("stripe", 100);
+        Iterator<ReconciliationRecord> failing = new Iterator<>() {
+            private int served;
+
+            @Override
+            public boolean hasNext() {
+                return true;
+            }
+
+            @Override
+            public ReconciliationRecord next() {
+                if (served == records.size()) {
+                    throw new IllegalStateException("انقطع الاتصال");
+                }
+                return records.get(served++);
+            }
+        };
+
+        assertThatThrownBy(() -> new ExternalRecordSorter(10, 2).sort(failing, tempDir))
+                .isInstanceOf(IllegalStateException.class);
+        try (Stream<Path> left = Files.list(tempDir)) {
+            assertThat(left).isEmpty();
+        }
+    }
+}
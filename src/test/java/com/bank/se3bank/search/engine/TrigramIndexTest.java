@@ -0,0 +1,60 @@
+package com.bank.se3bank.search.engine;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TrigramIndexTest {
+
+    private TrigramIndex<String> index;
+
+    @BeforeEach
+    void setUp() {
+        index = new TrigramIndex<>();
+        index.add("john", "john_doe", "John Doe");
+        index.add("johnny", "jsmith", "Johnny Smith");
+        index.add("sara", "sara_lt", "Sara Johnson");
+        index.add("ali", "ali", "علي أحمد");
+    }
+
+    private List<String> search(String query, int maxHits) {
+        return index.search(query, maxHits).getMatches().stream()
+                .map(TrigramIndex.Match::getDocument)
+                .toList();
+    }
+
+    @Test
+    void matchesSubstringsCaseInsensitivelyAcrossFields() {
+        assertThat(search("OHN", 10)).containsExactlyInAnyOrder("john", "johnny", "sara");
+        assertThat(search("smith", 10)).containsExactly("johnny");
+    }
+
+    @Test
+    void ranksPrefixAndTighterMatchesFirst() {
+        assertThat(search("john", 10)).containsExactly("john", "johnny", "sara");
+    }
+
+    @Test
+    void requiresEveryQueryTrigramToMatch() {
+        assertThat(search("nny smi", 10)).containsExactly("johnny");
+        assertThat(search("doe smith", 10)).isEmpty();
+    }
+
+    @Test
+    void shortQueriesFallBackToScanning() {
+        assertThat(search("عل", 10)).containsExactly("ali");
+        assertThat(search("jo", 10)).hasSize(3);
+    }
+
+    @Test
+    void capsMatchesAtMaxHitsAndReportsTruncation() {
+        TrigramIndex.Hits<String> hits = index.search("john", 2);
+
+        assertThat(hits.getMatches()).hasSize(2);
+        assertThat(hits.isTruncated()).isTrue();
+        assertThat(index.search("john", 3).isTruncated()).isFalse();
+    }
+}
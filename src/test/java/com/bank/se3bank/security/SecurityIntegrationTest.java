@@ -4,11 +4,13 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
 
 import java.util.Map;
 
@@ -19,6 +21,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 
 @SpringBootTest
 @AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
 @ActiveProfiles("test")
 class SecurityIntegrationTest {
 
@@ -81,5 +84,28 @@ class SecurityIntegrationTest {
                 .andReturn().getResponse().getContentAsString();
         assertThat(response).contains("exists");
     }
+
+    @Test
+    void prometheus_openToScrapeNetworkOnly() throws Exception {
+        mockMvc.perform(get("/actuator/prometheus").with(remoteAddr("127.0.0.1")))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/actuator/prometheus").with(remoteAddr("203.0.113.7")))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void prometheus_allowsAdminFromOutsideScrapeNetwork() throws Exception {
+        mockMvc.perform(get("/actuator/prometheus")
+                        .with(remoteAddr("203.0.113.7"))
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk());
+    }
+
+    private static RequestPostProcessor remoteAddr(String address) {
+        return request -> {
+            request.setRemoteAddr(address);
+            return request;
+        };
+    }
 }
 
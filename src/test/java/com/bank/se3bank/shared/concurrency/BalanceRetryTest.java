@@ -0,0 +1,71 @@
+package com.bank.se3bank.shared.concurrency;
+
+import com.bank.se3bank.shared.metrics.BankMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BalanceRetryTest {
+
+    private SimpleMeterRegistry registry;
+    private BalanceRetry retry;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        retry = new BalanceRetry(3, 0, new BankMetrics(registry));
+    }
+
+    @Test
+    void retriesConflictsAndCountsEachRetry() {
+        AtomicInteger calls = new AtomicInteger();
+
+        String result = retry.execute("transfer", () -> {
+            if (calls.incrementAndGet() < 3) {
+                throw new CannotAcquireLockException("lock timeout");
+            }
+            return "ok";
+        });
+
+        assertThat(result).isEqualTo("ok");
+        assertThat(calls).hasValue(3);
+        assertThat(retries("transfer")).isEqualTo(2.0);
+    }
+
+    @Test
+    void givesUpAfterMaxAttempts() {
+        AtomicInteger calls = new AtomicInteger();
+
+        assertThatThrownBy(() -> retry.execute("withdraw", () -> {
+            calls.incrementAndGet();
+            throw new CannotAcquireLockException("deadlock");
+        })).isInstanceOf(CannotAcquireLockException.class);
+
+        assertThat(calls).hasValue(3);
+        assertThat(retries("withdraw")).isEqualTo(2.0);
+    }
+
+    @Test
+    void doesNotRetryOtherFailures() {
+        AtomicInteger calls = new AtomicInteger();
+
+        assertThatThrownBy(() -> retry.execute("deposit", () -> {
+            calls.incrementAndGet();
+            throw new DataIntegrityViolationException("duplicate");
+        })).isInstanceOf(DataIntegrityViolationException.class);
+
+        assertThat(calls).hasValue(1);
+        assertThat(registry.find(BankMetrics.BALANCE_RETRIES).counter()).isNull();
+    }
+
+    private double retries(String operation) {
+        return registry.get(BankMetrics.BALANCE_RETRIES).tag("operation", operation).counter().count();
+    }
+}
@@ -0,0 +1,54 @@
+package com.bank.se3bank.shared.concurrency;
+
+import com.bank.se3bank.shared.exceptions.DatabaseBusyException;
+import com.bank.se3bank.shared.metrics.BankMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DatabaseConcurrencyLimiterTest {
+
+    private DatabaseConcurrencyLimiter limiter(boolean enabled, int permits) {
+        return new DatabaseConcurrencyLimiter(enabled, permits, 50, new BankMetrics(new SimpleMeterRegistry()));
+    }
+
+    @Test
+    void nestedCallsOnSameThreadHoldOnePermit() {
+        DatabaseConcurrencyLimiter limiter = limiter(true, 2);
+
+        int available = limiter.call(() -> limiter.call(limiter::getAvailablePermits));
+
+        assertThat(available).isEqualTo(1);
+        assertThat(limiter.getAvailablePermits()).isEqualTo(2);
+    }
+
+    @Test
+    void rejectsWhenPermitsAreExhausted() throws Exception {
+        DatabaseConcurrencyLimiter limiter = limiter(true, 1);
+        limiter.acquire();
+        try {
+            CompletableFuture<Void> other = CompletableFuture.runAsync(() -> limiter.run(() -> { }));
+
+            assertThatThrownBy(() -> other.get(5, TimeUnit.SECONDS))
+                    .hasCauseInstanceOf(DatabaseBusyException.class);
+        } finally {
+            limiter.release();
+        }
+        assertThat(limiter.getAvailablePermits()).isEqualTo(1);
+    }
+
+    @Test
+    void disabledLimiterNeverBlocks() {
+        DatabaseConcurrencyLimiter limiter = limiter(false, 1);
+        limiter.acquire();
+
+        CompletableFuture<Void> other = CompletableFuture.runAsync(() -> limiter.run(() -> { }));
+
+        assertThat(other).succeedsWithin(5, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,133 @@
+package com.bank.se3bank.transactions.service;
+
+import com.bank.se3bank.shared.dto.ApprovalInboxPage;
+import com.bank.se3bank.shared.dto.BulkApprovalResult;
+import com.bank.se3bank.shared.enums.ApprovalInboxSort;
+import com.bank.se3bank.shared.enums.Role;
+import com.bank.se3bank.shared.enums.TransactionStatus;
+import com.bank.se3bank.shared.enums.TransactionType;
+import com.bank.se3bank.shared.metrics.BankMetrics;
+import com.bank.se3bank.transactions.model.Transaction;
+import com.bank.se3bank.transactions.repository.TransactionRepository;
+import com.bank.se3bank.users.model.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ApprovalInboxServiceTest {
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @Mock
+    private TransactionService transactionService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private BankMetrics metrics;
+
+    private ApprovalInboxService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new ApprovalInboxService(transactionRepository, transactionService, transactionManager, metrics);
+    }
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private void authenticate(Role role) {
+        User user = User.builder().id(9L).username("manager").roles(Set.of(role)).build();
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+    }
+
+    @Test
+    void approve_reportsOutcomePerIdInRequestOrder() {
+        authenticate(Role.ROLE_MANAGER);
+        when(transactionRepository.lockStatuses(anyCollection())).thenReturn(List.<Object[]>of(
+                new Object[]{1L, TransactionStatus.PENDING_APPROVAL.name()},
+                new Object[]{2L, TransactionStatus.COMPLETED.name()}));
+        when(transactionRepository.applyApprovalDecision(eq(List.of(1L)), eq(TransactionStatus.PENDING_APPROVAL),
+                eq(TransactionStatus.COMPLETED), eq(9L), any(), any(), any())).thenReturn(1);
+        when(transactionRepository.findAllWithAccountUsersByIdIn(anyCollection())).thenReturn(List.of());
+
+        BulkApprovalResult result = service.approve(List.of(3L, 1L, 2L, 1L), "ok");
+
+        assertThat(result.getManagerId()).isEqualTo(9L);
+        assertThat(result.getRequested()).isEqualTo(3);
+        assertThat(result.getApplied()).isEqualTo(1);
+        assertThat(result.getSkipped()).isEqualTo(2);
+        assertThat(result.getItems()).extracting(BulkApprovalResult.Item::getTransactionId)
+                .containsExactly(3L, 1L, 2L);
+        assertThat(result.getItems()).extracting(BulkApprovalResult.Item::getOutcome)
+                .containsExactly(ApprovalInboxService.NOT_FOUND, ApprovalInboxService.APPROVED,
+                        ApprovalInboxService.NOT_PENDING);
+        verify(metrics).recordApprovalDecision(eq(ApprovalInboxService.APPROVED), eq(1), eq(2), anyLong());
+    }
+
+    @Test
+    void reject_withoutManagerRoleIsRefused() {
+        authenticate(Role.ROLE_TELLER);
+
+        assertThatThrownBy(() -> service.reject(List.of(1L), "no", null))
+                .isInstanceOf(SecurityException.class);
+        verify(transactionRepository, never()).lockStatuses(anyCollection());
+    }
+
+    @Test
+    void getInbox_nextCursorResumesAfterLastRow() {
+        Transaction first = Transaction.builder().id(4L).amount(900.0)
+                .transactionType(TransactionType.TRANSFER).status(TransactionStatus.PENDING_APPROVAL).build();
+        Transaction last = Transaction.builder().id(7L).amount(500.0)
+                .transactionType(TransactionType.TRANSFER).status(TransactionStatus.PENDING_APPROVAL).build();
+        when(transactionRepository.findApprovalInboxByAmount(eq(TransactionStatus.PENDING_APPROVAL),
+                eq(Double.MAX_VALUE), eq(0L), any(Pageable.class))).thenReturn(List.of(first, last));
+
+        ApprovalInboxPage page = service.getInbox(ApprovalInboxSort.AMOUNT, null, 2);
+
+        assertThat(page.getNextCursor()).isEqualTo("500.0:7");
+        assertThat(page.getItems()).hasSize(2);
+
+        when(transactionRepository.findApprovalInboxByAmount(eq(TransactionStatus.PENDING_APPROVAL),
+                eq(500.0), eq(7L), any(Pageable.class))).thenReturn(List.of());
+
+        ApprovalInboxPage next = service.getInbox(ApprovalInboxSort.AMOUNT, page.getNextCursor(), 2);
+
+        assertThat(next.getItems()).isEmpty();
+        assertThat(next.getNextCursor()).isNull();
+        assertThat(next.getPendingTotal()).isNull();
+    }
+
+    @Test
+    void getInbox_rejectsMalformedCursor() {
+        assertThatThrownBy(() -> service.getInbox(ApprovalInboxSort.AGE, "yesterday:x", 10))
+                .isInstanceOf(IllegalArgumentException.class);
+        verify(transactionRepository, never()).findApprovalInboxByAge(any(), any(), anyLong(), any());
+    }
+}
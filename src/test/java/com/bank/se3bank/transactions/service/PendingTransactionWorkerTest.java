@@ -0,0 +1,57 @@
+package com.bank.se3bank.transactions.service;
+
+import com.bank.se3bank.transactions.service.PendingTransactionWorker.ClaimedTransaction;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PendingTransactionWorkerTest {
+
+    @Test
+    void keepsEachAccountInOnePartitionInClaimOrder() {
+        List<ClaimedTransaction> claimed = new ArrayList<>();
+        for (long id = 1; id <= 300; id++) {
+            claimed.add(new ClaimedTransaction(id, id % 7));
+        }
+
+        List<List<ClaimedTransaction>> partitions = PendingTransactionWorker.partition(claimed, 4);
+
+        assertThat(partitions).hasSize(4);
+        assertThat(partitions.stream().mapToInt(List::size).sum()).isEqualTo(300);
+        for (List<ClaimedTransaction> partition : partitions) {
+            assertThat(partition).extracting(ClaimedTransaction::getId).isSorted();
+        }
+        for (long account = 0; account < 7; account++) {
+            long key = account;
+            long owners = partitions.stream()
+                    .filter(partition -> partition.stream().anyMatch(t -> t.getAccountId() == key))
+                    .count();
+            assertThat(owners).isEqualTo(1);
+        }
+    }
+
+    @Test
+    void spreadsAccountsAcrossPartitions() {
+        List<ClaimedTransaction> claimed = new ArrayList<>();
+        for (long account = 1; account <= 1000; account++) {
+            claimed.add(new ClaimedTransaction(account, account));
+        }
+
+        List<List<ClaimedTransaction>> partitions = PendingTransactionWorker.partition(claimed, 8);
+
+        assertThat(partitions).allSatisfy(partition -> assertThat(partition.size()).isBetween(60, 190));
+    }
+
+    @Test
+    void rowsWithoutAccountGoToOnePartition() {
+        List<ClaimedTransaction> claimed = List.of(
+                new ClaimedTransaction(1L, null), new ClaimedTransaction(2L, null));
+
+        List<List<ClaimedTransaction>> partitions = PendingTransactionWorker.partition(claimed, 3);
+
+        assertThat(partitions).filteredOn(partition -> !partition.isEmpty()).hasSize(1);
+    }
+}
@@ -2,6 +2,7 @@ package com.bank.se3bank.transactions.service;
 
 import com.bank.se3bank.accounts.model.Account;
 import com.bank.se3bank.notifications.service.NotificationService;
+import com.bank.se3bank.shared.metrics.BankMetrics;
 import com.bank.se3bank.shared.enums.TransactionStatus;
 import com.bank.se3bank.shared.enums.TransactionType;
 import com.bank.se3bank.transactions.handlers.ApprovalChainFactory;
@@ -38,6 +39,8 @@ class TransactionServiceTest {
     private UserService userService;
     @Mock
     private TransactionHandler transactionHandler;
+    @Mock
+    private BankMetrics metrics;
 
     @InjectMocks
     private TransactionService transactionService;
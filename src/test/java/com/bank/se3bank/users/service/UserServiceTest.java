@@ -1,5 +1,6 @@
 package com.bank.se3bank.users.service;
 
+import com.bank.se3bank.search.service.SearchService;
 import com.bank.se3bank.shared.enums.Role;
 import com.bank.se3bank.users.model.User;
 import com.bank.se3bank.users.repository.UserRepository;
@@ -27,6 +28,10 @@ class UserServiceTest {
     private UserRepository userRepository;
     @Mock
     private PasswordEncoder passwordEncoder;
+    @Mock
+    private UserCacheEvictor cacheEvictor;
+    @Mock
+    private SearchService searchService;
 
     @InjectMocks
     private UserService userService;
@@ -61,5 +66,15 @@ class UserServiceTest {
         given(userRepository.findByUsername("missing")).willReturn(Optional.empty());
         assertThrows(RuntimeException.class, () -> userService.getUserByUsername("missing"));
     }
-}
 
+    @Test
+    void setUserActiveStatus_evictsCachedUser() {
+        given(userRepository.findById(1L)).willReturn(Optional.of(user));
+        given(userRepository.save(any(User.class))).willAnswer(inv -> inv.getArgument(0));
+
+        User updated = userService.setUserActiveStatus(1L, false);
+
+        assertThat(updated.getIsActive()).isFalse();
+        verify(cacheEvictor).evictAfterCommit(1L);
+    }
+}